@@ -12,10 +12,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static org.sosy_lab.cpachecker.util.CFAUtils.successorsOf;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.html.HtmlEscapers;
 import com.google.common.io.MoreFiles;
@@ -34,6 +36,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.JSON;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -95,6 +98,17 @@ public final class DOTBuilder2 {
     JSON.writeJSONString(jsoner.getEdges(), out);
   }
 
+  /**
+   * output the nodes and edges of a single function in the same format as {@link
+   * #writeCfaInfo(Writer)}, edges belong to the function of their predecessor
+   */
+  public void writeCfaInfo(Writer out, String functionName) throws IOException {
+    out.write("\"nodes\":");
+    JSON.writeJSONString(jsoner.getNodesPerFunction().get(functionName), out);
+    out.write(",\n\"edges\":");
+    JSON.writeJSONString(jsoner.getEdgesPerFunction().get(functionName), out);
+  }
+
   public void writeFunctionCallEdges(Writer out) throws IOException {
     JSON.writeJSONString(dotter.virtFuncCallEdges, out);
   }
@@ -344,8 +358,12 @@ public final class DOTBuilder2 {
    * output information about CFA nodes and edges as JSON
    */
   private static class CFAJSONBuilder extends DefaultCFAVisitor {
-    private final Map<Integer, Object> nodes = new HashMap<>();
-    private final Map<String, Object> edges = new HashMap<>();
+    private final Map<Integer, Map<String, Object>> nodes = new HashMap<>();
+    private final Map<String, Map<String, Object>> edges = new HashMap<>();
+
+    // computed lazily, only needed for reports that are split into one file per function
+    private @Nullable ImmutableListMultimap<String, Map<String, Object>> nodesPerFunction = null;
+    private @Nullable ImmutableListMultimap<String, Map<String, Object>> edgesPerFunction = null;
 
     @Override
     public TraversalProcess visitNode(CFANode node) {
@@ -387,13 +405,29 @@ public final class DOTBuilder2 {
       return "";
     }
 
-    Collection<Object> getNodes() {
+    Collection<Map<String, Object>> getNodes() {
       return nodes.values();
     }
 
-    Collection<Object> getEdges() {
+    Collection<Map<String, Object>> getEdges() {
       return edges.values();
     }
 
+    ImmutableListMultimap<String, Map<String, Object>> getNodesPerFunction() {
+      if (nodesPerFunction == null) {
+        nodesPerFunction = Multimaps.index(nodes.values(), node -> (String) node.get("func"));
+      }
+      return nodesPerFunction;
+    }
+
+    ImmutableListMultimap<String, Map<String, Object>> getEdgesPerFunction() {
+      if (edgesPerFunction == null) {
+        edgesPerFunction =
+            Multimaps.index(
+                edges.values(), edge -> (String) nodes.get(edge.get("source")).get("func"));
+      }
+      return edgesPerFunction;
+    }
+
   }
 }
@@ -79,6 +79,7 @@ import org.sosy_lab.cpachecker.util.PropertyFileParser.InvalidPropertyFileExcept
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 @SuppressForbidden("System.out in this class is ok")
 public class CPAMain {
@@ -735,6 +736,17 @@ public class CPAMain {
       // print statistics
       PrintStream statisticsStream = makePrintStream(mergeStreams(stream, statistics));
       mResult.printStatistics(statisticsStream);
+
+      // export report, which contains the statistics, and add its own statistics
+      if (mResult.getResult() != Result.NOT_YET_STARTED) {
+        reportGenerator.generate(
+            mResult.getResult(),
+            mResult.getCfa(),
+            mResult.getReached(),
+            statistics.toString(Charset.defaultCharset()));
+        StatisticsUtils.printStatistics(
+            reportGenerator, stream, logManager, mResult.getResult(), mResult.getReached());
+      }
       stream.println();
 
       // print result
@@ -757,15 +769,6 @@ public class CPAMain {
     } finally {
       closer.close();
     }
-
-    // export report
-    if (mResult.getResult() != Result.NOT_YET_STARTED) {
-      reportGenerator.generate(
-          mResult.getResult(),
-          mResult.getCfa(),
-          mResult.getReached(),
-          statistics.toString(Charset.defaultCharset()));
-    }
   }
 
   @SuppressFBWarnings(
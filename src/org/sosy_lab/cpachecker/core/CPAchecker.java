@@ -89,6 +89,8 @@ public class CPAchecker {
   public static interface CPAcheckerMXBean {
     public int getReachedSetSize();
 
+    public int getWaitlistSize();
+
     public void stop();
   }
 
@@ -108,6 +110,11 @@ public class CPAchecker {
       return reached.size();
     }
 
+    @Override
+    public int getWaitlistSize() {
+      return reached.getWaitlist().size();
+    }
+
     @Override
     public void stop() {
       shutdownManager.requestShutdown("A stop request was received via the JMX interface.");
@@ -226,6 +233,7 @@ public class CPAchecker {
   private final ShutdownManager shutdownManager;
   private final ShutdownNotifier shutdownNotifier;
   private final CoreComponentsFactory factory;
+  private final StatisticsSnapshots statisticsSnapshots;
 
   // The content of this String is read from a file that is created by the
   // ant task "init".
@@ -307,6 +315,7 @@ public class CPAchecker {
     shutdownNotifier = pShutdownManager.getNotifier();
 
     config.inject(this);
+    statisticsSnapshots = new StatisticsSnapshots(pConfiguration, pLogManager);
     factory =
         new CoreComponentsFactory(
             pConfiguration, pLogManager, shutdownNotifier, new AggregatedReachedSets());
@@ -524,6 +533,7 @@ public class CPAchecker {
     // register management interface for CPAchecker
     CPAcheckerBean mxbean = new CPAcheckerBean(reached, logger, shutdownManager);
     mxbean.register();
+    statisticsSnapshots.start(reached);
 
     stats.startAnalysisTimer();
     try {
@@ -553,6 +563,7 @@ public class CPAchecker {
 
       // unregister management interface for CPAchecker
       mxbean.unregister();
+      statisticsSnapshots.stop(); // write last snapshot and stop
     }
   }
 
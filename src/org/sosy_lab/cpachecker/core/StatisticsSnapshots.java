@@ -0,0 +1,206 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ConcurrentModificationException;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import javax.management.JMException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Concurrency;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+
+/**
+ * Periodically writes a snapshot of the progress of a running analysis to a CSV file, such that
+ * long runs can be monitored and stuck runs can be detected before they terminate. Each line
+ * contains the elapsed wall time and cpu time, the size of the reached set and the waitlist, the
+ * heap usage, and the garbage-collection counters.
+ *
+ * <p>The snapshots are taken by a separate thread without synchronizing with the analysis, so
+ * only values that can be read safely while the analysis is running are included. The full
+ * statistics are still printed only at the end of the analysis.
+ *
+ * <p>The thread is stopped by {@link #stop()} without interrupting it, because an interrupt would
+ * close the channel of the output file while the thread writes to it.
+ */
+@Options(prefix = "statistics.snapshots")
+final class StatisticsSnapshots {
+
+  private static final String HEADER =
+      "walltime,cputime,reached,waitlist,heapUsedMB,heapCommittedMB,gcCount,gcTime";
+
+  private static final TimeSpan STOP_TIMEOUT = TimeSpan.ofSeconds(10);
+
+  @Option(
+      secure = true,
+      description =
+          "interval for writing snapshots of the analysis progress (reached-set size, waitlist"
+              + " size, cpu time, memory usage) to a file while the analysis is running"
+              + " (use 0 to disable snapshots)")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan interval = TimeSpan.ofMillis(0);
+
+  @Option(secure = true, description = "file for the snapshots of the analysis progress")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path file = Paths.get("StatisticsSnapshots.csv");
+
+  private final LogManager logger;
+
+  private @Nullable Thread thread = null;
+  private @Nullable CountDownLatch stopRequest = null;
+
+  StatisticsSnapshots(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+  }
+
+  /**
+   * Start writing snapshots for the given reached set in a new daemon thread, if snapshots are
+   * enabled. Call {@link #stop()} afterwards to write a last snapshot and stop the thread.
+   */
+  void start(UnmodifiableReachedSet pReached) {
+    checkState(thread == null, "Statistics snapshots are already running");
+    if (interval.isEmpty() || file == null) {
+      return;
+    }
+    CountDownLatch stop = new CountDownLatch(1);
+    stopRequest = stop;
+    thread =
+        Concurrency.newDaemonThread(
+            "CPAchecker statistics snapshots", () -> writeSnapshots(pReached, stop));
+    thread.start();
+  }
+
+  /**
+   * Write a last snapshot and wait until the file is closed. If the thread does not finish within
+   * a few seconds, it is abandoned, as it is a daemon thread.
+   */
+  void stop() {
+    if (thread == null) {
+      return;
+    }
+    stopRequest.countDown();
+    try {
+      thread.join(STOP_TIMEOUT.asMillis());
+      if (thread.isAlive()) {
+        logger.log(Level.WARNING, "Writing of statistics snapshots did not finish in time.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      thread = null;
+      stopRequest = null;
+    }
+  }
+
+  private void writeSnapshots(UnmodifiableReachedSet pReached, CountDownLatch pStopRequest) {
+    long startTime = System.nanoTime();
+    long startCpuTime = readCpuTime();
+    try (Writer out = IO.openOutputFile(file, Charset.defaultCharset())) {
+      out.write(HEADER);
+      out.write('\n');
+      boolean stopped = false;
+      while (!stopped) {
+        // after a stop request, the last snapshot is written immediately
+        stopped = pStopRequest.await(interval.asMillis(), TimeUnit.MILLISECONDS);
+        out.write(takeSnapshot(pReached, startTime, startCpuTime));
+        out.write('\n');
+        out.flush();
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write statistics snapshots");
+    } catch (InterruptedException e) {
+      // not interrupted by CPAchecker itself, stop without writing to the closed channel
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private String takeSnapshot(
+      UnmodifiableReachedSet pReached, long pStartTime, long pStartCpuTime) {
+    StringBuilder line = new StringBuilder();
+    line.append(formatSeconds(System.nanoTime() - pStartTime)).append(',');
+    long cpuTime = readCpuTime();
+    if (cpuTime >= 0 && pStartCpuTime >= 0) {
+      line.append(formatSeconds(cpuTime - pStartCpuTime));
+    }
+    line.append(',');
+
+    // the reached set may be modified concurrently, missing values are left empty
+    try {
+      line.append(pReached.size());
+    } catch (ConcurrentModificationException e) {
+      logger.logDebugException(e, "Reading size of reached set failed");
+    }
+    line.append(',');
+    try {
+      line.append(pReached.getWaitlist().size());
+    } catch (ConcurrentModificationException e) {
+      logger.logDebugException(e, "Reading size of waitlist failed");
+    }
+    line.append(',');
+
+    try {
+      MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+      line.append(toMiB(heap.getUsed())).append(',').append(toMiB(heap.getCommitted()));
+    } catch (IllegalArgumentException e) {
+      // cf. MemoryStatistics, this is a JVM bug that happens sometimes
+      line.append(',');
+    }
+    line.append(',');
+
+    long gcCount = 0;
+    long gcTime = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      gcCount += Math.max(gc.getCollectionCount(), 0);
+      gcTime += Math.max(gc.getCollectionTime(), 0);
+    }
+    line.append(gcCount).append(',').append(formatSeconds(TimeUnit.MILLISECONDS.toNanos(gcTime)));
+    return line.toString();
+  }
+
+  private long readCpuTime() {
+    try {
+      return ProcessCpuTime.read();
+    } catch (JMException e) {
+      logger.logDebugException(e, "Querying cpu time failed");
+      return -1;
+    }
+  }
+
+  private static String formatSeconds(long pNanos) {
+    return String.format(Locale.ROOT, "%.3f", pNanos / 1e9);
+  }
+
+  private static long toMiB(long pBytes) {
+    return pBytes >> 20;
+  }
+}
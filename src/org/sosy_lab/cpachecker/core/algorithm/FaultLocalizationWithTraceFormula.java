@@ -26,6 +26,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Optionals;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -107,6 +108,15 @@ public class FaultLocalizationWithTraceFormula
       description="ban faults with certain variables")
   private String ban = "";
 
+  @Option(
+      secure = true,
+      name = "maxsat.threads",
+      description =
+          "number of sets of selectors that are checked in parallel by the max-sat algorithms, "
+              + "each thread uses its own solver instance")
+  @IntegerOption(min = 1)
+  private int maxSatThreads = 1;
+
   public FaultLocalizationWithTraceFormula(
       final Algorithm pStoreAlgorithm,
       final Configuration pConfig,
@@ -144,10 +154,10 @@ public class FaultLocalizationWithTraceFormula
 
     switch (algorithmType){
       case MAXORG:
-        faultAlgorithm = new OriginalMaxSatAlgorithm();
+        faultAlgorithm = new OriginalMaxSatAlgorithm(maxSatThreads);
         break;
       case MAXSAT:
-        faultAlgorithm = new ModifiedMaxSatAlgorithm();
+        faultAlgorithm = new ModifiedMaxSatAlgorithm(maxSatThreads);
         break;
       case ERRINV:
         faultAlgorithm = new ErrorInvariantsAlgorithm(pShutdownNotifier, pConfig, logger);
@@ -169,6 +179,12 @@ public class FaultLocalizationWithTraceFormula
       throw new InvalidConfigurationException(
           "The option ban will be ignored since the error invariants algorithm is not selected");
     }
+    if (!algorithmType.equals(AlgorithmTypes.MAXSAT)
+        && !algorithmType.equals(AlgorithmTypes.MAXORG)
+        && maxSatThreads > 1) {
+      throw new InvalidConfigurationException(
+          "The option maxsat.threads requires the MAXSAT or MAXORG algorithm");
+    }
     if (!algorithmType.equals(AlgorithmTypes.MAXSAT) && options.isReduceSelectors()) {
       throw new InvalidConfigurationException(
           "The option reduceselectors requires the MAXSAT algorithm");
@@ -26,6 +26,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -48,6 +49,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.ReachedSetUpdateListener;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.ReachedSetUpdater;
+import org.sosy_lab.cpachecker.core.algorithm.composition.PortfolioHistory;
 import org.sosy_lab.cpachecker.core.algorithm.pcc.PartialARGsCombiner;
 import org.sosy_lab.cpachecker.core.defaults.MultiStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
@@ -74,6 +76,8 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
     private final int noOfAlgorithms;
     private int noOfAlgorithmsUsed = 0;
     private Timer totalTime = new Timer();
+    private final List<String> timePerConfiguration = new ArrayList<>();
+    private final List<String> configurationScores = new ArrayList<>();
 
     public RestartAlgorithmStatistics(int pNoOfAlgorithms, LogManager pLogger) {
       super(pLogger);
@@ -108,6 +112,18 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
 
       out.println("Number of algorithms provided:    " + noOfAlgorithms);
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
+      if (!configurationScores.isEmpty()) {
+        out.println("Configurations ordered by history score:");
+        for (String score : configurationScores) {
+          out.println("  " + score);
+        }
+      }
+      if (!timePerConfiguration.isEmpty()) {
+        out.println("Time per configuration:");
+        for (String time : timePerConfiguration) {
+          out.println("  " + time);
+        }
+      }
 
       printSubStatistics(out, result, reached);
     }
@@ -173,6 +189,17 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
   )
   private boolean alwaysRestart = false;
 
+  @Option(
+      description =
+          "File with the history of previous runs of the configurations, which is updated "
+              + "after each analysis (see compositionAlgorithm.adaptive.historyFile). If none of "
+              + "the configurations has a restart condition, they are tried in the order of their "
+              + "success on programs with similar features.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path historyFile = null;
+
+  private final @Nullable PortfolioHistory history;
+
   private final ShutdownRequestListener logShutdownListener;
   private final RestartAlgorithmStatistics stats;
   private Algorithm currentAlgorithm;
@@ -199,6 +226,20 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
 
     this.stats = new RestartAlgorithmStatistics(configFiles.size(), pLogger);
 
+    if (historyFile != null) {
+      history = new PortfolioHistory(historyFile, pCfa, pLogger);
+      if (configFiles.stream().noneMatch(configFile -> configFile.annotation().isPresent())) {
+        configFiles = orderByHistory(configFiles, history);
+        for (AnnotatedValue<Path> configFile : configFiles) {
+          stats.configurationScores.add(
+              String.format(
+                  "%s: %.2f", configFile.value(), history.getScore(configFile.value().toString())));
+        }
+      }
+    } else {
+      history = null;
+    }
+
     logShutdownListener =
         reason ->
             logger.logf(
@@ -208,6 +249,18 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
                 reason);
   }
 
+  /** Sort the configurations stable by their score in the history, the best one first. */
+  private static List<AnnotatedValue<Path>> orderByHistory(
+      List<AnnotatedValue<Path>> pConfigFiles, PortfolioHistory pHistory) {
+    List<AnnotatedValue<Path>> ordered = new ArrayList<>(pConfigFiles);
+    ordered.sort(
+        Comparator.comparingDouble(
+                (AnnotatedValue<Path> configFile) ->
+                    pHistory.getScore(configFile.value().toString()))
+            .reversed());
+    return ordered;
+  }
+
   public static Algorithm create(
       Configuration pConfig,
       LogManager pLogger,
@@ -253,6 +306,8 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
       boolean lastAnalysisTerminated = false;
       boolean recursionFound = false;
       boolean concurrencyFound = false;
+      @Nullable Path usedConfigFile = null;
+      boolean finishedWithResult = false;
 
       try {
         Path singleConfigFileName = configFilesIterator.next().value();
@@ -310,6 +365,7 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
 
         // run algorithm
         registerReachedSetUpdateListeners();
+        usedConfigFile = singleConfigFileName;
         try {
           logger.logf(Level.INFO, "Starting analysis %d ...", stats.noOfAlgorithmsUsed);
           status = currentAlgorithm.run(currentReached);
@@ -317,6 +373,7 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
           if (currentReached.hasViolatedProperties() && status.isPrecise()) {
 
             // If the algorithm is not _precise_, verdict "false" actually means "unknown".
+            finishedWithResult = true;
             return status;
           }
 
@@ -339,6 +396,7 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
           } else if (!(from(currentReached).anyMatch(AbstractStates::isTargetState)
               && !status.isPrecise())) {
 
+            finishedWithResult = true;
             if (!(alwaysRestart && configFilesIterator.hasNext())) {
               // sound analysis and completely finished, terminate
               return status;
@@ -382,6 +440,13 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
         singleShutdownManager.getNotifier().unregister(logShutdownListener);
         singleShutdownManager.requestShutdown("Analysis terminated"); // shutdown any remaining components
         stats.totalTime.stop();
+        if (usedConfigFile != null) {
+          stats.timePerConfiguration.add(
+              usedConfigFile + ": " + stats.totalTime.getLengthOfLastInterval());
+          if (history != null) {
+            history.recordRun(usedConfigFile.toString(), finishedWithResult);
+          }
+        }
       }
 
       shutdownNotifier.shutdownIfNecessary();
@@ -0,0 +1,217 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.composition;
+
+import com.google.common.collect.Iterables;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.AnnotatedValue;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+/**
+ * Composition strategy, which executes the analyses in a cycle like {@link
+ * CircularCompositionStrategy}, but computes the time limits for each round from the progress of
+ * the analyses in the previous round and from a local history of the configurations on programs
+ * with similar features. The sum of the time limits per round stays the same as configured.
+ *
+ * <p>The progress of an analysis is taken from the analysis itself, if it reports its progress,
+ * and otherwise estimated by the fraction of states in its reached set, which are not waiting
+ * anymore.
+ */
+@Options(prefix = "compositionAlgorithm.adaptive")
+public class AdaptiveCompositionStrategy extends AlgorithmCompositionStrategy
+    implements Statistics {
+
+  @Option(
+      description =
+          "File with the history of previous runs of the configurations. It is used to prefer "
+              + "configurations, which computed results for programs with similar features. "
+              + "The file is created if it does not exist and updated after each run, such that "
+              + "the history accumulates over several verification runs. Without a history only "
+              + "the progress in the current verification run is considered.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path historyFile = null;
+
+  @Option(
+      secure = true,
+      description =
+          "Weight of the progress in the previous round compared to the history when computing "
+              + "the time limits of the next round (between 0 and 1).")
+  private double progressWeight = 0.5;
+
+  private static class ContextInfo {
+    private double historyScore;
+    private double lastProgress = 0.0;
+    private int noOfRuns = 0;
+    private int lastReachedSize = 0;
+  }
+
+  private final @Nullable PortfolioHistory history;
+  private final Map<AlgorithmContext, ContextInfo> infos = new IdentityHashMap<>();
+  private final List<String> decisions = new ArrayList<>();
+
+  private Iterator<AlgorithmContext> algorithmContextCycle;
+  private int totalTimeBudget;
+  private int inCycleCount;
+  private int noOfRounds;
+
+  public AdaptiveCompositionStrategy(
+      final Configuration pConfig, final LogManager pLogger, final CFA pCfa)
+      throws InvalidConfigurationException {
+    super(pLogger);
+    pConfig.inject(this);
+    if (progressWeight < 0 || progressWeight > 1) {
+      throw new InvalidConfigurationException(
+          "Option compositionAlgorithm.adaptive.progressWeight needs to be between 0 and 1.");
+    }
+    history = historyFile == null ? null : new PortfolioHistory(historyFile, pCfa, pLogger);
+  }
+
+  @Override
+  protected void initializeAlgorithmContexts(List<AnnotatedValue<Path>> pConfigFiles) {
+    super.initializeAlgorithmContexts(pConfigFiles);
+    algorithmContextCycle = Iterables.cycle(algorithmContexts).iterator();
+    inCycleCount = 1;
+    noOfRounds = 0;
+
+    totalTimeBudget = 0;
+    for (AlgorithmContext context : algorithmContexts) {
+      ContextInfo info = new ContextInfo();
+      info.historyScore = history == null ? 0.5 : history.getScore(context.configToString());
+      infos.put(context, info);
+      totalTimeBudget += context.getTimeLimit();
+    }
+    if (history != null) {
+      computeAndSetNewTimeLimits(0.0);
+    }
+  }
+
+  /**
+   * Distribute the time budget of a round between the analyses proportional to their score, which
+   * combines the history score and the progress in the previous round with the given weight.
+   */
+  private void computeAndSetNewTimeLimits(double pProgressWeight) {
+    double totalScore = 0.0;
+    for (AlgorithmContext context : algorithmContexts) {
+      totalScore += getScore(context, pProgressWeight);
+    }
+    if (totalScore <= 0) {
+      return;
+    }
+
+    StringBuilder decision = new StringBuilder("Round " + (noOfRounds + 1) + ":");
+    for (AlgorithmContext context : algorithmContexts) {
+      double share = getScore(context, pProgressWeight) / totalScore;
+      context.adaptTimeLimit((int) Math.round(share * totalTimeBudget));
+      decision
+          .append(' ')
+          .append(context.configToString())
+          .append('=')
+          .append(context.getTimeLimit())
+          .append('s');
+    }
+    decisions.add(decision.toString());
+    logger.log(Level.FINE, "Adaptive composition strategy uses new time limits.", decision);
+  }
+
+  private double getScore(AlgorithmContext pContext, double pProgressWeight) {
+    ContextInfo info = infos.get(pContext);
+    return (1 - pProgressWeight) * info.historyScore + pProgressWeight * info.lastProgress;
+  }
+
+  @Override
+  public void analysisRunFinished(
+      final AlgorithmContext pContext, final boolean pFinishedWithResult) {
+    ContextInfo info = infos.get(pContext);
+    info.noOfRuns++;
+
+    ReachedSet reached = pContext.getReachedSet();
+    if (pContext.getProgress() >= 0) {
+      info.lastProgress = Math.min(1.0, pContext.getProgress());
+    } else if (reached != null && !reached.isEmpty()) {
+      double processed = 1.0 - (double) reached.getWaitlist().size() / reached.size();
+      // an analysis, which does not explore new states anymore, does not make progress
+      info.lastProgress = reached.size() > info.lastReachedSize ? processed : 0.0;
+      info.lastReachedSize = reached.size();
+    } else {
+      info.lastProgress = 0.0;
+    }
+
+    if (history != null) {
+      history.recordRun(pContext.configToString(), pFinishedWithResult);
+    }
+  }
+
+  @Override
+  public boolean hasNextAlgorithm() {
+    return algorithmContextCycle.hasNext();
+  }
+
+  @Override
+  public AlgorithmContext getNextAlgorithm() {
+    if (inCycleCount == algorithmContexts.size()) {
+      inCycleCount = 0;
+      noOfRounds++;
+      logger.log(Level.INFO, "Adaptive composition strategy starts next iteration...");
+      computeAndSetNewTimeLimits(progressWeight);
+    }
+    inCycleCount++;
+
+    return algorithmContextCycle.next();
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    pOut.println("Number of analyses per round:   " + algorithmContexts.size());
+    pOut.println("Number of completed rounds:     " + noOfRounds);
+    pOut.println("Time budget per round:          " + totalTimeBudget + "s");
+    if (history != null) {
+      pOut.println("Program features:               " + history.getProgramFeatures());
+    }
+
+    for (AlgorithmContext context : algorithmContexts) {
+      ContextInfo info = infos.get(context);
+      pOut.println("Analysis " + context.configToString() + ":");
+      pOut.println("  History score:                " + String.format("%.2f", info.historyScore));
+      pOut.println("  Number of runs:               " + info.noOfRuns);
+      pOut.println("  Last progress:                " + String.format("%.2f", info.lastProgress));
+      pOut.println("  Current time limit:           " + context.getTimeLimit() + "s");
+      pOut.println("  Time spent:                   " + context.getTotalTimeSpent());
+    }
+
+    if (!decisions.isEmpty()) {
+      pOut.println("Scheduling decisions:");
+      for (String decision : decisions) {
+        pOut.println("  " + decision);
+      }
+    }
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "Adaptive Composition";
+  }
+}
@@ -44,6 +44,15 @@ public abstract class AlgorithmCompositionStrategy {
 
   public abstract AlgorithmContext getNextAlgorithm();
 
+  /**
+   * Inform the strategy that a run of the given analysis has ended, either because its analysis
+   * finished with a result or because it was stopped (e.g., by its time limit).
+   */
+  public void analysisRunFinished(
+      final AlgorithmContext pContext, final boolean pFinishedWithResult) {
+    // do nothing by default
+  }
+
   public void finalCleanUp(final AlgorithmContext pLastContextRun) {
     for (AlgorithmContext context : algorithmContexts) {
       if (context != pLastContextRun
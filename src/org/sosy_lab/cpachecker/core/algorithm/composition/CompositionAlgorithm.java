@@ -446,6 +446,7 @@ public class CompositionAlgorithm implements Algorithm, StatisticsProvider {
 
               CPAs.closeIfPossible(currentRun.getFirst(), logger);
             }
+            selectionStrategy.analysisRunFinished(currentContext, analysisFinishedWithResult);
           }
 
           currentContext.stopTimer();
@@ -0,0 +1,168 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.composition;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * A local history of analysis runs in a portfolio of configurations. For each configuration and
+ * each feature of the verified programs, it stores how often the configuration was used and how
+ * often it was able to compute a result. This history is used to prefer configurations, which were
+ * successful for programs with similar features.
+ *
+ * <p>The history is stored as a text file with one entry per line in the format {@code
+ * <configuration>\t<feature>\t<number of results>\t<number of runs>}. The history is read from
+ * this file, if it exists, and the updated history is written back to the same file, such that it
+ * accumulates over several verification runs.
+ */
+public final class PortfolioHistory {
+
+  private static final Splitter TAB_SPLITTER = Splitter.on('\t');
+
+  private final Path historyFile;
+  private final LogManager logger;
+  private final ImmutableSet<String> programFeatures;
+
+  // (configuration, feature) -> (number of results, number of runs)
+  private final Map<Pair<String, String>, int[]> entries = new HashMap<>();
+
+  // configurations, whose run has already been counted for the current program
+  private final Set<String> usedConfigurations = new HashSet<>();
+
+  // configurations, whose result has already been counted for the current program
+  private final Set<String> successfulConfigurations = new HashSet<>();
+
+  public PortfolioHistory(Path pHistoryFile, CFA pCfa, LogManager pLogger) {
+    historyFile = pHistoryFile;
+    logger = pLogger;
+    programFeatures = extractFeatures(pCfa);
+    load();
+  }
+
+  /** Compute simple syntactic features of the program, which are cheap to determine. */
+  static ImmutableSet<String> extractFeatures(CFA pCfa) {
+    ImmutableSet.Builder<String> features = ImmutableSet.builder();
+    features.add("language=" + pCfa.getLanguage());
+    // size of the program in logarithmic buckets of CFA nodes
+    features.add("size=" + (32 - Integer.numberOfLeadingZeros(pCfa.getAllNodes().size())));
+    features.add(pCfa.getNumberOfFunctions() > 1 ? "functions=multiple" : "functions=single");
+    if (pCfa.getAllLoopHeads().isPresent()) {
+      features.add(pCfa.getAllLoopHeads().orElseThrow().isEmpty() ? "loops=no" : "loops=yes");
+    }
+    if (pCfa.getVarClassification().isPresent()) {
+      features.add(
+          pCfa.getVarClassification().orElseThrow().hasRelevantNonIntAddVars()
+              ? "arithmetic=complex"
+              : "arithmetic=simple");
+    }
+    return features.build();
+  }
+
+  private void load() {
+    if (!Files.isReadable(historyFile)) {
+      return;
+    }
+    try {
+      for (String line : Files.readAllLines(historyFile, StandardCharsets.UTF_8)) {
+        List<String> parts = TAB_SPLITTER.splitToList(line);
+        if (parts.size() != 4) {
+          continue;
+        }
+        try {
+          entries.put(
+              Pair.of(parts.get(0), parts.get(1)),
+              new int[] {Integer.parseInt(parts.get(2)), Integer.parseInt(parts.get(3))});
+        } catch (NumberFormatException e) {
+          logger.log(Level.FINE, "Ignoring invalid line in portfolio history:", line);
+        }
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not read portfolio history");
+    }
+  }
+
+  /**
+   * Return the estimated probability that the given configuration computes a result for the
+   * current program, based on the runs of this configuration on programs with the same features.
+   */
+  public double getScore(String pConfiguration) {
+    int results = 0;
+    int runs = 0;
+    for (String feature : programFeatures) {
+      int[] entry = entries.get(Pair.of(pConfiguration, feature));
+      if (entry != null) {
+        results += entry[0];
+        runs += entry[1];
+      }
+    }
+    // Laplace smoothing, configurations without history get the neutral score
+    return (results + 1.0) / (runs + 2.0);
+  }
+
+  /**
+   * Record a run of the given configuration on the current program. Each configuration is counted
+   * at most once per program, the result is counted if any of its runs computed a result.
+   */
+  public void recordRun(String pConfiguration, boolean pFinishedWithResult) {
+    boolean firstRun = usedConfigurations.add(pConfiguration);
+    boolean firstResult = pFinishedWithResult && successfulConfigurations.add(pConfiguration);
+    if (!firstRun && !firstResult) {
+      return;
+    }
+    for (String feature : programFeatures) {
+      int[] entry = entries.computeIfAbsent(Pair.of(pConfiguration, feature), k -> new int[2]);
+      if (firstRun) {
+        entry[1]++;
+      }
+      if (firstResult) {
+        entry[0]++;
+      }
+    }
+    store();
+  }
+
+  private void store() {
+    StringBuilder content = new StringBuilder();
+    for (Map.Entry<Pair<String, String>, int[]> entry : entries.entrySet()) {
+      content
+          .append(entry.getKey().getFirst())
+          .append('\t')
+          .append(entry.getKey().getSecond())
+          .append('\t')
+          .append(entry.getValue()[0])
+          .append('\t')
+          .append(entry.getValue()[1])
+          .append('\n');
+    }
+    try {
+      IO.writeFile(historyFile, StandardCharsets.UTF_8, content);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write portfolio history");
+    }
+  }
+
+  public ImmutableSet<String> getProgramFeatures() {
+    return programFeatures;
+  }
+}
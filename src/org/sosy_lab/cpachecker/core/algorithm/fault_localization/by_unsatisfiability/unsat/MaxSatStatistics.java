@@ -14,6 +14,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
@@ -23,7 +24,29 @@ class MaxSatStatistics implements Statistics {
   final StatTimer totalTime = new StatTimer(StatKind.SUM, "Total time for max-sat algorithm");
   final StatCounter unsatCalls = new StatCounter("Number of calls to sat solver");
   final StatCounter savedCalls = new StatCounter("Number of calls saved through subset check");
+  final StatInt unusedCalls =
+      new StatInt(StatKind.SUM, "Number of parallel calls with unused result");
   final StatTimer timeForSubSupCheck = new StatTimer(StatKind.SUM, "Time for subset/supset check");
+  final StatCounter faults = new StatCounter("Number of found faults");
+  final StatTimer timePerFault = new StatTimer(StatKind.AVG, "Time per search for a fault");
+  final StatInt callsPerFault = new StatInt(StatKind.AVG, "Calls to sat solver per found fault");
+
+  private long callsBeforeFault = 0;
+
+  /** Start the search for the next fault. */
+  void faultSearchStarted() {
+    timePerFault.start();
+    callsBeforeFault = unsatCalls.getValue();
+  }
+
+  /** Stop the search for the current fault, which may not have found a fault. */
+  void faultSearchFinished(boolean pFoundFault) {
+    timePerFault.stop();
+    if (pFoundFault) {
+      faults.inc();
+      callsPerFault.setNextValue((int) (unsatCalls.getValue() - callsBeforeFault));
+    }
+  }
 
   @Override
   public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
@@ -31,6 +54,10 @@ class MaxSatStatistics implements Statistics {
         .put(totalTime)
         .putIfUpdatedAtLeastOnce(unsatCalls)
         .putIfUpdatedAtLeastOnce(savedCalls)
+        .putIfUpdatedAtLeastOnce(unusedCalls)
+        .putIfUpdatedAtLeastOnce(faults)
+        .putIfUpdatedAtLeastOnce(timePerFault)
+        .putIfUpdatedAtLeastOnce(callsPerFault)
         .beginLevel() // Statistics for sup/subset checks
         .putIfUpdatedAtLeastOnce(timeForSubSupCheck);
   }
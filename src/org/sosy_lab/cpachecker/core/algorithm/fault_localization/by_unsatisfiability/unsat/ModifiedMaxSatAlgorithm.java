@@ -9,9 +9,13 @@
 package org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.unsat;
 
 import com.google.common.base.VerifyException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.FaultLocalizerWithTraceFormula;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.FormulaContext;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.Selector;
@@ -21,25 +25,32 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.faultlocalization.Fault;
 import org.sosy_lab.cpachecker.util.faultlocalization.FaultContribution;
-import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
-import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.SolverException;
 
 public class ModifiedMaxSatAlgorithm implements FaultLocalizerWithTraceFormula, StatisticsProvider {
 
-  private Solver solver;
+  private final int threads;
   private BooleanFormulaManager bmgr;
 
   // Statistics
   private final MaxSatStatistics stats = new MaxSatStatistics();
 
+  /**
+   * Create the algorithm.
+   *
+   * @param pThreads number of sets of selectors that are checked in parallel
+   */
+  public ModifiedMaxSatAlgorithm(int pThreads) {
+    threads = pThreads;
+  }
+
   @Override
   public Set<Fault> run(FormulaContext pContext, TraceFormula tf)
-      throws CPATransferException, InterruptedException, SolverException, VerifyException {
+      throws CPATransferException, InterruptedException, SolverException, VerifyException,
+          InvalidConfigurationException {
 
-    solver = pContext.getSolver();
-    bmgr = solver.getFormulaManager().getBooleanFormulaManager();
+    bmgr = pContext.getSolver().getFormulaManager().getBooleanFormulaManager();
 
     Set<Fault> hard = new HashSet<>();
 
@@ -56,21 +67,28 @@ public class ModifiedMaxSatAlgorithm implements FaultLocalizerWithTraceFormula,
     Fault minUnsatCore = new Fault();
 
     stats.totalTime.start();
-    // loop as long as new unsat cores are found.
-    // if the newly found unsat core has the size of all left selectors break.
-    while (minUnsatCore.size() != numberSelectors) {
-      minUnsatCore = getMinUnsatCore(soft, tf, hard);
-      if (minUnsatCore.size() == 1) {
-        soft.removeAll(minUnsatCore);
-        numberSelectors = soft.size();
-      }
-      // adding all possible selectors yields no information because the user knows that the program
-      // has bugs
-      if (minUnsatCore.size() != initSize) {
-        hard.add(minUnsatCore);
+    try (SelectorSetChecker checker =
+        new SelectorSetChecker(pContext, tf.getTraceFormula(), soft, threads, stats)) {
+      // loop as long as new unsat cores are found.
+      // if the newly found unsat core has the size of all left selectors break.
+      while (minUnsatCore.size() != numberSelectors) {
+        stats.faultSearchStarted();
+        minUnsatCore = getMinUnsatCore(checker, soft, hard);
+        if (minUnsatCore.size() == 1) {
+          soft.removeAll(minUnsatCore);
+          numberSelectors = soft.size();
+        }
+        // adding all possible selectors yields no information because the user knows that the
+        // program has bugs
+        boolean foundFault = minUnsatCore.size() != initSize;
+        if (foundFault) {
+          hard.add(minUnsatCore);
+        }
+        stats.faultSearchFinished(foundFault);
       }
+    } finally {
+      stats.totalTime.stop();
     }
-    stats.totalTime.stop();
     return hard;
   }
 
@@ -80,33 +98,47 @@ public class ModifiedMaxSatAlgorithm implements FaultLocalizerWithTraceFormula,
    * does not mean that there does not exist a smaller unsat-core here. Since we find all solutions
    * the order does not matter.
    *
-   * @param pTraceFormula TraceFormula to the error
+   * <p>The candidates for removal are checked in chunks, which are checked in parallel if
+   * multiple threads are configured. Always the first removable selector is removed, such that the
+   * result does not depend on the number of threads.
+   *
+   * @param pChecker checker with the trace formula as hard constraint
+   * @param pSoftSet selectors that are not yet part of a single-element fault
    * @param pHardSet already found minimal sets
    * @return new minimal set
    * @throws SolverException thrown if tf is satisfiable
    * @throws InterruptedException thrown if interrupted
    */
   private Fault getMinUnsatCore(
-      Set<FaultContribution> pSoftSet, TraceFormula pTraceFormula, Set<Fault> pHardSet)
+      SelectorSetChecker pChecker, Set<FaultContribution> pSoftSet, Set<Fault> pHardSet)
       throws SolverException, InterruptedException {
     Fault result = new Fault(new HashSet<>(pSoftSet));
+    List<Selector> removable = new ArrayList<>();
+    List<Fault> candidates = new ArrayList<>();
     boolean changed;
     do {
       changed = false;
-      for (FaultContribution fc : result) {
-        Selector s = (Selector) fc;
+      Iterator<FaultContribution> selectors = result.iterator();
+      while (!changed && selectors.hasNext()) {
+        Selector s = (Selector) selectors.next();
         Fault copy = new Fault(new HashSet<>(result));
         copy.remove(s);
         if (!isSubsetOrSupersetOf(copy, pHardSet)) {
-          stats.unsatCalls.inc();
-          if (solver.isUnsat(bmgr.and(pTraceFormula.getTraceFormula(), softSetFormula(copy)))) {
-            changed = true;
-            result.remove(s);
-            break;
-          }
+          removable.add(s);
+          candidates.add(copy);
         } else {
           stats.savedCalls.inc();
         }
+        if (candidates.size() == pChecker.getParallelism()
+            || (!selectors.hasNext() && !candidates.isEmpty())) {
+          int index = pChecker.findFirst(candidates, true);
+          if (index >= 0) {
+            changed = true;
+            result.remove(removable.get(index));
+          }
+          removable.clear();
+          candidates.clear();
+        }
       }
     } while (changed);
     return result;
@@ -126,16 +158,6 @@ public class ModifiedMaxSatAlgorithm implements FaultLocalizerWithTraceFormula,
     }
   }
 
-  /**
-   * Conjunct of all selector-formulas
-   *
-   * @param softSet left selectors
-   * @return boolean formula as conjunct of all selector formulas
-   */
-  private BooleanFormula softSetFormula(Fault softSet) {
-    return softSet.stream().map(f -> ((Selector) f).getFormula()).collect(bmgr.toConjunction());
-  }
-
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     statsCollection.add(stats);
@@ -9,9 +9,13 @@
 package org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.unsat;
 
 import com.google.common.base.VerifyException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.FaultLocalizerWithTraceFormula;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.FormulaContext;
 import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.Selector;
@@ -21,25 +25,33 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.faultlocalization.Fault;
 import org.sosy_lab.cpachecker.util.faultlocalization.FaultContribution;
-import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.SolverException;
 
 public class OriginalMaxSatAlgorithm implements FaultLocalizerWithTraceFormula, StatisticsProvider {
 
-  private Solver solver;
+  private final int threads;
   private BooleanFormulaManager bmgr;
 
   // Statistics
   private final MaxSatStatistics stats = new MaxSatStatistics();
 
+  /**
+   * Create the algorithm.
+   *
+   * @param pThreads number of sets of selectors that are checked in parallel
+   */
+  public OriginalMaxSatAlgorithm(int pThreads) {
+    threads = pThreads;
+  }
+
   @Override
   public Set<Fault> run(FormulaContext pContext, TraceFormula tf)
-      throws CPATransferException, InterruptedException, SolverException, VerifyException {
+      throws CPATransferException, InterruptedException, SolverException, VerifyException,
+          InvalidConfigurationException {
 
-    solver = pContext.getSolver();
-    bmgr = solver.getFormulaManager().getBooleanFormulaManager();
+    bmgr = pContext.getSolver().getFormulaManager().getBooleanFormulaManager();
 
     Set<Fault> hard = new HashSet<>();
 
@@ -54,48 +66,66 @@ public class OriginalMaxSatAlgorithm implements FaultLocalizerWithTraceFormula,
 
     Fault complement;
     stats.totalTime.start();
-    // loop as long as new maxsat cores are found.
-    while (true) {
-      complement = coMSS(soft, tf, hard);
-      if (complement.isEmpty()) {
-        break;
+    try (SelectorSetChecker checker =
+        new SelectorSetChecker(pContext, tf.getTraceFormula(), soft, threads, stats)) {
+      // loop as long as new maxsat cores are found.
+      while (true) {
+        stats.faultSearchStarted();
+        complement = coMSS(checker, soft);
+        stats.faultSearchFinished(!complement.isEmpty());
+        if (complement.isEmpty()) {
+          break;
+        }
+        hard.add(complement);
+        soft.removeAll(complement);
+        // at least one selector of each found set has to be disabled
+        checker.addConstraint(hardSetFormula(complement));
       }
-      hard.add(complement);
-      soft.removeAll(complement);
+    } finally {
+      stats.totalTime.stop();
     }
-    stats.totalTime.stop();
     return hard;
   }
 
   /**
-   * Get the complement of a maximal satisfiable set considering the already found ones
+   * Get the complement of a maximal satisfiable set considering the already found ones, which are
+   * part of the hard constraints of the given checker.
    *
-   * @param pTraceFormula TraceFormula to the error
-   * @param pHardSet already found minimal sets
+   * <p>The candidates for extending the satisfiable set are checked in chunks, which are checked in
+   * parallel if multiple threads are configured. Always the first candidate is added, such that the
+   * result does not depend on the number of threads.
+   *
+   * @param pChecker checker with the trace formula and the found sets as hard constraints
+   * @param pSoftSet selectors that are not part of a found set
    * @return new minimal set
    * @throws SolverException thrown if tf is satisfiable
    * @throws InterruptedException thrown if interrupted
    */
-  private Fault coMSS(
-      Set<FaultContribution> pSoftSet, TraceFormula pTraceFormula, Set<Fault> pHardSet)
+  private Fault coMSS(SelectorSetChecker pChecker, Set<FaultContribution> pSoftSet)
       throws SolverException, InterruptedException {
     Set<FaultContribution> selectors = new HashSet<>(pSoftSet);
     Fault result = new Fault();
-    BooleanFormula composedFormula =
-        bmgr.and(pTraceFormula.getTraceFormula(), hardSetFormula(pHardSet));
+    List<Selector> extending = new ArrayList<>();
+    List<Fault> candidates = new ArrayList<>();
     boolean changed;
     do {
       changed = false;
-      for (FaultContribution fc : selectors) {
-        Selector s = (Selector) fc;
+      Iterator<FaultContribution> remaining = selectors.iterator();
+      while (!changed && remaining.hasNext()) {
+        Selector s = (Selector) remaining.next();
         Fault copy = new Fault(new HashSet<>(result));
         copy.add(s);
-        stats.unsatCalls.inc();
-        if (!solver.isUnsat(bmgr.and(composedFormula, softSetFormula(copy)))) {
-          changed = true;
-          result.add(s);
-          selectors.remove(s);
-          break;
+        extending.add(s);
+        candidates.add(copy);
+        if (candidates.size() == pChecker.getParallelism() || !remaining.hasNext()) {
+          int index = pChecker.findFirst(candidates, false);
+          if (index >= 0) {
+            changed = true;
+            result.add(extending.get(index));
+            selectors.remove(extending.get(index));
+          }
+          extending.clear();
+          candidates.clear();
         }
       }
     } while (changed);
@@ -103,25 +133,13 @@ public class OriginalMaxSatAlgorithm implements FaultLocalizerWithTraceFormula,
   }
 
   /**
-   * Conjunct of all selector-formulas
-   *
-   * @param softSet left selectors
-   * @return boolean formula as conjunct of all selector formulas
-   */
-  private BooleanFormula softSetFormula(Fault softSet) {
-    return softSet.stream().map(f -> ((Selector) f).getFormula()).collect(bmgr.toConjunction());
-  }
-
-  /**
-   * Creates the formula (a1 or a2 or a3) and (b1 or b2) ... for the input [[a1,a2,a3],[b1,b2]]
+   * Creates the formula (a1 or a2 or a3) for the found set [a1,a2,a3]
    *
-   * @param hardSet the current hard set
-   * @return conjunction of the disjunction of the sets
+   * @param pFault a found set of selectors
+   * @return disjunction of the selector formulas of the set
    */
-  private BooleanFormula hardSetFormula(Set<Fault> hardSet) {
-    return hardSet.stream()
-        .map(l -> l.stream().map(f -> ((Selector) f).getFormula()).collect(bmgr.toDisjunction()))
-        .collect(bmgr.toConjunction());
+  private BooleanFormula hardSetFormula(Fault pFault) {
+    return pFault.stream().map(f -> ((Selector) f).getFormula()).collect(bmgr.toDisjunction());
   }
 
   @Override
@@ -0,0 +1,226 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.unsat;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.FormulaContext;
+import org.sosy_lab.cpachecker.core.algorithm.fault_localization.by_unsatisfiability.trace_formula.Selector;
+import org.sosy_lab.cpachecker.util.faultlocalization.FaultContribution;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Checks the satisfiability of a trace formula for different sets of selectors. The trace formula
+ * and all further hard constraints are added only once to an incremental prover, the selectors of
+ * a set are passed as assumptions.
+ *
+ * <p>With more than one thread, several sets of selectors are checked in parallel. Each thread has
+ * its own solver instance with a copy of all constraints, because solver contexts must not be
+ * shared between threads.
+ */
+final class SelectorSetChecker implements AutoCloseable {
+
+  /** A prover with all hard constraints and the selectors translated into its solver context. */
+  private static final class SelectorProver implements AutoCloseable {
+
+    private final @Nullable Solver ownSolver;
+    private final ProverEnvironment prover;
+    private final Map<BooleanFormula, BooleanFormula> selectors;
+
+    private SelectorProver(
+        @Nullable Solver pOwnSolver,
+        ProverEnvironment pProver,
+        Map<BooleanFormula, BooleanFormula> pSelectors) {
+      ownSolver = pOwnSolver;
+      prover = pProver;
+      selectors = pSelectors;
+    }
+
+    private boolean isUnsat(Collection<FaultContribution> pSelectors)
+        throws SolverException, InterruptedException {
+      List<BooleanFormula> assumptions = new ArrayList<>(pSelectors.size());
+      for (FaultContribution fc : pSelectors) {
+        assumptions.add(selectors.get(((Selector) fc).getFormula()));
+      }
+      return prover.isUnsatWithAssumptions(assumptions);
+    }
+
+    @Override
+    public void close() {
+      prover.close();
+      if (ownSolver != null) {
+        ownSolver.close();
+      }
+    }
+  }
+
+  private final FormulaManagerView fmgr;
+  private final MaxSatStatistics stats;
+  private final ImmutableList<SelectorProver> provers;
+  private final @Nullable ExecutorService executor;
+
+  /**
+   * Create provers for the given trace formula.
+   *
+   * @param pContext the formula context, its solver is used if only one thread is requested
+   * @param pTraceFormula the hard part of the trace formula
+   * @param pSelectors all selectors that will ever be passed to this checker
+   * @param pThreads number of sets that are checked in parallel
+   * @param pStats statistics for counting solver calls
+   */
+  SelectorSetChecker(
+      FormulaContext pContext,
+      BooleanFormula pTraceFormula,
+      Collection<FaultContribution> pSelectors,
+      int pThreads,
+      MaxSatStatistics pStats)
+      throws InvalidConfigurationException, InterruptedException {
+    checkArgument(pThreads >= 1);
+    fmgr = pContext.getSolver().getFormulaManager();
+    stats = pStats;
+
+    ImmutableList.Builder<SelectorProver> builder = ImmutableList.builder();
+    if (pThreads == 1) {
+      Map<BooleanFormula, BooleanFormula> selectors = new HashMap<>();
+      for (FaultContribution fc : pSelectors) {
+        BooleanFormula selector = ((Selector) fc).getFormula();
+        selectors.put(selector, selector);
+      }
+      ProverEnvironment prover = pContext.getSolver().newProverEnvironment();
+      builder.add(new SelectorProver(null, prover, selectors));
+      executor = null;
+
+    } else {
+      for (int i = 0; i < pThreads; i++) {
+        Solver solver =
+            Solver.create(
+                pContext.getConfiguration(), pContext.getLogger(), pContext.getShutdownNotifier());
+        FormulaManagerView solverFmgr = solver.getFormulaManager();
+        Map<BooleanFormula, BooleanFormula> selectors = new HashMap<>();
+        for (FaultContribution fc : pSelectors) {
+          BooleanFormula selector = ((Selector) fc).getFormula();
+          selectors.put(selector, solverFmgr.translateFrom(selector, fmgr));
+        }
+        ProverEnvironment prover = solver.newProverEnvironment();
+        builder.add(new SelectorProver(solver, prover, selectors));
+      }
+      executor =
+          Executors.newFixedThreadPool(
+              pThreads,
+              new ThreadFactoryBuilder().setNameFormat("MaxSat-%d").setDaemon(true).build());
+    }
+    provers = builder.build();
+    addConstraint(pTraceFormula);
+  }
+
+  /** Number of sets of selectors that can be checked at once by {@link #findFirst}. */
+  int getParallelism() {
+    return provers.size();
+  }
+
+  /** Add a hard constraint to all provers. Must not be called while sets are checked. */
+  void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    for (SelectorProver selectorProver : provers) {
+      if (selectorProver.ownSolver == null) {
+        selectorProver.prover.push(pConstraint);
+      } else {
+        selectorProver.prover.push(
+            selectorProver.ownSolver.getFormulaManager().translateFrom(pConstraint, fmgr));
+      }
+    }
+  }
+
+  /**
+   * Check whether the hard constraints together with the given selectors are unsatisfiable.
+   */
+  boolean isUnsat(Collection<FaultContribution> pSelectors)
+      throws SolverException, InterruptedException {
+    stats.unsatCalls.inc();
+    return provers.get(0).isUnsat(pSelectors);
+  }
+
+  /**
+   * Return the index of the first set of selectors for which the hard constraints are
+   * unsatisfiable, or satisfiable if {@code pUnsat} is false. Returns -1 if there is no such set.
+   * The given sets are checked in parallel, so at most {@link #getParallelism()} sets may be given.
+   * The result is the same as for checking the sets one after another.
+   */
+  int findFirst(List<? extends Collection<FaultContribution>> pCandidates, boolean pUnsat)
+      throws SolverException, InterruptedException {
+    checkArgument(pCandidates.size() <= provers.size());
+
+    if (executor == null || pCandidates.size() == 1) {
+      for (int i = 0; i < pCandidates.size(); i++) {
+        if (isUnsat(pCandidates.get(i)) == pUnsat) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    List<Future<Boolean>> futures = new ArrayList<>(pCandidates.size());
+    for (int i = 0; i < pCandidates.size(); i++) {
+      SelectorProver selectorProver = provers.get(i);
+      Collection<FaultContribution> candidate = pCandidates.get(i);
+      stats.unsatCalls.inc();
+      futures.add(executor.submit(() -> selectorProver.isUnsat(candidate)));
+    }
+
+    // wait for all tasks, because the provers are reused for the next sets
+    int first = -1;
+    @Nullable Throwable failure = null;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        if (futures.get(i).get() == pUnsat && first < 0) {
+          first = i;
+        }
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      Throwables.throwIfInstanceOf(failure, SolverException.class);
+      Throwables.propagateIfPossible(failure, InterruptedException.class);
+      throw new UnexpectedCheckedException("checking sets of selectors", failure);
+    }
+    if (first >= 0) {
+      stats.unusedCalls.setNextValue(pCandidates.size() - first - 1);
+    }
+    return first;
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    provers.forEach(SelectorProver::close);
+  }
+}
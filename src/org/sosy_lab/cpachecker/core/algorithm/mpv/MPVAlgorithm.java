@@ -8,30 +8,44 @@
 
 package org.sosy_lab.cpachecker.core.algorithm.mpv;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -63,11 +77,17 @@ import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+import org.sosy_lab.cpachecker.util.resources.ThreadCpuTimeLimit;
 
 /**
  * This is an implementation of multi-property verification algorithm, which was presented in the
  * paper "On-the-Fly Decomposition of Specifications in Software Model Checking". This algorithm
  * aims at efficient checking of multiple properties in a single verification run.
+ *
+ * <p>Properties of one partition are checked as a product of their automata with a shared
+ * exploration of the program. A property, which is decided during this exploration, is disabled by
+ * the precision of its automata. With option cpa.automaton.prec.topOnDisabledAutomaton these
+ * automata are replaced by TOP, such that they do not split the shared exploration anymore.
  */
 @Options(prefix = "mpv")
 public class MPVAlgorithm implements Algorithm, StatisticsProvider {
@@ -78,6 +98,9 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
     private final Timer createPartitionsTimer = new Timer();
 
     private int iterationNumber;
+    private int maxParallelPartitions = 0;
+    // abstract states explored by all partitions, partitions may be checked in parallel
+    private final LongAdder exploredStates = new LongAdder();
     private final List<Partition> partitions;
 
     private MPVStatistics() {
@@ -98,6 +121,18 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
       return totalCpuTime;
     }
 
+    /** Return the number of properties with result TRUE or FALSE. */
+    private int getNumberOfDecidedProperties() {
+      int decided = 0;
+      for (AbstractSingleProperty property : multipleProperties.getProperties()) {
+        Result result = property.getResult();
+        if (result.equals(Result.TRUE) || result.equals(Result.FALSE)) {
+          decided++;
+        }
+      }
+      return decided;
+    }
+
     @Override
     public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
       TimeSpan totalCpuTime = getCurrentCpuTime();
@@ -110,6 +145,19 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
               + totalTimer.getSumTime().formatAs(TimeUnit.SECONDS));
       out.println(
           "Total CPU time for MPV algorithm:         " + totalCpuTime.formatAs(TimeUnit.SECONDS));
+      if (parallelThreads > 1) {
+        out.println("Number of threads for partitions:             " + parallelThreads);
+        out.println("Max. number of parallel partitions:           " + maxParallelPartitions);
+      }
+      int decidedProperties = getNumberOfDecidedProperties();
+      out.println("Number of decided properties:                 " + decidedProperties);
+      double cpuHours = totalCpuTime.asNanos() / (double) TimeUnit.HOURS.toNanos(1);
+      if (cpuHours > 0) {
+        out.println(
+            "Decided properties per CPU hour:              "
+                + String.format("%.2f", decidedProperties / cpuHours));
+      }
+      out.println("Number of explored abstract states:           " + exploredStates.sum());
       out.println();
       out.println("Partitions statistics:");
       int counter = 1;
@@ -140,6 +188,17 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
     }
   }
 
+  /** Result of checking a single partition in parallel mode. */
+  private static class PartitionResult {
+    private final AlgorithmStatus status;
+    private final ReachedSet reached;
+
+    private PartitionResult(AlgorithmStatus pStatus, ReachedSet pReached) {
+      status = pStatus;
+      reached = pReached;
+    }
+  }
+
   private enum LimitAdjustmentStrategy {
     NONE,
     DISTRIBUTE_REMAINING,
@@ -219,6 +278,16 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
           "Ignore exceptions, which may be caused by checking of some properties, to successfully check the others.")
   private boolean ignoreInnerExceptions = false;
 
+  @Option(
+      secure = true,
+      name = "parallel.threads",
+      description =
+          "Number of partitions, which are checked in parallel. Each partition is checked by "
+              + "a separate instance of the analysis and its CPU time limit is applied to its "
+              + "thread. Use 1 to check partitions sequentially.")
+  @IntegerOption(min = 1)
+  private int parallelThreads = 1;
+
   private final MPVStatistics stats;
   private final ConfigurableProgramAnalysis cpa;
   private final LogManager logger;
@@ -329,78 +398,232 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
     assert reached instanceof MPVReachedSet;
     ((MPVReachedSet) reached).setMultipleProperties(multipleProperties);
 
-    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
-
     stats.totalTimer.start();
 
     Iterable<CFANode> initialNodes = AbstractStates.extractLocations(reached.getFirstState());
     CFANode mainFunction = Iterables.getOnlyElement(initialNodes);
 
+    try {
+      if (parallelThreads > 1) {
+        return runInParallel((MPVReachedSet) reached, mainFunction);
+      } else {
+        return runSequentially(reached, mainFunction);
+      }
+    } finally {
+      stats.totalTimer.stop();
+    }
+  }
+
+  private AlgorithmStatus runSequentially(ReachedSet reached, CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    do {
+      // Distribute all checking properties into several partitions
+      ImmutableList<Partition> partitions = partitioningOperator.createPartitions();
+      int partitionNumber = 0;
+      logger.log(Level.FINER, "Using the following partitions of properties:", partitions);
+      // Check each partition of properties
+      for (Partition partition : partitions) {
+        if (partition.getNumberOfProperties() <= 0) {
+          // Shortcut - empty partition
+          continue;
+        }
+        stats.partitions.add(partition);
+        adjustTimeLimit(partition, partitions.size(), partitionNumber);
+        partitionNumber++;
+        ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+        // Limit resources for partition
+        ResourceLimitChecker limits =
+            ResourceLimitChecker.createCpuTimeLimitChecker(
+                logger, shutdownManager, partition.getTimeLimit());
+        limits.start();
+
+        // Create inner algorithm, that will check the partition
+        Algorithm algorithm = createInnerAlgorithm(reached, mainFunction, shutdownManager);
+        multipleProperties.setTargetProperties(partition.getProperties(), reached);
+        try {
+          partition.startAnalysis();
+          status = status.update(checkPartition(partition, algorithm, reached));
+        } finally {
+          limits.cancel();
+        }
+      }
+      // Continue the algorithm, until all properties are not checked
+    } while (!multipleProperties.isChecked());
+    return status;
+  }
+
+  /**
+   * Check the partitions in parallel. Each partition is checked by its own CPA with its own reached
+   * set in a separate thread, which is limited by the CPU time of this thread. The time limit of a
+   * partition is adjusted only directly before its analysis is started, such that resources, which
+   * were not fully spent by partitions that have already finished, can be distributed among the
+   * remaining partitions. Partitions of the next iteration are created as soon as all partitions of
+   * the current iteration are checked.
+   */
+  private AlgorithmStatus runInParallel(MPVReachedSet reached, CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            parallelThreads,
+            new ThreadFactoryBuilder()
+                .setNameFormat("MPVAlgorithm-partition-%d")
+                .setDaemon(true)
+                .build());
+    CompletionService<PartitionResult> completionService =
+        new ExecutorCompletionService<>(executor);
+    // all partitions are stopped, if this algorithm is finished
+    ShutdownManager partitionsShutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+    @Nullable ReachedSet resultReached = null;
     try {
       do {
         // Distribute all checking properties into several partitions
         ImmutableList<Partition> partitions = partitioningOperator.createPartitions();
-        int partitionNumber = 0;
         logger.log(Level.FINER, "Using the following partitions of properties:", partitions);
-        // Check each partition of properties
+        Deque<Partition> waitingPartitions = new ArrayDeque<>();
         for (Partition partition : partitions) {
-          int numberOfProperties = partition.getNumberOfProperties();
-          if (numberOfProperties <= 0) {
-            // Shortcut - empty partition
-            continue;
+          if (partition.getNumberOfProperties() > 0) {
+            waitingPartitions.add(partition);
           }
-          stats.partitions.add(partition);
-          adjustTimeLimit(partition, partitions.size(), partitionNumber);
-          partitionNumber++;
-          ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
-          // Limit resources for partition
-          ResourceLimitChecker limits =
-              ResourceLimitChecker.createCpuTimeLimitChecker(
-                  logger, shutdownManager, partition.getTimeLimit());
-          limits.start();
-
-          // Create inner algorithm, that will check the partition
-          Algorithm algorithm = createInnerAlgorithm(reached, mainFunction, shutdownManager);
-          multipleProperties.setTargetProperties(partition.getProperties(), reached);
-          try {
-            partition.startAnalysis();
-            logger.log(
-                Level.INFO,
-                "Iteration",
-                stats.iterationNumber,
-                ": checking partition",
-                partition,
-                "with",
-                numberOfProperties,
-                "properties");
-            do {
-              status = status.update(algorithm.run(reached));
-            } while (!partition.isChecked(reached));
-          } catch (InterruptedException e) {
-            if (shutdownNotifier.shouldShutdown()) {
-              // If interrupted by outer limit checker or by the user, then stop algorithm
-              partition.stopAnalysisOnFailure(reached, "Interrupted");
-              throw e;
-            } else {
-              // If interrupted by inner limit checker, then continue the algorithm
-              logger.log(Level.INFO, "Partition has exhausted resource limitations:", e);
-              partition.stopAnalysisOnFailure(reached, "Inner time limit");
-            }
-          } catch (Exception e) {
-            partition.stopAnalysisOnFailure(reached, e.getClass().getSimpleName());
-            if (ignoreInnerExceptions) {
-              logger.log(Level.INFO, "Exception occured during partition checking:", e);
-            } else {
-              throw e;
-            }
-          } finally {
-            limits.cancel();
+        }
+        int partitionNumber = 0;
+        int runningPartitions = 0;
+        while (!waitingPartitions.isEmpty() || runningPartitions > 0) {
+          while (runningPartitions < parallelThreads && !waitingPartitions.isEmpty()) {
+            Partition partition = waitingPartitions.poll();
+            stats.partitions.add(partition);
+            adjustTimeLimit(partition, partitions.size(), partitionNumber);
+            partitionNumber++;
+            completionService.submit(
+                createPartitionTask(partition, mainFunction, partitionsShutdownManager));
+            runningPartitions++;
+          }
+          stats.maxParallelPartitions = Math.max(stats.maxParallelPartitions, runningPartitions);
+
+          PartitionResult result = getPartitionResult(completionService.take());
+          runningPartitions--;
+          status = status.update(result.status);
+          if (resultReached == null || !resultReached.hasViolatedProperties()) {
+            resultReached = result.reached;
           }
         }
         // Continue the algorithm, until all properties are not checked
       } while (!multipleProperties.isChecked());
     } finally {
-      stats.totalTimer.stop();
+      partitionsShutdownManager.requestShutdown("MPV algorithm has finished");
+      executor.shutdownNow();
+    }
+    if (resultReached != null) {
+      // Provide the reached set of a partition (preferably one with a property violation) as the
+      // result of the analysis, the results for all properties are stored in multiple properties.
+      reached.setDelegate(resultReached);
+    }
+    return status;
+  }
+
+  private static PartitionResult getPartitionResult(Future<PartitionResult> pFuture)
+      throws CPAException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("checking of partition", t);
+    }
+  }
+
+  /**
+   * Create a task, which checks the given partition with a new instance of the CPA. The inner
+   * algorithm is created in the calling thread, only the analysis itself is performed by the task.
+   */
+  private Callable<PartitionResult> createPartitionTask(
+      Partition partition, CFANode mainFunction, ShutdownManager parentShutdownManager)
+      throws CPAException, InterruptedException {
+    ShutdownManager shutdownManager =
+        ShutdownManager.createWithParent(parentShutdownManager.getNotifier());
+    CoreComponentsFactory coreComponents = createInnerComponentsFactory(shutdownManager);
+    ReachedSet partitionReached = coreComponents.createReachedSet();
+    Algorithm algorithm;
+    try {
+      stats.createPartitionsTimer.start();
+      ConfigurableProgramAnalysis partitionCpa = coreComponents.createCPA(cfa, specification);
+      algorithm = coreComponents.createAlgorithm(partitionCpa, cfa, specification);
+      partitionReached.add(
+          partitionCpa.getInitialState(mainFunction, StateSpacePartition.getDefaultPartition()),
+          partitionCpa.getInitialPrecision(
+              mainFunction, StateSpacePartition.getDefaultPartition()));
+      stats.iterationNumber++;
+    } catch (InvalidConfigurationException e) {
+      // Should be unreachable, since configuration is already checked
+      throw new CPAException("Cannot create configuration for inner algorithm", e);
+    } finally {
+      stats.createPartitionsTimer.stop();
+    }
+    multipleProperties.setTargetProperties(partition.getProperties(), partitionReached);
+    return () -> {
+      // Limit resources for partition by the CPU time of the current thread
+      ResourceLimitChecker limits =
+          createThreadCpuTimeLimitChecker(shutdownManager, partition.getTimeLimit());
+      limits.start();
+      try {
+        partition.startAnalysisInCurrentThread();
+        AlgorithmStatus partitionStatus = checkPartition(partition, algorithm, partitionReached);
+        return new PartitionResult(partitionStatus, partitionReached);
+      } finally {
+        limits.cancel();
+        partition.finishAnalysisInCurrentThread();
+      }
+    };
+  }
+
+  private static ResourceLimitChecker createThreadCpuTimeLimitChecker(
+      ShutdownManager shutdownManager, TimeSpan cpuTime) {
+    if (cpuTime.compareTo(TimeSpan.empty()) <= 0) {
+      return new ResourceLimitChecker(shutdownManager, ImmutableList.of());
+    }
+    return new ResourceLimitChecker(
+        shutdownManager,
+        ImmutableList.of(ThreadCpuTimeLimit.fromNowOn(cpuTime, Thread.currentThread())));
+  }
+
+  /** Run the inner algorithm until the given partition is checked or its analysis has failed. */
+  private AlgorithmStatus checkPartition(
+      Partition partition, Algorithm algorithm, ReachedSet reached)
+      throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    try {
+      logger.log(
+          Level.INFO,
+          "Iteration",
+          stats.iterationNumber,
+          ": checking partition",
+          partition,
+          "with",
+          partition.getNumberOfProperties(),
+          "properties");
+      do {
+        status = status.update(algorithm.run(reached));
+      } while (!partition.isChecked(reached));
+    } catch (InterruptedException e) {
+      if (shutdownNotifier.shouldShutdown()) {
+        // If interrupted by outer limit checker or by the user, then stop algorithm
+        partition.stopAnalysisOnFailure(reached, "Interrupted");
+        throw e;
+      } else {
+        // If interrupted by inner limit checker, then continue the algorithm
+        logger.log(Level.INFO, "Partition has exhausted resource limitations:", e);
+        partition.stopAnalysisOnFailure(reached, "Inner time limit");
+      }
+    } catch (Exception e) {
+      partition.stopAnalysisOnFailure(reached, e.getClass().getSimpleName());
+      if (ignoreInnerExceptions) {
+        logger.log(Level.INFO, "Exception occured during partition checking:", e);
+      } else {
+        throw e;
+      }
+    } finally {
+      stats.exploredStates.add(reached.size());
     }
     return status;
   }
@@ -467,20 +690,27 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
       }
       stats.iterationNumber++;
 
+      return createInnerComponentsFactory(shutdownManager).createAlgorithm(cpa, cfa, specification);
+    } catch (InvalidConfigurationException e) {
+      // Should be unreachable, since configuration is already checked
+      throw new CPAException("Cannot create configuration for inner algorithm", e);
+    } finally {
+      stats.createPartitionsTimer.stop();
+    }
+  }
+
+  private CoreComponentsFactory createInnerComponentsFactory(ShutdownManager shutdownManager)
+      throws CPAException, InterruptedException {
+    try {
       ConfigurationBuilder innerConfigBuilder = Configuration.builder();
       innerConfigBuilder.copyFrom(config);
       innerConfigBuilder.clearOption("analysis.algorithm.MPV"); // to prevent infinite recursion
       Configuration singleConfig = innerConfigBuilder.build();
-      CoreComponentsFactory coreComponents =
-          new CoreComponentsFactory(
-              singleConfig, logger, shutdownManager.getNotifier(), new AggregatedReachedSets());
-
-      return coreComponents.createAlgorithm(cpa, cfa, specification);
+      return new CoreComponentsFactory(
+          singleConfig, logger, shutdownManager.getNotifier(), new AggregatedReachedSets());
     } catch (InvalidConfigurationException e) {
       // Should be unreachable, since configuration is already checked
       throw new CPAException("Cannot create configuration for inner algorithm", e);
-    } finally {
-      stats.createPartitionsTimer.stop();
     }
   }
 
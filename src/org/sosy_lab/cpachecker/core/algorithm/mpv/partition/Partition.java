@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.core.algorithm.mpv.partition;
 
+import java.lang.management.ManagementFactory;
 import javax.management.JMException;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.algorithm.mpv.property.MultipleProperties;
@@ -23,8 +24,11 @@ public final class Partition {
   private TimeSpan partitionTimeLimit;
   private final boolean
       isAssignUnknown; // whether treat analysis failure as Unknown for checked properties or not
-  private long cpuTime = 0;
-  private TimeSpan spentCpuTime = TimeSpan.ofNanos(-1);
+  // CPU time at the start of the analysis, negative if unknown or not started
+  private long cpuTime = -1;
+  // spent CPU time, negative until the analysis has stopped (may be read by other threads)
+  private volatile TimeSpan spentCpuTime = TimeSpan.ofNanos(-1);
+  private boolean measureThreadCpuTime = false; // whether only the current thread is measured
 
   public Partition(
       MultipleProperties pProperties, TimeSpan pPartitionTimeLimit, boolean pIsAssignUnknown) {
@@ -47,6 +51,28 @@ public final class Partition {
     }
   }
 
+  /**
+   * Prepare partition for algorithm run, which is executed exclusively in the current thread
+   * (e.g., if several partitions are checked in parallel). In this case only the CPU time of the
+   * current thread is assigned to this partition.
+   */
+  public void startAnalysisInCurrentThread() {
+    measureThreadCpuTime = true;
+    cpuTime = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+  }
+
+  /**
+   * Record the CPU time of the current thread as spent time of this partition, if the analysis
+   * was started by {@link #startAnalysisInCurrentThread()} and was not stopped regularly (e.g.,
+   * because the thread was cancelled). This has to be called by the thread that has checked the
+   * partition after its analysis.
+   */
+  public void finishAnalysisInCurrentThread() {
+    if (measureThreadCpuTime && spentCpuTime.asNanos() < 0) {
+      spentCpuTime = measureSpentCpuTime();
+    }
+  }
+
   /** Stop checking of the partition on algorithm failure. */
   public void stopAnalysisOnFailure(ReachedSet reached, String reason) {
     if (isAssignUnknown) {
@@ -76,8 +102,9 @@ public final class Partition {
   }
 
   private void stopAnalysis(ReachedSet reached) {
-    spentCpuTime = getSpentCPUTime();
-    properties.divideSpentResources(spentCpuTime, reached);
+    TimeSpan spent = measureSpentCpuTime();
+    spentCpuTime = spent;
+    properties.divideSpentResources(spent, reached);
   }
 
   private void stopAnalysisOnSuccess(ReachedSet reached) {
@@ -101,19 +128,37 @@ public final class Partition {
     partitionTimeLimit = timeLimit;
   }
 
+  /**
+   * Return the CPU time that was spent on this partition. If the analysis of the partition is
+   * still running in another thread, the time spent so far is unknown and zero is returned.
+   */
   public TimeSpan getSpentCPUTime() {
-    if (spentCpuTime.asMillis() > 0) {
-      return spentCpuTime;
+    TimeSpan spent = spentCpuTime;
+    if (spent.asNanos() >= 0) {
+      return spent;
+    }
+    if (measureThreadCpuTime) {
+      // thread CPU time can only be measured by the thread that checks the partition
+      return TimeSpan.ofNanos(0);
+    }
+    return measureSpentCpuTime();
+  }
+
+  /** Measure the CPU time since the start of the analysis, in the current thread if necessary. */
+  private TimeSpan measureSpentCpuTime() {
+    if (cpuTime < 0) {
+      return TimeSpan.ofNanos(0);
+    }
+    if (measureThreadCpuTime) {
+      long stopCpuTime = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+      return TimeSpan.ofNanos(stopCpuTime >= 0 ? stopCpuTime - cpuTime : 0);
     }
     try {
-      long stopCpuTime = ProcessCpuTime.read();
-      if (cpuTime >= 0) {
-        cpuTime = stopCpuTime - cpuTime;
-      }
+      return TimeSpan.ofNanos(ProcessCpuTime.read() - cpuTime);
     } catch (JMException | NoClassDefFoundError e) {
       // user was already warned in MainCPAStatistics
+      return TimeSpan.ofNanos(0);
     }
-    return TimeSpan.ofNanos(cpuTime);
   }
 
   @Override
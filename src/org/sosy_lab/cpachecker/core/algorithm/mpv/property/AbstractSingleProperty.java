@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.core.algorithm.mpv.property;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.HashSet;
 import java.util.Set;
 import org.sosy_lab.common.time.TimeSpan;
@@ -17,7 +18,13 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState;
 
-/** Abstract representation of a single property inside multi-property verification. */
+/**
+ * Abstract representation of a single property inside multi-property verification.
+ *
+ * <p>The verification state of a property is updated by the thread that checks its partition and
+ * may be read concurrently by other threads (e.g., if several partitions are checked in parallel),
+ * so all accesses to it are synchronized.
+ */
 public abstract class AbstractSingleProperty {
 
   private final String name;
@@ -54,7 +61,7 @@ public abstract class AbstractSingleProperty {
   public abstract void determineRelevancy(CFA cfa);
 
   /** Return true, if this property did not receive verification result (TRUE, FALSE or UNKNOWN). */
-  public boolean isNotDetermined() {
+  public synchronized boolean isNotDetermined() {
     return result.equals(Result.NOT_YET_STARTED);
   }
 
@@ -62,7 +69,7 @@ public abstract class AbstractSingleProperty {
    * Return true, if this property is still checking (it did not get final result or some property
    * violations were not found).
    */
-  public boolean isNotChecked() {
+  public synchronized boolean isNotChecked() {
     return isNotDetermined() || (result.equals(Result.FALSE) && !allViolationsFound);
   }
 
@@ -70,7 +77,7 @@ public abstract class AbstractSingleProperty {
    * Set final result for the property. Note, that FALSE result cannot be change to UNKNOWN if some
    * property violations were not found.
    */
-  public void updateResult(Result newResult) {
+  public synchronized void updateResult(Result newResult) {
     if (!(newResult.equals(Result.UNKNOWN) && result.equals(Result.FALSE))) {
       result = newResult;
     }
@@ -79,52 +86,52 @@ public abstract class AbstractSingleProperty {
     }
   }
 
-  public boolean isRelevant() {
+  public synchronized boolean isRelevant() {
     return relevant;
   }
 
-  public void setRelevant() {
+  public synchronized void setRelevant() {
     relevant = true;
   }
 
-  public Result getResult() {
+  public synchronized Result getResult() {
     return result;
   }
 
-  public void allViolationsFound() {
+  public synchronized void allViolationsFound() {
     allViolationsFound = true;
   }
 
-  public boolean isAllViolationsFound() {
+  public synchronized boolean isAllViolationsFound() {
     return allViolationsFound;
   }
 
-  public void addViolatedPropertyDescription(Set<Property> pDescription) {
+  public synchronized void addViolatedPropertyDescription(Set<Property> pDescription) {
     violatedPropertyDescription.addAll(pDescription);
   }
 
-  public String getReasonOfUnknown() {
+  public synchronized String getReasonOfUnknown() {
     return reasonOfUnknown;
   }
 
-  public void setReasonOfUnknown(String pReasonOfUnknown) {
+  public synchronized void setReasonOfUnknown(String pReasonOfUnknown) {
     assert !result.equals(Result.TRUE);
     reasonOfUnknown = pReasonOfUnknown;
   }
 
-  public Set<Property> getViolatedPropertyDescription() {
-    return violatedPropertyDescription;
+  public synchronized Set<Property> getViolatedPropertyDescription() {
+    return ImmutableSet.copyOf(violatedPropertyDescription);
   }
 
-  public TimeSpan getCpuTime() {
+  public synchronized TimeSpan getCpuTime() {
     return cpuTime;
   }
 
-  public void addCpuTime(TimeSpan pCpuTime) {
+  public synchronized void addCpuTime(TimeSpan pCpuTime) {
     cpuTime = TimeSpan.sum(cpuTime, pCpuTime);
   }
 
-  public int getViolations() {
+  public synchronized int getViolations() {
     return violations;
   }
 
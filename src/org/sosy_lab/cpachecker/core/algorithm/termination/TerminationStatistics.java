@@ -215,8 +215,7 @@ public class TerminationStatistics extends LassoAnalysisStatistics {
     safetyAnalysisTime.stopIfRunning();
     lassoTime.stopIfRunning();
     lassoConstructionTime.stopIfRunning();
-    lassoNonTerminationTime.stopIfRunning();
-    lassoTerminationTime.stopIfRunning();
+    lassoSynthesisTime.stopIfRunning();
   }
 
   void analysisOfRecursionStarted() {
@@ -380,6 +379,30 @@ public class TerminationStatistics extends LassoAnalysisStatistics {
     pOut.println(
         "    Max time for termination analysis per lasso:    "
             + format(lassoTerminationTime.getMaxTime()));
+    pOut.println(
+        "  Number of reused termination arguments:           "
+            + format(reusedTerminationArguments.get()));
+    pOut.println();
+
+    // synthesis of the lassos of an iteration may run in parallel
+    long totalSynthesisTime = synthesisTimePerLoop.values().stream().mapToLong(t -> t).sum();
+    pOut.println("Wall time for synthesis of arguments:               " + lassoSynthesisTime);
+    pOut.println(
+        "  Sum of synthesis times of all lassos:             "
+            + format(TimeSpan.ofNanos(totalSynthesisTime)));
+    long synthesisWallTime = lassoSynthesisTime.getSumTime().asNanos();
+    if (synthesisWallTime > 0) {
+      pOut.println(
+          "  Speedup of parallel synthesis:                    "
+              + div(totalSynthesisTime, synthesisWallTime));
+    }
+    for (Entry<Loop, Long> loopSynthesisTime : synthesisTimePerLoop.entrySet()) {
+      pOut.println(
+          "  Synthesis time for loop "
+              + loopSynthesisTime.getKey().getLoopHeads()
+              + ": "
+              + format(TimeSpan.ofNanos(loopSynthesisTime.getValue())));
+    }
     pOut.println();
 
     int totoalTerminationArguments = terminationArguments.size();
@@ -11,8 +11,10 @@ package org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sosy_lab.java_smt.SolverContextFactory.Solvers.SMTINTERPOL;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.uni_freiburg.informatik.ultimate.core.lib.exceptions.ToolchainCanceledException;
 import de.uni_freiburg.informatik.ultimate.icfgtransformer.transformulatransformers.TermException;
 import de.uni_freiburg.informatik.ultimate.lassoranker.AnalysisType;
@@ -34,9 +36,20 @@ import de.uni_freiburg.informatik.ultimate.logic.SMTLIBException;
 import de.uni_freiburg.informatik.ultimate.logic.Script.LBool;
 import de.uni_freiburg.informatik.ultimate.logic.Term;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.NativeLibraries;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -54,10 +67,12 @@ import org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis.toolcha
 import org.sosy_lab.cpachecker.core.counterexample.CounterexampleInfo;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.SolverContextFactory;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext;
@@ -162,6 +177,22 @@ public class LassoAnalysis {
   @IntegerOption(min = 1)
   private int maxTemplateFunctions = 3;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for synthesizing (non-)termination arguments of the lassos "
+              + "of one counterexample in parallel. "
+              + "Each lasso is analyzed with its own solver instances.")
+  @IntegerOption(min = 1)
+  private int threads = 1;
+
+  @Option(
+      secure = true,
+      description =
+          "Reuse the termination argument of a lasso that was already proved to terminate "
+              + "if the same lasso of the same loop is found again.")
+  private boolean cacheProvedLassos = false;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final LassoAnalysisStatistics statistics;
@@ -181,6 +212,12 @@ public class LassoAnalysis {
 
   private final ImmutableList<RankingTemplate> rankingTemplates;
 
+  /**
+   * Termination arguments of already proved lassos, identified by the loop and the string
+   * representation of the lasso, i.e., its stem and loop transition formula.
+   */
+  private final Map<Pair<Loop, String>, RankingRelation> provedLassos = new ConcurrentHashMap<>();
+
   @SuppressWarnings({"resource", "unchecked"})
   public static LassoAnalysis create(
       LassoBuilder pLassoBuilder,
@@ -441,15 +478,46 @@ public class LassoAnalysis {
   public LassoAnalysisResult checkTermination(
       Loop pLoop, Collection<Lasso> lassos, Set<CVariableDeclaration> pRelevantVariables)
       throws IOException, SMTLIBException, TermException, InterruptedException, SolverException {
+    statistics.lassoSynthesisStarted();
+    try {
+      return checkTerminationOfLassos(pLoop, ImmutableList.copyOf(lassos), pRelevantVariables);
+    } finally {
+      statistics.lassoSynthesisFinished();
+    }
+  }
 
-    LassoAnalysisResult result = LassoAnalysisResult.unknown();
+  private LassoAnalysisResult checkTerminationOfLassos(
+      Loop pLoop, List<Lasso> lassos, Set<CVariableDeclaration> pRelevantVariables)
+      throws IOException, SMTLIBException, TermException, InterruptedException, SolverException {
+
+    // Lassos that were already proved to terminate need to be analyzed neither for
+    // non-termination nor for termination again.
+    @Nullable LassoAnalysisResult[] terminationResults = new LassoAnalysisResult[lassos.size()];
+    List<Lasso> unprovedLassos = new ArrayList<>(lassos.size());
+    for (int i = 0; i < lassos.size(); i++) {
+      @Nullable RankingRelation rankingRelation = null;
+      if (cacheProvedLassos) {
+        rankingRelation = provedLassos.get(Pair.of(pLoop, lassos.get(i).toString()));
+      }
+      if (rankingRelation != null) {
+        statistics.reusedTerminationArgument();
+        terminationResults[i] = LassoAnalysisResult.fromTerminationArgument(rankingRelation);
+      } else {
+        unprovedLassos.add(lassos.get(i));
+      }
+    }
 
     // Try to synthesize non-termination arguments first because it is much cheaper
     // than synthesizing termination arguments.
-    for (Lasso lasso : lassos) {
-      shutdownNotifier.shutdownIfNecessary();
-      logger.logf(Level.FINER, "Synthesizing non-termination argument for lasso:\n%s.", lasso);
-      LassoAnalysisResult resultFromLasso = synthesizeNonTerminationArgument(pLoop, lasso);
+    LassoAnalysisResult result = LassoAnalysisResult.unknown();
+    for (LassoAnalysisResult resultFromLasso :
+        analyzeLassos(
+            unprovedLassos,
+            (lasso, storage) -> {
+              logger.logf(
+                  Level.FINER, "Synthesizing non-termination argument for lasso:\n%s.", lasso);
+              return synthesizeNonTerminationArgument(pLoop, lasso, storage);
+            })) {
       result = result.update(resultFromLasso);
 
       // Stop and return result if non-termination could be proved.
@@ -459,24 +527,111 @@ public class LassoAnalysis {
     }
 
     // Synthesize termination arguments
-    for (Lasso lasso : lassos) {
-      shutdownNotifier.shutdownIfNecessary();
-      logger.logf(Level.FINER, "Synthesizing termination argument for lasso:\n%s.", lasso);
-      LassoAnalysisResult resultFromLasso =
-          synthesizeTerminationArgument(pLoop, lasso, pRelevantVariables);
-      result = result.update(resultFromLasso);
+    Iterator<LassoAnalysisResult> resultsFromUnprovedLassos =
+        analyzeLassos(
+                unprovedLassos,
+                (lasso, storage) -> {
+                  logger.logf(
+                      Level.FINER, "Synthesizing termination argument for lasso:\n%s.", lasso);
+                  return synthesizeTerminationArgument(
+                      pLoop, lasso, pRelevantVariables, storage);
+                })
+            .iterator();
+    for (int i = 0; i < lassos.size(); i++) {
+      if (terminationResults[i] == null) {
+        LassoAnalysisResult resultFromLasso = resultsFromUnprovedLassos.next();
+        if (cacheProvedLassos && resultFromLasso.hasTerminationArgument()) {
+          provedLassos.put(
+              Pair.of(pLoop, lassos.get(i).toString()), resultFromLasso.getTerminationArgument());
+        }
+        terminationResults[i] = resultFromLasso;
+      }
     }
 
+    // merge in the order of the lassos, such that the result does not depend on the scheduling
+    for (LassoAnalysisResult resultFromLasso : terminationResults) {
+      result = result.update(resultFromLasso);
+    }
     return result;
   }
 
-  private LassoAnalysisResult synthesizeNonTerminationArgument(Loop pLoop, Lasso lasso)
+  private interface LassoTask {
+    LassoAnalysisResult analyze(Lasso pLasso, LassoRankerToolchainStorage pToolchainStorage)
+        throws IOException, SMTLIBException, TermException, InterruptedException, SolverException;
+  }
+
+  /**
+   * Run the given task for all lassos, using the configured number of threads. The results are
+   * returned in the order of the lassos. When the lassos are analyzed sequentially, the analysis
+   * stops after the first lasso with a non-termination argument.
+   *
+   * <p>Each parallel task gets its own toolchain storage, such that LassoRanker creates separate
+   * solver instances for each lasso.
+   */
+  private List<LassoAnalysisResult> analyzeLassos(List<Lasso> pLassos, LassoTask pTask)
+      throws IOException, SMTLIBException, TermException, InterruptedException, SolverException {
+    List<LassoAnalysisResult> results = new ArrayList<>(pLassos.size());
+
+    if (threads == 1 || pLassos.size() < 2) {
+      for (Lasso lasso : pLassos) {
+        shutdownNotifier.shutdownIfNecessary();
+        LassoAnalysisResult result = pTask.analyze(lasso, toolchainStorage);
+        results.add(result);
+        if (result.hasNonTerminationArgument()) {
+          break;
+        }
+      }
+      return results;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, pLassos.size()),
+            new ThreadFactoryBuilder().setNameFormat("LassoAnalysis-%d").setDaemon(true).build());
+    try {
+      List<Future<LassoAnalysisResult>> futures = new ArrayList<>(pLassos.size());
+      for (Lasso lasso : pLassos) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  shutdownNotifier.shutdownIfNecessary();
+                  LassoRankerToolchainStorage storage =
+                      new LassoRankerToolchainStorage(logger, shutdownNotifier);
+                  try {
+                    return pTask.analyze(lasso, storage);
+                  } finally {
+                    storage.clear();
+                  }
+                }));
+      }
+      for (Future<LassoAnalysisResult> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          Throwables.throwIfInstanceOf(t, IOException.class);
+          Throwables.throwIfInstanceOf(t, TermException.class);
+          Throwables.throwIfInstanceOf(t, SolverException.class);
+          Throwables.propagateIfPossible(t, InterruptedException.class);
+          throw new UnexpectedCheckedException("analysis of lassos", t);
+        }
+      }
+    } finally {
+      // cancels the remaining tasks if the analysis of a lasso failed
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  private LassoAnalysisResult synthesizeNonTerminationArgument(
+      Loop pLoop, Lasso lasso, LassoRankerToolchainStorage pToolchainStorage)
       throws IOException, SMTLIBException, TermException {
 
-    statistics.nonTerminationAnalysisOfLassoStarted();
+    TimerWrapper timer = statistics.getNonTerminationAnalysisOfLassoTimer();
+    timer.start();
     NonTerminationArgument nonTerminationArgument = null;
     try (NonTerminationArgumentSynthesizer nonTerminationArgumentSynthesizer =
-        createNonTerminationArgumentSynthesizer(lasso)) {
+        createNonTerminationArgumentSynthesizer(lasso, pToolchainStorage)) {
 
       LBool result = nonTerminationArgumentSynthesizer.synthesize();
       if (result.equals(LBool.SAT) && nonTerminationArgumentSynthesizer.synthesisSuccessful()) {
@@ -490,21 +645,26 @@ public class LassoAnalysis {
       }
 
     } finally {
-      statistics.nonTerminationAnalysisOfLassoFinished();
+      timer.stop();
+      statistics.analysisOfLassoFinished(pLoop, timer.getLengthOfLastInterval());
     }
   }
 
   private LassoAnalysisResult synthesizeTerminationArgument(
-      Loop pLoop, Lasso lasso, Set<CVariableDeclaration> pRelevantVariables)
+      Loop pLoop,
+      Lasso lasso,
+      Set<CVariableDeclaration> pRelevantVariables,
+      LassoRankerToolchainStorage pToolchainStorage)
       throws IOException, SMTLIBException, TermException, InterruptedException, SolverException {
 
-    statistics.terminationAnalysisOfLassoStarted();
+    TimerWrapper timer = statistics.getTerminationAnalysisOfLassoTimer();
+    timer.start();
     try {
       for (RankingTemplate rankingTemplate : rankingTemplates) {
         shutdownNotifier.shutdownIfNecessary();
 
         try (TerminationArgumentSynthesizer terminationArgumentSynthesizer =
-            createTerminationArgumentSynthesizer(lasso, rankingTemplate)) {
+            createTerminationArgumentSynthesizer(lasso, rankingTemplate, pToolchainStorage)) {
           LBool result = null;
           try {
             result = terminationArgumentSynthesizer.synthesize();
@@ -520,35 +680,40 @@ public class LassoAnalysis {
             TerminationArgument terminationArgument = terminationArgumentSynthesizer.getArgument();
             logger.logf(Level.FINE, "Found termination argument: %s", terminationArgument);
 
-            try (ProverEnvironment proverEnv = solverContext.newProverEnvironment()) {
-              RankingRelation rankingRelation =
-                  rankingRelationBuilder.fromTerminationArgument(
-                      terminationArgument, pRelevantVariables);
-
-              proverEnv.push(rankingRelation.asFormula());
-              if (!proverEnv.isUnsat()) {
-                statistics.synthesizedTerminationArgument(pLoop, terminationArgument);
-                return LassoAnalysisResult.fromTerminationArgument(rankingRelation);
+            // the solver context is shared by all threads
+            synchronized (solverContext) {
+              try (ProverEnvironment proverEnv = solverContext.newProverEnvironment()) {
+                RankingRelation rankingRelation =
+                    rankingRelationBuilder.fromTerminationArgument(
+                        terminationArgument, pRelevantVariables);
+
+                proverEnv.push(rankingRelation.asFormula());
+                if (!proverEnv.isUnsat()) {
+                  statistics.synthesizedTerminationArgument(pLoop, terminationArgument);
+                  return LassoAnalysisResult.fromTerminationArgument(rankingRelation);
+                }
+
+              } catch (RankingRelationException e) {
+                logger.logUserException(
+                    Level.INFO, e, "Could not create ranking relation from " + terminationArgument);
+                return LassoAnalysisResult.unknown();
               }
-
-            } catch (RankingRelationException e) {
-              logger.logUserException(
-                  Level.INFO, e, "Could not create ranking relation from " + terminationArgument);
-              return LassoAnalysisResult.unknown();
             }
           }
         }
       }
 
     } finally {
-      statistics.terminationAnalysisOfLassoFinished();
+      timer.stop();
+      statistics.analysisOfLassoFinished(pLoop, timer.getLengthOfLastInterval());
     }
 
     return LassoAnalysisResult.unknown();
   }
 
   private TerminationArgumentSynthesizer createTerminationArgumentSynthesizer(
-      Lasso lasso, RankingTemplate template) throws IOException {
+      Lasso lasso, RankingTemplate template, LassoRankerToolchainStorage pToolchainStorage)
+      throws IOException {
     LassoRankerPreferences lassoRankerPreferences;
     TerminationAnalysisSettings terminationAnalysisSettings;
 
@@ -567,12 +732,12 @@ public class LassoAnalysis {
         lassoRankerPreferences,
         terminationAnalysisSettings,
         ImmutableSet.of(),
-        toolchainStorage);
+        pToolchainStorage);
   }
 
-  private NonTerminationArgumentSynthesizer createNonTerminationArgumentSynthesizer(Lasso lasso)
-      throws IOException {
+  private NonTerminationArgumentSynthesizer createNonTerminationArgumentSynthesizer(
+      Lasso lasso, LassoRankerToolchainStorage pToolchainStorage) throws IOException {
     return new NonTerminationArgumentSynthesizer(
-        lasso, nonlinearLassoRankerPreferences, nonTerminationAnalysisSettings, toolchainStorage);
+        lasso, nonlinearLassoRankerPreferences, nonTerminationAnalysisSettings, pToolchainStorage);
   }
 }
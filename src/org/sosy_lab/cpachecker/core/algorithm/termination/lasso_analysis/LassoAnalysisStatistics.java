@@ -17,9 +17,12 @@ import de.uni_freiburg.informatik.ultimate.lassoranker.termination.TerminationAr
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 public abstract class LassoAnalysisStatistics implements Statistics {
 
@@ -27,9 +30,20 @@ public abstract class LassoAnalysisStatistics implements Statistics {
 
   protected final Timer lassoConstructionTime = new Timer();
 
-  protected final Timer lassoNonTerminationTime = new Timer();
+  // lassos may be analyzed in parallel, so each analysis of a lasso uses its own timer
+  protected final ThreadSafeTimerContainer lassoNonTerminationTime =
+      new ThreadSafeTimerContainer("Time for non-termination analysis");
 
-  protected final Timer lassoTerminationTime = new Timer();
+  protected final ThreadSafeTimerContainer lassoTerminationTime =
+      new ThreadSafeTimerContainer("Time for termination analysis");
+
+  /** Wall time for synthesizing (non-)termination arguments for all lassos of an iteration. */
+  protected final Timer lassoSynthesisTime = new Timer();
+
+  /** Sum of the synthesis times of the single lassos of each loop, in nanoseconds. */
+  protected final Map<Loop, Long> synthesisTimePerLoop = new ConcurrentHashMap<>();
+
+  protected final AtomicInteger reusedTerminationArguments = new AtomicInteger();
 
   protected final Timer lassoStemLoopConstructionTime = new Timer();
 
@@ -56,8 +70,7 @@ public abstract class LassoAnalysisStatistics implements Statistics {
   public void analysisOfLassosFinished() {
     lassoTime.stop();
     lassoConstructionTime.stopIfRunning();
-    lassoNonTerminationTime.stopIfRunning();
-    lassoTerminationTime.stopIfRunning();
+    lassoSynthesisTime.stopIfRunning();
     maxLassosPerIteration.accumulateAndGet(lassosCurrentIteration.getAndSet(0), Math::max);
   }
 
@@ -74,20 +87,36 @@ public abstract class LassoAnalysisStatistics implements Statistics {
     lassosCurrentIteration.addAndGet(numberOfLassos);
   }
 
-  public void nonTerminationAnalysisOfLassoStarted() {
-    lassoNonTerminationTime.start();
+  public void lassoSynthesisStarted() {
+    lassoSynthesisTime.start();
+  }
+
+  public void lassoSynthesisFinished() {
+    lassoSynthesisTime.stop();
+  }
+
+  /**
+   * Returns a new timer for the non-termination analysis of a single lasso. The timer may be used
+   * in any thread.
+   */
+  public TimerWrapper getNonTerminationAnalysisOfLassoTimer() {
+    return lassoNonTerminationTime.getNewTimer();
   }
 
-  public void nonTerminationAnalysisOfLassoFinished() {
-    lassoNonTerminationTime.stop();
+  /**
+   * Returns a new timer for the termination analysis of a single lasso. The timer may be used in
+   * any thread.
+   */
+  public TimerWrapper getTerminationAnalysisOfLassoTimer() {
+    return lassoTerminationTime.getNewTimer();
   }
 
-  public void terminationAnalysisOfLassoStarted() {
-    lassoTerminationTime.start();
+  public void analysisOfLassoFinished(Loop pLoop, TimeSpan pSynthesisTime) {
+    synthesisTimePerLoop.merge(pLoop, pSynthesisTime.asNanos(), Long::sum);
   }
 
-  public void terminationAnalysisOfLassoFinished() {
-    lassoTerminationTime.stop();
+  public void reusedTerminationArgument() {
+    reusedTerminationArguments.incrementAndGet();
   }
 
   public void synthesizedNonTerminationArgument(
@@ -97,7 +126,9 @@ public abstract class LassoAnalysisStatistics implements Statistics {
 
   protected void synthesizedTerminationArgument(
       Loop pLoop, TerminationArgument pTerminationArgument) {
-    terminationArguments.put(pLoop, pTerminationArgument);
+    synchronized (terminationArguments) {
+      terminationArguments.put(pLoop, pTerminationArgument);
+    }
   }
 
   public void stemAndLoopConstructionStarted() {
@@ -20,13 +20,19 @@ import com.google.common.base.Predicates;
 import com.google.common.base.Splitter;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.io.Resources;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.Writer;
 import java.nio.charset.Charset;
@@ -36,16 +42,22 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.JSON;
 import org.sosy_lab.common.Optionals;
@@ -58,6 +70,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.export.DOTBuilder2;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -68,6 +81,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.core.CPAchecker;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
@@ -78,9 +92,10 @@ import org.sosy_lab.cpachecker.cpa.arg.witnessexport.WitnessToOutputFormatsUtils
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.BiPredicates;
 import org.sosy_lab.cpachecker.util.faultlocalization.FaultLocalizationInfo;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 @Options
-public class ReportGenerator {
+public class ReportGenerator implements Statistics {
 
   private static final DateTimeFormatter DATE_TIME_FORMAT =
       DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -114,6 +129,31 @@ public class ReportGenerator {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private PathTemplate counterExampleFiles = PathTemplate.ofFormatString("Counterexample.%d.html");
 
+  @Option(
+      secure = true,
+      name = "report.chunked",
+      description =
+          "Write the nodes and edges of the CFA and the ARG into separate data files with one file"
+              + " per function instead of including them in the HTML report. The report loads"
+              + " these files on demand, such that reports for large programs can still be opened"
+              + " in a browser. The data files need to be kept next to the report.")
+  private boolean chunkedReport = false;
+
+  @Option(
+      secure = true,
+      name = "report.dataDirectory",
+      description = "Directory for the data files of a chunked HTML report.")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path dataDirectory = Paths.get("ReportData");
+
+  @Option(
+      secure = true,
+      name = "report.compressData",
+      description =
+          "Compress the data files of a chunked HTML report with gzip. Opening such a report"
+              + " requires a browser that supports the DecompressionStream API.")
+  private boolean compressData = true;
+
   private final @Nullable Path logFile;
   private final ImmutableList<String> sourceFiles;
   private final Map<Integer, Object> argNodes;
@@ -124,6 +164,10 @@ public class ReportGenerator {
   private final Map<String, Map<String, Object>> argReducedNodes;
   private Optional<Witness> witnessOptional;
 
+  private final Timer generationTime = new Timer();
+  private int numberOfWrittenFiles = 0;
+  private long sizeOfWrittenFiles = 0;
+
   private final String producer; // HTML-escaped producer string
 
   public ReportGenerator(
@@ -170,6 +214,7 @@ public class ReportGenerator {
       return;
     }
 
+    generationTime.start();
     extractWitness(pResult, pCfa, pReached);
 
     // we cannot export the graph for some special analyses, e.g., termination analysis
@@ -179,22 +224,32 @@ public class ReportGenerator {
       buildReducedArgGraphData();
     }
 
+    List<Path> writtenFiles = new ArrayList<>();
     DOTBuilder2 dotBuilder = new DOTBuilder2(pCfa);
+    @Nullable Map<String, Object> dataFiles = null;
+    if (chunkedReport && dataDirectory != null) {
+      try {
+        dataFiles = writeDataFiles(pCfa, dotBuilder, writtenFiles);
+      } catch (IOException e) {
+        logger.logUserException(
+            WARNING, e, "Could not write data files of report, including all data in the report.");
+      }
+    }
+
     PrintStream console = System.out;
     if (counterExamples.isEmpty()) {
       if (reportFile != null) {
-        fillOutTemplate(null, reportFile, pCfa, dotBuilder, pStatistics);
+        fillOutTemplate(null, reportFile, pCfa, dotBuilder, dataFiles, pStatistics);
+        writtenFiles.add(reportFile);
         console.println("Graphical representation included in the file \"" + reportFile + "\".");
       }
 
     } else {
       for (CounterexampleInfo counterExample : counterExamples) {
+        Path counterExampleFile = counterExampleFiles.getPath(counterExample.getUniqueId());
         fillOutTemplate(
-            counterExample,
-            counterExampleFiles.getPath(counterExample.getUniqueId()),
-            pCfa,
-            dotBuilder,
-            pStatistics);
+            counterExample, counterExampleFile, pCfa, dotBuilder, dataFiles, pStatistics);
+        writtenFiles.add(counterExampleFile);
       }
 
       StringBuilder counterExFiles = new StringBuilder();
@@ -210,6 +265,38 @@ public class ReportGenerator {
       counterExFiles.append("\".");
       console.println(counterExFiles.toString());
     }
+
+    generationTime.stop();
+    numberOfWrittenFiles = writtenFiles.size();
+    for (Path file : writtenFiles) {
+      try {
+        sizeOfWrittenFiles += Files.size(file);
+      } catch (IOException e) {
+        logger.logDebugException(e, "Could not determine size of report file " + file);
+      }
+    }
+    logger.logf(
+        Level.INFO,
+        "Report generation took %s and wrote %d files with %d bytes",
+        generationTime.getLengthOfLastInterval().formatAs(TimeUnit.SECONDS),
+        numberOfWrittenFiles,
+        sizeOfWrittenFiles);
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    if (generationTime.getNumberOfIntervals() > 0) {
+      StatisticsWriter.writingStatisticsTo(pOut)
+          .put("Time for report generation", generationTime)
+          .put("Number of written files", numberOfWrittenFiles)
+          .put("Size of written files (bytes)", sizeOfWrittenFiles);
+    }
+  }
+
+  @Override
+  public @Nullable String getName() {
+    // report statistics are only printed if a report was generated
+    return generationTime.getNumberOfIntervals() > 0 ? "Report generation" : null;
   }
 
   private void extractWitness(Result pResult, CFA pCfa, UnmodifiableReachedSet pReached) {
@@ -241,6 +328,7 @@ public class ReportGenerator {
       Path reportPath,
       CFA cfa,
       DOTBuilder2 dotBuilder,
+      @Nullable Map<String, Object> dataFiles,
       String statistics) {
 
     try (
@@ -256,7 +344,7 @@ public class ReportGenerator {
         } else if (line.contains("REPORT_CSS")) {
           insertCss(writer);
         } else if (line.contains("REPORT_JS")) {
-          insertJs(writer, cfa, dotBuilder, counterExample);
+          insertJs(writer, cfa, dotBuilder, dataFiles, reportPath, counterExample);
         } else if (line.contains("STATISTICS")) {
           insertStatistics(writer, statistics);
         } else if (line.contains("SOURCE_CONTENT")) {
@@ -286,6 +374,8 @@ public class ReportGenerator {
       Writer writer,
       CFA cfa,
       DOTBuilder2 dotBuilder,
+      @Nullable Map<String, Object> dataFiles,
+      Path reportPath,
       @Nullable CounterexampleInfo counterExample)
       throws IOException {
     try (BufferedReader reader =
@@ -294,9 +384,11 @@ public class ReportGenerator {
       String line;
       while (null != (line = reader.readLine())) {
         if (line.contains("CFA_JSON_INPUT")) {
-          insertCfaJson(writer, cfa, dotBuilder, counterExample);
+          insertCfaJson(writer, cfa, dotBuilder, dataFiles != null, counterExample);
         } else if (line.contains("ARG_JSON_INPUT")) {
-          insertArgJson(writer);
+          insertArgJson(writer, dataFiles != null);
+        } else if (line.contains("REPORT_DATA_INPUT")) {
+          insertDataFiles(writer, cfa, dataFiles, reportPath, counterExample);
         } else if (line.contains("SOURCE_FILES")) {
           insertSourceFileNames(writer);
         } else {
@@ -308,18 +400,17 @@ public class ReportGenerator {
   }
 
   private void insertCfaJson(
-      Writer writer, CFA cfa, DOTBuilder2 dotBuilder, @Nullable CounterexampleInfo counterExample)
+      Writer writer,
+      CFA cfa,
+      DOTBuilder2 dotBuilder,
+      boolean inDataFiles,
+      @Nullable CounterexampleInfo counterExample)
       throws IOException {
     writer.write("var cfaJson = {\n");
 
     // Program entry function at first place is important for the graph generation
     writer.write("\"functionNames\":");
-    Set<String> allFunctionsEntryFirst =
-        ImmutableSet.<String>builder()
-            .add(cfa.getMainFunction().getFunctionName())
-            .addAll(cfa.getAllFunctionNames())
-            .build();
-    JSON.writeJSONString(allFunctionsEntryFirst, writer);
+    JSON.writeJSONString(getFunctionNamesEntryFirst(cfa), writer);
 
     writer.write(",\n\"functionCallEdges\":");
     dotBuilder.writeFunctionCallEdges(writer);
@@ -350,18 +441,27 @@ public class ReportGenerator {
     }
 
     writer.write(",\n");
-    dotBuilder.writeCfaInfo(writer);
+    if (inDataFiles) {
+      // nodes and edges are added by the report when loading the data files
+      writer.write("\"nodes\":[],\n\"edges\":[]");
+    } else {
+      dotBuilder.writeCfaInfo(writer);
+    }
     writer.write("\n}\n");
   }
 
-  private void insertArgJson(Writer writer) throws IOException {
+  private void insertArgJson(Writer writer, boolean inDataFiles) throws IOException {
     writer.write("var argJson = {");
     if (!argNodes.isEmpty() && !argEdges.isEmpty()) {
-      writer.write("\n\"nodes\":");
-      JSON.writeJSONString(argNodes.values(), writer);
-      writer.write(",\n\"edges\":");
-      JSON.writeJSONString(argEdges.values(), writer);
-      writer.write("\n");
+      if (inDataFiles) {
+        writer.write("\n\"nodes\":[],\n\"edges\":[]\n");
+      } else {
+        writer.write("\n\"nodes\":");
+        JSON.writeJSONString(argNodes.values(), writer);
+        writer.write(",\n\"edges\":");
+        JSON.writeJSONString(argEdges.values(), writer);
+        writer.write("\n");
+      }
     }
     if (!argRelevantEdges.isEmpty() && !argRelevantNodes.isEmpty()) {
       writer.write(",\n\"relevantnodes\":");
@@ -380,6 +480,153 @@ public class ReportGenerator {
     writer.write("}\n");
   }
 
+  /**
+   * Write the data files of a chunked report. Nodes and edges of the CFA and of the ARG are written
+   * to one file per function, edges belong to the function of their source node. Each file is a
+   * script that passes its data to the report, because browsers do not allow to load other kinds
+   * of local files.
+   *
+   * @return the names of the data files for the CFA (per function name) and for the ARG
+   */
+  private Map<String, Object> writeDataFiles(
+      CFA cfa, DOTBuilder2 dotBuilder, List<Path> writtenFiles) throws IOException {
+    Files.createDirectories(dataDirectory);
+
+    Map<String, Object> cfaFiles = new LinkedHashMap<>();
+    int index = 0;
+    for (String function : getFunctionNamesEntryFirst(cfa)) {
+      String fileName = "cfa-" + index++ + ".js";
+      writeDataFile(fileName, writer -> dotBuilder.writeCfaInfo(writer, function), writtenFiles);
+      cfaFiles.put(function, fileName);
+    }
+
+    List<String> argFiles = new ArrayList<>();
+    if (!argNodes.isEmpty() && !argEdges.isEmpty()) {
+      ImmutableListMultimap<String, Object> argNodesPerFunction =
+          Multimaps.index(argNodes.values(), ReportGenerator::getArgNodeFunction);
+      ImmutableListMultimap<String, Object> argEdgesPerFunction =
+          Multimaps.index(
+              argEdges.values(),
+              edge -> getArgNodeFunction(argNodes.get(((Map<?, ?>) edge).get("source"))));
+      for (String function : argNodesPerFunction.keySet()) {
+        String fileName = "arg-" + argFiles.size() + ".js";
+        writeDataFile(
+            fileName,
+            writer -> {
+              writer.write("\"nodes\":");
+              JSON.writeJSONString(argNodesPerFunction.get(function), writer);
+              writer.write(",\n\"edges\":");
+              JSON.writeJSONString(argEdgesPerFunction.get(function), writer);
+            },
+            writtenFiles);
+        argFiles.add(fileName);
+      }
+    }
+
+    Map<String, Object> dataFiles = new LinkedHashMap<>();
+    dataFiles.put("cfa", cfaFiles);
+    dataFiles.put("arg", argFiles);
+    return dataFiles;
+  }
+
+  private static String getArgNodeFunction(Object argNode) {
+    return (String) ((Map<?, ?>) argNode).get("func");
+  }
+
+  @FunctionalInterface
+  private interface DataWriter {
+    void writeTo(Writer writer) throws IOException;
+  }
+
+  /**
+   * Write a data file that calls <code>reportDataLoaded(name, data, compressed)</code> in the
+   * report. The data is streamed into the file, and compressed with gzip and encoded with base64 if
+   * requested.
+   */
+  private void writeDataFile(String fileName, DataWriter content, List<Path> writtenFiles)
+      throws IOException {
+    Path file = dataDirectory.resolve(fileName);
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+      out.write(("reportDataLoaded(\"" + fileName + "\", ").getBytes(Charsets.UTF_8));
+      if (compressData) {
+        out.write('"');
+      }
+      OutputStream data = nonClosing(out);
+      if (compressData) {
+        data = new GZIPOutputStream(Base64.getEncoder().wrap(data));
+      }
+      try (Writer writer = new OutputStreamWriter(data, Charsets.UTF_8)) {
+        writer.write('{');
+        content.writeTo(writer);
+        writer.write('}');
+      }
+      if (compressData) {
+        out.write('"');
+      }
+      out.write((", " + compressData + ");\n").getBytes(Charsets.UTF_8));
+    }
+    writtenFiles.add(file);
+  }
+
+  /** Wrap a stream such that closing the wrapper only flushes the stream. */
+  private static OutputStream nonClosing(OutputStream stream) {
+    return new FilterOutputStream(stream) {
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+        flush();
+      }
+    };
+  }
+
+  /**
+   * Write the index of the data files of a chunked report. The functions on the counterexample
+   * path are loaded immediately, all other functions of the CFA when they are shown.
+   */
+  private void insertDataFiles(
+      Writer writer,
+      CFA cfa,
+      @Nullable Map<String, Object> dataFiles,
+      Path reportPath,
+      @Nullable CounterexampleInfo counterExample)
+      throws IOException {
+    writer.write("var reportData = ");
+    if (dataFiles == null) {
+      writer.write("null;\n");
+      return;
+    }
+
+    Path relativeDirectory =
+        reportPath.toAbsolutePath().getParent().relativize(dataDirectory.toAbsolutePath());
+    Set<String> initialFunctions = new LinkedHashSet<>();
+    initialFunctions.add(cfa.getMainFunction().getFunctionName());
+    if (counterExample != null && !counterExample.isSpurious()) {
+      for (CFAEdge edge : counterExample.getTargetPath().getFullPath()) {
+        initialFunctions.add(edge.getPredecessor().getFunctionName());
+      }
+    }
+
+    Map<String, Object> index = new LinkedHashMap<>(dataFiles);
+    index.put(
+        "directory",
+        relativeDirectory.toString().isEmpty() ? "." : Joiner.on('/').join(relativeDirectory));
+    index.put("compressed", compressData);
+    index.put("initialFunctions", initialFunctions);
+    JSON.writeJSONString(index, writer);
+    writer.write(";\n");
+  }
+
+  private static Set<String> getFunctionNamesEntryFirst(CFA cfa) {
+    return ImmutableSet.<String>builder()
+        .add(cfa.getMainFunction().getFunctionName())
+        .addAll(cfa.getAllFunctionNames())
+        .build();
+  }
+
   private void insertCss(Writer writer) throws IOException {
     writer.write("<style>\n");
     Resources.asCharSource(Resources.getResource(getClass(), CSS_TEMPLATE), Charsets.UTF_8)
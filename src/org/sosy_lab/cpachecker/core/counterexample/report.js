@@ -230,6 +230,14 @@ with considerably less effort */
 					d3.selectAll(".cfa-graph").style("visibility", "visible");
 				} else if (tabIndex === 2) {
 					if (argTabDisabled) return;
+					if (argDataMissing()) {
+						loadArgData(function () {
+							$scope.$apply(function () {
+								$scope.setTab(2);
+							});
+						});
+						return;
+					}
 					if (d3.select("#cfa-toolbar").style("visibility") !== "hidden") {
 						d3.select("#cfa-toolbar").style("visibility", "hidden");
 						d3.selectAll(".cfa-graph").style("visibility", "hidden");
@@ -475,6 +483,13 @@ with considerably less effort */
 		};
 
 		function markErrorPathElementInTab(selectedErrPathElemId) {
+			// the ARG nodes of the error path are marked, so the ARG of a chunked report is needed
+			if (!argTabDisabled && argDataMissing()) {
+				loadArgData(function () {
+					markErrorPathElementInTab(selectedErrPathElemId);
+				});
+				return;
+			}
 			var currentTab = $("#report-controller").scope().getTabSet();
 			if (!Array.isArray(selectedErrPathElemId)) {
 				selectedErrPathElemId = [selectedErrPathElemId];
@@ -714,6 +729,11 @@ with considerably less effort */
 
 
 			$scope.setCFAFunction = function () {
+				var missingFunctions = missingCfaFunctions($scope.selectedCFAFunction);
+				if (missingFunctions.length > 0) {
+					loadCfaFunctions(missingFunctions, $scope.setCFAFunction);
+					return;
+				}
 				if ($scope.zoomEnabled) {
 					$scope.zoomControl();
 				}
@@ -971,6 +991,8 @@ var argJson = {}; //ARG_JSON_INPUT
 
 var sourceFiles = []; //SOURCE_FILES
 var cfaJson = {}; //CFA_JSON_INPUT
+// Index of the data files of a chunked report, or null if all data is included above
+var reportData = null; //REPORT_DATA_INPUT
 
 // CFA graph variable declarations
 var functions = cfaJson.functionNames;
@@ -996,8 +1018,164 @@ var cfaWorker, argWorker;
 var cfaSplit = false,
 	argTabDisabled = false;
 
+// ======================= Data files of chunked reports =======================
+/**
+ * Data files are scripts that call reportDataLoaded, because browsers
+ * do not allow to load other kinds of local files.
+ */
+var reportDataCallbacks = {};
+var loadedCfaFunctions = {};
+var loadedArg = false;
+var cfaDataCallback, argDataCallback;
+
+function reportDataLoaded(file, data, compressed) {
+	var callback = reportDataCallbacks[file];
+	delete reportDataCallbacks[file];
+	if (!compressed) {
+		callback(data);
+		return;
+	}
+	var bytes = Uint8Array.from(atob(data), function (c) {
+		return c.charCodeAt(0);
+	});
+	var stream = new Blob([bytes]).stream().pipeThrough(new DecompressionStream("gzip"));
+	new Response(stream).text().then(function (text) {
+		callback(JSON.parse(text));
+	});
+}
+
+// Load the given data files and pass their contents in the same order to the callback
+function loadDataFiles(files, callback) {
+	var results = [];
+	var pending = files.length;
+	if (pending === 0) {
+		callback(results);
+		return;
+	}
+	files.forEach(function (file, i) {
+		reportDataCallbacks[file] = function (data) {
+			results[i] = data;
+			pending--;
+			if (pending === 0) {
+				callback(results);
+			}
+		};
+		var script = document.createElement("script");
+		script.src = reportData.directory + "/" + file;
+		script.onerror = function () {
+			alert("Could not load report data from " + script.src);
+		};
+		document.head.appendChild(script);
+	});
+}
+
+function appendData(json, data) {
+	data.forEach(function (d) {
+		d.nodes.forEach(function (n) {
+			json.nodes.push(n);
+		});
+		d.edges.forEach(function (e) {
+			json.edges.push(e);
+		});
+	});
+}
+
+// Functions of the CFA that are selected for display, but not yet loaded
+function missingCfaFunctions(selectedFunction) {
+	if (reportData === null) {
+		return [];
+	}
+	var selected = selectedFunction === "all" ? functions : [selectedFunction];
+	return selected.filter(function (f) {
+		return !loadedCfaFunctions[f];
+	});
+}
+
+// Load the CFA of the given functions and render it, afterwards call the callback
+function loadCfaFunctions(funcs, callback) {
+	$("#renderStateModal").modal("show");
+	loadDataFiles(funcs.map(function (f) {
+		return reportData.cfa[f];
+	}), function (data) {
+		funcs.forEach(function (f) {
+			loadedCfaFunctions[f] = true;
+		});
+		appendData(cfaJson, data);
+		var graphCount = 0;
+		data.forEach(function (d) {
+			graphCount += Math.ceil(d.nodes.length / graphSplitThreshold);
+		});
+		$("#cfa-modal").text("0/" + graphCount);
+		cfaDataCallback = callback;
+		cfaWorker.postMessage({
+			"data": JSON.stringify(data),
+			"functions": funcs
+		});
+		cfaWorker.postMessage({
+			"renderer": "ready"
+		});
+	});
+}
+
+// Whether the ARG is part of a chunked report and not yet loaded
+function argDataMissing() {
+	return reportData !== null && !loadedArg;
+}
+
+// Load the ARG and render it, afterwards call the callback
+function loadArgData(callback) {
+	var loading = argDataCallback !== undefined;
+	argDataCallback = callback;
+	if (loading) {
+		return;
+	}
+	$("#renderStateModal").modal("show");
+	loadDataFiles(reportData.arg, function (data) {
+		loadedArg = true;
+		appendData(argJson, data);
+		argJson.nodes.sort(function (a, b) {
+			return a.index - b.index;
+		});
+		$("#arg-modal").text("0/" + Math.ceil(argJson.nodes.length / graphSplitThreshold));
+		postArgData();
+		argWorker.postMessage({
+			"renderer": "ready"
+		});
+	});
+}
+
+// Pass the error path and the ARG to the ARG worker, which prepares the graphs
+function postArgData() {
+	if (errorPath !== undefined) {
+		argWorker.postMessage({
+			"errorPath": JSON.stringify(errorPath)
+		});
+	}
+	argWorker.postMessage({
+		"json": JSON.stringify(argJson)
+	});
+}
+
 function init() {
 
+	// Chunked reports first load the initially shown functions of the CFA,
+	// the ARG is loaded when it is shown for the first time
+	if (reportData !== null && !loadedCfaFunctions[functions[0]]) {
+		var initialFunctions = reportData.initialFunctions.filter(function (f) {
+			return functions.includes(f);
+		});
+		loadDataFiles(initialFunctions.map(function (f) {
+			return reportData.cfa[f];
+		}), function (data) {
+			initialFunctions.forEach(function (f) {
+				loadedCfaFunctions[f] = true;
+			});
+			appendData(cfaJson, data);
+			init();
+		});
+		return;
+	}
+
 	// Calculate total count of graphs to display in modal
 	var argTotalGraphCount;
 	if (argJson.nodes) {
@@ -1074,6 +1252,17 @@ function init() {
 			} else if (m.data.split !== undefined) {
 				graphSplitThreshold = m.data.split;
 				buildGraphsAndPostResults();
+			} else if (m.data.data !== undefined) {
+				// Functions loaded later from the data files of a chunked report
+				JSON.parse(m.data.data).forEach(function (d) {
+					d.nodes.forEach(function (n) {
+						nodes.push(n);
+					});
+					d.edges.forEach(function (e) {
+						edges.push(e);
+					});
+				});
+				buildGraphsAndPostResults(m.data.functions);
 			}
 		}, false);
 
@@ -1116,27 +1305,32 @@ function init() {
 			})
 		}
 
-		function buildGraphsAndPostResults() {
-			if (mainNodes.length > graphSplitThreshold) {
-				buildMultipleGraphs(mainNodes, functions[0]);
-			} else {
-				buildSingleGraph(mainNodes, functions[0]);
-			}
-			if (functions.length > 1) {
-				var functionsToProcess = functions.filter(function (f) {
+		// Build the graphs of the given functions, or of all functions if none are given
+		function buildGraphsAndPostResults(functionsToProcess) {
+			if (functionsToProcess === undefined) {
+				if (mainNodes.length > graphSplitThreshold) {
+					buildMultipleGraphs(mainNodes, functions[0]);
+				} else {
+					buildSingleGraph(mainNodes, functions[0]);
+				}
+				functionsToProcess = functions.filter(function (f) {
 					return f !== functions[0];
 				});
-				functionsToProcess.forEach(function (func) {
-					var funcNodes = nodes.filter(function (n) {
-						return n.func === func;
-					});
-					if (funcNodes.length > graphSplitThreshold) {
-						buildMultipleGraphs(funcNodes, func);
-					} else {
-						buildSingleGraph(funcNodes, func);
-					}
-				});
 			}
+			functionsToProcess.forEach(function (func) {
+				var funcNodes = nodes.filter(function (n) {
+					return n.func === func;
+				});
+				// Functions of chunked reports that are not loaded yet have no nodes
+				if (funcNodes.length === 0) {
+					return;
+				}
+				if (funcNodes.length > graphSplitThreshold) {
+					buildMultipleGraphs(funcNodes, func);
+				} else {
+					buildSingleGraph(funcNodes, func);
+				}
+			});
 		}
 
 		function buildSingleGraph(nodesToSet, funcName) {
@@ -1947,15 +2141,24 @@ function init() {
 				d3.select(this).attr("width", Math.max(d3.select(this).attr("width"), d3.select(this.parentNode).style("width").split("px")[0]));
 			});
 			d3.selectAll(".cfa-graph").style("visibility", "visible");
-			if (cfaSplit) {
+			if (cfaDataCallback !== undefined) {
+				$("#renderStateModal").hide();
+				$('.modal-backdrop').hide();
+				var callback = cfaDataCallback;
+				cfaDataCallback = undefined;
+				callback();
+			} else if (cfaSplit) {
 				$("#renderStateModal").hide();
 				$('.modal-backdrop').hide();
 			} else {
-				if (!argTabDisabled) {
+				if (!argTabDisabled && !argDataMissing()) {
 					argWorker.postMessage({
 						"renderer": "ready"
 					});
 				} else {
+					if (!argTabDisabled) {
+						enableErrorPath();
+					}
 					$("#renderStateModal").hide();
 					$('.modal-backdrop').hide();
 				}
@@ -2028,15 +2231,14 @@ function init() {
 					$("#arg-container").scrollLeft(d3.select(".arg-svg").attr("width") / 4);
 				}
 				addEventsToArg();
-				if (errorPath !== undefined) {
-					d3.selectAll("td.disabled").classed("disabled", false);
-					if (!d3.select(".make-pretty").classed("prettyprint")) {
-						d3.selectAll(".make-pretty").classed("prettyprint", true);
-						PR.prettyPrint();
-					}
-				}
+				enableErrorPath();
 				$("#renderStateModal").hide();
 				$('.modal-backdrop').hide();
+				if (argDataCallback !== undefined) {
+					var callback = argDataCallback;
+					argDataCallback = undefined;
+					callback();
+				}
 			}
 		}, false);
 
@@ -2045,14 +2247,19 @@ function init() {
 		}, false);
 
 		// Initial postMessage to the ARG worker to trigger ARG graph(s) creation
+		if (!argDataMissing()) {
+			postArgData();
+		}
+	}
+
+	function enableErrorPath() {
 		if (errorPath !== undefined) {
-			argWorker.postMessage({
-				"errorPath": JSON.stringify(errorPath)
-			});
+			d3.selectAll("td.disabled").classed("disabled", false);
+			if (!d3.select(".make-pretty").classed("prettyprint")) {
+				d3.selectAll(".make-pretty").classed("prettyprint", true);
+				PR.prettyPrint();
+			}
 		}
-		argWorker.postMessage({
-			"json": JSON.stringify(argJson)
-		});
 	}
 
 	// Function to get transfromation thorugh translate as in new version of D3.js d3.transfrom is removed
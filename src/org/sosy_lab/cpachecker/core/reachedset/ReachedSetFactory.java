@@ -10,6 +10,8 @@ package org.sosy_lab.cpachecker.core.reachedset;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -27,13 +29,17 @@ import org.sosy_lab.cpachecker.core.waitlist.ExplicitSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.LoopIterationSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.LoopstackSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.PostorderSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.PriorityHeapWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.ReversePostorderSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.SMGSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.StateCostFunction;
 import org.sosy_lab.cpachecker.core.waitlist.ThreadingSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
 import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
 import org.sosy_lab.cpachecker.core.waitlist.WeightedRandomWaitlist;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
+import org.sosy_lab.cpachecker.cpa.automaton.TargetDistanceCostFunction;
+import org.sosy_lab.cpachecker.cpa.automaton.TargetDistanceSortedWaitlist;
 import org.sosy_lab.cpachecker.cpa.usage.UsageReachedSet;
 import org.sosy_lab.cpachecker.cpa.usage.storage.UsageConfiguration;
 
@@ -44,6 +50,13 @@ public class ReachedSetFactory {
     NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, USAGE
   }
 
+  private enum WaitlistCost {
+    CALLSTACK_DEPTH,
+    LOOP_ITERATIONS,
+    REVERSE_POSTORDER,
+    TARGET_DISTANCE
+  }
+
   @Option(
     secure = true,
     name = "traversal.order",
@@ -51,6 +64,20 @@ public class ReachedSetFactory {
   )
   private Waitlist.TraversalMethod traversalMethod = Waitlist.TraversalMethod.DFS;
 
+  @Option(
+      secure = true,
+      name = "traversal.heapCosts",
+      description =
+          "use a heap-based waitlist that handles states with lower costs first, "
+              + "where the costs are compared lexicographically in the given order."
+              + " States with equal costs are handled according to 'analysis.traversal.order',"
+              + " which has to be DFS or BFS. Further sorting options are applied on top."
+              + "\nCALLSTACK_DEPTH: states with a deeper callstack first (needs CallstackCPA)"
+              + "\nLOOP_ITERATIONS: states with more loop iterations first (needs LoopBoundCPA)"
+              + "\nREVERSE_POSTORDER: states with a higher reverse-postorder id first"
+              + "\nTARGET_DISTANCE: states closer to a target location of the specification first")
+  private List<WaitlistCost> heapCosts = ImmutableList.of();
+
   @Option(
     secure = true,
     name = "traversal.useCallstack",
@@ -157,6 +184,17 @@ public class ReachedSetFactory {
   )
   private boolean useWeightedBranchOrder = false;
 
+  @Option(
+      secure = true,
+      name = "traversal.useTargetDistance",
+      description =
+          "handle states closer to a target location of the specification automata first."
+              + " The distances are computed backwards from the target locations in the CFA,"
+              + " function calls are counted with the length of the shortest path through"
+              + " the called function. Targets after returning from a function are only"
+              + " considered if the CallstackCPA is used.")
+  private boolean useTargetDistance = false;
+
   @Option(
     secure = true,
     name = "traversal.useBlocks",
@@ -205,6 +243,13 @@ public class ReachedSetFactory {
     } else {
       usageConfig = null;
     }
+    if (!heapCosts.isEmpty()
+        && traversalMethod != Waitlist.TraversalMethod.DFS
+        && traversalMethod != Waitlist.TraversalMethod.BFS) {
+      throw new InvalidConfigurationException(
+          "analysis.traversal.heapCosts can only be combined with DFS or BFS order, not with "
+              + traversalMethod);
+    }
     if (useWeightedDepthOrder || useWeightedBranchOrder) {
       weightedWaitlistOptions = new WeightedRandomWaitlist.WaitlistOptions(pConfig);
     } else {
@@ -215,6 +260,17 @@ public class ReachedSetFactory {
   public ReachedSet create() {
     WaitlistFactory waitlistFactory = traversalMethod;
 
+    // shared by all waitlists of the new reached set, such that distances are computed only once
+    @Nullable TargetDistanceCostFunction targetDistances = null;
+    if (useTargetDistance || heapCosts.contains(WaitlistCost.TARGET_DISTANCE)) {
+      targetDistances = new TargetDistanceCostFunction(logger);
+    }
+
+    if (!heapCosts.isEmpty()) {
+      waitlistFactory =
+          PriorityHeapWaitlist.factory(getCostFunctions(targetDistances), traversalMethod);
+    }
+
     if (useWeightedDepthOrder) {
       waitlistFactory =
           DepthBasedWeightedWaitlist.factory(waitlistFactory, weightedWaitlistOptions);
@@ -262,6 +318,9 @@ public class ReachedSetFactory {
     if (useNumberOfHeapObjects) {
       waitlistFactory = SMGSortedWaitlist.factory(waitlistFactory);
     }
+    if (useTargetDistance) {
+      waitlistFactory = TargetDistanceSortedWaitlist.factory(waitlistFactory, targetDistances);
+    }
     if (useBlocks) {
       waitlistFactory = BlockWaitlist.factory(waitlistFactory, blockConfig, logger);
     }
@@ -291,4 +350,28 @@ public class ReachedSetFactory {
 
     return reached;
   }
+
+  private ImmutableList<StateCostFunction> getCostFunctions(
+      @Nullable TargetDistanceCostFunction pTargetDistances) {
+    ImmutableList.Builder<StateCostFunction> costFunctions = ImmutableList.builder();
+    for (WaitlistCost cost : heapCosts) {
+      switch (cost) {
+        case CALLSTACK_DEPTH:
+          costFunctions.add(StateCostFunction.callstackDepth());
+          break;
+        case LOOP_ITERATIONS:
+          costFunctions.add(StateCostFunction.loopIterations());
+          break;
+        case REVERSE_POSTORDER:
+          costFunctions.add(StateCostFunction.reversePostorder());
+          break;
+        case TARGET_DISTANCE:
+          costFunctions.add(checkNotNull(pTargetDistances));
+          break;
+        default:
+          throw new AssertionError("unknown cost " + cost);
+      }
+    }
+    return costFunctions.build();
+  }
 }
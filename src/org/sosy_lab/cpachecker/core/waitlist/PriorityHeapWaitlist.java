@@ -0,0 +1,354 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Waitlist implementation that keeps a binary heap of buckets of states with equal costs.
+ *
+ * <p>The states are ordered lexicographically by a list of {@link StateCostFunction}s, states with
+ * lower cost are considered first. States with equal costs are considered in DFS or BFS order. In
+ * contrast to {@link AbstractSortedWaitlist}, which keeps a sorted map of sub-waitlists, the bucket
+ * of a state is found with a hash lookup and only the buckets are ordered, so adding and popping
+ * states takes constant time if there are few different costs and logarithmic time in the number
+ * of different costs otherwise (cf. {@link PriorityHeapWaitlistBenchmark}).
+ *
+ * <p>Like for {@link AbstractSortedWaitlist}, the costs of a state are recomputed by {@link
+ * #contains(AbstractState)} and {@link #remove(AbstractState)}, so they must not change while the
+ * state is in the waitlist.
+ *
+ * <p>The iterators created by this class are unmodifiable and iterate over the buckets in heap
+ * order.
+ */
+public class PriorityHeapWaitlist implements Waitlist {
+
+  /**
+   * States with equal costs, stored in a circular array whose length is a power of two. Buckets
+   * are compared by their costs, such that the map of buckets can be searched with a probe bucket.
+   */
+  private static final class Bucket {
+
+    private final int[] costs;
+    private int hash;
+
+    private AbstractState[] states = new AbstractState[1];
+    private int head = 0;
+    private int count = 0;
+
+    /** Position in the heap, or -1 if the bucket is not in the heap. */
+    private int position = -1;
+
+    private Bucket(int[] pCosts, int pHash) {
+      costs = pCosts;
+      hash = pHash;
+    }
+
+    private AbstractState get(int pIndex) {
+      return states[(head + pIndex) & (states.length - 1)];
+    }
+
+    private void addLast(AbstractState pState) {
+      if (count == states.length) {
+        AbstractState[] newStates = new AbstractState[2 * count];
+        for (int i = 0; i < count; i++) {
+          newStates[i] = get(i);
+        }
+        states = newStates;
+        head = 0;
+      }
+      states[(head + count) & (states.length - 1)] = pState;
+      count++;
+    }
+
+    private AbstractState pollFirst() {
+      AbstractState state = states[head];
+      states[head] = null;
+      head = (head + 1) & (states.length - 1);
+      count--;
+      return state;
+    }
+
+    private AbstractState pollLast() {
+      count--;
+      int index = (head + count) & (states.length - 1);
+      AbstractState state = states[index];
+      states[index] = null;
+      return state;
+    }
+
+    private boolean remove(AbstractState pState) {
+      for (int i = 0; i < count; i++) {
+        if (get(i).equals(pState)) {
+          for (int j = i + 1; j < count; j++) {
+            states[(head + j - 1) & (states.length - 1)] = get(j);
+          }
+          pollLast();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private List<AbstractState> asList() {
+      return new AbstractList<>() {
+        @Override
+        public AbstractState get(int pIndex) {
+          return Bucket.this.get(pIndex);
+        }
+
+        @Override
+        public int size() {
+          return count;
+        }
+      };
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      return pObj instanceof Bucket && Arrays.equals(costs, ((Bucket) pObj).costs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(costs) + "=" + asList();
+    }
+  }
+
+  private final ImmutableList<StateCostFunction> costFunctions;
+
+  /** Whether states with equal costs are considered in DFS (LIFO) or in BFS (FIFO) order. */
+  private final boolean lifo;
+
+  /** All non-empty buckets. */
+  private final Map<Bucket, Bucket> buckets = new HashMap<>();
+
+  // invariant: heap[i].position == i and no bucket has lower costs than its parent
+  private Bucket[] heap = new Bucket[16];
+  private int heapSize = 0;
+
+  private int size = 0;
+
+  /**
+   * Bucket for looking up the costs of a state, its costs are overwritten for each state and its
+   * hash code is updated only before a lookup.
+   */
+  private final Bucket probe;
+
+  /** The bucket of the last added state, successors often have the same costs. */
+  private @Nullable Bucket lastBucket = null;
+
+  protected PriorityHeapWaitlist(
+      ImmutableList<StateCostFunction> pCostFunctions, TraversalMethod pTieBreaking) {
+    checkArgument(
+        pTieBreaking == TraversalMethod.DFS || pTieBreaking == TraversalMethod.BFS,
+        "Only DFS and BFS are supported for states with equal costs, not %s",
+        pTieBreaking);
+    costFunctions = pCostFunctions;
+    lifo = pTieBreaking == TraversalMethod.DFS;
+    probe = new Bucket(new int[costFunctions.size()], 0);
+  }
+
+  @Override
+  public void add(AbstractState pState) {
+    computeCosts(pState);
+    Bucket bucket = lastBucket;
+    if (bucket == null || bucket.position < 0 || !Arrays.equals(bucket.costs, probe.costs)) {
+      bucket = findBucket();
+      if (bucket == null) {
+        bucket = new Bucket(probe.costs.clone(), probe.hash);
+        buckets.put(bucket, bucket);
+        insertBucket(bucket);
+      }
+      lastBucket = bucket;
+    }
+    bucket.addLast(pState);
+    size++;
+  }
+
+  private void computeCosts(AbstractState pState) {
+    int[] costs = probe.costs;
+    for (int i = 0; i < costs.length; i++) {
+      costs[i] = costFunctions.get(i).getCost(pState);
+    }
+  }
+
+  private @Nullable Bucket findBucket() {
+    probe.hash = Arrays.hashCode(probe.costs);
+    return buckets.get(probe);
+  }
+
+  private @Nullable Bucket findBucket(AbstractState pState) {
+    computeCosts(pState);
+    return findBucket();
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < heapSize; i++) {
+      heap[i].position = -1;
+      heap[i] = null;
+    }
+    heapSize = 0;
+    buckets.clear();
+    size = 0;
+    lastBucket = null;
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    Bucket bucket = findBucket(pState);
+    return bucket != null && bucket.asList().contains(pState);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    assert (size == 0) == (heapSize == 0);
+    return size == 0;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    List<Bucket> nonEmptyBuckets = Arrays.asList(heap).subList(0, heapSize);
+    return Iterators.unmodifiableIterator(
+        Iterables.concat(Iterables.transform(nonEmptyBuckets, Bucket::asList)).iterator());
+  }
+
+  @Override
+  public AbstractState pop() {
+    if (heapSize == 0) {
+      throw new NoSuchElementException();
+    }
+    Bucket first = heap[0];
+    AbstractState state = lifo ? first.pollLast() : first.pollFirst();
+    size--;
+    if (first.count == 0) {
+      removeBucket(first);
+    }
+    return state;
+  }
+
+  @Override
+  public boolean remove(AbstractState pState) {
+    Bucket bucket = findBucket(pState);
+    if (bucket == null || !bucket.remove(pState)) {
+      return false;
+    }
+    size--;
+    if (bucket.count == 0) {
+      removeBucket(bucket);
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private void insertBucket(Bucket pBucket) {
+    if (heapSize == heap.length) {
+      heap = Arrays.copyOf(heap, 2 * heapSize);
+    }
+    heapSize++;
+    siftUp(heapSize - 1, pBucket);
+  }
+
+  private void removeBucket(Bucket pBucket) {
+    buckets.remove(pBucket);
+    int position = pBucket.position;
+    pBucket.position = -1;
+    heapSize--;
+    Bucket last = heap[heapSize];
+    heap[heapSize] = null;
+    if (last != pBucket) {
+      siftUp(position, last);
+      siftDown(last.position, last);
+    }
+  }
+
+  private void siftUp(int pPosition, Bucket pBucket) {
+    int position = pPosition;
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      Bucket parentBucket = heap[parent];
+      if (compare(parentBucket, pBucket) <= 0) {
+        break;
+      }
+      set(position, parentBucket);
+      position = parent;
+    }
+    set(position, pBucket);
+  }
+
+  private void siftDown(int pPosition, Bucket pBucket) {
+    int position = pPosition;
+    int half = heapSize / 2;
+    while (position < half) {
+      int child = 2 * position + 1;
+      Bucket childBucket = heap[child];
+      int right = child + 1;
+      if (right < heapSize && compare(heap[right], childBucket) < 0) {
+        child = right;
+        childBucket = heap[right];
+      }
+      if (compare(pBucket, childBucket) <= 0) {
+        break;
+      }
+      set(position, childBucket);
+      position = child;
+    }
+    set(position, pBucket);
+  }
+
+  private void set(int pPosition, Bucket pBucket) {
+    heap[pPosition] = pBucket;
+    pBucket.position = pPosition;
+  }
+
+  private static int compare(Bucket pBucket1, Bucket pBucket2) {
+    int[] costs1 = pBucket1.costs;
+    int[] costs2 = pBucket2.costs;
+    for (int i = 0; i < costs1.length; i++) {
+      int result = Integer.compare(costs1[i], costs2[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return Iterables.toString(this);
+  }
+
+  public static WaitlistFactory factory(
+      final ImmutableList<StateCostFunction> pCostFunctions, final TraversalMethod pTieBreaking) {
+    return () -> new PriorityHeapWaitlist(pCostFunctions, pTieBreaking);
+  }
+}
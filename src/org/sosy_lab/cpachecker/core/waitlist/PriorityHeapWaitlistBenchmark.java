@@ -0,0 +1,140 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+/**
+ * JMH benchmark for adding and popping states with {@link PriorityHeapWaitlist}, compared to a
+ * waitlist based on {@link AbstractSortedWaitlist} with the same order.
+ *
+ * <p>The benchmark code is generated with {@code ant build-jmh-benchmarks}, afterwards the
+ * benchmark can be run with
+ *
+ * <pre>
+ * java -cp "bin-jmh:bin:lib/*:lib/java/runtime/*:lib/java/test/*" \
+ *     org.openjdk.jmh.Main PriorityHeapWaitlistBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class PriorityHeapWaitlistBenchmark {
+
+  private static final class CostState implements AbstractState {
+
+    private final int cost;
+
+    private CostState(int pCost) {
+      cost = pCost;
+    }
+  }
+
+  private static final StateCostFunction COST = pState -> ((CostState) pState).cost;
+
+  /** Sorted waitlist that handles states with lower costs first, like the heap. */
+  private static final class CostSortedWaitlist extends AbstractSortedWaitlist<Integer> {
+
+    private CostSortedWaitlist() {
+      super(TraversalMethod.BFS);
+    }
+
+    @Override
+    protected Integer getSortKey(AbstractState pState) {
+      return -((CostState) pState).cost;
+    }
+  }
+
+  public enum WaitlistType {
+    HEAP,
+    SORTED
+  }
+
+  @Param({"1000000"})
+  private int numberOfStates;
+
+  /** Number of different costs, few different costs lead to many ties. */
+  @Param({"10", "1000000"})
+  private int numberOfCosts;
+
+  @Param private WaitlistType waitlistType;
+
+  private List<CostState> states;
+
+  @Setup
+  public void createStates() {
+    Random random = new Random(0);
+    states = new ArrayList<>(numberOfStates);
+    for (int i = 0; i < numberOfStates; i++) {
+      states.add(new CostState(random.nextInt(numberOfCosts)));
+    }
+  }
+
+  private Waitlist createWaitlist() {
+    switch (waitlistType) {
+      case HEAP:
+        return new PriorityHeapWaitlist(ImmutableList.of(COST), TraversalMethod.BFS);
+      case SORTED:
+        return new CostSortedWaitlist();
+      default:
+        throw new AssertionError("unhandled waitlist type " + waitlistType);
+    }
+  }
+
+  private static void popAll(Waitlist pWaitlist, Blackhole pBlackhole) {
+    while (!pWaitlist.isEmpty()) {
+      pBlackhole.consume(pWaitlist.pop());
+    }
+  }
+
+  /** Add all states one after another, then pop all of them. */
+  @Benchmark
+  public void addAndPop(Blackhole pBlackhole) {
+    Waitlist waitlist = createWaitlist();
+    for (CostState state : states) {
+      waitlist.add(state);
+    }
+    popAll(waitlist, pBlackhole);
+  }
+
+  /** Pop one state and add two successors, like during the exploration of the state space. */
+  @Benchmark
+  public void interleavedAddAndPop(Blackhole pBlackhole) {
+    Waitlist waitlist = createWaitlist();
+    waitlist.add(states.get(0));
+    int next = 1;
+    while (!waitlist.isEmpty()) {
+      pBlackhole.consume(waitlist.pop());
+      for (int i = 0; i < 2 && next < states.size(); i++, next++) {
+        waitlist.add(states.get(next));
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+public class PriorityHeapWaitlistTest {
+
+  private static final class CostState implements AbstractState {
+
+    private final int id;
+    private final int cost;
+
+    private CostState(int pId, int pCost) {
+      id = pId;
+      cost = pCost;
+    }
+
+    @Override
+    public String toString() {
+      return id + ":" + cost;
+    }
+  }
+
+  private static final StateCostFunction COST = pState -> ((CostState) pState).cost;
+
+  private static PriorityHeapWaitlist createWaitlist(TraversalMethod pTieBreaking) {
+    return new PriorityHeapWaitlist(ImmutableList.of(COST), pTieBreaking);
+  }
+
+  private static List<CostState> createStates(int pCount) {
+    Random random = new Random(0);
+    List<CostState> states = new ArrayList<>(pCount);
+    for (int i = 0; i < pCount; i++) {
+      states.add(new CostState(i, random.nextInt(10)));
+    }
+    return states;
+  }
+
+  private static List<AbstractState> popAll(Waitlist pWaitlist) {
+    List<AbstractState> result = new ArrayList<>();
+    while (!pWaitlist.isEmpty()) {
+      result.add(pWaitlist.pop());
+    }
+    return result;
+  }
+
+  @Test
+  public void testBfsTieBreaking() {
+    List<CostState> states = createStates(1000);
+    PriorityHeapWaitlist waitlist = createWaitlist(TraversalMethod.BFS);
+    states.forEach(waitlist::add);
+    assertThat(waitlist.size()).isEqualTo(states.size());
+
+    List<CostState> expected = new ArrayList<>(states);
+    expected.sort(Comparator.comparingInt((CostState s) -> s.cost).thenComparingInt(s -> s.id));
+    assertThat(popAll(waitlist)).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void testDfsTieBreaking() {
+    List<CostState> states = createStates(1000);
+    PriorityHeapWaitlist waitlist = createWaitlist(TraversalMethod.DFS);
+    states.forEach(waitlist::add);
+
+    List<CostState> expected = new ArrayList<>(states);
+    expected.sort(Comparator.comparingInt((CostState s) -> s.cost).thenComparingInt(s -> -s.id));
+    assertThat(popAll(waitlist)).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void testRemove() {
+    List<CostState> states = createStates(1000);
+    PriorityHeapWaitlist waitlist = createWaitlist(TraversalMethod.BFS);
+    states.forEach(waitlist::add);
+
+    List<CostState> expected = new ArrayList<>();
+    for (CostState state : states) {
+      if (state.id % 3 == 0) {
+        assertThat(waitlist.remove(state)).isTrue();
+        assertThat(waitlist.contains(state)).isFalse();
+      } else {
+        assertThat(waitlist.contains(state)).isTrue();
+        expected.add(state);
+      }
+    }
+    assertThat(waitlist.remove(states.get(0))).isFalse();
+    assertThat(waitlist.size()).isEqualTo(expected.size());
+    assertThat(waitlist).containsExactlyElementsIn(expected);
+
+    expected.sort(Comparator.comparingInt((CostState s) -> s.cost).thenComparingInt(s -> s.id));
+    assertThat(popAll(waitlist)).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void testInterleavedAddAndPop() {
+    List<CostState> states = createStates(1000);
+    PriorityHeapWaitlist waitlist = createWaitlist(TraversalMethod.DFS);
+    List<CostState> added = new ArrayList<>();
+    for (int i = 0; i < states.size(); i += 2) {
+      waitlist.add(states.get(i));
+      waitlist.add(states.get(i + 1));
+      added.add(states.get(i));
+      added.add(states.get(i + 1));
+
+      CostState expected =
+          added.stream()
+              .min(Comparator.comparingInt((CostState s) -> s.cost).thenComparingInt(s -> -s.id))
+              .orElseThrow();
+      assertThat(waitlist.pop()).isSameInstanceAs(expected);
+      added.remove(expected);
+    }
+
+    waitlist.clear();
+    assertThat(waitlist.isEmpty()).isTrue();
+    assertThat(waitlist).isEmpty();
+  }
+}
@@ -0,0 +1,63 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackState;
+import org.sosy_lab.cpachecker.cpa.loopbound.LoopBoundState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/**
+ * Cost of an abstract state for {@link PriorityHeapWaitlist}. States with lower cost are
+ * considered first. The cost of a state is computed once when it is added to the waitlist, so it
+ * should depend only on the state itself.
+ */
+@FunctionalInterface
+public interface StateCostFunction {
+
+  int getCost(AbstractState pState);
+
+  /**
+   * States with a deeper callstack have a lower cost, like in {@link CallstackSortedWaitlist}.
+   * This needs the CallstackCPA.
+   */
+  static StateCostFunction callstackDepth() {
+    return pState -> {
+      CallstackState callstackState =
+          AbstractStates.extractStateByType(pState, CallstackState.class);
+      return callstackState != null ? -callstackState.getDepth() : 0;
+    };
+  }
+
+  /**
+   * States with more loop iterations have a lower cost, like in {@link
+   * LoopIterationSortedWaitlist}. This needs the LoopBoundCPA.
+   */
+  static StateCostFunction loopIterations() {
+    return pState -> {
+      LoopBoundState loopBoundState =
+          AbstractStates.extractStateByType(pState, LoopBoundState.class);
+      return loopBoundState != null
+          ? -loopBoundState.getMaxNumberOfIterationsInLoopstackFrame()
+          : 0;
+    };
+  }
+
+  /**
+   * States at locations with a higher reverse-postorder id have a lower cost, like in {@link
+   * ReversePostorderSortedWaitlist}.
+   */
+  static StateCostFunction reversePostorder() {
+    return pState -> {
+      CFANode location = AbstractStates.extractLocation(pState);
+      return location != null ? -location.getReversePostorderId() : 0;
+    };
+  }
+}
@@ -137,7 +137,7 @@ abstract class AutomatonAction {
       }
       Map<String, AutomatonVariable> vars = pArgs.getAutomatonVariables();
       if (vars.containsKey(varId)) {
-        AutomatonVariable automatonVariable = vars.get(varId);
+        AutomatonVariable automatonVariable = pArgs.getAutomatonVariableForModification(varId);
         if (automatonVariable instanceof AutomatonIntVariable) {
           ((AutomatonIntVariable) automatonVariable).setValue(res.getValue());
         } else {
@@ -177,7 +177,7 @@ abstract class AutomatonAction {
     ResultValue<?> eval(AutomatonExpressionArguments pArgs) throws CPATransferException {
       Map<String, AutomatonVariable> vars = pArgs.getAutomatonVariables();
       if (vars.containsKey(varId)) {
-        AutomatonVariable automatonVariable = vars.get(varId);
+        AutomatonVariable automatonVariable = pArgs.getAutomatonVariableForModification(varId);
         if (automatonVariable instanceof AutomatonSetVariable) {
           String substitutedValue = pArgs.replaceVariables(value);
           if (action) {
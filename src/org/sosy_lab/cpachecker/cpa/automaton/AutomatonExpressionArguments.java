@@ -12,8 +12,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,6 +39,10 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariable.AutomatonSetVaria
 class AutomatonExpressionArguments {
 
   private Map<String, AutomatonVariable> automatonVariables;
+  // If the automaton variables are shared with a state, they are copied before they are modified.
+  // This set contains the names of the variables that were already copied.
+  private boolean copyVariablesOnWrite = false;
+  private final Set<String> copiedVariables = new HashSet<>();
   // Variables that are only valid for one transition ($1,$2,...)
   // these will be set in a MATCH statement, and are erased when the transitions actions are
   // executed.
@@ -80,12 +86,38 @@ class AutomatonExpressionArguments {
 
   void setAutomatonVariables(Map<String, AutomatonVariable> pAutomatonVariables) {
     automatonVariables = pAutomatonVariables;
+    copyVariablesOnWrite = false;
+  }
+
+  /**
+   * Use the given variables, which are shared with another automaton state and must not be
+   * modified. Variables are copied by {@link #getAutomatonVariableForModification(String)}, such
+   * that {@link #getAutomatonVariables()} afterwards returns a new map if some variable was
+   * modified, and the given map otherwise.
+   */
+  void setAutomatonVariablesCopyOnWrite(Map<String, AutomatonVariable> pAutomatonVariables) {
+    automatonVariables = pAutomatonVariables;
+    copyVariablesOnWrite = true;
+    copiedVariables.clear();
   }
 
   Map<String, AutomatonVariable> getAutomatonVariables() {
     return automatonVariables;
   }
 
+  /** Returns the variable with the given name such that it can be modified, or null. */
+  AutomatonVariable getAutomatonVariableForModification(String pName) {
+    AutomatonVariable variable = automatonVariables.get(pName);
+    if (copyVariablesOnWrite && variable != null && copiedVariables.add(pName)) {
+      if (copiedVariables.size() == 1) {
+        automatonVariables = new HashMap<>(automatonVariables);
+      }
+      variable = variable.clone();
+      automatonVariables.put(pName, variable);
+    }
+    return variable;
+  }
+
   List<AbstractState> getAbstractStates() {
     return abstractStates;
   }
@@ -268,6 +268,35 @@ public class AutomatonInternalTest {
     verify(mockLogger).log(eq(Level.WARNING), (Object[]) any());
   }
 
+  @Test
+  public void modificationDoesNotChangeSharedVariables()
+      throws InvalidAutomatonException, CPATransferException {
+    AutomatonVariable var = AutomatonVariable.createAutomatonVariable("int", "x");
+    ((AutomatonIntVariable) var).setValue(1);
+    AutomatonInternalState internalState = new AutomatonInternalState("q", ImmutableList.of());
+    Automaton automaton =
+        new Automaton("A", ImmutableMap.of("x", var), ImmutableList.of(internalState), "q");
+
+    AutomatonState predecessor =
+        AutomatonState.automatonStateFactory(
+            ImmutableMap.of("x", var), internalState, automaton, 0, 0, null, false);
+    // successors share the variables of their predecessor, like in the transfer relation
+    AutomatonState successor =
+        AutomatonState.automatonStateFactory(
+            predecessor.getVars(), internalState, automaton, 1, 0, null, false);
+
+    AutomatonAction modification =
+        new AutomatonAction.CPAModification(successor.getCPAName(), "x:=5");
+    AutomatonExpressionArguments args =
+        new AutomatonExpressionArguments(
+            null, null, ImmutableList.of(successor), null, mock(LogManager.class));
+    modification.eval(args);
+
+    assertThat(successor.getVars().get("x").getValue()).isEqualTo(5);
+    assertThat(predecessor.getVars().get("x").getValue()).isEqualTo(1);
+    assertThat(automaton.getInitialVariables().get("x").getValue()).isEqualTo(1);
+  }
+
   @Test
   public void testASTcomparison() throws InterruptedException {
     assert_().about(ASTMatcherSubject::new).that("x= $?;").matches("x=5;");
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -102,7 +103,8 @@ public class AutomatonState implements AbstractQueryableState, Targetable, Seria
   }
 
   private transient Automaton automaton;
-  private final Map<String, AutomatonVariable> vars;
+  /** may be shared with other states, copy it before modifying a variable */
+  private Map<String, AutomatonVariable> vars;
   private transient AutomatonInternalState internalState;
   private final ImmutableList<AExpression> assumptions;
   private transient final ExpressionTree<AExpression> candidateInvariants;
@@ -391,7 +393,12 @@ public class AutomatonState implements AbstractQueryableState, Targetable, Seria
         if (var instanceof AutomatonIntVariable) {
           try {
             int val = Integer.parseInt(right);
-            ((AutomatonIntVariable) var).setValue(val);
+            // the variables may be shared with other states, so modify a state-local copy
+            AutomatonIntVariable copy = (AutomatonIntVariable) var.clone();
+            copy.setValue(val);
+            Map<String, AutomatonVariable> newVars = new HashMap<>(vars);
+            newVars.put(left, copy);
+            vars = newVars;
           } catch (NumberFormatException e) {
             throw new InvalidQueryException(
                 "The Query \""
@@ -8,11 +8,14 @@
 
 package org.sosy_lab.cpachecker.cpa.automaton;
 
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.valueWithPercentage;
+
 import java.io.PrintStream;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
@@ -27,6 +30,8 @@ class AutomatonStatistics implements Statistics {
   ThreadSafeTimerContainer actionTime          = new ThreadSafeTimerContainer("Time for transition actions");
   ThreadSafeTimerContainer totalStrengthenTime = new ThreadSafeTimerContainer("Total time for strengthen operator");
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  StatCounter checkedTransitions = new StatCounter("Number of checked transitions");
+  StatCounter skippedTransitions = new StatCounter("Transitions skipped without matching");
 
   public AutomatonStatistics(Automaton pAutomaton) {
     automaton = pAutomaton;
@@ -60,6 +65,12 @@ class AutomatonStatistics implements Statistics {
             - automatonSuccessors.getTimesWithValue(1);
     put(out, 0, "Automaton transfers with branching", stateBranchings);
     put(out, 0, automatonSuccessors);
+    put(out, 0, checkedTransitions);
+    put(
+        out,
+        1,
+        skippedTransitions.getTitle(),
+        valueWithPercentage(skippedTransitions.getValue(), checkedTransitions.getValue()));
 
     int statesWithAssumptionTransitions = 0;
     for (AutomatonInternalState state : automaton.getStates()) {
@@ -17,14 +17,13 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Level;
 import org.sosy_lab.common.log.LogManager;
@@ -44,6 +43,7 @@ import org.sosy_lab.cpachecker.cpa.threading.ThreadingState;
 import org.sosy_lab.cpachecker.cpa.threading.ThreadingTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
@@ -63,6 +63,10 @@ public class AutomatonTransferRelation implements TransferRelation {
   private final TimerWrapper actionTime;
   private final TimerWrapper totalStrengthenTime;
   private final StatIntHist automatonSuccessors;
+  private final StatCounter checkedTransitions;
+  private final StatCounter skippedTransitions;
+
+  private final AutomatonTransitionIndex transitionIndex;
 
   public AutomatonTransferRelation(
       ControlAutomatonCPA pCpa,
@@ -79,6 +83,10 @@ public class AutomatonTransferRelation implements TransferRelation {
     actionTime = pStats.actionTime.getNewTimer();
     totalStrengthenTime = pStats.totalStrengthenTime.getNewTimer();
     automatonSuccessors = pStats.automatonSuccessors;
+    checkedTransitions = pStats.checkedTransitions;
+    skippedTransitions = pStats.skippedTransitions;
+
+    transitionIndex = new AutomatonTransitionIndex(pLogger);
   }
 
   @Override
@@ -175,7 +183,18 @@ public class AutomatonTransferRelation implements TransferRelation {
     List<Pair<AutomatonTransition, Map<Integer, AAstNode>>> transitionsToBeTaken =
         new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    // transitions whose trigger cannot match this edge are skipped without evaluating it
+    ImmutableList<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    BitSet candidates = transitionIndex.getCandidates(state.getInternalState(), edge);
+
+    for (int i = 0; i < transitions.size(); i++) {
+      AutomatonTransition t = transitions.get(i);
+      checkedTransitions.inc();
+      if (candidates != null && !candidates.get(i)) {
+        skippedTransitions.inc();
+        failedMatches++;
+        continue;
+      }
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
@@ -256,14 +275,14 @@ public class AutomatonTransferRelation implements TransferRelation {
     if (edgeMatched) {
       // execute Transitions
       for (Pair<AutomatonTransition, Map<Integer, AAstNode>> pair : transitionsToBeTaken) {
-        // this transition will be taken. copy the variables
+        // this transition will be taken. variables are copied when an action modifies them
         AutomatonTransition t = pair.getFirst();
         Map<Integer, AAstNode> transitionVariables = pair.getSecond();
         actionTime.start();
-        Map<String, AutomatonVariable> newVars = deepCloneVars(state.getVars());
-        exprArgs.setAutomatonVariables(newVars);
+        exprArgs.setAutomatonVariablesCopyOnWrite(state.getVars());
         exprArgs.putTransitionVariables(transitionVariables);
         t.executeActions(exprArgs);
+        Map<String, AutomatonVariable> newVars = exprArgs.getAutomatonVariables();
         actionTime.stop();
 
         AutomatonSafetyProperty violatedProperty = null;
@@ -310,14 +329,6 @@ public class AutomatonTransferRelation implements TransferRelation {
     }
   }
 
-  private static Map<String, AutomatonVariable> deepCloneVars(Map<String, AutomatonVariable> pOld) {
-    Map<String, AutomatonVariable> result = Maps.newHashMapWithExpectedSize(pOld.size());
-    for (Entry<String, AutomatonVariable> e : pOld.entrySet()) {
-      result.put(e.getKey(), e.getValue().clone());
-    }
-    return result;
-  }
-
   @Override
   public Collection<AutomatonState> strengthen(
       AbstractState pElement,
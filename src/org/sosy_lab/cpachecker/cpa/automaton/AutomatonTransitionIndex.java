@@ -0,0 +1,175 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.And;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeCase;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeASTComparison;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeNodes;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCall;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCallStatement;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionPointerAssumeCase;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchJavaAssert;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Negation;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Or;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * Index of the transitions of automaton states that may match a CFA edge.
+ *
+ * <p>Most triggers contain a condition that depends only on the CFA edge, e.g., on its type, its
+ * source location, the called function, or its AST. For each pair of automaton state and CFA edge,
+ * these edge conditions are evaluated only once, and transitions whose edge condition does not hold
+ * can afterwards be skipped without evaluating their trigger. A trigger never matches if its edge
+ * condition does not hold, so skipping transitions does not change the result of the transfer
+ * relation.
+ */
+final class AutomatonTransitionIndex {
+
+  /** Edge conditions of the transitions of one automaton state and the candidates per edge. */
+  private static final class StateIndex {
+
+    /** Edge conditions in the order of the transitions, null if there is no edge condition. */
+    private final @Nullable AutomatonBoolExpr[] edgeConditions;
+
+    private final ConcurrentMap<CFAEdge, BitSet> candidatesPerEdge = new ConcurrentHashMap<>();
+
+    private StateIndex(@Nullable AutomatonBoolExpr[] pEdgeConditions) {
+      edgeConditions = pEdgeConditions;
+    }
+  }
+
+  /** Index for states without edge conditions, all transitions are candidates. */
+  private static final StateIndex NO_INDEX = new StateIndex(new AutomatonBoolExpr[0]);
+
+  private final LogManager logger;
+  private final ConcurrentMap<AutomatonInternalState, StateIndex> stateIndices =
+      new ConcurrentHashMap<>();
+
+  AutomatonTransitionIndex(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  /**
+   * Return the indices of those transitions of the given state that may match the given edge, or
+   * null if all transitions need to be checked.
+   */
+  @Nullable BitSet getCandidates(AutomatonInternalState pState, CFAEdge pEdge) {
+    StateIndex index = stateIndices.computeIfAbsent(pState, AutomatonTransitionIndex::buildIndex);
+    if (index == NO_INDEX) {
+      return null;
+    }
+    if (!CFAUtils.allLeavingEdges(pEdge.getPredecessor()).contains(pEdge)) {
+      // edges that are not part of the CFA are created on the fly, do not store them
+      return computeCandidates(index, pEdge);
+    }
+    return index.candidatesPerEdge.computeIfAbsent(pEdge, edge -> computeCandidates(index, edge));
+  }
+
+  private static StateIndex buildIndex(AutomatonInternalState pState) {
+    ImmutableList<AutomatonTransition> transitions = pState.getTransitions();
+    @Nullable AutomatonBoolExpr[] edgeConditions = new AutomatonBoolExpr[transitions.size()];
+    boolean hasEdgeCondition = false;
+    for (int i = 0; i < transitions.size(); i++) {
+      edgeConditions[i] = getEdgeCondition(transitions.get(i).getTrigger());
+      hasEdgeCondition |= edgeConditions[i] != null;
+    }
+    return hasEdgeCondition ? new StateIndex(edgeConditions) : NO_INDEX;
+  }
+
+  private BitSet computeCandidates(StateIndex pIndex, CFAEdge pEdge) {
+    BitSet candidates = new BitSet(pIndex.edgeConditions.length);
+    for (int i = 0; i < pIndex.edgeConditions.length; i++) {
+      AutomatonBoolExpr edgeCondition = pIndex.edgeConditions[i];
+      if (edgeCondition == null || mayHold(edgeCondition, pEdge, logger)) {
+        candidates.set(i);
+      }
+    }
+    return candidates;
+  }
+
+  /** Check whether an edge condition may hold for the given edge. */
+  static boolean mayHold(AutomatonBoolExpr pEdgeCondition, CFAEdge pEdge, LogManager pLogger) {
+    try {
+      ResultValue<Boolean> result =
+          pEdgeCondition.eval(new AutomatonExpressionArguments(null, null, null, pEdge, pLogger));
+      return result.canNotEvaluate() || result.getValue();
+    } catch (CPATransferException e) {
+      // be conservative, the exception is thrown again when the trigger is evaluated
+      return true;
+    }
+  }
+
+  /**
+   * Return a condition that depends only on the CFA edge and that holds whenever the given trigger
+   * matches, or null if there is no such condition.
+   */
+  static @Nullable AutomatonBoolExpr getEdgeCondition(AutomatonBoolExpr pTrigger) {
+    if (dependsOnlyOnEdge(pTrigger)) {
+      return pTrigger;
+    }
+    if (pTrigger instanceof And) {
+      // a conjunction does not match if one of its operands does not match
+      AutomatonBoolExpr a = getEdgeCondition(((And) pTrigger).a);
+      AutomatonBoolExpr b = getEdgeCondition(((And) pTrigger).b);
+      if (a == null) {
+        return b;
+      }
+      return b == null ? a : new And(a, b);
+    }
+    if (pTrigger instanceof Or) {
+      AutomatonBoolExpr a = getEdgeCondition(((Or) pTrigger).a);
+      AutomatonBoolExpr b = getEdgeCondition(((Or) pTrigger).b);
+      return a == null || b == null ? null : new Or(a, b);
+    }
+    return null;
+  }
+
+  private static boolean dependsOnlyOnEdge(AutomatonBoolExpr pExpr) {
+    if (pExpr instanceof And || pExpr instanceof Or) {
+      AutomatonBoolExpr.BoolBinaryTest binary = (AutomatonBoolExpr.BoolBinaryTest) pExpr;
+      return dependsOnlyOnEdge(binary.a) && dependsOnlyOnEdge(binary.b);
+    }
+    if (pExpr instanceof Negation) {
+      return dependsOnlyOnEdge(((Negation) pExpr).getA());
+    }
+    return pExpr instanceof MatchProgramExit
+        || pExpr instanceof MatchFunctionCallStatement
+        || pExpr instanceof MatchFunctionCall
+        || pExpr instanceof MatchFunctionPointerAssumeCase
+        || pExpr instanceof MatchFunctionExit
+        || pExpr instanceof MatchLabelExact
+        || pExpr instanceof MatchLabelRegEx
+        || pExpr instanceof MatchCFAEdgeASTComparison
+        || pExpr instanceof MatchCFAEdgeRegEx
+        || pExpr instanceof MatchCFAEdgeNodes
+        || pExpr instanceof MatchCFAEdgeExact
+        || pExpr instanceof MatchJavaAssert
+        || pExpr instanceof MatchAssumeEdge
+        || pExpr instanceof MatchAssumeCase
+        || pExpr instanceof MatchLocationDescriptor;
+  }
+}
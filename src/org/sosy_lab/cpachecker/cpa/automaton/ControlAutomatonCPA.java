@@ -134,6 +134,15 @@ public class ControlAutomatonCPA
   )
   private boolean topOnFinalSelfLoopingState = false;
 
+  @Option(
+      secure = true,
+      name = "prec.topOnDisabledAutomaton",
+      description =
+          "Consider states of an automaton, which was disabled by its precision (e.g., because its "
+              + "property is already decided in multi-property verification), as TOP. This allows "
+              + "to share the exploration of the remaining properties between such states.")
+  private boolean topOnDisabledAutomaton = false;
+
   private final Automaton automaton;
   private final AutomatonState topState;
   private final AutomatonState bottomState;
@@ -293,7 +302,7 @@ public class ControlAutomatonCPA
     }
 
     return new ControlAutomatonPrecisionAdjustment(
-        topState, lPrecisionAdjustment, topOnFinalSelfLoopingState);
+        topState, lPrecisionAdjustment, topOnFinalSelfLoopingState, topOnDisabledAutomaton);
   }
 
   @Override
@@ -24,14 +24,17 @@ public class ControlAutomatonPrecisionAdjustment implements PrecisionAdjustment
   private final @Nullable PrecisionAdjustment wrappedPrec;
   private final AutomatonState topState;
   private final boolean topOnFinalSelfLoopingState;
+  private final boolean topOnDisabledAutomaton;
 
   public ControlAutomatonPrecisionAdjustment(
       AutomatonState pTopState,
       PrecisionAdjustment pWrappedPrecisionAdjustment,
-      boolean pTopOnFinalSelfLoopingState) {
+      boolean pTopOnFinalSelfLoopingState,
+      boolean pTopOnDisabledAutomaton) {
     this.topState = pTopState;
     this.wrappedPrec = pWrappedPrecisionAdjustment;
     this.topOnFinalSelfLoopingState = pTopOnFinalSelfLoopingState;
+    this.topOnDisabledAutomaton = pTopOnDisabledAutomaton;
   }
 
   @Override
@@ -68,6 +71,15 @@ public class ControlAutomatonPrecisionAdjustment implements PrecisionAdjustment
           adjustedPrecision, Action.CONTINUE));
     }
 
+    // Handle disabled automaton (e.g., its property is already decided in multi-property
+    // verification), such that states, which differ only in this automaton, can be covered
+    if (topOnDisabledAutomaton
+        && pPrecision instanceof AutomatonPrecision
+        && !((AutomatonPrecision) pPrecision).isEnabled()
+        && !((AutomatonState) pState).isTarget()) {
+      return Optional.of(PrecisionAdjustmentResult.create(topState, pPrecision, Action.CONTINUE));
+    }
+
     return wrappedPrecResult;
   }
 
@@ -0,0 +1,254 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.StateCostFunction;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * Cost function that estimates the number of CFA edges between the location of a state and the
+ * next target location of the specification automata. Target locations are the predecessors of
+ * those CFA edges that may trigger a transition into a target state of an automaton.
+ *
+ * <p>The distances are computed when the cost of the first state is requested, using the
+ * automata and the location of this state. A function call is counted with the length of the
+ * shortest path through the called function (summary distance), and if the state contains a
+ * CallstackState, targets that are only reachable after returning from the current function are
+ * taken into account, too. States that cannot reach a target location get the cost {@link
+ * Integer#MAX_VALUE}.
+ */
+public final class TargetDistanceCostFunction implements StateCostFunction {
+
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  private static final class NodeDistance implements Comparable<NodeDistance> {
+
+    private final CFANode node;
+    private final int distance;
+
+    private NodeDistance(CFANode pNode, int pDistance) {
+      node = pNode;
+      distance = pDistance;
+    }
+
+    @Override
+    public int compareTo(NodeDistance pOther) {
+      return Integer.compare(distance, pOther.distance);
+    }
+  }
+
+  private final LogManager logger;
+
+  /** Shortest path from the entry to the exit of each function. */
+  private final Map<FunctionEntryNode, Integer> summaryDistances = new HashMap<>();
+
+  /** Distance to the exit node of the function a node belongs to. */
+  private @Nullable Map<CFANode, Integer> exitDistances = null;
+
+  /** Distance to the next target location without returning from the current function. */
+  private @Nullable Map<CFANode, Integer> targetDistances = null;
+
+  public TargetDistanceCostFunction(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  @Override
+  public int getCost(AbstractState pState) {
+    CFANode location = AbstractStates.extractLocation(pState);
+    if (location == null) {
+      return INFINITY;
+    }
+    if (targetDistances == null) {
+      computeDistances(pState, location);
+    }
+
+    int distance = getDistance(targetDistances, location);
+    int distanceToReturn = getDistance(exitDistances, location);
+    CallstackState callstack = AbstractStates.extractStateByType(pState, CallstackState.class);
+    while (callstack != null
+        && callstack.getPreviousState() != null
+        && distanceToReturn < INFINITY) {
+      FunctionSummaryEdge summaryEdge = callstack.getCallNode().getLeavingSummaryEdge();
+      if (summaryEdge == null) {
+        break;
+      }
+      CFANode returnNode = summaryEdge.getSuccessor();
+      distanceToReturn = add(distanceToReturn, 1);
+      distance = Math.min(distance, add(distanceToReturn, getDistance(targetDistances, returnNode)));
+      distanceToReturn = add(distanceToReturn, getDistance(exitDistances, returnNode));
+      callstack = callstack.getPreviousState();
+    }
+    return distance;
+  }
+
+  private void computeDistances(AbstractState pFirstState, CFANode pFirstLocation) {
+    Timer timer = new Timer();
+    timer.start();
+
+    Set<CFANode> nodes = collectNodes(pFirstLocation);
+    Set<CFANode> targets = getTargetLocations(pFirstState, nodes);
+
+    // the summary distances depend on the distances inside the called functions,
+    // so iterate until they are stable
+    Set<CFANode> exitNodes = new HashSet<>();
+    for (CFANode node : nodes) {
+      if (node instanceof FunctionExitNode) {
+        exitNodes.add(node);
+      }
+    }
+    boolean changed;
+    do {
+      exitDistances = computeBackwardDistances(exitNodes, false);
+      changed = false;
+      for (CFANode exitNode : exitNodes) {
+        FunctionEntryNode entryNode = ((FunctionExitNode) exitNode).getEntryNode();
+        Integer summaryDistance = getDistance(exitDistances, entryNode);
+        if (!summaryDistance.equals(summaryDistances.put(entryNode, summaryDistance))) {
+          changed = true;
+        }
+      }
+    } while (changed);
+    targetDistances = computeBackwardDistances(targets, true);
+
+    timer.stop();
+    logger.logf(
+        Level.FINE,
+        "Computed distances of %d CFA nodes to %d target locations in %s",
+        nodes.size(),
+        targets.size(),
+        timer.getLengthOfLastInterval());
+  }
+
+  /** Collect all nodes that are reachable from the given one, including called functions. */
+  private static Set<CFANode> collectNodes(CFANode pStart) {
+    Set<CFANode> nodes = new LinkedHashSet<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+    nodes.add(pStart);
+    waitlist.push(pStart);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.pop();
+      for (CFANode successor : CFAUtils.allSuccessorsOf(node)) {
+        if (nodes.add(successor)) {
+          waitlist.push(successor);
+        }
+      }
+    }
+    return nodes;
+  }
+
+  private Set<CFANode> getTargetLocations(AbstractState pState, Collection<CFANode> pNodes) {
+    Set<CFANode> targets = new HashSet<>();
+    for (AutomatonState automatonState :
+        AbstractStates.asIterable(pState).filter(AutomatonState.class)) {
+      for (AutomatonInternalState internalState :
+          automatonState.getOwningAutomaton().getStates()) {
+        for (AutomatonTransition transition : internalState.getTransitions()) {
+          if (!transition.getFollowState().isTarget()) {
+            continue;
+          }
+          AutomatonBoolExpr edgeCondition =
+              AutomatonTransitionIndex.getEdgeCondition(transition.getTrigger());
+          if (edgeCondition == null) {
+            logger.log(
+                Level.INFO,
+                "Target transition of automaton",
+                automatonState.getOwningAutomatonName(),
+                "does not depend on CFA edges, all locations are considered as targets.");
+            return new HashSet<>(pNodes);
+          }
+          for (CFANode node : pNodes) {
+            for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+              if (AutomatonTransitionIndex.mayHold(edgeCondition, edge, logger)) {
+                targets.add(node);
+              }
+            }
+          }
+        }
+      }
+    }
+    return targets;
+  }
+
+  /**
+   * Compute the length of the shortest path from each node to one of the given nodes. Function
+   * calls are represented by their summary edges, and return edges are never followed.
+   *
+   * @param pIntoCalledFunctions whether the paths may also enter called functions without
+   *     returning
+   */
+  private Map<CFANode, Integer> computeBackwardDistances(
+      Collection<CFANode> pTargets, boolean pIntoCalledFunctions) {
+    Map<CFANode, Integer> distances = new HashMap<>();
+    PriorityQueue<NodeDistance> queue = new PriorityQueue<>();
+    for (CFANode target : pTargets) {
+      distances.put(target, 0);
+      queue.add(new NodeDistance(target, 0));
+    }
+
+    while (!queue.isEmpty()) {
+      NodeDistance current = queue.poll();
+      if (current.distance > distances.get(current.node)) {
+        continue; // outdated entry
+      }
+      for (CFAEdge edge : CFAUtils.allEnteringEdges(current.node)) {
+        int length;
+        if (edge instanceof FunctionSummaryEdge) {
+          int summaryDistance =
+              summaryDistances.getOrDefault(
+                  ((FunctionSummaryEdge) edge).getFunctionEntry(), INFINITY);
+          length = add(summaryDistance, 2);
+        } else if (edge.getEdgeType() == CFAEdgeType.FunctionReturnEdge) {
+          continue;
+        } else if (edge.getEdgeType() == CFAEdgeType.FunctionCallEdge && !pIntoCalledFunctions) {
+          continue;
+        } else {
+          length = 1;
+        }
+        int distance = add(current.distance, length);
+        CFANode predecessor = edge.getPredecessor();
+        if (distance < getDistance(distances, predecessor)) {
+          distances.put(predecessor, distance);
+          queue.add(new NodeDistance(predecessor, distance));
+        }
+      }
+    }
+    return distances;
+  }
+
+  private static int getDistance(Map<CFANode, Integer> pDistances, CFANode pNode) {
+    return pDistances.getOrDefault(pNode, INFINITY);
+  }
+
+  private static int add(int pDistance1, int pDistance2) {
+    long sum = (long) pDistance1 + pDistance2;
+    return sum >= INFINITY ? INFINITY : (int) sum;
+  }
+}
@@ -0,0 +1,293 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.TreeMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFACreationUtils;
+import org.sosy_lab.cpachecker.cfa.Language;
+import org.sosy_lab.cpachecker.cfa.MutableCFA;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionReturnEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackState;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeState;
+import org.sosy_lab.cpachecker.cpa.location.LocationStateFactory;
+
+/**
+ * Tests for {@link TargetDistanceCostFunction} and {@link TargetDistanceSortedWaitlist} on the
+ * following CFA:
+ *
+ * <pre>
+ * void main() {       void f() {
+ *   while (...) {}      // two edges
+ *   f();              }
+ *   target();
+ * }
+ * </pre>
+ */
+public class TargetDistanceCostFunctionTest {
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private final List<CFANode> nodes = new ArrayList<>();
+
+  private CFunctionEntryNode mainEntry;
+  private CFANode loopHead;
+  private CFANode loopBody;
+  private CFANode beforeCall;
+  private CFANode afterCall;
+  private CFANode beforeTarget;
+  private CFANode afterTarget;
+
+  private CFunctionEntryNode fEntry;
+  private CFANode fMiddle;
+
+  private CFAEdge targetEdge;
+  private CFAEdge fEdge;
+
+  private LocationStateFactory locations;
+  private CallstackState mainCallstack;
+  private CallstackState fCallstack;
+
+  @Before
+  public void setUp() throws InvalidConfigurationException {
+    CFunctionDeclaration mainDeclaration = declareFunction("main");
+    mainEntry = createFunction(mainDeclaration);
+    loopHead = createNode(mainDeclaration);
+    loopBody = createNode(mainDeclaration);
+    beforeCall = createNode(mainDeclaration);
+    afterCall = createNode(mainDeclaration);
+    beforeTarget = createNode(mainDeclaration);
+    afterTarget = createNode(mainDeclaration);
+
+    CFunctionDeclaration fDeclaration = declareFunction("f");
+    fEntry = createFunction(fDeclaration);
+    fMiddle = createNode(fDeclaration);
+    CFANode fLast = createNode(fDeclaration);
+
+    addBlankEdge(mainEntry, loopHead);
+    addBlankEdge(loopHead, loopBody);
+    addBlankEdge(loopBody, loopHead);
+    addBlankEdge(loopHead, beforeCall);
+    addCall(beforeCall, afterCall, fEntry);
+    addBlankEdge(afterCall, beforeTarget);
+    targetEdge = addBlankEdge(beforeTarget, afterTarget);
+    addBlankEdge(afterTarget, mainEntry.getExitNode());
+
+    addBlankEdge(fEntry, fMiddle);
+    fEdge = addBlankEdge(fMiddle, fLast);
+    addBlankEdge(fLast, fEntry.getExitNode());
+
+    TreeMultimap<String, CFANode> allNodes = TreeMultimap.create();
+    for (CFANode node : nodes) {
+      allNodes.put(node.getFunctionName(), node);
+    }
+    MutableCFA cfa =
+        new MutableCFA(
+            MachineModel.LINUX32,
+            new TreeMap<>(ImmutableMap.of("main", mainEntry, "f", fEntry)),
+            allNodes,
+            mainEntry,
+            ImmutableList.of(),
+            Language.C);
+    locations =
+        new LocationStateFactory(
+            cfa, AnalysisDirection.FORWARD, Configuration.defaultConfiguration());
+    mainCallstack = new CallstackState(null, "main", mainEntry);
+    fCallstack = new CallstackState(mainCallstack, "f", beforeCall);
+  }
+
+  private static CFunctionDeclaration declareFunction(String pName) {
+    return new CFunctionDeclaration(
+        FileLocation.DUMMY,
+        CFunctionType.functionTypeWithReturnType(CVoidType.VOID),
+        pName,
+        ImmutableList.of());
+  }
+
+  private CFunctionEntryNode createFunction(CFunctionDeclaration pDeclaration) {
+    FunctionExitNode exitNode = new FunctionExitNode(pDeclaration);
+    CFunctionEntryNode entryNode =
+        new CFunctionEntryNode(FileLocation.DUMMY, pDeclaration, exitNode, Optional.absent());
+    exitNode.setEntryNode(entryNode);
+    nodes.add(entryNode);
+    nodes.add(exitNode);
+    return entryNode;
+  }
+
+  private CFANode createNode(CFunctionDeclaration pDeclaration) {
+    CFANode node = new CFANode(pDeclaration);
+    nodes.add(node);
+    return node;
+  }
+
+  private static CFAEdge addBlankEdge(CFANode pPredecessor, CFANode pSuccessor) {
+    CFAEdge edge = new BlankEdge("", FileLocation.DUMMY, pPredecessor, pSuccessor, "");
+    CFACreationUtils.addEdgeUnconditionallyToCFA(edge);
+    return edge;
+  }
+
+  private static void addCall(CFANode pCallNode, CFANode pReturnNode, CFunctionEntryNode pEntry) {
+    CFunctionDeclaration declaration = pEntry.getFunctionDefinition();
+    CFunctionCallStatement call =
+        new CFunctionCallStatement(
+            FileLocation.DUMMY,
+            new CFunctionCallExpression(
+                FileLocation.DUMMY,
+                CVoidType.VOID,
+                new CIdExpression(FileLocation.DUMMY, declaration),
+                ImmutableList.of(),
+                declaration));
+    String rawStatement = declaration.getName() + "();";
+    CFunctionSummaryEdge summaryEdge =
+        new CFunctionSummaryEdge(
+            rawStatement, FileLocation.DUMMY, pCallNode, pReturnNode, call, pEntry);
+    pCallNode.addLeavingSummaryEdge(summaryEdge);
+    pReturnNode.addEnteringSummaryEdge(summaryEdge);
+    CFACreationUtils.addEdgeUnconditionallyToCFA(
+        new CFunctionCallEdge(
+            rawStatement, FileLocation.DUMMY, pCallNode, pEntry, call, summaryEdge));
+    CFACreationUtils.addEdgeUnconditionallyToCFA(
+        new CFunctionReturnEdge(
+            FileLocation.DUMMY, pEntry.getExitNode(), pReturnNode, summaryEdge));
+  }
+
+  /** Create an automaton state whose automaton goes to the error state on the given edge. */
+  private static AutomatonState createAutomatonState(CFAEdge pTargetEdge)
+      throws InvalidAutomatonException {
+    AutomatonInternalState init =
+        new AutomatonInternalState(
+            "init",
+            ImmutableList.of(
+                new AutomatonTransition.Builder(
+                        new AutomatonBoolExpr.MatchCFAEdgeNodes(pTargetEdge),
+                        AutomatonInternalState.ERROR)
+                    .build()));
+    Automaton automaton =
+        new Automaton("Target", ImmutableMap.of(), ImmutableList.of(init), "init");
+    return AutomatonState.automatonStateFactory(
+        ImmutableMap.of(), init, automaton, 0, 0, null, true);
+  }
+
+  private AbstractState createState(
+      CFANode pLocation, CallstackState pCallstack, AutomatonState pAutomatonState) {
+    return new CompositeState(
+        ImmutableList.of(locations.getState(pLocation), pCallstack, pAutomatonState));
+  }
+
+  @Test
+  public void testDistancesWithLoopAndCall() throws InvalidAutomatonException {
+    AutomatonState automatonState = createAutomatonState(targetEdge);
+    TargetDistanceCostFunction distances = new TargetDistanceCostFunction(logger);
+
+    // the distances are computed from the location of the first state
+    assertThat(distances.getCost(createState(mainEntry, mainCallstack, automatonState)))
+        .isEqualTo(8);
+    assertThat(distances.getCost(createState(beforeTarget, mainCallstack, automatonState)))
+        .isEqualTo(0);
+    assertThat(distances.getCost(createState(afterCall, mainCallstack, automatonState)))
+        .isEqualTo(1);
+    // call and return edge and the three edges of f
+    assertThat(distances.getCost(createState(beforeCall, mainCallstack, automatonState)))
+        .isEqualTo(6);
+    assertThat(distances.getCost(createState(loopHead, mainCallstack, automatonState)))
+        .isEqualTo(7);
+    assertThat(distances.getCost(createState(loopBody, mainCallstack, automatonState)))
+        .isEqualTo(8);
+    assertThat(distances.getCost(createState(afterTarget, mainCallstack, automatonState)))
+        .isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testTargetAfterReturn() throws InvalidAutomatonException {
+    AutomatonState automatonState = createAutomatonState(targetEdge);
+    TargetDistanceCostFunction distances = new TargetDistanceCostFunction(logger);
+    distances.getCost(createState(mainEntry, mainCallstack, automatonState));
+
+    // two edges to the exit of f, the return edge, and one edge to the target location
+    assertThat(distances.getCost(createState(fMiddle, fCallstack, automatonState))).isEqualTo(4);
+    assertThat(distances.getCost(createState(fEntry, fCallstack, automatonState))).isEqualTo(5);
+    // without caller, the target location is not reachable from f
+    assertThat(distances.getCost(createState(fMiddle, mainCallstack, automatonState)))
+        .isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testTargetInCalledFunction() throws InvalidAutomatonException {
+    AutomatonState automatonState = createAutomatonState(fEdge);
+    TargetDistanceCostFunction distances = new TargetDistanceCostFunction(logger);
+
+    assertThat(distances.getCost(createState(mainEntry, mainCallstack, automatonState)))
+        .isEqualTo(4);
+    // the call edge and one edge in f
+    assertThat(distances.getCost(createState(beforeCall, mainCallstack, automatonState)))
+        .isEqualTo(2);
+    assertThat(distances.getCost(createState(fMiddle, fCallstack, automatonState))).isEqualTo(0);
+    assertThat(distances.getCost(createState(afterCall, mainCallstack, automatonState)))
+        .isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testWaitlistOrder() throws InvalidAutomatonException {
+    AutomatonState automatonState = createAutomatonState(targetEdge);
+    Waitlist waitlist =
+        TargetDistanceSortedWaitlist.factory(
+                TraversalMethod.BFS, new TargetDistanceCostFunction(logger))
+            .createWaitlistInstance();
+
+    AbstractState entry = createState(mainEntry, mainCallstack, automatonState);
+    AbstractState inLoop = createState(loopBody, mainCallstack, automatonState);
+    AbstractState inCalledFunction = createState(fMiddle, fCallstack, automatonState);
+    AbstractState afterCallState = createState(afterCall, mainCallstack, automatonState);
+    AbstractState unreachable = createState(afterTarget, mainCallstack, automatonState);
+    for (AbstractState state :
+        ImmutableList.of(entry, unreachable, inLoop, inCalledFunction, afterCallState)) {
+      waitlist.add(state);
+    }
+
+    List<AbstractState> popped = new ArrayList<>();
+    while (!waitlist.isEmpty()) {
+      popped.add(waitlist.pop());
+    }
+    // states with equal distance are popped in BFS order
+    assertThat(popped)
+        .containsExactly(afterCallState, inCalledFunction, entry, inLoop, unreachable)
+        .inOrder();
+  }
+}
@@ -0,0 +1,43 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.AbstractSortedWaitlist;
+
+/**
+ * Waitlist implementation that sorts the abstract states by their distance to the next target
+ * location of the specification automata (cf. {@link TargetDistanceCostFunction}). States closer
+ * to a target location are considered first. A secondary strategy needs to be given that decides
+ * what to do with states of the same distance.
+ */
+public class TargetDistanceSortedWaitlist extends AbstractSortedWaitlist<Integer> {
+
+  private final TargetDistanceCostFunction distances;
+
+  private TargetDistanceSortedWaitlist(
+      WaitlistFactory pSecondaryStrategy, TargetDistanceCostFunction pDistances) {
+    super(pSecondaryStrategy);
+    distances = pDistances;
+  }
+
+  @Override
+  protected Integer getSortKey(AbstractState pState) {
+    return -distances.getCost(pState);
+  }
+
+  /**
+   * Create a factory for waitlists that share the given distances, which are computed only once
+   * for all waitlists.
+   */
+  public static WaitlistFactory factory(
+      final WaitlistFactory pSecondaryStrategy, final TargetDistanceCostFunction pDistances) {
+    return () -> new TargetDistanceSortedWaitlist(pSecondaryStrategy, pDistances);
+  }
+}
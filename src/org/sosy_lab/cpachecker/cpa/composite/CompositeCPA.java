@@ -10,12 +10,20 @@ package org.sosy_lab.cpachecker.cpa.composite;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.FluentIterable.from;
+import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -47,7 +55,12 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
-public class CompositeCPA implements StatisticsProvider, WrapperCPA, ConfigurableProgramAnalysisWithBAM, ProofChecker {
+public class CompositeCPA
+    implements StatisticsProvider,
+        WrapperCPA,
+        ConfigurableProgramAnalysisWithBAM,
+        ProofChecker,
+        AutoCloseable {
 
   @Options(prefix="cpa.composite")
   private static class CompositeOptions {
@@ -75,6 +88,45 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
               + " be a list."
     )
     private boolean aggregateBasicBlocks = false;
+
+    @Option(
+        secure = true,
+        description =
+            "measure time of the transfer relation and strengthening of each component CPA"
+                + " per edge type and function, and write them as flame-graph profiles")
+    private boolean profileTransfer = false;
+
+    @Option(
+        secure = true,
+        description =
+            "additionally measure the memory allocated by the transfer relation and"
+                + " strengthening of each component CPA (only with profileTransfer)."
+                + " This reads the allocation counter of the current thread twice per call,"
+                + " which is considerably more expensive than reading the clock and is included"
+                + " in the measured times.")
+    private boolean profileAllocations = false;
+
+    @Option(
+        secure = true,
+        description = "file for the time profile of the component transfer relations")
+    @FileOption(FileOption.Type.OUTPUT_FILE)
+    private @Nullable Path profileTimeFile = Paths.get("TransferProfile.time.txt");
+
+    @Option(
+        secure = true,
+        description = "file for the allocation profile of the component transfer relations")
+    @FileOption(FileOption.Type.OUTPUT_FILE)
+    private @Nullable Path profileAllocationFile = Paths.get("TransferProfile.alloc.txt");
+
+    @Option(
+        secure = true,
+        description =
+            "names of component CPAs (e.g., ValueAnalysisCPA, PredicateCPA) whose transfer"
+                + " relation and strengthening are evaluated concurrently for each edge."
+                + " The listed CPAs must not share mutable data with each other or with the"
+                + " other components, which are still evaluated sequentially."
+                + " At least two of the listed CPAs need to be present.")
+    private List<String> parallelComponents = ImmutableList.of();
   }
 
   private static class CompositeCPAFactory extends AbstractCPAFactory {
@@ -99,7 +151,55 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
             "Merge PLAIN is currently not supported in predicated analysis");
       }
 
-      return new CompositeCPA(cfa, cpas, options);
+      TransferProfiler profiler = null;
+      if (options.profileTransfer) {
+        profiler =
+            new TransferProfiler(
+                getProfileNames(cpas),
+                options.profileTimeFile,
+                options.profileAllocationFile,
+                options.profileAllocations,
+                getLogger());
+      }
+
+      ParallelComponentEvaluator parallelEvaluator = null;
+      if (!options.parallelComponents.isEmpty()) {
+        ImmutableList.Builder<Integer> independentComponents = ImmutableList.builder();
+        for (int i = 0; i < cpas.size(); i++) {
+          if (options.parallelComponents.contains(cpas.get(i).getClass().getSimpleName())) {
+            independentComponents.add(i);
+          }
+        }
+        ImmutableList<Integer> indices = independentComponents.build();
+        if (indices.size() >= 2) {
+          parallelEvaluator = new ParallelComponentEvaluator(cpas.size(), indices);
+        } else {
+          getLogger()
+              .log(
+                  Level.WARNING,
+                  "Less than two of the components given in cpa.composite.parallelComponents"
+                      + " are present, components are evaluated sequentially.");
+        }
+      }
+
+      return new CompositeCPA(cfa, cpas, options, profiler, parallelEvaluator);
+    }
+
+    /**
+     * Name the components by their class, and append the index of the component if several
+     * components have the same class (e.g., several ControlAutomatonCPAs).
+     */
+    private static ImmutableList<String> getProfileNames(
+        ImmutableList<ConfigurableProgramAnalysis> pCpas) {
+      Multiset<String> classNames =
+          HashMultiset.create(
+              transformedImmutableListCopy(pCpas, cpa -> cpa.getClass().getSimpleName()));
+      ImmutableList.Builder<String> names = ImmutableList.builder();
+      for (int i = 0; i < pCpas.size(); i++) {
+        String className = pCpas.get(i).getClass().getSimpleName();
+        names.add(classNames.count(className) > 1 ? className + "#" + i : className);
+      }
+      return names.build();
     }
 
     @Override
@@ -134,14 +234,20 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
   private final CFA cfa;
   private final CompositeOptions options;
+  private final @Nullable TransferProfiler profiler;
+  private final @Nullable ParallelComponentEvaluator parallelEvaluator;
 
   private CompositeCPA(
       CFA pCfa,
       ImmutableList<ConfigurableProgramAnalysis> cpas,
-      CompositeOptions pOptions) {
+      CompositeOptions pOptions,
+      @Nullable TransferProfiler pProfiler,
+      @Nullable ParallelComponentEvaluator pParallelEvaluator) {
     this.cfa = pCfa;
     this.cpas = cpas;
     this.options = pOptions;
+    this.profiler = pProfiler;
+    this.parallelEvaluator = pParallelEvaluator;
   }
 
   @Override
@@ -160,7 +266,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
       transferRelations.add(cpa.getTransferRelation());
     }
     return new CompositeTransferRelation(
-        transferRelations.build(), cfa, options.aggregateBasicBlocks);
+        transferRelations.build(), cfa, options.aggregateBasicBlocks, profiler, parallelEvaluator);
   }
 
   @Override
@@ -276,6 +382,19 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
         ((StatisticsProvider)cpa).collectStatistics(pStatsCollection);
       }
     }
+    if (profiler != null) {
+      pStatsCollection.add(profiler);
+    }
+    if (parallelEvaluator != null) {
+      pStatsCollection.add(parallelEvaluator);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (parallelEvaluator != null) {
+      parallelEvaluator.close();
+    }
   }
 
   @Override
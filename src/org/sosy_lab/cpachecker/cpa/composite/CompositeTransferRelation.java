@@ -45,6 +45,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageState;
+import org.sosy_lab.cpachecker.cpa.composite.TransferProfiler.Operation;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
@@ -57,13 +58,21 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
   private final int size;
   private final boolean predicatesPresent;
   private final boolean aggregateBasicBlocks;
+  private final @Nullable TransferProfiler profiler;
+  private final @Nullable ParallelComponentEvaluator parallelEvaluator;
 
   CompositeTransferRelation(
-      ImmutableList<TransferRelation> pTransferRelations, CFA pCFA, boolean pAggregateBasicBlocks) {
+      ImmutableList<TransferRelation> pTransferRelations,
+      CFA pCFA,
+      boolean pAggregateBasicBlocks,
+      @Nullable TransferProfiler pProfiler,
+      @Nullable ParallelComponentEvaluator pParallelEvaluator) {
     transferRelations = pTransferRelations;
     cfa = pCFA;
     size = pTransferRelations.size();
     aggregateBasicBlocks = pAggregateBasicBlocks;
+    profiler = pProfiler;
+    parallelEvaluator = pParallelEvaluator;
 
     // prepare special case handling if both predicates and assumptions are used
     predicatesPresent =
@@ -271,16 +280,31 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     int resultCount = 1;
     List<AbstractState> componentElements = compositeState.getWrappedStates();
     checkArgument(componentElements.size() == size, "State with wrong number of component states given");
+
+    if (parallelEvaluator != null) {
+      List<Collection<? extends AbstractState>> allComponentsSuccessors =
+          parallelEvaluator.evaluate(
+              i -> callComponentTransfer(i, componentElements, compositePrecision, cfaEdge));
+      for (Collection<? extends AbstractState> componentSuccessors : allComponentsSuccessors) {
+        resultCount *= componentSuccessors.size();
+      }
+      return createCartesianProduct(allComponentsSuccessors, resultCount);
+    }
+
     List<Collection<? extends AbstractState>> allComponentsSuccessors = new ArrayList<>(size);
 
+    // when profiling, each call starts when the previous one ended, which saves a clock read
+    long time = profiler != null ? System.nanoTime() : 0;
     for (int i = 0; i < size; i++) {
-      TransferRelation lCurrentTransfer = transferRelations.get(i);
-      AbstractState lCurrentElement = componentElements.get(i);
-      Precision lCurrentPrecision = compositePrecision.get(i);
-
-      Collection<? extends AbstractState> componentSuccessors;
-      componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
-          lCurrentElement, lCurrentPrecision, cfaEdge);
+      long startAllocation = profiler != null ? profiler.getAllocatedBytes() : 0;
+      Collection<? extends AbstractState> componentSuccessors =
+          transferRelations
+              .get(i)
+              .getAbstractSuccessorsForEdge(
+                  componentElements.get(i), compositePrecision.get(i), cfaEdge);
+      if (profiler != null) {
+        time = profiler.record(i, Operation.TRANSFER, cfaEdge, time, startAllocation);
+      }
       resultCount *= componentSuccessors.size();
 
       if (resultCount == 0) {
@@ -295,28 +319,63 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     return createCartesianProduct(allComponentsSuccessors, resultCount);
   }
 
+  /** Call a single component, used by the parallel evaluation where calls are not consecutive. */
+  private Collection<? extends AbstractState> callComponentTransfer(
+      int pIndex,
+      List<AbstractState> pComponentElements,
+      CompositePrecision pCompositePrecision,
+      CFAEdge pCfaEdge)
+      throws CPATransferException, InterruptedException {
+    final long startAllocation = profiler != null ? profiler.getAllocatedBytes() : 0;
+    final long startTime = profiler != null ? System.nanoTime() : 0;
+    Collection<? extends AbstractState> componentSuccessors =
+        transferRelations
+            .get(pIndex)
+            .getAbstractSuccessorsForEdge(
+                pComponentElements.get(pIndex), pCompositePrecision.get(pIndex), pCfaEdge);
+    if (profiler != null) {
+      profiler.record(pIndex, Operation.TRANSFER, pCfaEdge, startTime, startAllocation);
+    }
+    return componentSuccessors;
+  }
+
   private Collection<List<AbstractState>> callStrengthen(
       final List<AbstractState> reachedState,
       final CompositePrecision compositePrecision, final CFAEdge cfaEdge)
           throws CPATransferException, InterruptedException {
-    List<Collection<? extends AbstractState>> lStrengthenResults = new ArrayList<>(size);
+    List<Collection<? extends AbstractState>> lStrengthenResults;
     int resultCount = 1;
 
-    for (int i = 0; i < size; i++) {
+    if (parallelEvaluator != null) {
+      lStrengthenResults =
+          parallelEvaluator.evaluate(
+              i -> callComponentStrengthen(i, reachedState, compositePrecision, cfaEdge));
+      for (Collection<? extends AbstractState> lResultsList : lStrengthenResults) {
+        resultCount *= lResultsList.size();
+      }
 
-      TransferRelation lCurrentTransfer = transferRelations.get(i);
-      AbstractState lCurrentElement = reachedState.get(i);
-      Precision lCurrentPrecision = compositePrecision.get(i);
+    } else {
+      lStrengthenResults = new ArrayList<>(size);
+      long time = profiler != null ? System.nanoTime() : 0;
+      for (int i = 0; i < size; i++) {
+        long startAllocation = profiler != null ? profiler.getAllocatedBytes() : 0;
+        Collection<? extends AbstractState> lResultsList =
+            transferRelations
+                .get(i)
+                .strengthen(
+                    reachedState.get(i), reachedState, cfaEdge, compositePrecision.get(i));
+        if (profiler != null) {
+          time = profiler.record(i, Operation.STRENGTHEN, cfaEdge, time, startAllocation);
+        }
 
-      Collection<? extends AbstractState> lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+        resultCount *= lResultsList.size();
+        if (resultCount == 0) {
+          // shortcut
+          break;
+        }
 
-      resultCount *= lResultsList.size();
-      if (resultCount == 0) {
-        // shortcut
-        break;
+        lStrengthenResults.add(lResultsList);
       }
-
-      lStrengthenResults.add(lResultsList);
     }
 
     // create cartesian product
@@ -376,6 +435,29 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     }
   }
 
+  /** Call a single component, used by the parallel evaluation where calls are not consecutive. */
+  private Collection<? extends AbstractState> callComponentStrengthen(
+      int pIndex,
+      List<AbstractState> pReachedState,
+      CompositePrecision pCompositePrecision,
+      CFAEdge pCfaEdge)
+      throws CPATransferException, InterruptedException {
+    final long startAllocation = profiler != null ? profiler.getAllocatedBytes() : 0;
+    final long startTime = profiler != null ? System.nanoTime() : 0;
+    Collection<? extends AbstractState> lResultsList =
+        transferRelations
+            .get(pIndex)
+            .strengthen(
+                pReachedState.get(pIndex),
+                pReachedState,
+                pCfaEdge,
+                pCompositePrecision.get(pIndex));
+    if (profiler != null) {
+      profiler.record(pIndex, Operation.STRENGTHEN, pCfaEdge, startTime, startAllocation);
+    }
+    return lResultsList;
+  }
+
   private static boolean hasAssumptions(AbstractState x) {
     return x instanceof AbstractStateWithAssumptions
         || x instanceof AssumptionStorageState
@@ -0,0 +1,195 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * Evaluates the transfer relation or the strengthening of several components of {@link
+ * CompositeTransferRelation} concurrently for a single edge.
+ *
+ * <p>Only the components that were declared to be independent are evaluated in separate threads,
+ * all other components are evaluated one after another in the calling thread while the independent
+ * components are running. Each component is called at most once at the same time, so the
+ * components themselves do not need to be thread-safe, but they must not share mutable data with
+ * each other.
+ */
+final class ParallelComponentEvaluator implements Statistics, AutoCloseable {
+
+  /** The call of one component, e.g., its transfer relation for the current edge. */
+  @FunctionalInterface
+  interface ComponentCall {
+    Collection<? extends AbstractState> call(int pIndex)
+        throws CPATransferException, InterruptedException;
+  }
+
+  private final ImmutableList<Integer> independentComponents;
+  private final ImmutableList<Integer> otherComponents;
+  private final int size;
+  private final ExecutorService executor;
+
+  private final LongAdder evaluations = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder componentNanos = new LongAdder();
+
+  /**
+   * Create an evaluator for a composite with the given number of components.
+   *
+   * @param pSize the number of components
+   * @param pIndependentComponents the indices of the components that may be evaluated
+   *     concurrently to all other components, at least two
+   */
+  ParallelComponentEvaluator(int pSize, ImmutableList<Integer> pIndependentComponents) {
+    checkArgument(pIndependentComponents.size() >= 2);
+    size = pSize;
+    independentComponents = pIndependentComponents;
+    ImmutableList.Builder<Integer> others = ImmutableList.builder();
+    for (int i = 0; i < pSize; i++) {
+      if (!pIndependentComponents.contains(i)) {
+        others.add(i);
+      }
+    }
+    otherComponents = others.build();
+
+    // the calling thread evaluates one of the independent components itself
+    executor =
+        Executors.newFixedThreadPool(
+            pIndependentComponents.size() - 1,
+            new ThreadFactoryBuilder()
+                .setNameFormat("CompositeTransfer-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Call all components and return their results in the order of the components. If a component
+   * throws an exception, the other components are still completed before the exception is
+   * propagated.
+   */
+  List<Collection<? extends AbstractState>> evaluate(ComponentCall pCall)
+      throws CPATransferException, InterruptedException {
+    long startTime = System.nanoTime();
+    List<Collection<? extends AbstractState>> results =
+        new ArrayList<>(Collections.nCopies(size, null));
+
+    List<Future<Collection<? extends AbstractState>>> futures =
+        new ArrayList<>(independentComponents.size() - 1);
+    for (int i = 1; i < independentComponents.size(); i++) {
+      int index = independentComponents.get(i);
+      futures.add(executor.submit(() -> timedCall(pCall, index)));
+    }
+
+    @Nullable Throwable failure = null;
+    try {
+      int first = independentComponents.get(0);
+      results.set(first, timedCall(pCall, first));
+      for (int index : otherComponents) {
+        results.set(index, timedCall(pCall, index));
+      }
+    } catch (CPATransferException | InterruptedException | RuntimeException e) {
+      failure = e;
+    }
+
+    // wait for all tasks, because the components are called again for the next edge
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        Collection<? extends AbstractState> result =
+            Uninterruptibles.getUninterruptibly(futures.get(i));
+        results.set(independentComponents.get(i + 1), result);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+
+    long latency = System.nanoTime() - startTime;
+    evaluations.increment();
+    latencyNanos.add(latency);
+    maxLatencyNanos.accumulate(latency);
+
+    if (failure != null) {
+      Throwables.throwIfInstanceOf(failure, CPATransferException.class);
+      Throwables.propagateIfPossible(failure, InterruptedException.class);
+      throw new UnexpectedCheckedException("evaluating component transfer relations", failure);
+    }
+    return results;
+  }
+
+  private Collection<? extends AbstractState> timedCall(ComponentCall pCall, int pIndex)
+      throws CPATransferException, InterruptedException {
+    long startTime = System.nanoTime();
+    try {
+      return pCall.call(pIndex);
+    } finally {
+      componentNanos.add(System.nanoTime() - startTime);
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    long count = evaluations.sum();
+    long latency = latencyNanos.sum();
+    long work = componentNanos.sum();
+    put(pOut, 0, "Number of parallel evaluations", count);
+    if (count > 0) {
+      put(pOut, 0, "Time for parallel evaluations", formatNanos(latency));
+      put(pOut, 1, "Average latency per evaluation", formatNanos(latency / count));
+      put(pOut, 1, "Max latency per evaluation", formatNanos(maxLatencyNanos.get()));
+      put(pOut, 0, "Time spent in components", formatNanos(work));
+      if (latency > 0) {
+        put(
+            pOut,
+            0,
+            "Overlap (component time / latency)",
+            String.format("%.2f", (double) work / latency));
+      }
+    }
+  }
+
+  private static String formatNanos(long pNanos) {
+    return TimeSpan.ofNanos(pNanos).formatAs(TimeUnit.SECONDS);
+  }
+
+  @Override
+  public String getName() {
+    return "Parallel component evaluation";
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
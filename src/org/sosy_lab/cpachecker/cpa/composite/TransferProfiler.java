@@ -0,0 +1,222 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+/**
+ * Measures the time and optionally the allocated memory of the calls to the component transfer
+ * relations of {@link CompositeTransferRelation}, grouped by CPA, operation (transfer or
+ * strengthen), edge type, and function. Without allocation tracking, each call costs one read of
+ * the clock, one hash lookup, and two counter updates, so the profiler can be used in normal runs.
+ * Reading the allocation counter of the current thread is considerably more expensive and therefore
+ * enabled separately.
+ *
+ * <p>The profiles are written in the collapsed-stack format that is understood by flame-graph
+ * tools, one line per group with the frames {@code CPA;operation;edge type;function} followed by
+ * the time in microseconds or the allocated memory in bytes.
+ */
+final class TransferProfiler implements Statistics {
+
+  enum Operation {
+    TRANSFER("transfer"),
+    STRENGTHEN("strengthen");
+
+    private final String label;
+
+    Operation(String pLabel) {
+      label = pLabel;
+    }
+  }
+
+  private static final class Counter {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+  }
+
+  private static final int EDGE_TYPES = CFAEdgeType.values().length;
+  private static final int OPERATIONS = Operation.values().length;
+
+  private final ImmutableList<String> cpaNames;
+
+  /** Counters per function, indexed by CPA, operation, and edge type. */
+  private final List<ConcurrentMap<String, Counter>> counters;
+
+  private final com.sun.management.@Nullable ThreadMXBean allocationBean;
+  private final @Nullable Path timeFile;
+  private final @Nullable Path allocationFile;
+  private final LogManager logger;
+
+  TransferProfiler(
+      ImmutableList<String> pCpaNames,
+      @Nullable Path pTimeFile,
+      @Nullable Path pAllocationFile,
+      boolean pProfileAllocations,
+      LogManager pLogger) {
+    cpaNames = pCpaNames;
+    timeFile = pTimeFile;
+    allocationFile = pAllocationFile;
+    logger = pLogger;
+
+    int size = cpaNames.size() * OPERATIONS * EDGE_TYPES;
+    counters = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      counters.add(new ConcurrentHashMap<>());
+    }
+
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (!pProfileAllocations) {
+      allocationBean = null;
+    } else if (threadBean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled()) {
+      allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    } else {
+      logger.log(
+          Level.WARNING,
+          "Java VM does not support measuring allocated memory per thread,"
+              + " transfer profile will not contain allocations.");
+      allocationBean = null;
+    }
+  }
+
+  /** Return the number of bytes allocated by the current thread so far. */
+  long getAllocatedBytes() {
+    if (allocationBean == null) {
+      return 0;
+    }
+    return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Record a call that started at the given time (from {@link System#nanoTime()}) and with the
+   * given number of allocated bytes (from {@link #getAllocatedBytes()}).
+   *
+   * @return the end time of the call, which callers of consecutive calls can use as start time of
+   *     the next call instead of reading the clock again. The time of the next call then also
+   *     includes the bookkeeping of this method.
+   */
+  long record(
+      int pCpaIndex, Operation pOperation, CFAEdge pEdge, long pStartTime, long pStartAllocation) {
+    long endTime = System.nanoTime();
+    Counter counter =
+        getCounters(pCpaIndex, pOperation, pEdge.getEdgeType().ordinal())
+            .computeIfAbsent(pEdge.getPredecessor().getFunctionName(), function -> new Counter());
+    counter.calls.increment();
+    counter.nanos.add(endTime - pStartTime);
+    if (allocationBean != null) {
+      counter.allocatedBytes.add(getAllocatedBytes() - pStartAllocation);
+    }
+    return endTime;
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    for (int cpa = 0; cpa < cpaNames.size(); cpa++) {
+      pOut.println(cpaNames.get(cpa) + ":");
+      for (Operation operation : Operation.values()) {
+        long calls = 0;
+        long nanos = 0;
+        long allocatedBytes = 0;
+        for (int edgeType = 0; edgeType < EDGE_TYPES; edgeType++) {
+          for (Counter counter : getCounters(cpa, operation, edgeType).values()) {
+            calls += counter.calls.sum();
+            nanos += counter.nanos.sum();
+            allocatedBytes += counter.allocatedBytes.sum();
+          }
+        }
+        put(pOut, 1, "Number of calls to " + operation.label, calls);
+        put(
+            pOut,
+            1,
+            "Time for " + operation.label,
+            TimeSpan.ofNanos(nanos).formatAs(TimeUnit.SECONDS));
+        if (allocationBean != null) {
+          put(pOut, 1, "Memory allocated by " + operation.label, (allocatedBytes >> 20) + "MB");
+        }
+      }
+    }
+  }
+
+  @Override
+  public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+    writeProfile(timeFile, counter -> TimeUnit.NANOSECONDS.toMicros(counter.nanos.sum()));
+    if (allocationBean != null) {
+      writeProfile(allocationFile, counter -> counter.allocatedBytes.sum());
+    }
+  }
+
+  private void writeProfile(@Nullable Path pFile, ToLongFunction<Counter> pValue) {
+    if (pFile == null) {
+      return;
+    }
+    try (Writer out = IO.openOutputFile(pFile, Charset.defaultCharset())) {
+      for (int cpa = 0; cpa < cpaNames.size(); cpa++) {
+        for (Operation operation : Operation.values()) {
+          for (CFAEdgeType edgeType : CFAEdgeType.values()) {
+            for (Map.Entry<String, Counter> entry :
+                getCounters(cpa, operation, edgeType.ordinal()).entrySet()) {
+              long value = pValue.applyAsLong(entry.getValue());
+              if (value > 0) {
+                out.write(
+                    String.join(
+                            ";",
+                            cpaNames.get(cpa),
+                            operation.label,
+                            edgeType.name(),
+                            entry.getKey())
+                        + " "
+                        + value
+                        + "\n");
+              }
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write transfer profile");
+    }
+  }
+
+  private ConcurrentMap<String, Counter> getCounters(
+      int pCpaIndex, Operation pOperation, int pEdgeType) {
+    return counters.get((pCpaIndex * OPERATIONS + pOperation.ordinal()) * EDGE_TYPES + pEdgeType);
+  }
+
+  @Override
+  public String getName() {
+    return "Transfer profile (per CPA)";
+  }
+}
@@ -257,7 +257,8 @@ public class DCARefiner implements Refiner, StatisticsProvider {
               abstractionOptions.getReuseAbstractionsFrom(),
               logger,
               solver.getFormulaManager(),
-              null);
+              null,
+              abstractionOptions.isReuseAbstractionsLazily());
     } catch (PredicateParsingFailedException e) {
       throw new InvalidConfigurationException(e.getMessage(), e);
     }
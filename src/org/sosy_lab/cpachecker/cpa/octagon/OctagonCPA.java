@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.octagon;
 
+import java.util.Collection;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -26,15 +27,19 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonFloatManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonIntManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonManager;
+import org.sosy_lab.cpachecker.util.octagon.PackedOctagonManager;
 
 @Options(prefix="cpa.octagon")
-public final class OctagonCPA implements ConfigurableProgramAnalysis {
+public final class OctagonCPA implements ConfigurableProgramAnalysis, StatisticsProvider {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(OctagonCPA.class);
@@ -45,6 +50,18 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
           + " library will be changed between floats and ints.")
   private String octagonLibrary = "INT";
 
+  @Option(secure=true, name="octagonImplementation", toUppercase=true, values={"NATIVE", "JAVA"},
+      description="whether the native octagon library or the implementation in Java,"
+          + " which needs no native calls, should be used.")
+  private String octagonImplementation = "NATIVE";
+
+  @Option(secure=true, name="variablePacking",
+      description="split the octagon into packs of variables that are related by constraints,"
+          + " such that the operations only need to work on the affected packs."
+          + " Relations between variables of different packs can be lost at joins."
+          + " This is only supported by the octagon implementation in Java.")
+  private boolean variablePacking = false;
+
   @Option(secure=true, name="initialPrecisionType", toUppercase=true, values={"STATIC_FULL", "REFINEABLE_EMPTY"},
       description="this option determines which initial precision should be used")
   private String precisionType = "STATIC_FULL";
@@ -70,7 +87,16 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
     logger = log;
     OctagonDomain octagonDomain = new OctagonDomain(logger);
 
-    if (octagonLibrary.equals("FLOAT")) {
+    if (variablePacking && !octagonImplementation.equals("JAVA")) {
+      throw new InvalidConfigurationException(
+          "Variable packing is only supported by the octagon implementation in Java.");
+    }
+
+    if (variablePacking) {
+      octagonManager = new PackedOctagonManager(octagonLibrary.equals("INT"));
+    } else if (octagonImplementation.equals("JAVA")) {
+      octagonManager = new JavaOctagonManager(octagonLibrary.equals("INT"));
+    } else if (octagonLibrary.equals("FLOAT")) {
       octagonManager = new OctagonFloatManager();
     } else {
       octagonManager = new OctagonIntManager();
@@ -145,4 +171,11 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
   public CFA getCFA() {
     return cfa;
   }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (octagonManager instanceof PackedOctagonManager) {
+      pStatsCollection.add(new OctagonPackStatistics((PackedOctagonManager) octagonManager));
+    }
+  }
 }
@@ -0,0 +1,54 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.octagon;
+
+import java.io.PrintStream;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.octagon.PackedOctagonManager;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/** Statistics about the packs of variables of the octagons in the reached set. */
+class OctagonPackStatistics implements Statistics {
+
+  private final PackedOctagonManager manager;
+
+  OctagonPackStatistics(PackedOctagonManager pManager) {
+    manager = pManager;
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatInt variables = new StatInt(StatKind.AVG, "Number of variables per state");
+    StatInt packs = new StatInt(StatKind.AVG, "Number of packs per state");
+    StatInt packSize = new StatInt(StatKind.AVG, "Size of packs");
+    for (AbstractState state : pReached) {
+      OctagonState octState = AbstractStates.extractStateByType(state, OctagonState.class);
+      if (octState != null && !octState.isEmpty()) {
+        List<Integer> sizes = manager.getPackSizes(octState.getOctagon());
+        variables.setNextValue(octState.sizeOfVariables());
+        packs.setNextValue(sizes.size());
+        sizes.forEach(packSize::setNextValue);
+      }
+    }
+    StatisticsWriter.writingStatisticsTo(pOut).put(variables).put(packs).put(packSize);
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "Octagon variable packing";
+  }
+}
@@ -512,17 +512,18 @@ public class PredicateAbstractionManager {
           Preconditions.checkNotNull(an);
           tryReuseBasedOnPredecessors.add(Pair.of(an.getId(), tryLevel + 1));
 
-          if (bfmgr.isTrue(an.getFormula())) {
-            candidateIterator.remove();
-            continue;
-          }
-
+          // check location first, this does not require the formula to be parsed
           if (an.getLocationId().isPresent()) {
             if (location.getNodeNumber() != an.getLocationId().orElseThrow()) {
               candidateIterator.remove();
               continue;
             }
           }
+
+          if (bfmgr.isTrue(an.getFormula())) {
+            candidateIterator.remove();
+            continue;
+          }
         }
 
         //logger.log(Level.WARNING, "Filtered candidates", "location", location.getNodeNumber(), "abstraction", tryBasedOnAbstractionId, ":", candidateAbstractions);
@@ -45,6 +45,14 @@ public class PredicateAbstractionManagerOptions {
       description = "An initial set of comptued abstractions that might be reusable")
   private Path reuseAbstractionsFrom;
 
+  @Option(
+      secure = true,
+      name = "abstraction.reuseAbstractionsLazily",
+      description =
+          "Memory-map the file with reusable abstractions and parse an abstraction only when it"
+              + " is considered for reuse, instead of parsing all abstractions at startup.")
+  private boolean reuseAbstractionsLazily = false;
+
   @Option(
       secure = true,
       description = "Max. number of edge of the abstraction tree to prescan for reuse")
@@ -102,6 +110,10 @@ public class PredicateAbstractionManagerOptions {
     return reuseAbstractionsFrom;
   }
 
+  public boolean isReuseAbstractionsLazily() {
+    return reuseAbstractionsLazily;
+  }
+
   int getMaxAbstractionReusePrescan() {
     return maxAbstractionReusePrescan;
   }
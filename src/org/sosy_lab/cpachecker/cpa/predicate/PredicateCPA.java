@@ -16,6 +16,7 @@ import java.util.logging.Level;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -78,6 +79,15 @@ public class PredicateCPA
   @Option(secure=true, name="blk.useCache", description="use caching of path formulas")
   private boolean useCache = true;
 
+  @Option(
+      secure = true,
+      name = "blk.cacheSize",
+      description =
+          "maximum number of entries in each of the caches of path formulas,"
+              + " the least recently used entries are removed if necessary")
+  @IntegerOption(min = 1)
+  private long cacheSize = CachingPathFormulaManager.DEFAULT_CACHE_SIZE;
+
   @Option(secure=true, name="enableBlockreducer", description="Enable the possibility to precompute explicit abstraction locations.")
   private boolean enableBlockreducer = false;
 
@@ -167,7 +177,7 @@ public class PredicateCPA
 
     PathFormulaManager pfMgr = new PathFormulaManagerImpl(formulaManager, config, logger, shutdownNotifier, cfa, direction);
     if (useCache) {
-      pfMgr = new CachingPathFormulaManager(pfMgr);
+      pfMgr = new CachingPathFormulaManager(pfMgr, cacheSize);
     }
     pathFormulaManager = pfMgr;
 
@@ -194,7 +204,8 @@ public class PredicateCPA
             abstractionOptions.getReuseAbstractionsFrom(),
             logger,
             solver.getFormulaManager(),
-            null);
+            null,
+            abstractionOptions.isReuseAbstractionsLazily());
     weakeningOptions = new WeakeningOptions(config);
 
     statistics = new PredicateStatistics();
@@ -226,6 +237,7 @@ public class PredicateCPA
             regionManager,
             abstractionManager,
             abstractionStats,
+            abstractionStorage,
             statistics);
   }
 
@@ -43,6 +43,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.LoopInvariantsWriter;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsWriter;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateMapWriter;
 import org.sosy_lab.cpachecker.util.Precisions;
@@ -103,6 +104,7 @@ class PredicateCPAStatistics implements Statistics {
   private final RegionManager rmgr;
   private final AbstractionManager absmgr;
   private final PredicateAbstractionStatistics abstractionStats;
+  private final PredicateAbstractionsStorage abstractionStorage;
 
   private final PredicateStatistics statistics;
   private final PredicateMapWriter precisionWriter;
@@ -119,6 +121,7 @@ class PredicateCPAStatistics implements Statistics {
       RegionManager pRmgr,
       AbstractionManager pAbsmgr,
       PredicateAbstractionStatistics pAbstractionStats,
+      PredicateAbstractionsStorage pAbstractionStorage,
       PredicateStatistics pStatistics)
       throws InvalidConfigurationException {
     pConfig.inject(this, PredicateCPAStatistics.class);
@@ -130,6 +133,7 @@ class PredicateCPAStatistics implements Statistics {
     rmgr = pRmgr;
     absmgr = pAbsmgr;
     abstractionStats = pAbstractionStats;
+    abstractionStorage = pAbstractionStorage;
     statistics = pStatistics;
 
     FormulaManagerView fmgr = pSolver.getFormulaManager();
@@ -264,6 +268,12 @@ class PredicateCPAStatistics implements Statistics {
       }
     }
 
+    int numStoredAbstractions = abstractionStorage.getAbstractions().size();
+    if (numStoredAbstractions > 0) {
+      out.println("Number of abstractions from file:  " + numStoredAbstractions);
+      out.println("  Times abstraction was parsed:    " + valueWithPercentage(abstractionStorage.getNumberOfParsedAbstractions(), numStoredAbstractions));
+    }
+
     if (statistics.satCheckTimer.getNumberOfIntervals() > 0) {
       out.println("Number of satisfiability checks:   " + statistics.satCheckTimer.getNumberOfIntervals());
       out.println("  Times result was 'false':        " + statistics.numSatChecksFalse + " (" + toPercent(statistics.numSatChecksFalse.getUpdateCount(), statistics.satCheckTimer.getNumberOfIntervals()) + ")");
@@ -356,6 +366,13 @@ class PredicateCPAStatistics implements Statistics {
               + ")");
     }
 
+    if (numStoredAbstractions > 0) {
+      out.println("Time for loading abstractions:     " + abstractionStorage.getLoadTimer());
+      if (abstractionStorage.isLoadedLazily()) {
+        put(out, 1, abstractionStorage.getLazyParsingTimer());
+      }
+    }
+
     if (statistics.totalMergeTime.getNumberOfIntervals() != 0) { // at least used once
       put(out, 0, statistics.totalMergeTime);
     }
@@ -12,6 +12,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.LinkedHashMultimap;
@@ -20,9 +22,14 @@ import com.google.common.collect.Sets;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.OptionalInt;
@@ -30,16 +37,19 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.logging.Level;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.precisionConverter.Converter;
 import org.sosy_lab.cpachecker.util.predicates.precisionConverter.FormulaParser;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 
 public class PredicateAbstractionsStorage {
@@ -47,16 +57,24 @@ public class PredicateAbstractionsStorage {
   public static class AbstractionNode {
     private final int id;
     private final OptionalInt locationId;
-    private final BooleanFormula formula;
+    private final Supplier<BooleanFormula> formula;
 
     public AbstractionNode(int pId, BooleanFormula pFormula, OptionalInt pLocationId) {
+      this(pId, Suppliers.ofInstance(pFormula), pLocationId);
+    }
+
+    private AbstractionNode(int pId, Supplier<BooleanFormula> pFormula, OptionalInt pLocationId) {
       this.id = pId;
       this.formula = pFormula;
       this.locationId = pLocationId;
     }
 
+    /**
+     * Returns the abstraction formula. If the storage loads abstractions lazily, the formula is
+     * parsed on the first call of this method.
+     */
     public BooleanFormula getFormula() {
-      return formula;
+      return formula.get();
     }
 
     public int getId() {
@@ -82,6 +100,13 @@ public class PredicateAbstractionsStorage {
   private final FormulaManagerView fmgr;
   protected final LogManager logger;
   private final Converter converter;
+  private final boolean lazyLoading;
+
+  private String commonDefinitions = "";
+
+  private final Timer loadTimer = new Timer();
+  private final StatTimer lazyParsingTimer = new StatTimer("Time for parsing abstractions lazily");
+  private int numParsedAbstractions = 0;
 
   private Integer rootAbstractionId = null;
   private ImmutableMap<Integer, AbstractionNode> abstractions = ImmutableMap.of();
@@ -89,93 +114,216 @@ public class PredicateAbstractionsStorage {
   private Set<Integer> reusedAbstractions = new TreeSet<>();
 
   public PredicateAbstractionsStorage(Path pFile, LogManager pLogger, FormulaManagerView pFmgr, @Nullable Converter pConverter) throws PredicateParsingFailedException {
+    this(pFile, pLogger, pFmgr, pConverter, false);
+  }
+
+  /**
+   * Creates a storage for the abstractions in the given file.
+   *
+   * @param pLazyLoading whether the file should be memory-mapped and only indexed initially, such
+   *     that the formula of an abstraction is parsed when it is requested for the first time
+   */
+  public PredicateAbstractionsStorage(
+      Path pFile,
+      LogManager pLogger,
+      FormulaManagerView pFmgr,
+      @Nullable Converter pConverter,
+      boolean pLazyLoading)
+      throws PredicateParsingFailedException {
     this.fmgr = pFmgr;
     this.logger = pLogger;
     this.abstractionsFile = pFile;
     this.converter = pConverter;
 
     if (pFile != null) {
+      loadTimer.start();
       try {
         IO.checkReadableFile(pFile);
-        parseAbstractionTree();
+        lazyLoading = pLazyLoading && parseAbstractionTreeLazily();
+        if (!lazyLoading) {
+          try (BufferedReader reader =
+              Files.newBufferedReader(abstractionsFile, StandardCharsets.US_ASCII)) {
+            parseAbstractionTree(reader::readLine, null);
+          }
+        }
       } catch (IOException e) {
         throw new PredicateParsingFailedException(e, "Init", 0);
+      } finally {
+        loadTimer.stop();
       }
+    } else {
+      lazyLoading = false;
+    }
+  }
+
+  /**
+   * Memory-map the abstractions file and build the abstraction tree together with an index of the
+   * positions of the abstraction formulas in the file.
+   *
+   * @return whether lazy loading is possible for the file
+   */
+  private boolean parseAbstractionTreeLazily() throws IOException, PredicateParsingFailedException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(abstractionsFile, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        logger.log(
+            Level.INFO,
+            "Abstractions file",
+            abstractionsFile,
+            "is too large to be memory-mapped, loading all abstractions.");
+        return false;
+      }
+      buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
     }
+    parseAbstractionTree(new MappedLineReader(buffer), buffer);
+    return true;
+  }
+
+  @FunctionalInterface
+  private interface LineReader {
+    @Nullable String readLine() throws IOException;
   }
 
+  /** Reads ASCII lines from a buffer and remembers where the last line started and ended. */
+  private static class MappedLineReader implements LineReader {
+
+    private final ByteBuffer buffer;
+    private int lastLineStart = -1;
+    private int lastLineEnd = -1;
+
+    MappedLineReader(ByteBuffer pBuffer) {
+      buffer = pBuffer;
+    }
+
+    @Override
+    public @Nullable String readLine() {
+      if (!buffer.hasRemaining()) {
+        return null;
+      }
+      lastLineStart = buffer.position();
+      while (buffer.hasRemaining()) {
+        byte b = buffer.get();
+        if (b == '\n') {
+          lastLineEnd = buffer.position() - 1;
+          return getLastLine();
+        }
+      }
+      lastLineEnd = buffer.position();
+      return getLastLine();
+    }
+
+    private String getLastLine() {
+      return readAscii(buffer, lastLineStart, lastLineEnd - lastLineStart);
+    }
+  }
+
+  private static String readAscii(ByteBuffer pBuffer, int pOffset, int pLength) {
+    byte[] bytes = new byte[pLength];
+    ByteBuffer view = pBuffer.duplicate();
+    view.position(pOffset);
+    view.get(bytes);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Parse the abstractions file line by line.
+   *
+   * @param pMappedFile if not null, the reader is a {@link MappedLineReader} for this buffer and
+   *     abstraction formulas are not parsed but only indexed for lazy parsing
+   */
   @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
-  private void parseAbstractionTree() throws IOException, PredicateParsingFailedException {
+  private void parseAbstractionTree(LineReader reader, @Nullable ByteBuffer pMappedFile)
+      throws IOException, PredicateParsingFailedException {
     Multimap<Integer, Integer> resultTree = LinkedHashMultimap.create();
     Map<Integer, AbstractionNode> resultAbstractions = new TreeMap<>();
     Set<Integer> abstractionsWithParents = new TreeSet<>();
 
     String source = abstractionsFile.getFileName().toString();
-    try (BufferedReader reader =
+    // first, read first section with initial set of function definitions
+    Pair<Integer, String> defParsingResult;
+    try (BufferedReader definitionsReader =
         Files.newBufferedReader(abstractionsFile, StandardCharsets.US_ASCII)) {
+      defParsingResult =
+          PredicatePersistenceUtils.parseCommonDefinitions(
+              definitionsReader, abstractionsFile.toString());
+    }
+    int lineNo = defParsingResult.getFirst();
+    commonDefinitions = convert(defParsingResult.getSecond());
+    for (int i = 0; i < lineNo; i++) {
+      reader.readLine(); // skip definitions
+    }
 
-      // first, read first section with initial set of function definitions
-      Pair<Integer, String> defParsingResult = PredicatePersistenceUtils.parseCommonDefinitions(reader, abstractionsFile.toString());
-      int lineNo = defParsingResult.getFirst();
-      String commonDefinitions = convert(defParsingResult.getSecond());
+    String currentLine;
+    int currentAbstractionId = -1;
+    OptionalInt currentLocationId = OptionalInt.empty();
+    Set<Integer> currentSuccessors = new TreeSet<>();
 
-      String currentLine;
-      int currentAbstractionId = -1;
-      OptionalInt currentLocationId = OptionalInt.empty();
-      Set<Integer> currentSuccessors = new TreeSet<>();
+    AbstractionsParserState parserState = AbstractionsParserState.EXPECT_NODE_DECLARATION;
+    while ((currentLine = reader.readLine()) != null) {
+      lineNo++;
+      currentLine = currentLine.trim();
 
-      AbstractionsParserState parserState = AbstractionsParserState.EXPECT_NODE_DECLARATION;
-      while ((currentLine = reader.readLine()) != null) {
-        lineNo++;
-        currentLine = currentLine.trim();
+      if (currentLine.isEmpty()) {
+        // blank lines separates sections
+        continue;
+      }
 
-        if (currentLine.isEmpty()) {
-          // blank lines separates sections
-          continue;
-        }
+      if (currentLine.startsWith("//")) {
+        // comment
+        continue;
+      }
 
-        if (currentLine.startsWith("//")) {
-          // comment
-          continue;
+      if (parserState == AbstractionsParserState.EXPECT_NODE_DECLARATION) {
+        // we expect a new section header
+        if (!currentLine.endsWith(":")) {
+          throw new PredicateParsingFailedException(currentLine + " is not a valid abstraction header", source, lineNo);
         }
 
-        if (parserState == AbstractionsParserState.EXPECT_NODE_DECLARATION) {
-          // we expect a new section header
-          if (!currentLine.endsWith(":")) {
-            throw new PredicateParsingFailedException(currentLine + " is not a valid abstraction header", source, lineNo);
-          }
-
-          currentLine = currentLine.substring(0, currentLine.length()-1).trim(); // strip off ":"
-          if (currentLine.isEmpty()) {
-            throw new PredicateParsingFailedException("empty header is not allowed", source, lineNo);
-          }
+        currentLine = currentLine.substring(0, currentLine.length()-1).trim(); // strip off ":"
+        if (currentLine.isEmpty()) {
+          throw new PredicateParsingFailedException("empty header is not allowed", source, lineNo);
+        }
 
-          if (!NODE_DECLARATION_PATTERN.matcher(currentLine).matches()) {
-            throw new PredicateParsingFailedException(currentLine + " is not a valid abstraction header", source, lineNo);
-          }
+        if (!NODE_DECLARATION_PATTERN.matcher(currentLine).matches()) {
+          throw new PredicateParsingFailedException(currentLine + " is not a valid abstraction header", source, lineNo);
+        }
 
-          currentLocationId = null;
-          StringTokenizer declarationTokenizer = new StringTokenizer(currentLine, " (,):");
-          currentAbstractionId = Integer.parseInt(declarationTokenizer.nextToken());
-          while (declarationTokenizer.hasMoreTokens()) {
-            String token = declarationTokenizer.nextToken().trim();
-            if (!token.isEmpty()) {
-              if (token.startsWith("@")) {
-                currentLocationId = OptionalInt.of(Integer.parseInt(token.substring(1)));
-              } else {
-                int successorId = Integer.parseInt(token);
-                currentSuccessors.add(successorId);
-              }
+        currentLocationId = null;
+        StringTokenizer declarationTokenizer = new StringTokenizer(currentLine, " (,):");
+        currentAbstractionId = Integer.parseInt(declarationTokenizer.nextToken());
+        while (declarationTokenizer.hasMoreTokens()) {
+          String token = declarationTokenizer.nextToken().trim();
+          if (!token.isEmpty()) {
+            if (token.startsWith("@")) {
+              currentLocationId = OptionalInt.of(Integer.parseInt(token.substring(1)));
+            } else {
+              int successorId = Integer.parseInt(token);
+              currentSuccessors.add(successorId);
             }
           }
+        }
 
-          parserState = AbstractionsParserState.EXPECT_NODE_ABSTRACTION;
+        parserState = AbstractionsParserState.EXPECT_NODE_ABSTRACTION;
 
-        } else if (parserState == AbstractionsParserState.EXPECT_NODE_ABSTRACTION) {
-          if (!currentLine.startsWith("(assert ") && currentLine.endsWith(")")) {
-            throw new PredicateParsingFailedException("unexpected line " + currentLine, source, lineNo);
-          }
+      } else if (parserState == AbstractionsParserState.EXPECT_NODE_ABSTRACTION) {
+        if (!currentLine.startsWith("(assert ") && currentLine.endsWith(")")) {
+          throw new PredicateParsingFailedException("unexpected line " + currentLine, source, lineNo);
+        }
 
+        AbstractionNode abstractionNode;
+        if (pMappedFile != null) {
+          MappedLineReader mappedReader = (MappedLineReader) reader;
+          int offset = mappedReader.lastLineStart;
+          int length = mappedReader.lastLineEnd - offset;
+          int formulaLineNo = lineNo;
+          abstractionNode =
+              new AbstractionNode(
+                  currentAbstractionId,
+                  Suppliers.memoize(
+                      () -> parseLazily(pMappedFile, offset, length, source, formulaLineNo)),
+                  currentLocationId);
+
+        } else {
           currentLine = convert(currentLine);
 
           BooleanFormula f;
@@ -184,16 +332,16 @@ public class PredicateAbstractionsStorage {
           } catch (IllegalArgumentException e) {
             throw new PredicateParsingFailedException(e, "Formula parsing", lineNo);
           }
-
-          AbstractionNode abstractionNode = new AbstractionNode(currentAbstractionId, f, currentLocationId);
-          resultAbstractions.put(currentAbstractionId, abstractionNode);
-          resultTree.putAll(currentAbstractionId, currentSuccessors);
-          abstractionsWithParents.addAll(currentSuccessors);
-          currentAbstractionId = -1;
-          currentSuccessors.clear();
-
-          parserState = AbstractionsParserState.EXPECT_NODE_DECLARATION;
+          numParsedAbstractions++;
+          abstractionNode = new AbstractionNode(currentAbstractionId, f, currentLocationId);
         }
+        resultAbstractions.put(currentAbstractionId, abstractionNode);
+        resultTree.putAll(currentAbstractionId, currentSuccessors);
+        abstractionsWithParents.addAll(currentSuccessors);
+        currentAbstractionId = -1;
+        currentSuccessors.clear();
+
+        parserState = AbstractionsParserState.EXPECT_NODE_DECLARATION;
       }
     }
 
@@ -211,6 +359,22 @@ public class PredicateAbstractionsStorage {
     this.abstractionTree = ImmutableListMultimap.copyOf(resultTree);
   }
 
+  private synchronized BooleanFormula parseLazily(
+      ByteBuffer pFile, int pOffset, int pLength, String pSource, int pLineNo) {
+    lazyParsingTimer.start();
+    try {
+      String formulaString = convert(readAscii(pFile, pOffset, pLength).trim());
+      BooleanFormula f = fmgr.parse(commonDefinitions + formulaString);
+      numParsedAbstractions++;
+      return f;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Parsing failed in line " + pLineNo + " of " + pSource + ": " + e.getMessage(), e);
+    } finally {
+      lazyParsingTimer.stop();
+    }
+  }
+
   private String convert(String str) {
     if (converter == null){
       return str;
@@ -273,4 +437,21 @@ public class PredicateAbstractionsStorage {
     return abstractions;
   }
 
+  public boolean isLoadedLazily() {
+    return lazyLoading;
+  }
+
+  /** Returns the time for reading the file, excluding the time for lazy parsing. */
+  public Timer getLoadTimer() {
+    return loadTimer;
+  }
+
+  public StatTimer getLazyParsingTimer() {
+    return lazyParsingTimer;
+  }
+
+  public synchronized int getNumberOfParsedAbstractions() {
+    return numParsedAbstractions;
+  }
+
 }
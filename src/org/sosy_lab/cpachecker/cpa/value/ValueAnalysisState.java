@@ -129,6 +129,16 @@ public final class ValueAnalysisState
     hashCode = constantsMap.hashCode();
   }
 
+  private ValueAnalysisState(
+      @Nullable MachineModel pMachineModel,
+      PersistentMap<MemoryLocation, ValueAndType> pConstantsMap,
+      int pHashCode) {
+    machineModel = pMachineModel;
+    constantsMap = checkNotNull(pConstantsMap);
+    hashCode = pHashCode;
+    assert hashCode == constantsMap.hashCode();
+  }
+
   private ValueAnalysisState(ValueAnalysisState state) {
     machineModel = state.machineModel;
     constantsMap = checkNotNull(state.constantsMap);
@@ -164,8 +174,14 @@ public final class ValueAnalysisState
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
-    ValueAndType valueAndType = new ValueAndType(checkNotNull(valueToAdd), pType);
     ValueAndType oldValueAndType = constantsMap.get(pMemLoc);
+    if (oldValueAndType != null
+        && oldValueAndType.getValue().equals(valueToAdd)
+        && Objects.equals(oldValueAndType.getType(), pType)) {
+      // keep the map unchanged, such that it can still be shared with other states
+      return;
+    }
+    ValueAndType valueAndType = new ValueAndType(checkNotNull(valueToAdd), pType);
     if (oldValueAndType != null) {
       hashCode -= (pMemLoc.hashCode() ^ oldValueAndType.hashCode());
     }
@@ -359,27 +375,37 @@ public final class ValueAnalysisState
   /**
    * This element joins this element with another element.
    *
+   * <p>The result shares as much structure as possible with the reached state: only the entries
+   * that differ are removed from its map, and the reached state itself is returned if nothing
+   * differs.
+   *
    * @param reachedState the other element to join with this element
    * @return a new state representing the join of this element and the other element
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = PathCopyingPersistentTreeMap.of();
+    if (constantsMap == reachedState.constantsMap) {
+      return reachedState;
+    }
 
+    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = reachedState.constantsMap;
+    int newHashCode = reachedState.hashCode;
     for (Entry<MemoryLocation, ValueAndType> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
       ValueAndType value = otherEntry.getValue();
+      ValueAndType thisValue = constantsMap.get(key);
 
-      if (Objects.equals(value, constantsMap.get(key))) {
-        newConstantsMap = newConstantsMap.putAndCopy(key, value);
+      if (value != thisValue && !value.equals(thisValue)) {
+        newConstantsMap = newConstantsMap.removeAndCopy(key);
+        newHashCode -= (key.hashCode() ^ value.hashCode());
       }
     }
 
     // return the reached state if both maps are equal
-    if (newConstantsMap.size() == reachedState.constantsMap.size()) {
+    if (newConstantsMap == reachedState.constantsMap) {
       return reachedState;
     } else {
-      return new ValueAnalysisState(machineModel, newConstantsMap);
+      return new ValueAnalysisState(machineModel, newConstantsMap, newHashCode);
     }
   }
 
@@ -392,6 +418,11 @@ public final class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states that share their map (e.g., after an assignment without effect) are equal
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -409,9 +440,13 @@ public final class ValueAnalysisState
     // the tolerant way: ignore all type information. TODO really correct?
     for (Entry<MemoryLocation, ValueAndType> otherEntry : other.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
-      Value otherValue = otherEntry.getValue().getValue();
+      ValueAndType otherValueAndType = otherEntry.getValue();
       ValueAndType thisValueAndType = constantsMap.get(key);
-      if (thisValueAndType == null || !otherValue.equals(thisValueAndType.getValue())) {
+      if (thisValueAndType == null) {
+        return false;
+      }
+      if (thisValueAndType != otherValueAndType
+          && !otherValueAndType.getValue().equals(thisValueAndType.getValue())) {
         return false;
       }
     }
@@ -435,7 +470,9 @@ public final class ValueAnalysisState
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
     // hashCode is used as optimization: about 20% speedup when using many SingletonSets
-    return otherElement.hashCode == hashCode && otherElement.constantsMap.equals(constantsMap);
+    return otherElement.hashCode == hashCode
+        && (otherElement.constantsMap == constantsMap
+            || otherElement.constantsMap.equals(constantsMap));
   }
 
   @Override
@@ -0,0 +1,65 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ValueAnalysisStateTest {
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("main", "x");
+  private static final MemoryLocation Y = MemoryLocation.valueOf("main", "y");
+
+  private static ValueAnalysisState createState(int pX, int pY) {
+    ValueAnalysisState state = new ValueAnalysisState(MachineModel.LINUX32);
+    state.assignConstant(X, new NumericValue(pX), CNumericTypes.INT);
+    state.assignConstant(Y, new NumericValue(pY), CNumericTypes.INT);
+    return state;
+  }
+
+  @Test
+  public void testMemoryLocationInterning() {
+    assertThat(MemoryLocation.valueOf("main::x")).isSameInstanceAs(X);
+    assertThat(MemoryLocation.valueOf("main::x/4").getReferenceStart()).isSameInstanceAs(X);
+  }
+
+  @Test
+  public void testJoinOfEqualStates() {
+    ValueAnalysisState state1 = createState(1, 2);
+    ValueAnalysisState state2 = ValueAnalysisState.copyOf(state1);
+    // assigning the same value again must not change the state
+    state2.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(state1.join(state2)).isSameInstanceAs(state2);
+    assertThat(state1.isLessOrEqual(state2)).isTrue();
+    assertThat(createState(1, 2).join(state2)).isSameInstanceAs(state2);
+  }
+
+  @Test
+  public void testJoinOfDifferentStates() {
+    ValueAnalysisState state1 = createState(1, 2);
+    ValueAnalysisState state2 = createState(1, 3);
+
+    ValueAnalysisState joined = state1.join(state2);
+    assertThat(joined.getTrackedMemoryLocations()).containsExactly(X);
+    assertThat(joined.getValueFor(X)).isEqualTo(new NumericValue(1));
+    assertThat(joined).isEqualTo(state2.join(state1));
+    assertThat(joined.hashCode()).isEqualTo(state2.join(state1).hashCode());
+
+    assertThat(state1.isLessOrEqual(joined)).isTrue();
+    assertThat(state2.isLessOrEqual(joined)).isTrue();
+    assertThat(joined.isLessOrEqual(state1)).isFalse();
+    assertThat(state1.isLessOrEqual(state2)).isFalse();
+  }
+}
@@ -14,6 +14,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -24,6 +25,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PartitioningCheckingHelper;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitionChecker;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 import com.google.common.collect.Multimap;
 
@@ -35,6 +37,7 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
   private final AtomicBoolean checkResult;
   private final Semaphore readAndUnprocessedPartitions;
   private final Semaphore checkedPartitions;
+  private final @Nullable Semaphore readCapacity;
   private final Lock mutex;
 
   private final PartitioningIOHelper ioHelper;
@@ -45,6 +48,7 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
   private final Collection<AbstractState> inOtherPartition;
 
   private final ShutdownNotifier shutdownNotifier;
+  private final @Nullable ParallelValidationStatistics validationStats;
 
   public ParallelPartitionChecker(final AtomicInteger pAvailablePartitions, final AtomicInteger pNextId,
       final AtomicBoolean pCheckResult, final Semaphore pReadButUnprocessed, final Semaphore pPartitionsChecked,
@@ -52,11 +56,32 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
       final Multimap<CFANode, AbstractState> partitionElements, final Collection<AbstractState> pCertificate,
       final Collection<AbstractState> pInOtherPartition, final Precision init, final StopOperator stop,
       final TransferRelation transfer, final ShutdownNotifier pShutdownNotifier, final LogManager pLogger) {
+    this(pAvailablePartitions, pNextId, pCheckResult, pReadButUnprocessed, pPartitionsChecked, null,
+        pMutex, pIOHelper, partitionElements, pCertificate, pInOtherPartition, init, stop, transfer,
+        pShutdownNotifier, null, pLogger);
+  }
+
+  /**
+   * Creates a checker that checks partitions until all partitions have been checked.
+   *
+   * @param pReadCapacity if not null, a permit is released after each checked partition to allow
+   *     readers to read further partitions
+   * @param pValidationStats if not null, checking times are recorded in these statistics
+   */
+  public ParallelPartitionChecker(final AtomicInteger pAvailablePartitions, final AtomicInteger pNextId,
+      final AtomicBoolean pCheckResult, final Semaphore pReadButUnprocessed, final Semaphore pPartitionsChecked,
+      final @Nullable Semaphore pReadCapacity, final Lock pMutex, final PartitioningIOHelper pIOHelper,
+      final Multimap<CFANode, AbstractState> partitionElements, final Collection<AbstractState> pCertificate,
+      final Collection<AbstractState> pInOtherPartition, final Precision init, final StopOperator stop,
+      final TransferRelation transfer, final ShutdownNotifier pShutdownNotifier,
+      final @Nullable ParallelValidationStatistics pValidationStats, final LogManager pLogger) {
     numPartitionsAcquiredForChecking = pAvailablePartitions;
     nextPartition = pNextId;
     checkResult = pCheckResult;
     readAndUnprocessedPartitions = pReadButUnprocessed;
     checkedPartitions = pPartitionsChecked;
+    readCapacity = pReadCapacity;
+    validationStats = pValidationStats;
     mutex = pMutex;
 
     ioHelper = pIOHelper;
@@ -71,6 +96,7 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
 
   @Override
   public void run() {
+    TimerWrapper checkTimer = validationStats == null ? null : validationStats.getNewCheckTimer();
     int nextPartitionId;
     while (numPartitionsAcquiredForChecking.incrementAndGet() <= ioHelper.getNumPartitions()) {
       if (shutdownNotifier.shouldShutdown()) {
@@ -96,7 +122,18 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
       if (shutdownNotifier.shouldShutdown()) {
         abortCheckingPreparation();
       }
-      checker.checkPartition(nextPartitionId);
+      if (validationStats != null) {
+        validationStats.checkingStarted();
+        checkTimer.start();
+      }
+      try {
+        checker.checkPartition(nextPartitionId);
+      } finally {
+        if (validationStats != null) {
+          checkTimer.stop();
+          validationStats.checkingFinished();
+        }
+      }
 
       mutex.lock();
       try {
@@ -108,6 +145,9 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
       }
 
       checkedPartitions.release();
+      if (readCapacity != null) {
+        readCapacity.release();
+      }
 
       checker.clearAllSavedPartitioningElements();
     }
@@ -124,6 +164,9 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
     checkResult.set(false);
     readAndUnprocessedPartitions.release(ioHelper.getNumPartitions());
     checkedPartitions.release(ioHelper.getNumPartitions());
+    if (readCapacity != null) {
+      readCapacity.release(ioHelper.getNumPartitions());
+    }
   }
 
 }
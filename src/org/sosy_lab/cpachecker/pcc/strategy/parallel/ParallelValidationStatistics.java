@@ -0,0 +1,124 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.parallel;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+
+/**
+ * Statistics for validation strategies that read and check partitions of a certificate
+ * concurrently. Besides the accumulated reading and checking times, it records the wall-clock
+ * phases of reading and checking to show how much both phases overlap.
+ */
+public class ParallelValidationStatistics implements Statistics {
+
+  private final ThreadSafeTimerContainer readTimer =
+      new ThreadSafeTimerContainer("Time for reading partitions (sum over threads)");
+  private final ThreadSafeTimerContainer checkTimer =
+      new ThreadSafeTimerContainer("Time for checking partitions (sum over threads)");
+  private final Timer validationTimer = new Timer();
+
+  private final AtomicInteger partitionsRead = new AtomicInteger(0);
+  private final AtomicInteger partitionsChecked = new AtomicInteger(0);
+
+  // wall-clock phases in nanoseconds as returned by System.nanoTime()
+  private final AtomicLong firstReadStart = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong lastReadEnd = new AtomicLong(Long.MIN_VALUE);
+  private final AtomicLong firstCheckStart = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong lastCheckEnd = new AtomicLong(Long.MIN_VALUE);
+
+  /** Create a timer for one reading thread. */
+  public TimerWrapper getNewReadTimer() {
+    return readTimer.getNewTimer();
+  }
+
+  /** Create a timer for one checking thread. */
+  public TimerWrapper getNewCheckTimer() {
+    return checkTimer.getNewTimer();
+  }
+
+  public void readingStarted() {
+    firstReadStart.accumulateAndGet(System.nanoTime(), Math::min);
+  }
+
+  public void readingFinished() {
+    lastReadEnd.accumulateAndGet(System.nanoTime(), Math::max);
+    partitionsRead.incrementAndGet();
+  }
+
+  public void checkingStarted() {
+    firstCheckStart.accumulateAndGet(System.nanoTime(), Math::min);
+  }
+
+  public void checkingFinished() {
+    lastCheckEnd.accumulateAndGet(System.nanoTime(), Math::max);
+    partitionsChecked.incrementAndGet();
+  }
+
+  public Timer getValidationTimer() {
+    return validationTimer;
+  }
+
+  /** Returns the time span in which reading and checking were both in progress. */
+  private TimeSpan getOverlap() {
+    long start = Math.max(firstReadStart.get(), firstCheckStart.get());
+    long end = Math.min(lastReadEnd.get(), lastCheckEnd.get());
+    if (firstReadStart.get() == Long.MAX_VALUE
+        || firstCheckStart.get() == Long.MAX_VALUE
+        || end <= start) {
+      return TimeSpan.empty();
+    }
+    return TimeSpan.ofNanos(end - start);
+  }
+
+  private static TimeSpan getPhase(AtomicLong pStart, AtomicLong pEnd) {
+    if (pStart.get() == Long.MAX_VALUE || pEnd.get() <= pStart.get()) {
+      return TimeSpan.empty();
+    }
+    return TimeSpan.ofNanos(pEnd.get() - pStart.get());
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    TimeSpan validationTime = validationTimer.getSumTime();
+    double seconds = validationTime.asNanos() / 1e9;
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put("Number of partitions read", partitionsRead.get())
+        .put("Number of partitions checked", partitionsChecked.get())
+        .put(readTimer)
+        .put(checkTimer)
+        .put(
+            "Duration of reading phase",
+            getPhase(firstReadStart, lastReadEnd).formatAs(TimeUnit.SECONDS))
+        .put(
+            "Duration of checking phase",
+            getPhase(firstCheckStart, lastCheckEnd).formatAs(TimeUnit.SECONDS))
+        .put("Overlap of reading and checking", getOverlap().formatAs(TimeUnit.SECONDS))
+        .put("Total validation time", validationTimer)
+        .putIf(
+            seconds > 0,
+            "Validation throughput (partitions/s)",
+            String.format("%.2f", partitionsChecked.get() / seconds));
+  }
+
+  @Override
+  public String getName() {
+    return "Parallel Proof Validation";
+  }
+}
@@ -28,6 +28,7 @@ import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -42,6 +43,7 @@ import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
 import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelPartitionChecker;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelValidationStatistics;
 import org.sosy_lab.cpachecker.pcc.strategy.parallel.io.ParallelPartitionReader;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningUtils;
@@ -54,10 +56,33 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
       description = "The number of cores used exclusively for proof reading. Must be less than pcc.useCores and may not be negative. Value 0 means that the cores used for reading and checking are shared")
   private int numReadThreads = 0;
 
+  @Option(
+      secure = true,
+      name = "ioReadThreads",
+      description =
+          "The number of threads used exclusively for proof reading in addition to pcc.useCores."
+              + " Reading is dominated by I/O, so these threads may exceed the number of cores."
+              + " If positive, pcc.interleaved.useReadCores is ignored and all cores are used for"
+              + " checking.")
+  @IntegerOption(min = 0)
+  private int numIOReadThreads = 0;
+
+  @Option(
+      secure = true,
+      name = "maxReadAhead",
+      description =
+          "The maximal number of partitions that are read but not yet checked."
+              + " Bounds the memory used for partitions waiting to be checked."
+              + " Only applies if reading and checking use separate threads."
+              + " Value 0 means that reading is not limited.")
+  @IntegerOption(min = 0)
+  private int maxReadAhead = 0;
+
   private int nextPartition;
   private final PartitioningIOHelper ioHelper;
   private final ShutdownNotifier shutdown;
   private final PropertyCheckerCPA cpa;
+  private final ParallelValidationStatistics validationStats = new ParallelValidationStatistics();
 
   public PartialReachedSetParallelIOCheckingInterleavedStrategy(
       final Configuration pConfig,
@@ -76,6 +101,7 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
     numReadThreads = Math.min(numReadThreads, numThreads - 1);
     numReadThreads = Math.max(0, numReadThreads);
     addPCCStatistic(ioHelper.getPartitioningStatistc());
+    addPCCStatistic(validationStats);
   }
 
   @Override
@@ -96,26 +122,39 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
     AbstractState initialState = pReachedSet.popFromWaitlist();
     Precision initPrec = pReachedSet.getPrecision(initialState);
     Lock lock = new ReentrantLock();
+    Semaphore readCapacity = maxReadAhead > 0 ? new Semaphore(maxReadAhead) : null;
 
     ExecutorService executor = null, readExecutor = null, checkExecutor = null;
     logger.log(Level.INFO, "Create and start threads");
+    validationStats.getValidationTimer().start();
     try {
-      if (numReadThreads == 0) {
+      if (numIOReadThreads > 0) {
+        readExecutor = Executors.newFixedThreadPool(numIOReadThreads);
+        startReadingThreads(numIOReadThreads, readExecutor, checkResult, partitionsRead, readCapacity);
+        checkExecutor = Executors.newFixedThreadPool(numThreads);
+        startCheckingThreads(numThreads, checkExecutor, checkResult, partitionsRead, partitionChecked,
+            readCapacity, certificate, partitionNodes, inOtherPartition, initPrec, lock);
+      } else if (numReadThreads == 0) {
+        // readers and checkers share the threads, blocking readers could starve the checkers
         executor = Executors.newFixedThreadPool(numThreads);
-        startReadingThreads(numThreads, executor, checkResult, partitionsRead);
-        startCheckingThreads(numThreads, executor, checkResult, partitionsRead, partitionChecked, certificate,
-            partitionNodes, inOtherPartition,
+        startReadingThreads(numThreads, executor, checkResult, partitionsRead, null);
+        startCheckingThreads(numThreads, executor, checkResult, partitionsRead, partitionChecked,
+            null, certificate, partitionNodes, inOtherPartition,
             initPrec, lock);
       } else {
         readExecutor = Executors.newFixedThreadPool(numReadThreads);
-        startReadingThreads(numReadThreads, readExecutor, checkResult, partitionsRead);
+        startReadingThreads(numReadThreads, readExecutor, checkResult, partitionsRead, readCapacity);
         checkExecutor = Executors.newFixedThreadPool(numThreads - numReadThreads);
         startCheckingThreads(numThreads - numReadThreads, checkExecutor, checkResult, partitionsRead, partitionChecked,
-            certificate, partitionNodes, inOtherPartition,
+            readCapacity, certificate, partitionNodes, inOtherPartition,
             initPrec, lock);
       }
 
-      partitionChecked.acquire(ioHelper.getNumPartitions());
+      try {
+        partitionChecked.acquire(ioHelper.getNumPartitions());
+      } finally {
+        validationStats.getValidationTimer().stop();
+      }
 
       if (!checkResult.get()) { return false; }
 
@@ -157,24 +196,26 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
   }
 
   private void startReadingThreads(final int threads, final ExecutorService pReadingExecutor, final AtomicBoolean pCheckResult,
-      final Semaphore partitionsRead) {
+      final Semaphore partitionsRead, final @Nullable Semaphore pReadCapacity) {
     AtomicInteger nextPartitionId = new AtomicInteger(0);
     for (int i = 0; i < threads; i++) {
-      pReadingExecutor.execute(new ParallelPartitionReader(pCheckResult, partitionsRead, nextPartitionId, this,
-          ioHelper, stats, logger));
+      pReadingExecutor.execute(new ParallelPartitionReader(pCheckResult, partitionsRead, null, pReadCapacity,
+          nextPartitionId, this, ioHelper, stats, validationStats, logger));
     }
   }
 
   private void startCheckingThreads(final int threads, final ExecutorService pCheckingExecutor, final AtomicBoolean pCheckResult,
-      final Semaphore pPartitionsRead, final Semaphore pPartitionChecked, final Collection<AbstractState> pCertificate,
+      final Semaphore pPartitionsRead, final Semaphore pPartitionChecked, final @Nullable Semaphore pReadCapacity,
+      final Collection<AbstractState> pCertificate,
       final Multimap<CFANode, AbstractState> pInPartition, final Collection<AbstractState> pInOtherPartition,
       final Precision pInitialPrecision, final Lock pLock) {
     AtomicInteger availablePartitions = new AtomicInteger(0);
     AtomicInteger nextId = new AtomicInteger(0);
     for (int i = 0; i < threads; i++) {
       pCheckingExecutor.execute(new ParallelPartitionChecker(availablePartitions, nextId, pCheckResult, pPartitionsRead,
-          pPartitionChecked, pLock, ioHelper, pInPartition, pCertificate, pInOtherPartition, pInitialPrecision, cpa
-              .getStopOperator(), cpa.getTransferRelation(), shutdown, logger));
+          pPartitionChecked, pReadCapacity, pLock, ioHelper, pInPartition, pCertificate, pInOtherPartition,
+          pInitialPrecision, cpa.getStopOperator(), cpa.getTransferRelation(), shutdown, validationStats,
+          logger));
     }
   }
 
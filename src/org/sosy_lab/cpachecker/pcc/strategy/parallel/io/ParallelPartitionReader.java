@@ -18,11 +18,14 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.zip.ZipInputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelValidationStatistics;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 
 public class ParallelPartitionReader implements Runnable {
@@ -30,6 +33,7 @@ public class ParallelPartitionReader implements Runnable {
   private final AtomicBoolean success;
   private final Semaphore waitRead;
   private final Semaphore partitionChecked;
+  private final @Nullable Semaphore readCapacity;
 
   private final AtomicInteger nextPartition;
 
@@ -38,29 +42,50 @@ public class ParallelPartitionReader implements Runnable {
 
   private final PCStrategyStatistics stats;
   private final LogManager logger;
+  private final @Nullable ParallelValidationStatistics validationStats;
 
   private static final Lock lock = new ReentrantLock();
 
 
+  /**
+   * Creates a reader that reads partitions until all partitions have been read.
+   *
+   * @param pReadCapacity if not null, a permit is acquired before each partition is read. Checkers
+   *     release a permit after they checked a partition, which bounds the number of partitions that
+   *     are read but not yet checked.
+   * @param pValidationStats if not null, reading times are recorded in these statistics
+   */
   public ParallelPartitionReader(final AtomicBoolean isSuccess, final Semaphore partitionsRead,
-      final Semaphore pPartitionChecked, final AtomicInteger nextPartitionId, final AbstractStrategy proofReader,
+      final @Nullable Semaphore pPartitionChecked, final @Nullable Semaphore pReadCapacity,
+      final AtomicInteger nextPartitionId, final AbstractStrategy proofReader,
       final PartitioningIOHelper pIOHelper, final PCStrategyStatistics pStats,
-      final LogManager pLogger) {
+      final @Nullable ParallelValidationStatistics pValidationStats, final LogManager pLogger) {
     success = isSuccess;
     waitRead = partitionsRead;
     partitionChecked = pPartitionChecked;
+    readCapacity = pReadCapacity;
     nextPartition = nextPartitionId;
     strategy = proofReader;
     ioHelper = pIOHelper;
     stats = pStats;
+    validationStats = pValidationStats;
     logger = pLogger;
   }
 
+  public ParallelPartitionReader(final AtomicBoolean isSuccess, final Semaphore partitionsRead,
+      final Semaphore pPartitionChecked, final AtomicInteger nextPartitionId, final AbstractStrategy proofReader,
+      final PartitioningIOHelper pIOHelper, final PCStrategyStatistics pStats,
+      final LogManager pLogger) {
+    this(isSuccess, partitionsRead, pPartitionChecked, null, nextPartitionId, proofReader, pIOHelper,
+        pStats, null, pLogger);
+  }
+
   public ParallelPartitionReader(final AtomicBoolean isSuccess, final Semaphore partitionsRead,
       final AtomicInteger nextPartitionId, final AbstractStrategy proofReader,
       final PartitioningIOHelper pIOHelper, final PCStrategyStatistics pStats,
       final LogManager pLogger) {
-    this(isSuccess, partitionsRead, null, nextPartitionId, proofReader, pIOHelper, pStats, pLogger);
+    this(isSuccess, partitionsRead, null, null, nextPartitionId, proofReader, pIOHelper, pStats,
+        null, pLogger);
   }
 
 
@@ -70,17 +95,41 @@ public class ParallelPartitionReader implements Runnable {
     if(partitionChecked!=null){
       partitionChecked.release(ioHelper.getNumPartitions());
     }
+    if (readCapacity != null) {
+      readCapacity.release(ioHelper.getNumPartitions());
+    }
   }
 
   @Override
   @SuppressWarnings("Finally") // not really better doable without switching to Closer
   public void run() {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+    TimerWrapper readTimer = validationStats == null ? null : validationStats.getNewReadTimer();
     int nextId;
     while ((nextId = nextPartition.getAndIncrement()) < ioHelper.getNumPartitions()) {
+      if (readCapacity != null) {
+        try {
+          readCapacity.acquire();
+        } catch (InterruptedException e) {
+          prepareAbortion();
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+      if (!success.get()) {
+        break;
+      }
+      Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
       try {
+        if (validationStats != null) {
+          validationStats.readingStarted();
+          readTimer.start();
+        }
         streams = strategy.openAdditionalProofStream(nextId);
         ioHelper.readPartition(streams.getThird(), stats, lock);
+        if (validationStats != null) {
+          readTimer.stop();
+          validationStats.readingFinished();
+        }
         waitRead.release();
       } catch (IOException | ClassNotFoundException e) {
         logger.logUserException(Level.SEVERE, e, "Partition reading failed. Stop checking");
@@ -89,6 +138,9 @@ public class ParallelPartitionReader implements Runnable {
         logger.logException(Level.SEVERE, e2, "Unexpected failure during proof reading");
         prepareAbortion();
       } finally {
+        if (readTimer != null) {
+          readTimer.stopIfRunning();
+        }
         if (streams != null) {
           try {
             streams.getThird().close();
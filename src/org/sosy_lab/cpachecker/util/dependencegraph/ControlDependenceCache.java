@@ -0,0 +1,201 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionCallEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Cache for the intraprocedural control dependences of single functions in a local directory.
+ *
+ * <p>Cache entries are identified by a fingerprint of the control-flow of a function, which is
+ * independent of the numbering of CFA nodes. This way, the dependences of a function can be reused
+ * in later runs as long as the function itself is unchanged, even if other parts of the program
+ * have changed. Inside an entry, edges are referenced by their index in a deterministic traversal
+ * of the function. Function return edges depend on the call sites of the function and are not
+ * part of the fingerprint or the traversal.
+ */
+final class ControlDependenceCache {
+
+  private static final int MAGIC = 0x43444550; // "CDEP"
+  private static final int VERSION = 2;
+
+  private final Path directory;
+  private final LogManager logger;
+
+  ControlDependenceCache(Path pDirectory, LogManager pLogger) {
+    directory = pDirectory;
+    logger = pLogger;
+  }
+
+  /** Deterministic numbering of the edges leaving the nodes of one function. */
+  static final class FunctionEdges {
+
+    private final ImmutableList<CFAEdge> edges;
+    private final Map<CFAEdge, Integer> ids;
+    private final String fingerprint;
+
+    private FunctionEdges(ImmutableList<CFAEdge> pEdges, String pFingerprint) {
+      edges = pEdges;
+      fingerprint = pFingerprint;
+      ids = new HashMap<>();
+      for (int i = 0; i < edges.size(); i++) {
+        ids.put(edges.get(i), i);
+      }
+    }
+  }
+
+  /**
+   * Number the edges of the given function by a breadth-first traversal from its entry node.
+   * Returns an empty optional, if not all given function nodes are reachable in this traversal,
+   * because there is no deterministic numbering for the remaining nodes.
+   */
+  static Optional<FunctionEdges> indexFunction(
+      FunctionEntryNode pEntryNode,
+      Collection<CFANode> pFunctionNodes,
+      boolean pDependOnBothAssumptions) {
+
+    String functionName = pEntryNode.getFunctionName();
+    Map<CFANode, Integer> nodeIds = new HashMap<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+    ImmutableList.Builder<CFAEdge> edges = ImmutableList.builder();
+    StringBuilder description = new StringBuilder();
+    description.append(pDependOnBothAssumptions).append('\n');
+
+    nodeIds.put(pEntryNode, 0);
+    waitlist.add(pEntryNode);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.poll();
+      description.append(node.getClass().getSimpleName()).append('\n');
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (edge instanceof FunctionReturnEdge) {
+          continue;
+        }
+        edges.add(edge);
+        CFANode successor = edge.getSuccessor();
+        description.append(edge.getEdgeType()).append(':').append(edge.getDescription());
+        if (!(edge instanceof CFunctionCallEdge)
+            && successor.getFunctionName().equals(functionName)) {
+          Integer successorId = nodeIds.get(successor);
+          if (successorId == null) {
+            successorId = nodeIds.size();
+            nodeIds.put(successor, successorId);
+            waitlist.add(successor);
+          }
+          description.append("->").append(successorId).append('\n');
+        } else {
+          description.append("->").append(successor.getFunctionName()).append('\n');
+        }
+      }
+    }
+
+    if (nodeIds.size() != pFunctionNodes.size()) {
+      return Optional.empty();
+    }
+
+    String fingerprint =
+        Hashing.sha256().hashString(description, StandardCharsets.UTF_8).toString();
+    return Optional.of(new FunctionEdges(edges.build(), fingerprint));
+  }
+
+  private Path getCacheFile(FunctionEdges pFunction) {
+    return directory.resolve(pFunction.fingerprint + ".cdeps");
+  }
+
+  /** Load the control dependences of the given function, if they are cached. */
+  Optional<List<Pair<CFAEdge, CFAEdge>>> load(FunctionEdges pFunction) {
+    Path cacheFile = getCacheFile(pFunction);
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        return Optional.empty();
+      }
+      int size = in.readInt();
+      List<Pair<CFAEdge, CFAEdge>> dependences = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        int dependingOn = in.readInt();
+        int dependent = in.readInt();
+        if (dependingOn < 0
+            || dependingOn >= pFunction.edges.size()
+            || dependent < 0
+            || dependent >= pFunction.edges.size()) {
+          logger.log(Level.FINE, "Ignoring invalid control dependence cache entry", cacheFile);
+          return Optional.empty();
+        }
+        dependences.add(Pair.of(pFunction.edges.get(dependingOn), pFunction.edges.get(dependent)));
+      }
+      return Optional.of(dependences);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      logger.logDebugException(e, "Could not read control dependence cache entry");
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Store the control dependences of the given function. Nothing is stored, if a dependence
+   * contains an edge that does not belong to the function.
+   */
+  void store(FunctionEdges pFunction, List<Pair<CFAEdge, CFAEdge>> pDependences) {
+    for (Pair<CFAEdge, CFAEdge> dependence : pDependences) {
+      if (!pFunction.ids.containsKey(dependence.getFirst())
+          || !pFunction.ids.containsKey(dependence.getSecond())) {
+        return;
+      }
+    }
+
+    Path cacheFile = getCacheFile(pFunction);
+    try {
+      Files.createDirectories(directory);
+      // write to a temporary file first, identical functions may be stored concurrently
+      Path tmpFile = Files.createTempFile(directory, pFunction.fingerprint, ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(pDependences.size());
+        for (Pair<CFAEdge, CFAEdge> dependence : pDependences) {
+          out.writeInt(pFunction.ids.get(dependence.getFirst()));
+          out.writeInt(pFunction.ids.get(dependence.getSecond()));
+        }
+      }
+      Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write control dependence cache entry");
+    }
+  }
+}
@@ -0,0 +1,170 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.SetMultimap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.EdgeNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.NodeMap;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraphBuilder.DependenceSink;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Dependence graph of a {@link CFA}, whose dependences are computed on demand.
+ *
+ * <p>Instead of computing the dependences of all functions up front, like {@link
+ * DependenceGraphBuilder#build()}, the dependences of a function are only computed once a backward
+ * traversal reaches a CFA edge whose dependences may be created by the function. These are the
+ * function containing the edge and, for function calls, the called function.
+ *
+ * @see DependenceGraphBuilder#buildDemandDriven()
+ */
+public final class DemandDrivenDependenceGraph {
+
+  /** Computes all dependences that are created by the analysis of a single function. */
+  @FunctionalInterface
+  interface FunctionDependenceComputation {
+    void addDependences(FunctionEntryNode pEntryNode, DependenceSink pSink)
+        throws InterruptedException;
+  }
+
+  private final CFA cfa;
+  private final boolean unknownPointer;
+  private final FunctionDependenceComputation computation;
+  private final ShutdownNotifier shutdownNotifier;
+
+  private final NodeMap nodes = new NodeMap();
+  // dependent node -> nodes it depends on
+  private final SetMultimap<DGNode, DGNode> dependences = HashMultimap.create();
+  private final Set<String> analyzedFunctions = new HashSet<>();
+
+  DemandDrivenDependenceGraph(
+      CFA pCfa,
+      boolean pUnknownPointer,
+      FunctionDependenceComputation pComputation,
+      ShutdownNotifier pShutdownNotifier) {
+    cfa = pCfa;
+    unknownPointer = pUnknownPointer;
+    computation = pComputation;
+    shutdownNotifier = pShutdownNotifier;
+  }
+
+  /**
+   * Returns all CFA edges the given edge depends on, directly or transitively, including the edge
+   * itself. This corresponds to {@link DependenceGraph#getReachable(CFAEdge,
+   * DependenceGraph.TraversalDirection)} with a backward traversal.
+   */
+  public Collection<CFAEdge> getBackwardReachable(CFAEdge pStart) throws InterruptedException {
+    if (unknownPointer) {
+      // If an unknown pointer is used, every edge depends on it and we don't know anything,
+      // so the full program is reachable (same overapproximation as in DependenceGraph)
+      Set<CFAEdge> allEdges = new HashSet<>();
+      for (CFANode node : cfa.getAllNodes()) {
+        CFAUtils.allLeavingEdges(node).copyInto(allEdges);
+      }
+      return allEdges;
+    }
+
+    Set<CFAEdge> reachable = new HashSet<>();
+    Set<DGNode> visited = new HashSet<>();
+    Queue<DGNode> waitlist = new ArrayDeque<>();
+    materializeDependences(pStart);
+    waitlist.addAll(getNodesForEdge(pStart));
+
+    while (!waitlist.isEmpty()) {
+      shutdownNotifier.shutdownIfNecessary();
+      DGNode current = waitlist.poll();
+
+      if (visited.add(current)) {
+        CFAEdge edge = current.getCfaEdge();
+        reachable.add(edge);
+        // all dependences of the edge have to be known before continuing the traversal
+        materializeDependences(edge);
+        waitlist.addAll(dependences.get(current));
+      }
+    }
+    return reachable;
+  }
+
+  private Collection<DGNode> getNodesForEdge(CFAEdge pEdge) {
+    Collection<DGNode> edgeNodes = nodes.getNodesForEdges().row(pEdge).values();
+    if (edgeNodes.isEmpty()) {
+      return ImmutableList.of(getNode(pEdge, Optional.empty()));
+    }
+    return ImmutableList.copyOf(edgeNodes);
+  }
+
+  /** Analyzes all functions that may create dependences of the given edge. */
+  private void materializeDependences(CFAEdge pEdge) throws InterruptedException {
+    materializeFunction(pEdge.getPredecessor().getFunctionName());
+    if (pEdge instanceof FunctionCallEdge) {
+      materializeFunction(pEdge.getSuccessor().getFunctionName());
+    } else if (pEdge instanceof FunctionSummaryEdge) {
+      materializeFunction(((FunctionSummaryEdge) pEdge).getFunctionEntry().getFunctionName());
+    }
+  }
+
+  private void materializeFunction(String pFunctionName) throws InterruptedException {
+    if (!analyzedFunctions.contains(pFunctionName)) {
+      FunctionEntryNode entryNode = cfa.getFunctionHead(pFunctionName);
+      if (entryNode != null) {
+        computation.addDependences(entryNode, this::addDependence);
+      }
+      analyzedFunctions.add(pFunctionName);
+    }
+  }
+
+  private void addDependence(
+      CFAEdge pDependingOnEdge,
+      Optional<MemoryLocation> pDependingOnCause,
+      CFAEdge pDependentEdge,
+      Optional<MemoryLocation> pDependentCause,
+      DependenceType pType) {
+    dependences.put(
+        getNode(pDependentEdge, pDependentCause), getNode(pDependingOnEdge, pDependingOnCause));
+  }
+
+  private DGNode getNode(CFAEdge pCfaEdge, Optional<MemoryLocation> pCause) {
+    DGNode node = nodes.getNodesForEdges().get(pCfaEdge, pCause);
+    if (node == null) {
+      node =
+          pCause.isPresent()
+              ? new EdgeNode(pCfaEdge, pCause.orElseThrow())
+              : new EdgeNode(pCfaEdge);
+      nodes.getNodesForEdges().put(pCfaEdge, pCause, node);
+    }
+    return node;
+  }
+
+  /** Returns the number of nodes of the dependence graph that have been created so far. */
+  public int getNumberOfMaterializedNodes() {
+    return nodes.size();
+  }
+
+  /** Returns the number of functions whose dependences have been computed so far. */
+  public int getNumberOfAnalyzedFunctions() {
+    return analyzedFunctions.size();
+  }
+}
@@ -32,6 +32,7 @@ import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.MutableCFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
@@ -85,6 +86,21 @@ public final class DependenceGraph implements Serializable {
         pCfa, pVarClassification, pConfig, pLogger, pShutdownNotifier);
   }
 
+  /**
+   * Returns a builder for dependence graphs of an arbitrary CFA. In contrast to {@link
+   * #builder(MutableCFA, Optional, Configuration, LogManager, ShutdownNotifier)}, no variable
+   * classification is used. This builder is mainly intended for {@link
+   * DependenceGraphBuilder#buildDemandDriven() demand-driven dependence graphs}.
+   */
+  public static DependenceGraphBuilder builder(
+      final CFA pCfa,
+      final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    return new DependenceGraphBuilder(pCfa, pConfig, pLogger, pShutdownNotifier);
+  }
+
   Table<DGNode, DGNode, DependenceType> getMatrix() {
     return adjacencyMatrix;
   }
@@ -11,13 +11,16 @@ package org.sosy_lab.cpachecker.util.dependencegraph;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ForwardingTable;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -35,11 +38,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -84,6 +95,9 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CFATraversal;
 import org.sosy_lab.cpachecker.util.CFATraversal.EdgeCollectingCFAVisitor;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.dependencegraph.ControlDependenceCache.FunctionEdges;
 import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.EdgeNode;
 import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.UnknownPointerNode;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
@@ -96,13 +110,15 @@ import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 
 /** Factory for creating a {@link DependenceGraph} from a {@link CFA}. */
 @Options(prefix = "dependencegraph")
 public class DependenceGraphBuilder implements StatisticsProvider {
 
-  private final MutableCFA cfa;
+  private final CFA cfa;
+  private final Function<String, Collection<CFANode>> functionNodes;
   private final Optional<VariableClassification> varClassification;
   private final Configuration config;
   private final LogManager logger;
@@ -117,6 +133,12 @@ public class DependenceGraphBuilder implements StatisticsProvider {
   private StatCounter isolatedNodes = new StatCounter("Number of isolated nodes");
   private final StatTimer flowDependenceTimer = new StatTimer("Time for flow deps.");
   private final StatTimer controlDependenceTimer = new StatTimer("Time for control deps.");
+  private final StatTimer pointerAnalysisTimer = new StatTimer("Time for pointer analysis");
+  private final StatTimer foreignDefUseTimer = new StatTimer("Time for foreign def-use data");
+  private final StatCounter controlDependenceCacheHits =
+      new StatCounter("Number of functions with cached control deps.");
+  private final StatCounter controlDependenceCacheMisses =
+      new StatCounter("Number of functions with computed control deps.");
 
   @Option(
       secure = true,
@@ -143,12 +165,30 @@ public class DependenceGraphBuilder implements StatisticsProvider {
               + " represented by a single assumption (with true- and false-edges)")
   private boolean controlDepsTakeBothAssumptions = false;
 
+  @Option(
+      name = "controldeps.cacheDirectory",
+      description =
+          "Directory for caching the intraprocedural control dependences of single functions"
+              + " between runs. Only the control dependences of functions that changed since a"
+              + " previous run are recomputed. If `null`, no cache is used.")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private @Nullable Path controlDepsCacheDirectory = null;
+
   @Option(
       secure = true,
       name = "flowdeps.use",
       description = "Whether to consider (data-)flow dependencies.")
   private boolean considerFlowDeps = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for computing the dependences of different functions in parallel.")
+  @IntegerOption(min = 1)
+  private int threads = 1;
+
+  private final @Nullable ControlDependenceCache controlDependenceCache;
+
   public DependenceGraphBuilder(
       final MutableCFA pCfa,
       final Optional<VariableClassification> pVarClassification,
@@ -156,19 +196,43 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
+    this(pCfa, pCfa::getFunctionNodes, pVarClassification, pConfig, pLogger, pShutdownNotifier);
+  }
+
+  DependenceGraphBuilder(
+      final CFA pCfa,
+      final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    this(
+        pCfa,
+        Multimaps.index(pCfa.getAllNodes(), CFANode::getFunctionName)::get,
+        Optional.empty(),
+        pConfig,
+        pLogger,
+        pShutdownNotifier);
+  }
+
+  private DependenceGraphBuilder(
+      final CFA pCfa,
+      final Function<String, Collection<CFANode>> pFunctionNodes,
+      final Optional<VariableClassification> pVarClassification,
+      final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
     pConfig.inject(this);
     config = pConfig;
     cfa = pCfa;
+    functionNodes = pFunctionNodes;
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
     varClassification = pVarClassification;
-  }
-
-  public DependenceGraph build()
-      throws InvalidConfigurationException, InterruptedException, CPAException {
-    dependenceGraphConstructionTimer.start();
-    nodes = new NodeMap();
-    adjacencyMatrix = HashBasedTable.create();
+    controlDependenceCache =
+        controlDepsCacheDirectory == null
+            ? null
+            : new ControlDependenceCache(controlDepsCacheDirectory, logger);
 
     // If you add additional types of dependencies, they should probably be added to this check,
     // as well
@@ -177,6 +241,13 @@ public class DependenceGraphBuilder implements StatisticsProvider {
           "At least one kind of dependency is required"
               + " to build a meaningful dependence graph");
     }
+  }
+
+  public DependenceGraph build()
+      throws InvalidConfigurationException, InterruptedException, CPAException {
+    dependenceGraphConstructionTimer.start();
+    nodes = new NodeMap();
+    adjacencyMatrix = HashBasedTable.create();
 
     if (considerFlowDeps) {
       flowDependenceTimer.start();
@@ -211,6 +282,41 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     return dg;
   }
 
+  /**
+   * Creates a dependence graph that only computes the dependences of a function once they are
+   * required by a backward traversal. Program-wide data, like the results of the pointer analysis,
+   * is computed immediately.
+   */
+  public DemandDrivenDependenceGraph buildDemandDriven() throws InterruptedException, CPAException {
+    @Nullable FlowDependenceContext flowContext = null;
+    boolean unknownPointer = false;
+    if (considerFlowDeps) {
+      flowDependenceTimer.start();
+      try {
+        flowContext = createFlowDependenceContext();
+      } finally {
+        flowDependenceTimer.stop();
+      }
+      unknownPointer = flowContext == null;
+    }
+
+    final @Nullable FlowDependenceContext context = flowContext;
+    return new DemandDrivenDependenceGraph(
+        cfa,
+        unknownPointer,
+        (entryNode, sink) -> {
+          if (context != null) {
+            addFunctionFlowDependences(
+                entryNode, context, computeFlowDependences(entryNode, context), sink);
+          }
+          if (considerControlDeps) {
+            addFunctionControlDependences(
+                entryNode, getIntraproceduralControlDependences(entryNode), sink);
+          }
+        },
+        shutdownNotifier);
+  }
+
   private void addMissingNodes() {
     EdgeCollectingCFAVisitor edgeCollector = new EdgeCollectingCFAVisitor();
     CFATraversal.dfs().traverse(cfa.getMainFunction(), edgeCollector);
@@ -255,7 +361,7 @@ public class DependenceGraphBuilder implements StatisticsProvider {
         node -> !(node instanceof FunctionEntryNode));
   }
 
-  private boolean ignoreFunctionEdge(CFAEdge pEdge) {
+  private static boolean ignoreFunctionEdge(CFAEdge pEdge) {
     return pEdge instanceof CFunctionCallEdge || pEdge instanceof CFunctionReturnEdge;
   }
 
@@ -284,14 +390,110 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     return ImmutableList.copyOf(declEdges);
   }
 
-  private void addFlowDependencesNew() throws InterruptedException, CPAException {
+  /** Computation of the dependences of a single function, which may run in parallel. */
+  @FunctionalInterface
+  private interface FunctionTask<T> {
+    T compute(FunctionEntryNode pEntryNode) throws InterruptedException;
+  }
+
+  /**
+   * Run the given task for all functions of the CFA, using the configured number of threads. The
+   * results are returned in the same order as {@link CFA#getAllFunctionHeads()}, so the
+   * constructed dependence graph does not depend on the scheduling of the tasks.
+   */
+  private <T> List<T> computeForAllFunctions(FunctionTask<T> pTask) throws InterruptedException {
+    List<FunctionEntryNode> functions = ImmutableList.copyOf(cfa.getAllFunctionHeads());
+    List<T> results = new ArrayList<>(functions.size());
+
+    if (threads == 1 || functions.size() < 2) {
+      for (FunctionEntryNode entryNode : functions) {
+        shutdownNotifier.shutdownIfNecessary();
+        results.add(pTask.compute(entryNode));
+      }
+      return results;
+    }
 
-    GlobalPointerState pointerState =
-        GlobalPointerState.createFlowSensitive(cfa, logger, shutdownNotifier);
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, functions.size()),
+            new ThreadFactoryBuilder()
+                .setNameFormat("DependenceGraphBuilder-%d")
+                .setDaemon(true)
+                .build());
+    try {
+      List<Future<T>> futures = new ArrayList<>(functions.size());
+      for (FunctionEntryNode entryNode : functions) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  shutdownNotifier.shutdownIfNecessary();
+                  return pTask.compute(entryNode);
+                }));
+      }
+      for (Future<T> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          Throwables.propagateIfPossible(t, InterruptedException.class);
+          throw new UnexpectedCheckedException("computation of dependences", t);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
 
-    boolean unknownPointer = false;
+  /** Program-wide data that is required for computing the flow dependences of single functions. */
+  private static final class FlowDependenceContext {
+
+    private final GlobalPointerState pointerState;
+    private final ForeignDefUseData foreignDefUseData;
+    private final List<CFAEdge> globalEdges;
+    private final Map<String, CFAEdge> declarationEdges;
+
+    private FlowDependenceContext(
+        GlobalPointerState pPointerState,
+        ForeignDefUseData pForeignDefUseData,
+        List<CFAEdge> pGlobalEdges,
+        Map<String, CFAEdge> pDeclarationEdges) {
+      pointerState = pPointerState;
+      foreignDefUseData = pForeignDefUseData;
+      globalEdges = pGlobalEdges;
+      declarationEdges = pDeclarationEdges;
+    }
+  }
+
+  /**
+   * Receives the dependences between CFA edges, together with the memory locations that cause the
+   * dependences at function call and return edges.
+   */
+  @FunctionalInterface
+  interface DependenceSink {
+    void addDependence(
+        CFAEdge pDependingOnEdge,
+        Optional<MemoryLocation> pDependingOnCause,
+        CFAEdge pDependentEdge,
+        Optional<MemoryLocation> pDependentCause,
+        DependenceType pType);
+  }
+
+  /**
+   * Computes the program-wide data for flow dependences. Returns <code>null</code>, if there is a
+   * pointer in the program whose possible pointees are unknown.
+   */
+  private @Nullable FlowDependenceContext createFlowDependenceContext()
+      throws InterruptedException, CPAException {
+
+    pointerAnalysisTimer.start();
+    GlobalPointerState pointerState;
+    try {
+      pointerState = GlobalPointerState.createFlowSensitive(cfa, logger, shutdownNotifier);
+    } finally {
+      pointerAnalysisTimer.stop();
+    }
 
-    outer:
     for (CFANode node : cfa.getAllNodes()) {
       for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
 
@@ -304,8 +506,7 @@ public class DependenceGraphBuilder implements StatisticsProvider {
 
           // if there are no possible pointees, the pointer is unknown
           if (possiblePointees.isEmpty()) {
-            unknownPointer = true;
-            break outer;
+            return null;
           }
 
           // the current pointer analysis doesn't support structs and unions
@@ -314,28 +515,21 @@ public class DependenceGraphBuilder implements StatisticsProvider {
           for (MemoryLocation possiblePointee : possiblePointees) {
             String identifier = possiblePointee.getIdentifier();
             if (identifier.contains("struct ") || identifier.contains("union ")) {
-              unknownPointer = true;
-              break outer;
+              return null;
             }
           }
         }
       }
     }
 
-    if (unknownPointer) {
-
-      for (CFANode node : cfa.getAllNodes()) {
-        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
-          addDependence(
-              getDGNodeForUnknownPointer(), getDGNode(edge, Optional.empty()), DependenceType.FLOW);
-        }
-      }
-
-      return;
+    foreignDefUseTimer.start();
+    ForeignDefUseData foreignDefUseData;
+    try {
+      foreignDefUseData = ForeignDefUseData.extract(cfa, pointerState);
+    } finally {
+      foreignDefUseTimer.stop();
     }
 
-    ForeignDefUseData foreignDefUseData = ForeignDefUseData.extract(cfa, pointerState);
-
     List<CFAEdge> globalEdges = getGlobalDeclarationEdges(cfa);
     Map<String, CFAEdge> declarationEdges = new HashMap<>();
 
@@ -353,171 +547,279 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       }
     }
 
-    for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
+    return new FlowDependenceContext(
+        pointerState, foreignDefUseData, globalEdges, declarationEdges);
+  }
+
+  private void addFlowDependencesNew() throws InterruptedException, CPAException {
+
+    FlowDependenceContext context = createFlowDependenceContext();
 
-      // TODO: use more reasonable counter
-      var flowDepCount =
-          new Object() {
-            int value = 0;
-          };
-
-      CFAEdge funcDeclEdge = declarationEdges.get(entryNode.getFunctionName());
-      for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
-        addDependence(
-            getDGNode(funcDeclEdge, Optional.empty()),
-            getDGNode(callEdge, Optional.empty()),
-            DependenceType.FLOW);
-        flowDepCount.value++;
+    if (context == null) {
+
+      for (CFANode node : cfa.getAllNodes()) {
+        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+          addDependence(
+              getDGNodeForUnknownPointer(), getDGNode(edge, Optional.empty()), DependenceType.FLOW);
+        }
       }
 
-      DomTree<CFANode> domTree =
-          Dominance.createDomTree(
-              entryNode,
-              DependenceGraphBuilder::iterateSuccessors,
-              DependenceGraphBuilder::iteratePredecessors);
+      return;
+    }
 
-      DependenceConsumer dependenceConsumer =
-          (defEdge, useEdge, cause) -> {
-            Optional<MemoryLocation> defEdgeCause = Optional.empty();
-            Optional<MemoryLocation> useEdgeCause = Optional.empty();
+    // The analyses of the functions only read the shared pointer and def-use data and collect
+    // their dependences, which are added to the dependence graph afterwards.
+    List<List<Triple<CFAEdge, CFAEdge, MemoryLocation>>> functionDependences =
+        computeForAllFunctions(entryNode -> computeFlowDependences(entryNode, context));
 
-            if (defEdge instanceof CFunctionCallEdge || defEdge instanceof CFunctionReturnEdge) {
-              defEdgeCause = Optional.of(cause);
-            }
+    Iterator<List<Triple<CFAEdge, CFAEdge, MemoryLocation>>> dependencesIterator =
+        functionDependences.iterator();
+    for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
+      flowDependenceNumber.setNextValue(
+          addFunctionFlowDependences(
+              entryNode, context, dependencesIterator.next(), this::addDependence));
+    }
+  }
 
-            if (useEdge instanceof CFunctionCallEdge || useEdge instanceof CFunctionReturnEdge) {
-              useEdgeCause = Optional.of(cause);
-            }
+  private List<Triple<CFAEdge, CFAEdge, MemoryLocation>> computeFlowDependences(
+      FunctionEntryNode pEntryNode, FlowDependenceContext pContext) {
 
-            addDependence(
-                getDGNode(defEdge, defEdgeCause),
-                getDGNode(useEdge, useEdgeCause),
-                DependenceType.FLOW);
-            flowDepCount.value++;
-          };
+    List<Triple<CFAEdge, CFAEdge, MemoryLocation>> dependences = new ArrayList<>();
 
-      boolean isMain = entryNode.equals(cfa.getMainFunction());
+    DomTree<CFANode> domTree =
+        Dominance.createDomTree(
+            pEntryNode,
+            DependenceGraphBuilder::iterateSuccessors,
+            DependenceGraphBuilder::iteratePredecessors);
 
-      new FlowDepAnalysis(
-              domTree,
-              Dominance.createDomFrontiers(domTree),
-              entryNode,
-              isMain ? ImmutableList.of() : globalEdges,
-              pointerState,
-              foreignDefUseData,
-              declarationEdges,
-              dependenceConsumer)
-          .run();
+    DependenceConsumer dependenceConsumer =
+        (defEdge, useEdge, cause) -> dependences.add(Triple.of(defEdge, useEdge, cause));
 
-      flowDependenceNumber.setNextValue(flowDepCount.value);
-    }
+    boolean isMain = pEntryNode.equals(cfa.getMainFunction());
+
+    new FlowDepAnalysis(
+            domTree,
+            Dominance.createDomFrontiers(domTree),
+            pEntryNode,
+            isMain ? ImmutableList.of() : pContext.globalEdges,
+            pContext.pointerState,
+            pContext.foreignDefUseData,
+            pContext.declarationEdges,
+            dependenceConsumer)
+        .run();
+
+    return dependences;
   }
 
-  private void addControlDependence(CFAEdge pDependingOnEdge, CFAEdge pDependentEdge) {
-    addDependence(
-        getDGNode(pDependingOnEdge, Optional.empty()),
-        getDGNode(pDependentEdge, Optional.empty()),
-        DependenceType.CONTROL);
+  /**
+   * Passes the flow dependences of the given function to the given sink and returns their number.
+   */
+  private static int addFunctionFlowDependences(
+      FunctionEntryNode pEntryNode,
+      FlowDependenceContext pContext,
+      List<Triple<CFAEdge, CFAEdge, MemoryLocation>> pDependences,
+      DependenceSink pSink) {
+
+    int flowDepCount = 0;
+
+    CFAEdge funcDeclEdge = pContext.declarationEdges.get(pEntryNode.getFunctionName());
+    for (CFAEdge callEdge : CFAUtils.enteringEdges(pEntryNode)) {
+      pSink.addDependence(
+          funcDeclEdge, Optional.empty(), callEdge, Optional.empty(), DependenceType.FLOW);
+      flowDepCount++;
+    }
+
+    for (Triple<CFAEdge, CFAEdge, MemoryLocation> dependence : pDependences) {
+      CFAEdge defEdge = dependence.getFirst();
+      CFAEdge useEdge = dependence.getSecond();
+      Optional<MemoryLocation> defEdgeCause = Optional.empty();
+      Optional<MemoryLocation> useEdgeCause = Optional.empty();
+
+      if (defEdge instanceof CFunctionCallEdge || defEdge instanceof CFunctionReturnEdge) {
+        defEdgeCause = Optional.of(checkNotNull(dependence.getThird()));
+      }
+
+      if (useEdge instanceof CFunctionCallEdge || useEdge instanceof CFunctionReturnEdge) {
+        useEdgeCause = Optional.of(checkNotNull(dependence.getThird()));
+      }
+
+      pSink.addDependence(defEdge, defEdgeCause, useEdge, useEdgeCause, DependenceType.FLOW);
+      flowDepCount++;
+    }
+
+    return flowDepCount;
   }
 
   private void addControlDependences() throws InterruptedException {
 
-    int controlDepCount = 0;
-    boolean dependOnBothAssumptions = controlDepsTakeBothAssumptions;
+    List<List<Pair<CFAEdge, CFAEdge>>> functionDependences =
+        computeForAllFunctions(this::getIntraproceduralControlDependences);
 
+    Iterator<List<Pair<CFAEdge, CFAEdge>>> dependencesIterator = functionDependences.iterator();
     for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
+      controlDependenceNumber.setNextValue(
+          addFunctionControlDependences(
+              entryNode, dependencesIterator.next(), this::addDependence));
+    }
+  }
 
-      DomTree<CFANode> domTree =
-          Dominance.createDomTree(
-              entryNode.getExitNode(),
-              DependenceGraphBuilder::iteratePredecessors,
-              DependenceGraphBuilder::iterateSuccessors);
-
-      DomFrontiers<CFANode> frontiers = Dominance.createDomFrontiers(domTree);
-      Set<CFAEdge> dependentEdges = new HashSet<>();
-
-      for (CFANode dependentNode : domTree) {
-        int nodeId = domTree.getId(dependentNode);
-        for (CFANode branchNode : frontiers.getFrontier(dependentNode)) {
-          for (CFAEdge assumeEdge : CFAUtils.leavingEdges(branchNode)) {
-            int assumeSuccessorId = domTree.getId(assumeEdge.getSuccessor());
-            if (dependOnBothAssumptions
-                || nodeId == assumeSuccessorId
-                || domTree.isAncestorOf(nodeId, assumeSuccessorId)) {
-              for (CFAEdge dependentEdge : CFAUtils.allLeavingEdges(dependentNode)) {
-                if (!ignoreFunctionEdge(dependentEdge) && !assumeEdge.equals(dependentEdge)) {
-                  addControlDependence(assumeEdge, dependentEdge);
-                  controlDepCount++;
-                  dependentEdges.add(dependentEdge);
-                }
-              }
-            }
-          }
-        }
+  /**
+   * Passes the control dependences of the given function to the given sink and returns their
+   * number. Besides the given intraprocedural control dependences, these are the dependences of the
+   * function on its call edges.
+   */
+  private int addFunctionControlDependences(
+      FunctionEntryNode pEntryNode,
+      List<Pair<CFAEdge, CFAEdge>> pIntraproceduralDependences,
+      DependenceSink pSink) {
+
+    int controlDepCount = 0;
+    Set<CFAEdge> dependentEdges = new HashSet<>();
+
+    for (Pair<CFAEdge, CFAEdge> dependence : pIntraproceduralDependences) {
+      addControlDependence(dependence.getFirst(), dependence.getSecond(), pSink);
+      controlDepCount++;
+      dependentEdges.add(dependence.getSecond());
+    }
+
+    Set<CFAEdge> callEdges = new HashSet<>();
+    for (CFAEdge callEdge : CFAUtils.enteringEdges(pEntryNode)) {
+      if (callEdge instanceof CFunctionCallEdge) {
+        CFAEdge summaryEdge = ((CFunctionCallEdge) callEdge).getSummaryEdge();
+        callEdges.add(callEdge);
+        addControlDependence(summaryEdge, callEdge, pSink);
+        controlDepCount++;
       }
+    }
 
-      Set<CFAEdge> noDomEdges = new HashSet<>();
-      if (CFAUtils.existsPath(
-          entryNode, entryNode.getExitNode(), CFAUtils::allLeavingEdges, shutdownNotifier)) {
-        for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
-          int nodeId = domTree.getId(node);
-          if (!domTree.hasParent(nodeId)) {
-            Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
-            Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
+    for (CFANode node : functionNodes.apply(pEntryNode.getFunction().getQualifiedName())) {
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (!dependentEdges.contains(edge) && !ignoreFunctionEdge(edge)) {
+          for (CFAEdge callEdge : callEdges) {
+            addControlDependence(callEdge, edge, pSink);
+            controlDepCount++;
           }
         }
-      } else {
-        // Sometimes there is no path from the function entry node to the function exit node.
-        // In this case, domTree is incomplete as it does not contain all function nodes.
-        // Calling domTree.getId would throw an exception for these missing nodes.
-        for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
-          Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
-          Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
-        }
       }
+    }
 
-      Set<CFAEdge> noDomAssumes = new HashSet<>();
-      for (CFAEdge edge : noDomEdges) {
-        if (edge.getEdgeType() == CFAEdgeType.AssumeEdge) {
-          noDomAssumes.add(edge);
-        }
+    return controlDepCount;
+  }
+
+  private static void addControlDependence(
+      CFAEdge pDependingOnEdge, CFAEdge pDependentEdge, DependenceSink pSink) {
+    pSink.addDependence(
+        pDependingOnEdge,
+        Optional.empty(),
+        pDependentEdge,
+        Optional.empty(),
+        DependenceType.CONTROL);
+  }
+
+  /**
+   * Returns the control dependences inside the given function as pairs of the edge depended on
+   * and the dependent edge. If a cache directory is configured, the dependences are loaded from
+   * the cache if the function did not change, and stored in the cache otherwise.
+   */
+  private List<Pair<CFAEdge, CFAEdge>> getIntraproceduralControlDependences(
+      FunctionEntryNode pEntryNode) throws InterruptedException {
+
+    if (controlDependenceCache == null) {
+      return computeIntraproceduralControlDependences(pEntryNode);
+    }
+
+    Optional<FunctionEdges> functionEdges =
+        ControlDependenceCache.indexFunction(
+            pEntryNode,
+            functionNodes.apply(pEntryNode.getFunction().getQualifiedName()),
+            controlDepsTakeBothAssumptions);
+    if (functionEdges.isPresent()) {
+      Optional<List<Pair<CFAEdge, CFAEdge>>> cachedDependences =
+          controlDependenceCache.load(functionEdges.orElseThrow());
+      if (cachedDependences.isPresent()) {
+        controlDependenceCacheHits.inc();
+        return cachedDependences.orElseThrow();
       }
+    }
+
+    controlDependenceCacheMisses.inc();
+    List<Pair<CFAEdge, CFAEdge>> dependences = computeIntraproceduralControlDependences(pEntryNode);
+    if (functionEdges.isPresent()) {
+      controlDependenceCache.store(functionEdges.orElseThrow(), dependences);
+    }
+    return dependences;
+  }
 
-      for (CFAEdge dependentEdge : noDomEdges) {
-        if (!ignoreFunctionEdge(dependentEdge)) {
-          for (CFAEdge assumeEdge : noDomAssumes) {
-            if (!assumeEdge.equals(dependentEdge)) {
-              addControlDependence(assumeEdge, dependentEdge);
-              controlDepCount++;
-              dependentEdges.add(dependentEdge);
+  private List<Pair<CFAEdge, CFAEdge>> computeIntraproceduralControlDependences(
+      FunctionEntryNode pEntryNode) throws InterruptedException {
+
+    List<Pair<CFAEdge, CFAEdge>> dependences = new ArrayList<>();
+    boolean dependOnBothAssumptions = controlDepsTakeBothAssumptions;
+
+    DomTree<CFANode> domTree =
+        Dominance.createDomTree(
+            pEntryNode.getExitNode(),
+            DependenceGraphBuilder::iteratePredecessors,
+            DependenceGraphBuilder::iterateSuccessors);
+
+    DomFrontiers<CFANode> frontiers = Dominance.createDomFrontiers(domTree);
+
+    for (CFANode dependentNode : domTree) {
+      int nodeId = domTree.getId(dependentNode);
+      for (CFANode branchNode : frontiers.getFrontier(dependentNode)) {
+        for (CFAEdge assumeEdge : CFAUtils.leavingEdges(branchNode)) {
+          int assumeSuccessorId = domTree.getId(assumeEdge.getSuccessor());
+          if (dependOnBothAssumptions
+              || nodeId == assumeSuccessorId
+              || domTree.isAncestorOf(nodeId, assumeSuccessorId)) {
+            for (CFAEdge dependentEdge : CFAUtils.allLeavingEdges(dependentNode)) {
+              if (!ignoreFunctionEdge(dependentEdge) && !assumeEdge.equals(dependentEdge)) {
+                dependences.add(Pair.of(assumeEdge, dependentEdge));
+              }
             }
           }
         }
       }
+    }
 
-      Set<CFAEdge> callEdges = new HashSet<>();
-      for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
-        if (callEdge instanceof CFunctionCallEdge) {
-          CFAEdge summaryEdge = ((CFunctionCallEdge) callEdge).getSummaryEdge();
-          callEdges.add(callEdge);
-          addControlDependence(summaryEdge, callEdge);
-          controlDepCount++;
+    Set<CFAEdge> noDomEdges = new HashSet<>();
+    if (CFAUtils.existsPath(
+        pEntryNode, pEntryNode.getExitNode(), CFAUtils::allLeavingEdges, shutdownNotifier)) {
+      for (CFANode node : functionNodes.apply(pEntryNode.getFunction().getQualifiedName())) {
+        int nodeId = domTree.getId(node);
+        if (!domTree.hasParent(nodeId)) {
+          Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
+          Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
         }
       }
+    } else {
+      // Sometimes there is no path from the function entry node to the function exit node.
+      // In this case, domTree is incomplete as it does not contain all function nodes.
+      // Calling domTree.getId would throw an exception for these missing nodes.
+      for (CFANode node : functionNodes.apply(pEntryNode.getFunction().getQualifiedName())) {
+        Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
+        Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
+      }
+    }
 
-      for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
-        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
-          if (!dependentEdges.contains(edge) && !ignoreFunctionEdge(edge)) {
-            for (CFAEdge callEdge : callEdges) {
-              addControlDependence(callEdge, edge);
-              controlDepCount++;
-            }
+    Set<CFAEdge> noDomAssumes = new HashSet<>();
+    for (CFAEdge edge : noDomEdges) {
+      if (edge.getEdgeType() == CFAEdgeType.AssumeEdge) {
+        noDomAssumes.add(edge);
+      }
+    }
+
+    for (CFAEdge dependentEdge : noDomEdges) {
+      if (!ignoreFunctionEdge(dependentEdge)) {
+        for (CFAEdge assumeEdge : noDomAssumes) {
+          if (!assumeEdge.equals(dependentEdge)) {
+            dependences.add(Pair.of(assumeEdge, dependentEdge));
           }
         }
       }
-
-      controlDependenceNumber.setNextValue(controlDepCount);
     }
+
+    return dependences;
   }
 
   @SuppressWarnings("unused") // old method for computing flow dependences
@@ -564,6 +866,18 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     return nodes.getNodesForEdges().get(pCfaEdge, pCause);
   }
 
+  private void addDependence(
+      CFAEdge pDependingOnEdge,
+      Optional<MemoryLocation> pDependingOnCause,
+      CFAEdge pDependentEdge,
+      Optional<MemoryLocation> pDependentCause,
+      DependenceType pType) {
+    addDependence(
+        getDGNode(pDependingOnEdge, pDependingOnCause),
+        getDGNode(pDependentEdge, pDependentCause),
+        pType);
+  }
+
   private DGNode getDGNodeForUnknownPointer() {
     DGNode unk = UnknownPointerNode.getInstance();
     nodes.getSpecialNodes().add(unk);
@@ -613,7 +927,19 @@ public class DependenceGraphBuilder implements StatisticsProvider {
         if (dependenceGraphConstructionTimer.getUpdateCount() > 0) {
           put(pOut, 3, dependenceGraphConstructionTimer);
           put(pOut, 4, flowDependenceTimer);
+          put(pOut, 5, pointerAnalysisTimer);
+          put(pOut, 5, foreignDefUseTimer);
           put(pOut, 4, controlDependenceTimer);
+          if (controlDependenceCache != null) {
+            long cachedFunctions = controlDependenceCacheHits.getValue();
+            put(
+                pOut,
+                5,
+                controlDependenceCacheHits.getTitle(),
+                StatisticsUtils.valueWithPercentage(
+                    cachedFunctions, cachedFunctions + controlDependenceCacheMisses.getValue()));
+            put(pOut, 5, controlDependenceCacheMisses);
+          }
           put(pOut, 4, nodeNumber);
           put(pOut, 4, flowDependenceNumber);
           put(pOut, 4, controlDependenceNumber);
@@ -674,15 +1000,15 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     }
 
     public static FlowDependences create(
-        final MutableCFA pCfa,
+        final CFA pCfa,
         final Optional<VariableClassification> pVariableClassification,
         final Configuration pConfig,
         final LogManager pLogger,
         final ShutdownNotifier pShutdownNotifier)
         throws InvalidConfigurationException, CPAException, InterruptedException {
       CFA cfa = pCfa;
-      if (pVariableClassification.isPresent()) {
-        cfa = pCfa.makeImmutableCFA(pVariableClassification, Optional.empty());
+      if (pVariableClassification.isPresent() && pCfa instanceof MutableCFA) {
+        cfa = ((MutableCFA) pCfa).makeImmutableCFA(pVariableClassification, Optional.empty());
       }
 
       return createDependences(cfa, pConfig, pLogger, pShutdownNotifier);
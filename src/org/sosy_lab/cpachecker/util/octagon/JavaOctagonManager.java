@@ -0,0 +1,1369 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.BiMap;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.annotations.SuppressForbidden;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonNumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Implementation of the octagon domain in Java, which does not need the native octagon library and
+ * avoids the JNI calls for each operation.
+ *
+ * <p>Like in the native library, an octagon with n variables is represented by a difference bound
+ * matrix m of size 2n x 2n, where the entry m[i][j] bounds V_j - V_i with V_2k = v_k and V_2k+1 =
+ * -v_k. Because of the coherence m[i][j] = m[j^1][i^1] only the lower half of the matrix is stored
+ * in a flat array of doubles. Removing or adding variables at the end does thus not change the
+ * positions of the remaining entries.
+ *
+ * <p>Octagons of this manager are immutable: the arrays are never changed after an octagon was
+ * created. The operations compute their result on a fresh copy, which is closed incrementally
+ * after adding constraints without further allocations. The closure of octagons created by
+ * intersection or widening is computed lazily and cached.
+ *
+ * <p>If integers are used, the tight closure is computed and bounds are rounded to integers,
+ * otherwise the strong closure over the reals is computed.
+ *
+ * <p>All bounds are stored as doubles, which represent integers exactly only up to 2^53. To stay
+ * sound for larger values (e.g., bounds of 64-bit C types), every computed upper bound is rounded
+ * upwards and every computed lower bound downwards, and integer inputs are converted accordingly.
+ */
+public class JavaOctagonManager extends OctagonManager {
+
+  private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+  // values of tbool in the native library
+  private static final int TBOOL_TRUE = 1;
+  private static final int TBOOL_FALSE = 2;
+
+  private final boolean integers;
+
+  /**
+   * Create a new manager.
+   *
+   * @param pIntegers whether all variables have integer values, otherwise rational values are
+   *     assumed like by {@link OctagonFloatManager}
+   */
+  public JavaOctagonManager(boolean pIntegers) {
+    integers = pIntegers;
+  }
+
+  /** Octagon stored as half matrix in Java. */
+  private static final class JavaOctagon extends Octagon {
+
+    private final int dimension;
+
+    // matrix as computed by the operation that created this octagon, null if empty
+    private final double @Nullable [] matrix;
+
+    // closure of the matrix, null if empty or not yet computed
+    private double @Nullable [] closure;
+    private boolean closureComputed;
+
+    // hash code of the closure, which is also compared by isEqual
+    private int hashCode;
+    private boolean hashCodeComputed;
+
+    private JavaOctagon(
+        JavaOctagonManager pManager,
+        int pDimension,
+        double @Nullable [] pMatrix,
+        boolean pIsClosed) {
+      super(pManager);
+      dimension = pDimension;
+      matrix = pMatrix;
+      if (pIsClosed || pMatrix == null) {
+        closure = pMatrix;
+        closureComputed = true;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      if (!hashCodeComputed) {
+        double[] closed = ((JavaOctagonManager) getManager()).closure(this);
+        hashCode = 31 * dimension + Arrays.hashCode(closed);
+        hashCodeComputed = true;
+      }
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      if (matrix == null) {
+        return "empty octagon with dimension " + dimension;
+      }
+      return "octagon with dimension " + dimension + ": " + Arrays.toString(matrix);
+    }
+  }
+
+  /**
+   * Array of numbers in Java. Each number is stored as nearest double, rounded down, and rounded
+   * up, such that integers that cannot be represented exactly as double can be used soundly as
+   * lower or upper bound. Integers are additionally stored exactly.
+   */
+  private static final class JavaNumArray extends NumArray {
+
+    private final double[] values;
+    private final double[] lower;
+    private final double[] upper;
+    private final long[] longs;
+
+    private JavaNumArray(int pSize) {
+      super(0);
+      values = new double[pSize];
+      lower = new double[pSize];
+      upper = new double[pSize];
+      longs = new long[pSize];
+    }
+
+    private void set(int pos, double value) {
+      values[pos] = value;
+      lower[pos] = value;
+      upper[pos] = value;
+      longs[pos] = (long) value;
+    }
+
+    private boolean isExact(int pos) {
+      return lower[pos] == upper[pos];
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      return this == pObj;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(values);
+    }
+  }
+
+  /* matrix handling */
+
+  /** Number of entries of the half matrix for n variables. */
+  private static int matSize(int n) {
+    return 2 * n * (n + 1);
+  }
+
+  /** Position of m[i][j] in the half matrix, requires j <= (i | 1). */
+  private static int matPos(int i, int j) {
+    return j + ((i + 1) * (i + 1)) / 2;
+  }
+
+  /** Position of m[i][j] in the half matrix for arbitrary i and j. */
+  private static int matPos2(int i, int j) {
+    return j <= (i | 1) ? matPos(i, j) : matPos(j ^ 1, i ^ 1);
+  }
+
+  private static double[] universeMatrix(int n) {
+    double[] m = new double[matSize(n)];
+    Arrays.fill(m, INFINITY);
+    for (int i = 0; i < 2 * n; i++) {
+      m[matPos(i, i)] = 0;
+    }
+    return m;
+  }
+
+  private JavaOctagon toJava(Octagon pOct) {
+    checkArgument(
+        pOct instanceof JavaOctagon && pOct.getManager() == this,
+        "Octagon %s does not belong to this manager",
+        pOct);
+    return (JavaOctagon) pOct;
+  }
+
+  private static JavaNumArray toJava(NumArray pArray) {
+    checkArgument(
+        pArray instanceof JavaNumArray, "Array %s does not belong to a Java octagon", pArray);
+    return (JavaNumArray) pArray;
+  }
+
+  /* sound floating-point arithmetic */
+
+  /** Return the smallest double that is not smaller than the given integer. */
+  private static double toDoubleUp(long l) {
+    double d = l;
+    if (d < 0x1p63 && (long) d < l) {
+      return Math.nextUp(d);
+    }
+    return d;
+  }
+
+  /** Return the largest double that is not larger than the given integer. */
+  private static double toDoubleDown(long l) {
+    double d = l;
+    if (d >= 0x1p63 || (long) d > l) {
+      return Math.nextDown(d);
+    }
+    return d;
+  }
+
+  /** Return a + b rounded upwards. */
+  static double addUp(double a, double b) {
+    double sum = a + b;
+    if (Double.isInfinite(sum)) {
+      return sum;
+    }
+    // error of the rounded sum (TwoSum algorithm)
+    double bVirtual = sum - a;
+    double error = (a - (sum - bVirtual)) + (b - bVirtual);
+    return error > 0 ? Math.nextUp(sum) : sum;
+  }
+
+  /** Return a + b rounded downwards. */
+  static double addDown(double a, double b) {
+    return -addUp(-a, -b);
+  }
+
+  /** Return a * b rounded upwards, with the convention 0 * infinity = 0. */
+  private static double mulUp(double a, double b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    double product = a * b;
+    if (Double.isInfinite(product)) {
+      if (Double.isInfinite(a) || Double.isInfinite(b) || product > 0) {
+        return product;
+      }
+      return -Double.MAX_VALUE; // overflow of finite numbers
+    }
+    return Math.fma(a, b, -product) > 0 ? Math.nextUp(product) : product;
+  }
+
+  /** Return a * b rounded downwards, with the convention 0 * infinity = 0. */
+  private static double mulDown(double a, double b) {
+    return -mulUp(-a, b);
+  }
+
+  /** Return c / a rounded upwards for a positive a. */
+  private static double divUp(double c, double a) {
+    double quotient = c / a;
+    if (Double.isInfinite(quotient)) {
+      return quotient;
+    }
+    return Math.fma(-quotient, a, c) > 0 ? Math.nextUp(quotient) : quotient;
+  }
+
+  /** Return the lower bound of the product of the intervals [a1, a2] and [b1, b2]. */
+  static double productLower(double a1, double a2, double b1, double b2) {
+    return Math.min(
+        Math.min(mulDown(a1, b1), mulDown(a1, b2)), Math.min(mulDown(a2, b1), mulDown(a2, b2)));
+  }
+
+  /** Return the upper bound of the product of the intervals [a1, a2] and [b1, b2]. */
+  static double productUpper(double a1, double a2, double b1, double b2) {
+    return Math.max(
+        Math.max(mulUp(a1, b1), mulUp(a1, b2)), Math.max(mulUp(a2, b1), mulUp(a2, b2)));
+  }
+
+  /** Return the closure of the given octagon, or null if it is empty. */
+  private double @Nullable [] closure(JavaOctagon pOct) {
+    if (!pOct.closureComputed) {
+      double[] m = pOct.matrix.clone();
+      pOct.closure = close(m, pOct.dimension) ? m : null;
+      pOct.closureComputed = true;
+    }
+    return pOct.closure;
+  }
+
+  /**
+   * Compute the strong (or tight) closure of the matrix in place by a shortest-path closure
+   * followed by a single strengthening step. Returns false if the octagon is empty.
+   *
+   * <p>Because of the coherence, the two indices of a variable have to be used as intermediate
+   * nodes of the shortest paths at the same time.
+   */
+  private boolean close(double[] m, int n) {
+    int size = 2 * n;
+    for (int k = 0; k < size; k += 2) {
+      int nk = k + 1;
+      double kToNk = m[matPos(k, nk)];
+      double nkToK = m[matPos(nk, k)];
+      for (int i = 0; i < size; i++) {
+        double iToK = m[matPos2(i, k)];
+        double iToNk = m[matPos2(i, nk)];
+        if (iToK == INFINITY && iToNk == INFINITY) {
+          continue;
+        }
+        int bound = i | 1;
+        for (int j = 0; j <= bound; j++) {
+          double kToJ = m[matPos2(k, j)];
+          double nkToJ = m[matPos2(nk, j)];
+          double value =
+              Math.min(
+                  Math.min(iToK + kToJ, iToNk + nkToJ),
+                  Math.min(iToK + kToNk + nkToJ, iToNk + nkToK + kToJ));
+          int pos = matPos(i, j);
+          if (value < m[pos]) {
+            // the bound rounded upwards is at least as large as the rounded one
+            value =
+                Math.min(
+                    Math.min(addUp(iToK, kToJ), addUp(iToNk, nkToJ)),
+                    Math.min(
+                        addUp(addUp(iToK, kToNk), nkToJ), addUp(addUp(iToNk, nkToK), kToJ)));
+            if (value < m[pos]) {
+              m[pos] = value;
+            }
+          }
+        }
+      }
+    }
+    return strengthen(m, n);
+  }
+
+  /**
+   * Strengthen a matrix that is closed under shortest paths by combining unary constraints. For
+   * integers, the unary constraints are tightened first. Returns false if the octagon is empty.
+   */
+  private boolean strengthen(double[] m, int n) {
+    int size = 2 * n;
+    if (integers) {
+      for (int i = 0; i < size; i++) {
+        int pos = matPos(i, i ^ 1);
+        m[pos] = 2 * Math.floor(m[pos] / 2);
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      double unaryI = m[matPos(i, i ^ 1)];
+      if (unaryI == INFINITY) {
+        continue;
+      }
+      int bound = i | 1;
+      for (int j = 0; j <= bound; j++) {
+        double value = addUp(unaryI, m[matPos(j ^ 1, j)]) / 2;
+        int pos = matPos(i, j);
+        if (value < m[pos]) {
+          m[pos] = value;
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      int pos = matPos(i, i);
+      if (m[pos] < 0) {
+        return false;
+      }
+      m[pos] = 0;
+    }
+    return true;
+  }
+
+  /**
+   * Add the constraint V_b - V_a <= c to a closed matrix and restore the closure in place in
+   * quadratic time. Returns false if the octagon becomes empty.
+   */
+  private boolean addIncrementally(double[] m, int n, int a, int b, double c) {
+    if (integers) {
+      c = (b == (a ^ 1)) ? 2 * Math.floor(c / 2) : Math.floor(c);
+    }
+    if (c >= m[matPos2(a, b)]) {
+      return true;
+    }
+    int size = 2 * n;
+    int na = a ^ 1;
+    int nb = b ^ 1;
+    double bToNb = m[matPos2(b, nb)];
+    double naToA = m[matPos2(na, a)];
+    for (int i = 0; i < size; i++) {
+      double iToA = m[matPos2(i, a)];
+      double iToNb = m[matPos2(i, nb)];
+      if (iToA == INFINITY && iToNb == INFINITY) {
+        continue;
+      }
+      int bound = i | 1;
+      for (int j = 0; j <= bound; j++) {
+        double bToJ = m[matPos2(b, j)];
+        double naToJ = m[matPos2(na, j)];
+        double value =
+            Math.min(
+                Math.min(iToA + c + bToJ, iToNb + c + naToJ),
+                Math.min(iToA + c + bToNb + c + naToJ, iToNb + c + naToA + c + bToJ));
+        int pos = matPos(i, j);
+        if (value < m[pos]) {
+          // the bound rounded upwards is at least as large as the rounded one
+          double iToB = addUp(iToA, c);
+          double iToNa = addUp(iToNb, c);
+          value =
+              Math.min(
+                  Math.min(addUp(iToB, bToJ), addUp(iToNa, naToJ)),
+                  Math.min(
+                      addUp(addUp(addUp(iToB, bToNb), c), naToJ),
+                      addUp(addUp(addUp(iToNa, naToA), c), bToJ)));
+          if (value < m[pos]) {
+            m[pos] = value;
+          }
+        }
+      }
+    }
+    return strengthen(m, n);
+  }
+
+  /**
+   * Add the constraint sx * v_x + sy * v_y <= c with sx, sy in {-1, 1} to a closed matrix. If y is
+   * negative, the unary constraint sx * v_x <= c is added.
+   */
+  private boolean addOctConstraint(double[] m, int n, int x, int sx, int y, int sy, double c) {
+    if (c == INFINITY) {
+      return true;
+    }
+    int b = sx > 0 ? 2 * x : 2 * x + 1;
+    if (y < 0) {
+      return addIncrementally(m, n, b ^ 1, b, 2 * c);
+    }
+    int a = sy > 0 ? 2 * y + 1 : 2 * y;
+    return addIncrementally(m, n, a, b, c);
+  }
+
+  /** Remove all constraints on variable k, keeps the matrix closed. */
+  private static void forgetInPlace(double[] m, int n, int k) {
+    int x = 2 * k;
+    for (int i = x; i < 2 * n; i++) {
+      if (i == x || i == x + 1) {
+        for (int j = 0; j <= (i | 1); j++) {
+          m[matPos(i, j)] = INFINITY;
+        }
+        m[matPos(i, i)] = 0;
+      } else {
+        m[matPos(i, x)] = INFINITY;
+        m[matPos(i, x + 1)] = INFINITY;
+      }
+    }
+  }
+
+  /** Replace v_k by v_k + c, keeps the matrix closed. */
+  private static void shiftInPlace(double[] m, int n, int k, double c) {
+    int x = 2 * k;
+    for (int i = 0; i < 2 * n; i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        int shift = 0;
+        if (i == x) {
+          shift--;
+        } else if (i == x + 1) {
+          shift++;
+        }
+        if (j == x) {
+          shift++;
+        } else if (j == x + 1) {
+          shift--;
+        }
+        if (shift != 0) {
+          int pos = matPos(i, j);
+          m[pos] = addUp(m[pos], shift * c);
+        }
+      }
+    }
+  }
+
+  /** Replace v_k by -v_k, keeps the matrix closed. */
+  private static void negateInPlace(double[] m, int n, int k) {
+    double[] copy = m.clone();
+    for (int i = 0; i < 2 * n; i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        int i2 = (i >> 1) == k ? i ^ 1 : i;
+        int j2 = (j >> 1) == k ? j ^ 1 : j;
+        if (i2 != i || j2 != j) {
+          m[matPos(i, j)] = copy[matPos2(i2, j2)];
+        }
+      }
+    }
+  }
+
+  private static double upperBound(double[] m, int k) {
+    return m[matPos(2 * k + 1, 2 * k)] / 2;
+  }
+
+  private static double lowerBound(double[] m, int k) {
+    return -m[matPos(2 * k, 2 * k + 1)] / 2;
+  }
+
+  /** Whether the given finite value can be used exactly as constant. */
+  private boolean isExact(double value) {
+    return Double.isFinite(value) && (!integers || value == Math.rint(value));
+  }
+
+  /**
+   * Convert a lower or upper bound of an integer variable to a value. Bounds outside of the range
+   * of long are infinite for the analysis.
+   */
+  private static OctagonNumericValue<?> toIntegerValue(double bound) {
+    if (bound >= 0x1p63) {
+      return new OctagonDoubleValue(INFINITY);
+    } else if (bound < -0x1p63) {
+      return new OctagonDoubleValue(Double.NEGATIVE_INFINITY);
+    }
+    return OctagonIntValue.of((long) bound);
+  }
+
+  private JavaOctagon newOctagon(int n, double @Nullable [] m, boolean closed) {
+    return new JavaOctagon(this, n, m, closed);
+  }
+
+  /** Assign the interval [lower, upper] to v_k in a closed matrix. */
+  private JavaOctagon assignInterval(double[] closed, int n, int k, double lower, double upper) {
+    double[] m = closed.clone();
+    forgetInPlace(m, n, k);
+    if (addOctConstraint(m, n, k, 1, -1, 0, upper)
+        && addOctConstraint(m, n, k, -1, -1, 0, -lower)) {
+      return newOctagon(n, m, true);
+    }
+    return newOctagon(n, null, true);
+  }
+
+  /** Assign sy * v_y + [lower, upper] to v_k with y != k in a closed matrix. */
+  private JavaOctagon assignRelational(
+      double[] closed, int n, int k, int y, int sy, double lower, double upper) {
+    double[] m = closed.clone();
+    forgetInPlace(m, n, k);
+    // v_k - sy * v_y <= upper and -v_k + sy * v_y <= -lower
+    if (addOctConstraint(m, n, k, 1, y, -sy, upper)
+        && addOctConstraint(m, n, k, -1, y, sy, -lower)) {
+      return newOctagon(n, m, true);
+    }
+    return newOctagon(n, null, true);
+  }
+
+  /* operations for packs of variables */
+
+  /**
+   * Create the product of two octagons. The first variables of the result are those of the first
+   * octagon, followed by those of the second octagon.
+   */
+  Octagon product(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    int n = octagon1.dimension + octagon2.dimension;
+    double[] m1 = closure(octagon1);
+    double[] m2 = closure(octagon2);
+    if (m1 == null || m2 == null) {
+      return empty(n);
+    }
+    double[] m = Arrays.copyOf(m1, matSize(n));
+    int offset = 2 * octagon1.dimension;
+    for (int i = offset; i < 2 * n; i++) {
+      double unaryI = m2[matPos(i - offset, (i ^ 1) - offset)];
+      for (int j = 0; j <= (i | 1); j++) {
+        if (j >= offset) {
+          m[matPos(i, j)] = m2[matPos(i - offset, j - offset)];
+        } else {
+          // the strengthening of both unary constraints keeps the result closed
+          m[matPos(i, j)] = addUp(unaryI, m1[matPos(j ^ 1, j)]) / 2;
+        }
+      }
+    }
+    return newOctagon(n, m, true);
+  }
+
+  /**
+   * Project the octagon onto the given variables. Variable i of the result is the variable at
+   * position i of the given array.
+   */
+  Octagon select(Octagon oct, int[] vars) {
+    JavaOctagon octagon = toJava(oct);
+    int n = vars.length;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return empty(n);
+    }
+    double[] m = new double[matSize(n)];
+    for (int i = 0; i < 2 * n; i++) {
+      int oldI = 2 * vars[i >> 1] + (i & 1);
+      for (int j = 0; j <= (i | 1); j++) {
+        int oldJ = 2 * vars[j >> 1] + (j & 1);
+        m[matPos(i, j)] = closed[matPos2(oldI, oldJ)];
+      }
+    }
+    // the projection of a closed octagon is closed
+    return newOctagon(n, m, true);
+  }
+
+  /** Return the upper bound of variable k, or infinity if the octagon is empty. */
+  double getUpperBound(Octagon oct, int k) {
+    double[] m = closure(toJava(oct));
+    return m == null ? INFINITY : upperBound(m, k);
+  }
+
+  /** Return the lower bound of variable k, or minus infinity if the octagon is empty. */
+  double getLowerBound(Octagon oct, int k) {
+    double[] m = closure(toJava(oct));
+    return m == null ? Double.NEGATIVE_INFINITY : lowerBound(m, k);
+  }
+
+  /** Return the number at the given position of the array rounded downwards. */
+  double num_get_lower(NumArray n, int pos) {
+    return toJava(n).lower[pos];
+  }
+
+  /** Return the number at the given position of the array rounded upwards. */
+  double num_get_upper(NumArray n, int pos) {
+    return toJava(n).upper[pos];
+  }
+
+  boolean isIntegerManager() {
+    return integers;
+  }
+
+  /* num handling function*/
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new JavaNumArray(n);
+  }
+
+  /** Copies all entries that exist in both arrays. */
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    JavaNumArray target = toJava(n1);
+    JavaNumArray source = toJava(n2);
+    int length = Math.min(source.values.length, target.values.length);
+    System.arraycopy(source.values, 0, target.values, 0, length);
+    System.arraycopy(source.lower, 0, target.lower, 0, length);
+    System.arraycopy(source.upper, 0, target.upper, 0, length);
+    System.arraycopy(source.longs, 0, target.longs, 0, length);
+  }
+
+  /** The upper bound is given in upper, the lower bound is given negated in lower. */
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    JavaOctagon octagon = toJava(oct);
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return oct;
+    }
+    return assignInterval(
+        closed, octagon.dimension, pos, -toJava(lower).upper[0], toJava(upper).upper[0]);
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    JavaNumArray array = toJava(n);
+    array.values[pos] = i;
+    array.lower[pos] = toDoubleDown(i);
+    array.upper[pos] = toDoubleUp(i);
+    array.longs[pos] = i;
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    toJava(n).set(pos, d);
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    toJava(n).set(pos, INFINITY);
+  }
+
+  /** Integers are returned exactly, other numbers are truncated. */
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return toJava(n).longs[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return toJava(n).values[pos];
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return Double.isInfinite(toJava(n).values[pos]);
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // memory is managed by the garbage collector
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return newOctagon(n, null, true);
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return newOctagon(n, universeMatrix(n), true);
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    // octagons are immutable, thus the arrays can be shared
+    JavaOctagon octagon = toJava(oct);
+    JavaOctagon copy = newOctagon(octagon.dimension, octagon.matrix, false);
+    copy.closure = octagon.closure;
+    copy.closureComputed = octagon.closureComputed;
+    return copy;
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return copy(oct);
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return toJava(oct).dimension;
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    JavaOctagon octagon = toJava(oct);
+    double[] m = closure(octagon);
+    if (m == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < 2 * octagon.dimension; i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && m[matPos(i, j)] != INFINITY) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return closure(toJava(oct)) == null;
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return isEmpty(oct) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    JavaOctagon octagon = toJava(oct);
+    double[] m = closure(octagon);
+    if (m == null) {
+      return false;
+    }
+    for (int i = 0; i < 2 * octagon.dimension; i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && m[matPos(i, j)] != INFINITY) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    checkArgument(octagon1.dimension == octagon2.dimension, "Octagons have different dimensions");
+    double[] m1 = closure(octagon1);
+    if (m1 == null) {
+      return true;
+    }
+    // the closure of the second octagon is not necessary, because the first one is closed
+    double[] m2 = octagon2.closureComputed ? octagon2.closure : octagon2.matrix;
+    if (m2 == null) {
+      return false;
+    }
+    for (int i = 0; i < m1.length; i++) {
+      if (m1[i] > m2[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The result is always exact. */
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return isIncludedIn(oct1, oct2) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    return octagon1.dimension == octagon2.dimension
+        && Arrays.equals(closure(octagon1), closure(octagon2));
+  }
+
+  /** The result is always exact. */
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return isEqual(oct1, oct2) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    JavaOctagon octagon = toJava(oct1);
+    double[] m = octagon.matrix;
+    if (m == null) {
+      return false;
+    }
+    double[] point = toJava(array).values;
+    for (int i = 0; i < 2 * octagon.dimension; i++) {
+      double valueI = (i & 1) == 0 ? point[i >> 1] : -point[i >> 1];
+      for (int j = 0; j <= (i | 1); j++) {
+        double valueJ = (j & 1) == 0 ? point[j >> 1] : -point[j >> 1];
+        if (valueJ - valueI > m[matPos(i, j)]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    int n = octagon1.dimension;
+    if (octagon1.matrix == null || octagon2.matrix == null) {
+      return empty(n);
+    }
+    double[] m = octagon1.matrix.clone();
+    for (int i = 0; i < m.length; i++) {
+      m[i] = Math.min(m[i], octagon2.matrix[i]);
+    }
+    return newOctagon(n, m, false);
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    int n = octagon1.dimension;
+    double[] m1 = closure(octagon1);
+    double[] m2 = closure(octagon2);
+    if (m1 == null) {
+      return newOctagon(n, m2, true);
+    } else if (m2 == null) {
+      return newOctagon(n, m1, true);
+    }
+    double[] m = m1.clone();
+    for (int i = 0; i < m.length; i++) {
+      m[i] = Math.max(m[i], m2[i]);
+    }
+    // the pointwise maximum of closed matrices is closed
+    return newOctagon(n, m, true);
+  }
+
+  /**
+   * Widening with threshold zero like OCT_WIDENING_ZERO of the native library: unstable bounds are
+   * relaxed to zero first, and to infinity afterwards. The first octagon is not closed, as this
+   * could prevent the termination of widening sequences.
+   */
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    int n = octagon1.dimension;
+    double[] m1 = octagon1.matrix;
+    double[] m2 = closure(octagon2);
+    if (m1 == null) {
+      return newOctagon(n, m2, true);
+    } else if (m2 == null) {
+      return copy(oct1);
+    }
+    double[] m = m1.clone();
+    for (int i = 0; i < m.length; i++) {
+      if (m2[i] > m[i]) {
+        m[i] = m2[i] <= 0 ? 0 : INFINITY;
+      }
+    }
+    return newOctagon(n, m, false);
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    JavaOctagon octagon1 = toJava(oct1);
+    JavaOctagon octagon2 = toJava(oct2);
+    int n = octagon1.dimension;
+    double[] m1 = closure(octagon1);
+    double[] m2 = closure(octagon2);
+    if (m1 == null || m2 == null) {
+      return empty(n);
+    }
+    double[] m = m1.clone();
+    for (int i = 0; i < m.length; i++) {
+      if (m[i] == INFINITY) {
+        m[i] = m2[i];
+      }
+    }
+    return newOctagon(n, m, false);
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    JavaOctagon octagon = toJava(oct);
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return oct;
+    }
+    double[] m = closed.clone();
+    forgetInPlace(m, octagon.dimension, k);
+    return newOctagon(octagon.dimension, m, true);
+  }
+
+  /**
+   * Assign a linear expression to variable k. The array contains the coefficients of the variables
+   * followed by the constant. Octagonal expressions are handled exactly, other expressions are
+   * over-approximated by intervals.
+   */
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return oct;
+    }
+    JavaNumArray coefficients = toJava(array);
+    double constant = coefficients.values[n];
+
+    int nonZero = 0;
+    int var = -1;
+    for (int i = 0; i < n; i++) {
+      if (coefficients.values[i] != 0) {
+        nonZero++;
+        var = i;
+      }
+    }
+
+    if (nonZero == 0) {
+      return assignInterval(closed, n, k, coefficients.lower[n], coefficients.upper[n]);
+    }
+    if (nonZero == 1
+        && Math.abs(coefficients.values[var]) == 1
+        && coefficients.isExact(n)
+        && isExact(constant)) {
+      int sign = coefficients.values[var] > 0 ? 1 : -1;
+      if (var != k) {
+        return assignRelational(closed, n, k, var, sign, constant, constant);
+      }
+      double[] m = closed.clone();
+      if (sign < 0) {
+        negateInPlace(m, n, k);
+      }
+      shiftInPlace(m, n, k, constant);
+      return newOctagon(n, m, true);
+    }
+
+    double lower = coefficients.lower[n];
+    double upper = coefficients.upper[n];
+    for (int i = 0; i < n; i++) {
+      if (coefficients.values[i] != 0) {
+        double coefficientLower = coefficients.lower[i];
+        double coefficientUpper = coefficients.upper[i];
+        double varLower = lowerBound(closed, i);
+        double varUpper = upperBound(closed, i);
+        lower =
+            addDown(lower, productLower(coefficientLower, coefficientUpper, varLower, varUpper));
+        upper = addUp(upper, productUpper(coefficientLower, coefficientUpper, varLower, varUpper));
+      }
+    }
+    return assignInterval(closed, n, k, lower, upper);
+  }
+
+  /**
+   * Add constraints of the form +-v_x +-v_y <= c. The array contains four entries per constraint:
+   * the type as in the native library, the indices x and y, and the constant c.
+   */
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return oct;
+    }
+    JavaNumArray constraints = toJava(array);
+    double[] m = closed.clone();
+    for (int i = 0; i < noOfConstraints; i++) {
+      int type = (int) constraints.values[4 * i];
+      int x = (int) constraints.values[4 * i + 1];
+      int y = (int) constraints.values[4 * i + 2];
+      double c = constraints.upper[4 * i + 3];
+      final boolean nonEmpty;
+      switch (type) {
+        case 0: // px
+          nonEmpty = addOctConstraint(m, n, x, 1, -1, 0, c);
+          break;
+        case 1: // mx
+          nonEmpty = addOctConstraint(m, n, x, -1, -1, 0, c);
+          break;
+        case 2: // pxpy
+          nonEmpty = addOctConstraint(m, n, x, 1, y, 1, c);
+          break;
+        case 3: // pxmy
+          nonEmpty = addOctConstraint(m, n, x, 1, y, -1, c);
+          break;
+        case 4: // mxpy
+          nonEmpty = addOctConstraint(m, n, x, -1, y, 1, c);
+          break;
+        case 5: // mxmy
+          nonEmpty = addOctConstraint(m, n, x, -1, y, -1, c);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown type of binary constraint: " + type);
+      }
+      if (!nonEmpty) {
+        return empty(n);
+      }
+    }
+    return newOctagon(n, m, true);
+  }
+
+  /**
+   * Substitution is over-approximated by forgetting the variable, unless a constant is
+   * substituted.
+   */
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    JavaNumArray coefficients = toJava(array);
+    for (int i = 0; i < n; i++) {
+      if (coefficients.values[i] != 0) {
+        return forget(oct, x);
+      }
+    }
+    return substituteInterval(octagon, x, coefficients.lower[n], coefficients.upper[n]);
+  }
+
+  private Octagon substituteInterval(JavaOctagon pOctagon, int x, double lower, double upper) {
+    int n = pOctagon.dimension;
+    double[] closed = closure(pOctagon);
+    if (closed == null) {
+      return pOctagon;
+    }
+    double[] m = closed.clone();
+    if (!addOctConstraint(m, n, x, 1, -1, 0, upper)
+        || !addOctConstraint(m, n, x, -1, -1, 0, -lower)) {
+      return empty(n);
+    }
+    forgetInPlace(m, n, x);
+    return newOctagon(n, m, true);
+  }
+
+  /**
+   * Add the constraint sum(a_i * v_i) + c >= 0 given by the coefficients a_i and the constant c.
+   * Only octagonal constraints are added, other constraints are ignored.
+   */
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    JavaNumArray coefficients = toJava(array);
+    return addLinearConstraint(
+        octagon, coefficients.values, coefficients.upper[octagon.dimension]);
+  }
+
+  /**
+   * Add the constraint sum(a_i * v_i) + c >= 0. The coefficients have to be exact, the constant
+   * has to be rounded upwards.
+   */
+  private Octagon addLinearConstraint(JavaOctagon pOctagon, double[] coefficients, double c) {
+    int n = pOctagon.dimension;
+    double[] closed = closure(pOctagon);
+    if (closed == null) {
+      return pOctagon;
+    }
+
+    int x = -1;
+    int y = -1;
+    for (int i = 0; i < n; i++) {
+      if (coefficients[i] != 0) {
+        if (x < 0) {
+          x = i;
+        } else if (y < 0) {
+          y = i;
+        } else {
+          return copy(pOctagon);
+        }
+      }
+    }
+
+    double[] m = closed.clone();
+    final boolean nonEmpty;
+    if (x < 0) {
+      nonEmpty = c >= 0;
+    } else if (y < 0) {
+      // a * v_x + c >= 0 <=> -sign(a) * v_x <= c / |a|
+      double a = coefficients[x];
+      nonEmpty = addOctConstraint(m, n, x, a > 0 ? -1 : 1, -1, 0, divUp(c, Math.abs(a)));
+    } else if (Math.abs(coefficients[x]) == 1 && Math.abs(coefficients[y]) == 1) {
+      nonEmpty =
+          addOctConstraint(
+              m, n, x, coefficients[x] > 0 ? -1 : 1, y, coefficients[y] > 0 ? -1 : 1, c);
+    } else {
+      return copy(pOctagon);
+    }
+    return nonEmpty ? newOctagon(n, m, true) : empty(n);
+  }
+
+  /**
+   * Assign a linear expression with interval coefficients to variable k. The array contains the
+   * upper bound and the negated lower bound of each coefficient, followed by those of the constant.
+   */
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return oct;
+    }
+    // upper bounds and negated lower bounds are both rounded upwards
+    double[] bounds = toJava(array).upper;
+    double constantLower = -bounds[2 * n + 1];
+    double constantUpper = bounds[2 * n];
+
+    int nonZero = 0;
+    int var = -1;
+    for (int i = 0; i < n; i++) {
+      if (bounds[2 * i] != 0 || bounds[2 * i + 1] != 0) {
+        nonZero++;
+        var = i;
+      }
+    }
+
+    if (nonZero == 0) {
+      return assignInterval(closed, n, k, constantLower, constantUpper);
+    }
+    if (nonZero == 1 && var != k && bounds[2 * var] == -bounds[2 * var + 1]) {
+      double coefficient = bounds[2 * var];
+      if (Math.abs(coefficient) == 1 && isExact(constantLower) && isExact(constantUpper)) {
+        return assignRelational(
+            closed, n, k, var, coefficient > 0 ? 1 : -1, constantLower, constantUpper);
+      }
+    }
+
+    double lower = constantLower;
+    double upper = constantUpper;
+    for (int i = 0; i < n; i++) {
+      double coefficientUpper = bounds[2 * i];
+      double coefficientLower = -bounds[2 * i + 1];
+      if (coefficientUpper == 0 && coefficientLower == 0) {
+        continue;
+      }
+      double varLower = lowerBound(closed, i);
+      double varUpper = upperBound(closed, i);
+      lower =
+          addDown(lower, productLower(coefficientLower, coefficientUpper, varLower, varUpper));
+      upper = addUp(upper, productUpper(coefficientLower, coefficientUpper, varLower, varUpper));
+    }
+    return assignInterval(closed, n, k, lower, upper);
+  }
+
+  /**
+   * Substitution is over-approximated by forgetting the variable, unless an interval is
+   * substituted.
+   */
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    // upper bounds and negated lower bounds are both rounded upwards
+    double[] bounds = toJava(array).upper;
+    for (int i = 0; i < 2 * n; i++) {
+      if (bounds[i] != 0) {
+        return forget(oct, x);
+      }
+    }
+    return substituteInterval(octagon, x, -bounds[2 * n + 1], bounds[2 * n]);
+  }
+
+  /**
+   * Add the constraint sum([l_i, u_i] * v_i) + [l, u] >= 0. Only constraints with exact
+   * coefficients are added, with the upper bound u as constant, other constraints are ignored.
+   */
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension;
+    JavaNumArray bounds = toJava(array);
+    double[] coefficients = new double[n];
+    for (int i = 0; i < n; i++) {
+      // only exact coefficients are supported
+      if (bounds.upper[2 * i] != -bounds.upper[2 * i + 1]
+          || !bounds.isExact(2 * i)
+          || !bounds.isExact(2 * i + 1)) {
+        return copy(oct);
+      }
+      coefficients[i] = bounds.values[2 * i];
+    }
+    if (bounds.upper[2 * n] == INFINITY) {
+      return copy(oct);
+    }
+    return addLinearConstraint(octagon, coefficients, bounds.upper[2 * n]);
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension + k;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return empty(n);
+    }
+    return newOctagon(n, embed(closed, octagon.dimension, n), true);
+  }
+
+  private static double[] embed(double[] m, int oldDimension, int newDimension) {
+    double[] result = Arrays.copyOf(m, matSize(newDimension));
+    Arrays.fill(result, m.length, result.length, INFINITY);
+    for (int i = 2 * oldDimension; i < 2 * newDimension; i++) {
+      result[matPos(i, i)] = 0;
+    }
+    return result;
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension + k;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return empty(n);
+    }
+    double[] m = embed(closed, octagon.dimension, n);
+    for (int i = octagon.dimension; i < n; i++) {
+      addOctConstraint(m, n, i, 1, -1, 0, 0);
+      addOctConstraint(m, n, i, -1, -1, 0, 0);
+    }
+    return newOctagon(n, m, true);
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    JavaOctagon octagon = toJava(oct);
+    int n = octagon.dimension - k;
+    double[] closed = closure(octagon);
+    if (closed == null) {
+      return empty(n);
+    }
+    // the projection of a closed octagon is closed
+    return newOctagon(n, Arrays.copyOf(closed, matSize(n)), true);
+  }
+
+  /** Print the first numbers of the array to stdout, like the native library. */
+  @Override
+  @SuppressForbidden("prints to stdout like the native library")
+  public void printNum(NumArray arr, int size) {
+    JavaNumArray array = toJava(arr);
+    StringBuilder str = new StringBuilder("[ ");
+    for (int i = 0; i < size; i++) {
+      if (Double.isInfinite(array.values[i])) {
+        str.append(array.values[i] > 0 ? "+oo" : "-oo");
+      } else if (integers) {
+        str.append(array.longs[i]);
+      } else {
+        str.append(array.values[i]);
+      }
+      str.append(' ');
+    }
+    System.out.println(str.append(']'));
+  }
+
+  /** Print the matrix of the octagon to stdout, like the native library. */
+  @Override
+  @SuppressForbidden("prints to stdout like the native library")
+  public void printOct(Octagon oct) {
+    System.out.print(formatMatrix(toJava(oct)));
+  }
+
+  /** Format the lower half of the matrix of the octagon, one row per line. */
+  String formatMatrix(Octagon oct) {
+    JavaOctagon octagon = toJava(oct);
+    StringBuilder str = new StringBuilder();
+    str.append("[ n=").append(octagon.dimension);
+    double[] m = octagon.closureComputed ? octagon.closure : octagon.matrix;
+    if (m == null) {
+      return str.append(" empty ]\n").toString();
+    }
+    str.append(octagon.closureComputed ? " closed" : "").append('\n');
+    for (int i = 0; i < 2 * octagon.dimension; i++) {
+      str.append(' ');
+      for (int j = 0; j <= (i | 1); j++) {
+        double value = m[matPos(i, j)];
+        str.append(' ');
+        if (value == INFINITY) {
+          str.append("+oo");
+        } else if (integers && Math.abs(value) < 0x1p63) {
+          str.append((long) value);
+        } else {
+          str.append(value);
+        }
+      }
+      str.append('\n');
+    }
+    return str.append("]\n").toString();
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    JavaOctagon octagon = toJava(oct);
+    StringBuilder str = new StringBuilder();
+    str.append("Octagon (dimension: " + octagon.dimension + ")\n");
+    double[] m = closure(octagon);
+    if (m == null) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      double lower = lowerBound(m, i);
+      double upper = upperBound(m, i);
+      if (lower == Double.NEGATIVE_INFINITY || (integers && lower < -0x1p63)) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(integers ? Long.toString((long) lower) : Double.toString(lower)).append(", ");
+      }
+      if (upper == INFINITY || (integers && upper >= 0x1p63)) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(integers ? Long.toString((long) upper) : Double.toString(upper)).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    JavaOctagon octagon = toJava(oct);
+    assert id < octagon.dimension;
+    double[] m = closure(octagon);
+    double lower = m == null ? Double.NEGATIVE_INFINITY : lowerBound(m, id);
+    double upper = m == null ? INFINITY : upperBound(m, id);
+
+    if (!integers) {
+      return new OctagonInterval(lower, upper);
+    }
+    return new OctagonInterval(toIntegerValue(lower), toIntegerValue(upper));
+  }
+}
@@ -0,0 +1,146 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class JavaOctagonManagerTest {
+
+  private static final int PX = 0;
+  private static final int MX = 1;
+  private static final int PXPY = 2;
+  private static final int PXMY = 3;
+  private static final int MXPY = 4;
+
+  private final OctagonManager manager = new JavaOctagonManager(true);
+
+  private Octagon addConstraint(Octagon oct, int type, int x, int y, long c) {
+    NumArray array = manager.init_num_t(4);
+    manager.num_set_int(array, 0, type);
+    manager.num_set_int(array, 1, x);
+    manager.num_set_int(array, 2, y);
+    manager.num_set_int(array, 3, c);
+    return manager.addBinConstraint(oct, 1, array);
+  }
+
+  private Octagon assign(Octagon oct, int k, long... coefficients) {
+    NumArray array = manager.init_num_t(coefficients.length);
+    for (int i = 0; i < coefficients.length; i++) {
+      manager.num_set_int(array, i, coefficients[i]);
+    }
+    return manager.assingVar(oct, k, array);
+  }
+
+  @Test
+  public void testUniverseAndEmpty() {
+    assertThat(manager.isUniverse(manager.universe(3))).isTrue();
+    assertThat(manager.isEmpty(manager.universe(3))).isFalse();
+    assertThat(manager.isEmpty(manager.empty(3))).isTrue();
+    assertThat(manager.isIncludedIn(manager.empty(3), manager.universe(3))).isTrue();
+    assertThat(manager.isIncludedIn(manager.universe(3), manager.empty(3))).isFalse();
+  }
+
+  @Test
+  public void testTransitiveBounds() {
+    // x1 <= 4, x0 - x2 <= -2, x2 - x1 <= -3 implies x0 <= -1
+    Octagon oct = addConstraint(manager.universe(3), PX, 1, 0, 4);
+    oct = addConstraint(oct, MXPY, 2, 0, -2);
+    oct = addConstraint(oct, MXPY, 1, 2, -3);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue())
+        .isEqualTo(-1);
+  }
+
+  @Test
+  public void testIntersectionIsClosedLazily() {
+    Octagon oct1 = addConstraint(manager.universe(3), PX, 1, 0, 4);
+    Octagon oct2 = addConstraint(manager.universe(3), MXPY, 2, 0, -2);
+    Octagon oct3 = addConstraint(manager.universe(3), MXPY, 1, 2, -3);
+    Octagon intersection = manager.intersection(manager.intersection(oct1, oct2), oct3);
+    Octagon incremental = addConstraint(addConstraint(oct1, MXPY, 2, 0, -2), MXPY, 1, 2, -3);
+    assertThat(manager.isEqual(intersection, incremental)).isTrue();
+  }
+
+  @Test
+  public void testTightIntegerClosure() {
+    // x0 + x1 <= 1 and x0 - x1 <= 0 imply 2 * x0 <= 1, and x0 <= 0 for integers
+    Octagon oct = addConstraint(manager.universe(2), PXPY, 0, 1, 1);
+    oct = addConstraint(oct, PXMY, 0, 1, 0);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(0);
+    assertThat(manager.isEmpty(addConstraint(oct, MX, 0, 0, -1))).isTrue();
+  }
+
+  @Test
+  public void testNonOctagonalAssignment() {
+    // x1 = 2 * x0 + 1 with x0 in [0, 1]
+    Octagon oct = addConstraint(manager.universe(2), PX, 0, 0, 1);
+    oct = addConstraint(oct, MX, 0, 0, 0);
+    oct = assign(oct, 1, 2, 0, 1);
+    assertThat(manager.getVariableBounds(oct, 1).getLow().getValue().longValue()).isEqualTo(1);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().getValue().longValue()).isEqualTo(3);
+  }
+
+  @Test
+  public void testRelationalAssignment() {
+    // x1 = x0 + 2 with x0 in [0, 5], afterwards x0 = 1
+    Octagon oct = addConstraint(manager.universe(2), PX, 0, 0, 5);
+    oct = addConstraint(oct, MX, 0, 0, 0);
+    oct = assign(oct, 1, 1, 0, 2);
+    oct = addConstraint(oct, PX, 0, 0, 1);
+    oct = addConstraint(oct, MX, 0, 0, -1);
+    assertThat(manager.getVariableBounds(oct, 1).getLow().getValue().longValue()).isEqualTo(3);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().getValue().longValue()).isEqualTo(3);
+  }
+
+  @Test
+  public void testChangeOfDimensions() {
+    Octagon oct = addConstraint(manager.universe(2), PX, 0, 0, 5);
+    Octagon embedded = manager.addDimensionAndEmbed(oct, 2);
+    assertThat(manager.dimension(embedded)).isEqualTo(4);
+    assertThat(manager.isEqual(manager.removeDimension(embedded, 2), oct)).isTrue();
+  }
+
+  @Test
+  public void testLargeIntegerBoundsAreSound() {
+    long big = (1L << 53) + 1; // not representable as double
+    Octagon oct = addConstraint(manager.universe(2), PX, 1, 0, big);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().getValue().longValue())
+        .isAtLeast(big);
+
+    // x1 <= 2^53 - 1 and x0 - x1 <= 2, the sum of the bounds is not representable as double
+    oct = addConstraint(manager.universe(2), PX, 1, 0, (1L << 53) - 1);
+    oct = addConstraint(oct, PXMY, 0, 1, 2);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue())
+        .isAtLeast(big);
+    assertThat(manager.isEmpty(addConstraint(oct, MX, 0, 0, -big))).isFalse();
+
+    // bounds beyond the range of long are infinite
+    oct = addConstraint(manager.universe(2), PX, 1, 0, Long.MAX_VALUE);
+    oct = addConstraint(oct, PXMY, 0, 1, Long.MAX_VALUE);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().isInfinite()).isTrue();
+  }
+
+  @Test
+  public void testLargeIntegersAreStoredExactly() {
+    NumArray array = manager.init_num_t(1);
+    manager.num_set_int(array, 0, Long.MAX_VALUE - 1);
+    assertThat(manager.num_get_int(array, 0)).isEqualTo(Long.MAX_VALUE - 1);
+  }
+
+  @Test
+  public void testEqualOctagonsHaveEqualHashCodes() {
+    Octagon oct1 = addConstraint(manager.universe(2), PX, 1, 0, 3); // x1 <= 3
+    oct1 = addConstraint(oct1, PXMY, 0, 1, 0); // x0 - x1 <= 0
+    Octagon oct2 = addConstraint(oct1, PX, 0, 0, 3); // x0 <= 3 is implied
+    assertThat(oct2).isNotSameInstanceAs(oct1);
+    assertThat(manager.isEqual(oct1, oct2)).isTrue();
+    assertThat(oct2.hashCode()).isEqualTo(oct1.hashCode());
+  }
+}
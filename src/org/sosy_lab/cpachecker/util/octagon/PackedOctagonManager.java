@@ -0,0 +1,964 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager.addDown;
+import static org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager.addUp;
+import static org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager.productLower;
+import static org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager.productUpper;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.annotations.SuppressForbidden;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Octagon domain that splits the variables into packs of related variables and stores a small
+ * octagon from {@link JavaOctagonManager} for each pack. The costs of the operations are thus
+ * cubic in the size of the packs instead of the number of all variables.
+ *
+ * <p>The packs are computed from the constraints that are added: two variables belong to the same
+ * pack if a constraint or an assignment relates them, variables without constraints belong to no
+ * pack. Operations only change the packs of the affected variables. Because each assignment and
+ * assumption only relates variables of the same partition of the variable classification, packs
+ * are never larger than these partitions. Relations between variables of different packs, which
+ * the join of a single octagon could infer, are lost.
+ */
+public class PackedOctagonManager extends OctagonManager {
+
+  private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+  // values of tbool in the native library
+  private static final int TBOOL_TRUE = 1;
+  private static final int TBOOL_FALSE = 2;
+
+  private final JavaOctagonManager packManager;
+
+  /**
+   * Create a new manager.
+   *
+   * @param pIntegers whether all variables have integer values, see {@link JavaOctagonManager}
+   */
+  public PackedOctagonManager(boolean pIntegers) {
+    packManager = new JavaOctagonManager(pIntegers);
+  }
+
+  /** Octagon over some variables, which are sorted ascending. */
+  private static final class Pack {
+
+    private final int[] vars;
+    private final Octagon octagon;
+
+    private Pack(int[] pVars, Octagon pOctagon) {
+      vars = pVars;
+      octagon = pOctagon;
+    }
+
+    private int localIndex(int var) {
+      int index = Arrays.binarySearch(vars, var);
+      assert index >= 0 : "variable " + var + " not in pack " + Arrays.toString(vars);
+      return index;
+    }
+  }
+
+  /** Octagon consisting of independent packs. */
+  private static final class PackedOctagon extends Octagon {
+
+    private final int dimension;
+    private final boolean empty;
+    private final ImmutableList<Pack> packs;
+
+    // index of the pack of each variable, -1 for variables without constraints
+    private final int[] packOf;
+
+    private int hashCode;
+    private boolean hashCodeComputed;
+
+    private PackedOctagon(
+        PackedOctagonManager pManager, int pDimension, boolean pEmpty, ImmutableList<Pack> pPacks) {
+      super(pManager);
+      dimension = pDimension;
+      empty = pEmpty;
+      packs = pPacks;
+      packOf = new int[pDimension];
+      Arrays.fill(packOf, -1);
+      for (int i = 0; i < packs.size(); i++) {
+        for (int var : packs.get(i).vars) {
+          packOf[var] = i;
+        }
+      }
+    }
+
+    private @Nullable Pack getPack(int var) {
+      return packOf[var] < 0 ? null : packs.get(packOf[var]);
+    }
+
+    /**
+     * Equal octagons have the same bounds for each variable, independently of how the variables
+     * are packed, so the hash code is computed from these bounds.
+     */
+    @Override
+    public int hashCode() {
+      if (!hashCodeComputed) {
+        int hash = 31 * dimension + Boolean.hashCode(empty);
+        if (!empty) {
+          PackedOctagonManager manager = (PackedOctagonManager) getManager();
+          for (int var = 0; var < dimension; var++) {
+            // adding 0.0 turns -0.0 into 0.0
+            hash = 31 * hash + Double.hashCode(manager.getLowerBound(this, var) + 0.0);
+            hash = 31 * hash + Double.hashCode(manager.getUpperBound(this, var) + 0.0);
+          }
+        }
+        hashCode = hash;
+        hashCodeComputed = true;
+      }
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      if (empty) {
+        return "empty octagon with dimension " + dimension;
+      }
+      return "octagon with dimension " + dimension + " and " + packs.size() + " packs";
+    }
+  }
+
+  /** Return the sizes of the packs of the given octagon. */
+  public ImmutableList<Integer> getPackSizes(Octagon oct) {
+    ImmutableList.Builder<Integer> sizes = ImmutableList.builder();
+    for (Pack pack : toPacked(oct).packs) {
+      sizes.add(pack.vars.length);
+    }
+    return sizes.build();
+  }
+
+  private PackedOctagon toPacked(Octagon pOct) {
+    checkArgument(
+        pOct instanceof PackedOctagon && pOct.getManager() == this,
+        "Octagon %s does not belong to this manager",
+        pOct);
+    return (PackedOctagon) pOct;
+  }
+
+  private PackedOctagon create(int n, List<Pack> packs) {
+    for (Pack pack : packs) {
+      if (packManager.isEmpty(pack.octagon)) {
+        return new PackedOctagon(this, n, true, ImmutableList.of());
+      }
+    }
+    return new PackedOctagon(this, n, false, ImmutableList.copyOf(packs));
+  }
+
+  /**
+   * Replace all packs that contain one of the given variables by the given pack, which has to
+   * contain all variables of the replaced packs.
+   */
+  private PackedOctagon replace(PackedOctagon pOct, int[] vars, @Nullable Pack newPack) {
+    List<Pack> packs = new ArrayList<>(pOct.packs.size() + 1);
+    for (int i = 0; i < pOct.packs.size(); i++) {
+      boolean replaced = false;
+      for (int var : vars) {
+        if (pOct.packOf[var] == i) {
+          replaced = true;
+          break;
+        }
+      }
+      if (!replaced) {
+        packs.add(pOct.packs.get(i));
+      }
+    }
+    if (newPack != null) {
+      packs.add(newPack);
+    }
+    return create(pOct.dimension, packs);
+  }
+
+  /**
+   * Build an octagon over the given variables, which are sorted ascending, from the packs of the
+   * given octagon. Variables of these packs that are not given are projected away.
+   */
+  private Octagon buildOctagon(PackedOctagon pOct, int[] vars) {
+    Set<Pack> packs = new LinkedHashSet<>();
+    int freeVars = 0;
+    for (int var : vars) {
+      Pack pack = pOct.getPack(var);
+      if (pack == null) {
+        freeVars++;
+      } else {
+        packs.add(pack);
+      }
+    }
+    if (packs.size() == 1 && freeVars == 0) {
+      Pack pack = packs.iterator().next();
+      if (Arrays.equals(pack.vars, vars)) {
+        // keep the octagon as it is, this is necessary for the widening
+        return pack.octagon;
+      }
+    }
+
+    Octagon octagon = null;
+    List<Integer> order = new ArrayList<>();
+    for (Pack pack : packs) {
+      octagon = octagon == null ? pack.octagon : packManager.product(octagon, pack.octagon);
+      order.addAll(Ints.asList(pack.vars));
+    }
+    if (freeVars > 0) {
+      octagon =
+          octagon == null
+              ? packManager.universe(freeVars)
+              : packManager.addDimensionAndEmbed(octagon, freeVars);
+      for (int var : vars) {
+        if (pOct.packOf[var] < 0) {
+          order.add(var);
+        }
+      }
+    }
+    int[] positions = new int[vars.length];
+    for (int i = 0; i < vars.length; i++) {
+      positions[i] = order.indexOf(vars[i]);
+    }
+    return packManager.select(octagon, positions);
+  }
+
+  /** Merge the packs of the given variables into one pack, which also contains the variables. */
+  private Pack mergePacks(PackedOctagon pOct, int... pVars) {
+    List<Integer> vars = new ArrayList<>();
+    for (int var : pVars) {
+      Pack pack = pOct.getPack(var);
+      if (pack == null) {
+        if (!vars.contains(var)) {
+          vars.add(var);
+        }
+      } else {
+        for (int packVar : pack.vars) {
+          if (!vars.contains(packVar)) {
+            vars.add(packVar);
+          }
+        }
+      }
+    }
+    int[] sortedVars = Ints.toArray(vars);
+    Arrays.sort(sortedVars);
+    return new Pack(sortedVars, buildOctagon(pOct, sortedVars));
+  }
+
+  /** Apply the result of an operation on the given merged pack. */
+  private PackedOctagon updatePack(PackedOctagon pOct, Pack pPack, Octagon pResult) {
+    return replace(pOct, pPack.vars, new Pack(pPack.vars, pResult));
+  }
+
+  /** Remove the given variable from its pack, i.e., forget all constraints on it. */
+  private PackedOctagon removeFromPack(PackedOctagon pOct, int var) {
+    Pack pack = pOct.getPack(var);
+    if (pack == null) {
+      return pOct;
+    }
+    if (pack.vars.length == 1) {
+      return replace(pOct, pack.vars, null);
+    }
+    int[] vars = new int[pack.vars.length - 1];
+    int[] positions = new int[vars.length];
+    for (int i = 0, j = 0; i < pack.vars.length; i++) {
+      if (pack.vars[i] != var) {
+        vars[j] = pack.vars[i];
+        positions[j] = i;
+        j++;
+      }
+    }
+    return replace(
+        pOct, pack.vars, new Pack(vars, packManager.select(pack.octagon, positions)));
+  }
+
+  /** Assign an interval to a variable without constraints. */
+  private PackedOctagon assignInterval(PackedOctagon pOct, int var, double lower, double upper) {
+    assert pOct.packOf[var] < 0;
+    if (lower == Double.NEGATIVE_INFINITY && upper == INFINITY) {
+      return pOct;
+    }
+    NumArray array = packManager.init_num_t(4);
+    packManager.num_set_float(array, 2, upper);
+    packManager.num_set_float(array, 3, -lower);
+    Octagon octagon = packManager.intervAssingVar(packManager.universe(1), 0, array);
+    return replace(pOct, new int[] {var}, new Pack(new int[] {var}, octagon));
+  }
+
+  private double getLowerBound(PackedOctagon pOct, int var) {
+    Pack pack = pOct.getPack(var);
+    return pack == null
+        ? Double.NEGATIVE_INFINITY
+        : packManager.getLowerBound(pack.octagon, pack.localIndex(var));
+  }
+
+  private double getUpperBound(PackedOctagon pOct, int var) {
+    Pack pack = pOct.getPack(var);
+    return pack == null ? INFINITY : packManager.getUpperBound(pack.octagon, pack.localIndex(var));
+  }
+
+  private double[] read(NumArray array, int size) {
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = packManager.num_get_float(array, i);
+    }
+    return values;
+  }
+
+  /**
+   * Read the given array rounded upwards, which is sound for upper bounds and negated lower bounds
+   * like in the interval functions.
+   */
+  private double[] readUpper(NumArray array, int size) {
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = packManager.num_get_upper(array, i);
+    }
+    return values;
+  }
+
+  /**
+   * Create an array for the given pack from an array with the given number of entries for each
+   * variable and the constant.
+   */
+  private NumArray toLocal(Pack pPack, double[] values, int entriesPerVar) {
+    int n = (values.length / entriesPerVar) - 1;
+    NumArray array = packManager.init_num_t(entriesPerVar * (pPack.vars.length + 1));
+    for (int i = 0; i < pPack.vars.length; i++) {
+      for (int j = 0; j < entriesPerVar; j++) {
+        packManager.num_set_float(
+            array, entriesPerVar * i + j, values[entriesPerVar * pPack.vars[i] + j]);
+      }
+    }
+    for (int j = 0; j < entriesPerVar; j++) {
+      packManager.num_set_float(
+          array, entriesPerVar * pPack.vars.length + j, values[entriesPerVar * n + j]);
+    }
+    return array;
+  }
+
+  private static int[] nonZeroVars(double[] values, int n, int entriesPerVar) {
+    List<Integer> vars = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < entriesPerVar; j++) {
+        if (values[entriesPerVar * i + j] != 0) {
+          vars.add(i);
+          break;
+        }
+      }
+    }
+    return Ints.toArray(vars);
+  }
+
+  /**
+   * Partition the variables with constraints in one of the given octagons, such that each pack of
+   * both octagons is contained in one block.
+   */
+  private static List<int[]> joinPartitions(PackedOctagon pOct1, PackedOctagon pOct2) {
+    int n = pOct1.dimension;
+    int[] parent = new int[n];
+    for (int i = 0; i < n; i++) {
+      parent[i] = i;
+    }
+    for (PackedOctagon oct : ImmutableList.of(pOct1, pOct2)) {
+      for (Pack pack : oct.packs) {
+        int root = find(parent, pack.vars[0]);
+        for (int var : pack.vars) {
+          parent[find(parent, var)] = root;
+        }
+      }
+    }
+    Map<Integer, List<Integer>> blocks = new LinkedHashMap<>();
+    for (int var = 0; var < n; var++) {
+      if (pOct1.packOf[var] >= 0 || pOct2.packOf[var] >= 0) {
+        blocks.computeIfAbsent(find(parent, var), k -> new ArrayList<>()).add(var);
+      }
+    }
+    List<int[]> result = new ArrayList<>(blocks.size());
+    for (List<Integer> block : blocks.values()) {
+      result.add(Ints.toArray(block));
+    }
+    return result;
+  }
+
+  private static int find(int[] parent, int var) {
+    while (parent[var] != var) {
+      parent[var] = parent[parent[var]];
+      var = parent[var];
+    }
+    return var;
+  }
+
+  /* num handling function*/
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return packManager.init_num_t(n);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    packManager.num_set(n1, n2);
+  }
+
+  /** The upper bound is given in upper, the lower bound is given negated in lower. */
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    PackedOctagon octagon = toPacked(oct);
+    if (octagon.empty) {
+      return oct;
+    }
+    return assignInterval(
+        removeFromPack(octagon, pos),
+        pos,
+        -packManager.num_get_float(lower, 0),
+        packManager.num_get_float(upper, 0));
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    packManager.num_set_int(n, pos, i);
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    packManager.num_set_float(n, pos, d);
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    packManager.num_set_inf(n, pos);
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return packManager.num_get_int(n, pos);
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return packManager.num_get_float(n, pos);
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return packManager.num_infty(n, pos);
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    packManager.num_clear_n(n, size);
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return new PackedOctagon(this, n, true, ImmutableList.of());
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return new PackedOctagon(this, n, false, ImmutableList.of());
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    // octagons are immutable
+    PackedOctagon octagon = toPacked(oct);
+    return new PackedOctagon(this, octagon.dimension, octagon.empty, octagon.packs);
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return copy(oct);
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return toPacked(oct).dimension;
+  }
+
+  /** Constraints between variables of different packs are not counted. */
+  @Override
+  public int nbconstraints(Octagon oct) {
+    int count = 0;
+    for (Pack pack : toPacked(oct).packs) {
+      count += packManager.nbconstraints(pack.octagon);
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return toPacked(oct).empty;
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return isEmpty(oct) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    PackedOctagon octagon = toPacked(oct);
+    if (octagon.empty) {
+      return false;
+    }
+    for (Pack pack : octagon.packs) {
+      if (!packManager.isUniverse(pack.octagon)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    PackedOctagon octagon1 = toPacked(oct1);
+    PackedOctagon octagon2 = toPacked(oct2);
+    checkArgument(octagon1.dimension == octagon2.dimension, "Octagons have different dimensions");
+    if (octagon1.empty) {
+      return true;
+    } else if (octagon2.empty) {
+      return false;
+    }
+    for (Pack pack : octagon2.packs) {
+      if (!packManager.isIncludedIn(buildOctagon(octagon1, pack.vars), pack.octagon)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The result is always exact. */
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return isIncludedIn(oct1, oct2) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return dimension(oct1) == dimension(oct2)
+        && isIncludedIn(oct1, oct2)
+        && isIncludedIn(oct2, oct1);
+  }
+
+  /** The result is always exact. */
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return isEqual(oct1, oct2) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    PackedOctagon octagon = toPacked(oct1);
+    if (octagon.empty) {
+      return false;
+    }
+    for (Pack pack : octagon.packs) {
+      NumArray point = packManager.init_num_t(pack.vars.length);
+      for (int i = 0; i < pack.vars.length; i++) {
+        packManager.num_set_float(point, i, packManager.num_get_float(array, pack.vars[i]));
+      }
+      if (!packManager.isIn(pack.octagon, point)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    PackedOctagon octagon1 = toPacked(oct1);
+    PackedOctagon octagon2 = toPacked(oct2);
+    if (octagon1.empty || octagon2.empty) {
+      return empty(octagon1.dimension);
+    }
+    List<Pack> packs = new ArrayList<>();
+    for (int[] vars : joinPartitions(octagon1, octagon2)) {
+      packs.add(
+          new Pack(
+              vars,
+              packManager.intersection(
+                  buildOctagon(octagon1, vars), buildOctagon(octagon2, vars))));
+    }
+    return create(octagon1.dimension, packs);
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    PackedOctagon octagon1 = toPacked(oct1);
+    PackedOctagon octagon2 = toPacked(oct2);
+    if (octagon1.empty) {
+      return oct2;
+    } else if (octagon2.empty) {
+      return oct1;
+    }
+    List<Pack> packs = new ArrayList<>();
+    for (int[] vars : joinPartitions(octagon1, octagon2)) {
+      Octagon union =
+          packManager.union(buildOctagon(octagon1, vars), buildOctagon(octagon2, vars));
+      if (!packManager.isUniverse(union)) {
+        packs.add(new Pack(vars, union));
+      }
+    }
+    return create(octagon1.dimension, packs);
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    PackedOctagon octagon1 = toPacked(oct1);
+    PackedOctagon octagon2 = toPacked(oct2);
+    if (octagon1.empty) {
+      return oct2;
+    } else if (octagon2.empty) {
+      return oct1;
+    }
+    List<Pack> packs = new ArrayList<>();
+    for (int[] vars : joinPartitions(octagon1, octagon2)) {
+      Octagon widening =
+          packManager.widening(buildOctagon(octagon1, vars), buildOctagon(octagon2, vars));
+      if (!packManager.isUniverse(widening)) {
+        packs.add(new Pack(vars, widening));
+      }
+    }
+    return create(octagon1.dimension, packs);
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    PackedOctagon octagon1 = toPacked(oct1);
+    PackedOctagon octagon2 = toPacked(oct2);
+    if (octagon1.empty || octagon2.empty) {
+      return empty(octagon1.dimension);
+    }
+    List<Pack> packs = new ArrayList<>();
+    for (int[] vars : joinPartitions(octagon1, octagon2)) {
+      packs.add(
+          new Pack(
+              vars,
+              packManager.narrowing(buildOctagon(octagon1, vars), buildOctagon(octagon2, vars))));
+    }
+    return create(octagon1.dimension, packs);
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return removeFromPack(toPacked(oct), k);
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    if (octagon.empty) {
+      return oct;
+    }
+    int n = octagon.dimension;
+    double[] coefficients = read(array, n + 1);
+    int[] vars = nonZeroVars(coefficients, n, 1);
+    double constantLower = packManager.num_get_lower(array, n);
+    double constantUpper = packManager.num_get_upper(array, n);
+    // the pack manager can only be given constants that are exact doubles
+    boolean exactConstant = constantLower == constantUpper;
+
+    if (vars.length == 1 && vars[0] == k && Math.abs(coefficients[k]) == 1 && exactConstant) {
+      // k = +-k + c stays in the pack of k
+      Pack pack = octagon.getPack(k);
+      if (pack == null) {
+        return oct;
+      }
+      return updatePack(
+          octagon,
+          pack,
+          packManager.assingVar(pack.octagon, pack.localIndex(k), toLocal(pack, coefficients, 1)));
+    }
+
+    PackedOctagon forgotten = removeFromPack(octagon, k);
+    if (vars.length == 0) {
+      return assignInterval(forgotten, k, constantLower, constantUpper);
+    }
+    if (vars.length == 1
+        && vars[0] != k
+        && Math.abs(coefficients[vars[0]]) == 1
+        && exactConstant) {
+      Pack pack = mergePacks(forgotten, vars[0], k);
+      return updatePack(
+          forgotten,
+          pack,
+          packManager.assingVar(pack.octagon, pack.localIndex(k), toLocal(pack, coefficients, 1)));
+    }
+
+    // other expressions are approximated by intervals, like by JavaOctagonManager
+    double lower = constantLower;
+    double upper = constantUpper;
+    for (int var : vars) {
+      double coefficientLower = packManager.num_get_lower(array, var);
+      double coefficientUpper = packManager.num_get_upper(array, var);
+      double varLower = getLowerBound(octagon, var);
+      double varUpper = getUpperBound(octagon, var);
+      lower = addDown(lower, productLower(coefficientLower, coefficientUpper, varLower, varUpper));
+      upper = addUp(upper, productUpper(coefficientLower, coefficientUpper, varLower, varUpper));
+    }
+    return assignInterval(forgotten, k, lower, upper);
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    for (int i = 0; i < noOfConstraints && !octagon.empty; i++) {
+      int type = (int) packManager.num_get_int(array, 4 * i);
+      int x = (int) packManager.num_get_int(array, 4 * i + 1);
+      int y = (int) packManager.num_get_int(array, 4 * i + 2);
+      // constraints of type 0 and 1 are unary
+      Pack pack = type <= 1 ? mergePacks(octagon, x) : mergePacks(octagon, x, y);
+      NumArray constraint = packManager.init_num_t(4);
+      packManager.num_set_int(constraint, 0, type);
+      packManager.num_set_int(constraint, 1, pack.localIndex(x));
+      packManager.num_set_int(constraint, 2, type <= 1 ? 0 : pack.localIndex(y));
+      packManager.num_set_float(constraint, 3, packManager.num_get_float(array, 4 * i + 3));
+      octagon =
+          updatePack(octagon, pack, packManager.addBinConstraint(pack.octagon, 1, constraint));
+    }
+    return octagon;
+  }
+
+  /**
+   * Substitution is over-approximated by forgetting the variable, unless a constant is
+   * substituted.
+   */
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    int n = octagon.dimension;
+    double[] coefficients = read(array, n + 1);
+    boolean isConstant =
+        nonZeroVars(coefficients, n, 1).length == 0
+            && packManager.num_get_lower(array, n) == packManager.num_get_upper(array, n);
+    return substitute(octagon, x, coefficients, 1, isConstant);
+  }
+
+  /**
+   * Substitution is over-approximated by forgetting the variable, unless an interval is
+   * substituted.
+   */
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    int n = octagon.dimension;
+    double[] bounds = readUpper(array, 2 * (n + 1));
+    return substitute(octagon, x, bounds, 2, nonZeroVars(bounds, n, 2).length == 0);
+  }
+
+  private Octagon substitute(
+      PackedOctagon pOct, int x, double[] values, int entriesPerVar, boolean isConstant) {
+    Pack pack = pOct.getPack(x);
+    if (pOct.empty || pack == null || !isConstant) {
+      return removeFromPack(pOct, x);
+    }
+    NumArray local = toLocal(pack, values, entriesPerVar);
+    Octagon result =
+        entriesPerVar == 1
+            ? packManager.substituteVar(pack.octagon, pack.localIndex(x), local)
+            : packManager.intervSubstituteVar(pack.octagon, pack.localIndex(x), local);
+    PackedOctagon updated = updatePack(pOct, pack, result);
+    return updated.empty ? updated : removeFromPack(updated, x);
+  }
+
+  /**
+   * Add the constraint sum(a_i * v_i) + c >= 0. Only octagonal constraints are added, other
+   * constraints are ignored like by {@link JavaOctagonManager}.
+   */
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    return addLinearConstraint(octagon, readUpper(array, octagon.dimension + 1));
+  }
+
+  private Octagon addLinearConstraint(PackedOctagon pOct, double[] coefficients) {
+    int n = pOct.dimension;
+    int[] vars = nonZeroVars(coefficients, n, 1);
+    if (pOct.empty) {
+      return pOct;
+    } else if (vars.length == 0) {
+      return coefficients[n] >= 0 ? pOct : empty(n);
+    } else if (vars.length > 2
+        || (vars.length == 2
+            && (Math.abs(coefficients[vars[0]]) != 1 || Math.abs(coefficients[vars[1]]) != 1))) {
+      return pOct;
+    }
+    Pack pack = mergePacks(pOct, vars);
+    return updatePack(
+        pOct, pack, packManager.addConstraint(pack.octagon, toLocal(pack, coefficients, 1)));
+  }
+
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    if (octagon.empty) {
+      return oct;
+    }
+    int n = octagon.dimension;
+    double[] bounds = readUpper(array, 2 * (n + 1));
+    int[] vars = nonZeroVars(bounds, n, 2);
+    double constantLower = -bounds[2 * n + 1];
+    double constantUpper = bounds[2 * n];
+
+    PackedOctagon forgotten = removeFromPack(octagon, k);
+    if (vars.length == 0) {
+      return assignInterval(forgotten, k, constantLower, constantUpper);
+    }
+    int var = vars[0];
+    if (vars.length == 1
+        && var != k
+        && bounds[2 * var] == -bounds[2 * var + 1]
+        && Math.abs(bounds[2 * var]) == 1) {
+      Pack pack = mergePacks(forgotten, var, k);
+      return updatePack(
+          forgotten,
+          pack,
+          packManager.intervAssingVar(pack.octagon, pack.localIndex(k), toLocal(pack, bounds, 2)));
+    }
+
+    // other expressions are approximated by intervals, like by JavaOctagonManager
+    double lower = constantLower;
+    double upper = constantUpper;
+    for (int i : vars) {
+      double coefficientUpper = bounds[2 * i];
+      double coefficientLower = -bounds[2 * i + 1];
+      double varLower = getLowerBound(octagon, i);
+      double varUpper = getUpperBound(octagon, i);
+      lower = addDown(lower, productLower(coefficientLower, coefficientUpper, varLower, varUpper));
+      upper = addUp(upper, productUpper(coefficientLower, coefficientUpper, varLower, varUpper));
+    }
+    return assignInterval(forgotten, k, lower, upper);
+  }
+
+  /**
+   * Add the constraint sum([l_i, u_i] * v_i) + [l, u] >= 0. Only constraints with exact
+   * coefficients are added, with the upper bound u as constant, other constraints are ignored.
+   */
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    PackedOctagon octagon = toPacked(oct);
+    int n = octagon.dimension;
+    double[] bounds = readUpper(array, 2 * (n + 1));
+    double[] coefficients = new double[n + 1];
+    for (int i = 0; i < n; i++) {
+      if (bounds[2 * i] != -bounds[2 * i + 1]) {
+        return oct;
+      }
+      coefficients[i] = bounds[2 * i];
+    }
+    if (bounds[2 * n] == INFINITY) {
+      return oct;
+    }
+    coefficients[n] = bounds[2 * n];
+    return addLinearConstraint(octagon, coefficients);
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    PackedOctagon octagon = toPacked(oct);
+    return new PackedOctagon(this, octagon.dimension + k, octagon.empty, octagon.packs);
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    PackedOctagon octagon = toPacked(addDimensionAndEmbed(oct, k));
+    for (int var = octagon.dimension - k; var < octagon.dimension && !octagon.empty; var++) {
+      octagon = assignInterval(octagon, var, 0, 0);
+    }
+    return octagon;
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    PackedOctagon octagon = toPacked(oct);
+    int n = octagon.dimension - k;
+    if (octagon.empty) {
+      return empty(n);
+    }
+    for (int var = n; var < octagon.dimension; var++) {
+      octagon = removeFromPack(octagon, var);
+    }
+    return new PackedOctagon(this, n, false, octagon.packs);
+  }
+
+  @Override
+  public void printNum(NumArray arr, int size) {
+    packManager.printNum(arr, size);
+  }
+
+  /** Print the matrix of each pack to stdout, like the native library prints its matrix. */
+  @Override
+  @SuppressForbidden("prints to stdout like the native library")
+  public void printOct(Octagon oct) {
+    PackedOctagon octagon = toPacked(oct);
+    StringBuilder str = new StringBuilder();
+    str.append("[ n=").append(octagon.dimension);
+    if (octagon.empty) {
+      System.out.print(str.append(" empty ]\n"));
+      return;
+    }
+    str.append(" packs=").append(octagon.packs.size()).append('\n');
+    for (Pack pack : octagon.packs) {
+      str.append("pack ").append(Arrays.toString(pack.vars)).append(":\n");
+      str.append(packManager.formatMatrix(pack.octagon));
+    }
+    System.out.print(str.append("]\n"));
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    PackedOctagon octagon = toPacked(oct);
+    StringBuilder str = new StringBuilder();
+    str.append(
+        "Octagon (dimension: "
+            + octagon.dimension
+            + ") (packs: "
+            + octagon.packs.size()
+            + ")\n");
+    if (octagon.empty) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> ").append(getVariableBounds(oct, i));
+      str.append("\n");
+    }
+    return str.toString();
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    PackedOctagon octagon = toPacked(oct);
+    assert id < octagon.dimension;
+    Pack pack = octagon.getPack(id);
+    if (pack == null) {
+      return new OctagonInterval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+    return packManager.getVariableBounds(pack.octagon, pack.localIndex(id));
+  }
+}
@@ -0,0 +1,98 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class PackedOctagonManagerTest {
+
+  private static final int PX = 0;
+  private static final int MX = 1;
+  private static final int PXPY = 2;
+  private static final int MXPY = 4;
+
+  private final PackedOctagonManager manager = new PackedOctagonManager(true);
+
+  private Octagon addConstraint(Octagon oct, int type, int x, int y, long c) {
+    NumArray array = manager.init_num_t(4);
+    manager.num_set_int(array, 0, type);
+    manager.num_set_int(array, 1, x);
+    manager.num_set_int(array, 2, y);
+    manager.num_set_int(array, 3, c);
+    return manager.addBinConstraint(oct, 1, array);
+  }
+
+  private Octagon assign(Octagon oct, int k, long... coefficients) {
+    NumArray array = manager.init_num_t(coefficients.length);
+    for (int i = 0; i < coefficients.length; i++) {
+      manager.num_set_int(array, i, coefficients[i]);
+    }
+    return manager.assingVar(oct, k, array);
+  }
+
+  @Test
+  public void testPacksOfRelatedVariables() {
+    Octagon oct = manager.universe(5);
+    assertThat(manager.getPackSizes(oct)).isEmpty();
+
+    oct = addConstraint(oct, MXPY, 2, 0, -2); // x0 - x2 <= -2
+    oct = addConstraint(oct, PX, 4, 0, 7); // x4 <= 7
+    assertThat(manager.getPackSizes(oct)).containsExactly(2, 1);
+
+    oct = addConstraint(oct, MXPY, 1, 2, -3); // x2 - x1 <= -3
+    oct = addConstraint(oct, PX, 1, 0, 4); // x1 <= 4
+    assertThat(manager.getPackSizes(oct)).containsExactly(3, 1);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(-1);
+
+    oct = manager.forget(oct, 2);
+    assertThat(manager.getPackSizes(oct)).containsExactly(2, 1);
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(-1);
+  }
+
+  @Test
+  public void testInclusionAcrossPacks() {
+    Octagon oct1 = addConstraint(manager.universe(3), MXPY, 1, 0, 0); // x0 <= x1
+    oct1 = addConstraint(oct1, PX, 1, 0, 3); // x1 <= 3
+    Octagon oct2 = addConstraint(manager.universe(3), PX, 0, 0, 3); // x0 <= 3
+    assertThat(manager.isIncludedIn(oct1, oct2)).isTrue();
+    assertThat(manager.isIncludedIn(oct2, oct1)).isFalse();
+    assertThat(manager.isEqual(manager.union(oct1, oct2), oct2)).isTrue();
+  }
+
+  @Test
+  public void testEqualOctagonsHaveEqualHashCodes() {
+    Octagon oct1 = addConstraint(manager.universe(3), PX, 0, 0, 3); // x0 <= 3
+    oct1 = addConstraint(oct1, PX, 1, 0, 4); // x1 <= 4
+    Octagon oct2 = addConstraint(oct1, PXPY, 0, 1, 7); // x0 + x1 <= 7 merges the packs
+    assertThat(manager.getPackSizes(oct1)).containsExactly(1, 1);
+    assertThat(manager.getPackSizes(oct2)).containsExactly(2);
+    assertThat(manager.isEqual(oct1, oct2)).isTrue();
+    assertThat(oct2.hashCode()).isEqualTo(oct1.hashCode());
+  }
+
+  @Test
+  public void testAssignmentOfLargeIntegersIsSound() {
+    long big = (1L << 53) + 1; // not representable as double
+
+    Octagon oct = assign(manager.universe(2), 1, 0, 0, big); // x1 = big
+    assertThat(manager.getVariableBounds(oct, 1).getLow().getValue().longValue()).isAtMost(big);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().getValue().longValue())
+        .isAtLeast(big);
+
+    // x1 = 2 * x0 + big with x0 in [0, 1]
+    oct = addConstraint(manager.universe(2), PX, 0, 0, 1);
+    oct = addConstraint(oct, MX, 0, 0, 0);
+    oct = assign(oct, 1, 2, 0, big);
+    assertThat(manager.getVariableBounds(oct, 1).getLow().getValue().longValue()).isAtMost(big);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().getValue().longValue())
+        .isAtLeast(big + 2);
+  }
+}
@@ -43,7 +43,11 @@ public class BDDManagerFactory {
   // documentation of the packages can be found at source of BDDFactory.init()
   private String bddPackage = "JAVA";
 
-  @Option(secure = true, description = "sequentialize all accesses to the BDD library.")
+  @Option(
+      secure = true,
+      description =
+          "sequentialize all accesses to the BDD library."
+              + " Not necessary for PJBDD, which supports concurrent accesses natively.")
   private boolean synchronizeLibraryAccess = false;
 
   @Option(
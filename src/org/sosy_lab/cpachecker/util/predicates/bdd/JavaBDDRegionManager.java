@@ -33,6 +33,7 @@ import net.sf.javabdd.BDD;
 import net.sf.javabdd.BDDFactory;
 import net.sf.javabdd.BDDPairing;
 import net.sf.javabdd.JFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.annotations.SuppressForbidden;
 import org.sosy_lab.common.configuration.Configuration;
@@ -95,6 +96,42 @@ class JavaBDDRegionManager implements RegionManager {
   @Option(secure = true,
       description = "Size of the BDD cache in relation to the node table size (set to 0 to use fixed BDD cache size).")
   private double cacheRatio = 0.1;
+
+  @Option(
+      secure = true,
+      description =
+          "Strategy for dynamic reordering of BDD variables, which is triggered whenever the number"
+              + " of live BDD nodes grows by dynamicReorderingGrowth since the last reordering."
+              + " Only strategies provided by the BDD framework (FRAMEWORK_*) are supported.")
+  private PredicateOrderingStrategy dynamicReordering = PredicateOrderingStrategy.DISABLE;
+
+  @Option(
+      secure = true,
+      description =
+          "Factor by which the number of live BDD nodes has to grow since the last dynamic"
+              + " reordering before the next dynamic reordering is triggered.")
+  private double dynamicReorderingGrowth = 2.0;
+
+  @Option(
+      secure = true,
+      description =
+          "Minimal number of live BDD nodes that is assumed after a dynamic reordering,"
+              + " such that small BDD node tables are never reordered.")
+  @IntegerOption(min = 0)
+  private int dynamicReorderingMinNodes = 10000;
+
+  // Statistics for dynamic reordering
+  private final StatTimer dynamicReorderingTimer = new StatTimer("Time for dynamic reordering");
+  private final StatInt nodesBeforeReordering =
+      new StatInt(StatKind.AVG, "Number of BDD nodes before dynamic reordering");
+  private final StatInt nodesAfterReordering =
+      new StatInt(StatKind.AVG, "Number of BDD nodes after dynamic reordering");
+  private int peakNodeNum = 0;
+  private int peakNodeTableSize = 0;
+
+  private final BDDFactory.@Nullable ReorderMethod dynamicReorderMethod;
+  private int nodeNumAtLastReordering;
+
   private int nextvar = 0;
   private int varcount = 100;
 
@@ -121,6 +158,21 @@ class JavaBDDRegionManager implements RegionManager {
     if (cacheSize == 0) {
       cacheSize = (int)(initTableSize * cacheRatio);
     }
+    if (dynamicReorderingGrowth <= 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value "
+              + dynamicReorderingGrowth
+              + " for option bdd.javabdd.dynamicReorderingGrowth, needs to be larger than 1.");
+    }
+    dynamicReorderMethod = getReorderMethod(dynamicReordering);
+    if (dynamicReordering != PredicateOrderingStrategy.DISABLE && dynamicReorderMethod == null) {
+      throw new InvalidConfigurationException(
+          "Invalid value "
+              + dynamicReordering
+              + " for option bdd.javabdd.dynamicReordering,"
+              + " only reordering strategies of the BDD framework are supported.");
+    }
+    nodeNumAtLastReordering = dynamicReorderingMinNodes;
     factory =
         BDDFactory.init(bddPackage.toLowerCase(), initTableSize, cacheSize);
 
@@ -216,6 +268,11 @@ class JavaBDDRegionManager implements RegionManager {
           .putIf(currentCacheSize >= 0, "Size of BDD cache", currentCacheSize)
           .put(cleanupQueueSize)
           .put(cleanupTimer)
+          .putIf(dynamicReorderMethod != null, "Peak number of BDD nodes", peakNodeNum)
+          .putIf(dynamicReorderMethod != null, "Peak size of BDD node table", peakNodeTableSize)
+          .putIfUpdatedAtLeastOnce(dynamicReorderingTimer)
+          .putIfUpdatedAtLeastOnce(nodesBeforeReordering)
+          .putIfUpdatedAtLeastOnce(nodesAfterReordering)
           .put(
               "Time for BDD garbage collection",
               TimeSpan.ofMillis(stats.sumtime).formatAs(SECONDS)
@@ -304,6 +361,34 @@ class JavaBDDRegionManager implements RegionManager {
     } finally {
       cleanupTimer.stop();
     }
+    if (dynamicReorderMethod != null) {
+      reorderIfNecessary();
+    }
+  }
+
+  /**
+   * Reorder the BDD variables if the number of live nodes grew too much since the last reordering.
+   * This is called only between operations, when all live BDDs are referenced.
+   */
+  private void reorderIfNecessary() {
+    int nodeNum = factory.getNodeNum();
+    peakNodeNum = Math.max(peakNodeNum, nodeNum);
+    peakNodeTableSize = Math.max(peakNodeTableSize, factory.getNodeTableSize());
+
+    if (nodeNum > nodeNumAtLastReordering * dynamicReorderingGrowth) {
+      dynamicReorderingTimer.start();
+      try {
+        factory.reorder(dynamicReorderMethod);
+      } finally {
+        dynamicReorderingTimer.stop();
+      }
+      int newNodeNum = factory.getNodeNum();
+      nodesBeforeReordering.setNextValue(nodeNum);
+      nodesAfterReordering.setNextValue(newNodeNum);
+      nodeNumAtLastReordering = Math.max(newNodeNum, dynamicReorderingMinNodes);
+      logger.log(
+          LOG_LEVEL, "Dynamic BDD reordering reduced number of nodes from", nodeNum, "to", newNodeNum);
+    }
   }
 
   /**
@@ -470,30 +555,31 @@ class JavaBDDRegionManager implements RegionManager {
 
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
+    BDDFactory.ReorderMethod method = getReorderMethod(strategy);
+    if (method != null) {
+      factory.reorder(method);
+    }
+  }
+
+  private static BDDFactory.@Nullable ReorderMethod getReorderMethod(
+      PredicateOrderingStrategy strategy) {
     switch (strategy) {
       case FRAMEWORK_RANDOM:
-        factory.reorder(BDDFactory.REORDER_RANDOM);
-        break;
+        return BDDFactory.REORDER_RANDOM;
       case FRAMEWORK_SIFT:
-        factory.reorder(BDDFactory.REORDER_SIFT);
-        break;
+        return BDDFactory.REORDER_SIFT;
       case FRAMEWORK_SIFTITE:
-        factory.reorder(BDDFactory.REORDER_SIFTITE);
-        break;
+        return BDDFactory.REORDER_SIFTITE;
       case FRAMEWORK_WIN2:
-        factory.reorder(BDDFactory.REORDER_WIN2);
-        break;
+        return BDDFactory.REORDER_WIN2;
       case FRAMEWORK_WIN2ITE:
-        factory.reorder(BDDFactory.REORDER_WIN2ITE);
-        break;
+        return BDDFactory.REORDER_WIN2ITE;
       case FRAMEWORK_WIN3:
-        factory.reorder(BDDFactory.REORDER_WIN3);
-        break;
+        return BDDFactory.REORDER_WIN3;
       case FRAMEWORK_WIN3ITE:
-        factory.reorder(BDDFactory.REORDER_WIN3ITE);
-        break;
+        return BDDFactory.REORDER_WIN3ITE;
       default:
-        break;
+        return null;
     }
   }
 
@@ -11,8 +11,9 @@ package org.sosy_lab.cpachecker.util.predicates.pathformula;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import com.google.common.base.Equivalence;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.PrintStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,32 +38,60 @@ import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ *
+ * <p>The caches are thread-safe and bounded: each of them keeps at most a given number of entries
+ * and evicts the least recently used ones. Thus several threads can share one instance (as long as
+ * the delegate supports this), and the caches do not keep all path formulas alive.
  */
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  /** Default for the maximal number of entries in each of the caches. */
+  public static final long DEFAULT_CACHE_SIZE = 100000;
+
   public final ThreadSafeTimerContainer pathFormulaComputationTimer =
       new ThreadSafeTimerContainer(null);
-  public LongAdder pathFormulaCacheHits = new LongAdder();
+  public final LongAdder pathFormulaCacheHits = new LongAdder();
+  public final LongAdder pathFormulaCacheMisses = new LongAdder();
+  public final LongAdder pathFormulaCacheEvictions = new LongAdder();
 
   public final PathFormulaManager delegate;
 
-  private final Map<
+  private final Cache<
           Pair<Equivalence.Wrapper<CFAEdge>, PathFormula>, Pair<PathFormula, ErrorConditions>>
-      andFormulaWithConditionsCache = new HashMap<>();
-  private final Map<Pair<Equivalence.Wrapper<CFAEdge>, PathFormula>, PathFormula> andFormulaCache =
-      new HashMap<>();
+      andFormulaWithConditionsCache;
+  private final Cache<Pair<Equivalence.Wrapper<CFAEdge>, PathFormula>, PathFormula>
+      andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final Cache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
   public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+    this(pDelegate, DEFAULT_CACHE_SIZE);
+  }
+
+  /** Create an instance whose caches contain at most the given number of entries each. */
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, long pMaximumCacheSize) {
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+    andFormulaWithConditionsCache = createCache(pMaximumCacheSize);
+    andFormulaCache = createCache(pMaximumCacheSize);
+    orFormulaCache = createCache(pMaximumCacheSize);
+    emptyFormulaCache = createCache(pMaximumCacheSize);
+  }
+
+  private <K, V> Cache<K, V> createCache(long pMaximumSize) {
+    return CacheBuilder.newBuilder()
+        .maximumSize(pMaximumSize)
+        .<K, V>removalListener(
+            notification -> {
+              if (notification.wasEvicted()) {
+                pathFormulaCacheEvictions.increment();
+              }
+            })
+        .build();
   }
 
   /**
@@ -79,8 +108,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
       PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<Equivalence.Wrapper<CFAEdge>, PathFormula> formulaCacheKey =
         createFormulaCacheKey(pOldFormula, pEdge);
-    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
+    Pair<PathFormula, ErrorConditions> result =
+        andFormulaWithConditionsCache.getIfPresent(formulaCacheKey);
     if (result == null) {
+      pathFormulaCacheMisses.increment();
       TimerWrapper t = pathFormulaComputationTimer.getNewTimer();
       t.start();
       // compute new pathFormula with the operation on the edge
@@ -98,8 +129,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<Equivalence.Wrapper<CFAEdge>, PathFormula> formulaCacheKey =
         createFormulaCacheKey(pOldFormula, pEdge);
-    PathFormula result = andFormulaCache.get(formulaCacheKey);
+    PathFormula result = andFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
+      pathFormulaCacheMisses.increment();
       TimerWrapper t = pathFormulaComputationTimer.getNewTimer();
       try {
         t.start(); // compute new pathFormula with the operation on the edge
@@ -119,13 +151,14 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
     final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
 
-    PathFormula result = orFormulaCache.get(formulaCacheKey);
+    PathFormula result = orFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
+      result = orFormulaCache.getIfPresent(Pair.of(pF2, pF1));
     }
 
     if (result == null) {
+      pathFormulaCacheMisses.increment();
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
     } else {
@@ -141,8 +174,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeEmptyPathFormula(PathFormula pOldFormula) {
-    PathFormula result = emptyFormulaCache.get(pOldFormula);
+    PathFormula result = emptyFormulaCache.getIfPresent(pOldFormula);
     if (result == null) {
+      pathFormulaCacheMisses.increment();
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
     } else {
@@ -208,10 +242,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public void clearCaches() {
-    andFormulaWithConditionsCache.clear();
-    andFormulaCache.clear();
-    orFormulaCache.clear();
-    emptyFormulaCache.clear();
+    andFormulaWithConditionsCache.invalidateAll();
+    andFormulaCache.invalidateAll();
+    orFormulaCache.invalidateAll();
+    emptyFormulaCache.invalidateAll();
     delegate.clearCaches();
   }
 
@@ -228,15 +262,17 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public void printStatistics(PrintStream out) {
-    int cacheHits = this.pathFormulaCacheHits.intValue();
-    int totalPathFormulaComputations =
-        this.pathFormulaComputationTimer.getNumberOfIntervals() + cacheHits;
+    long cacheHits = this.pathFormulaCacheHits.sum();
+    long cacheMisses = this.pathFormulaCacheMisses.sum();
+    long totalPathFormulaComputations = cacheMisses + cacheHits;
     out.println(
         "Number of path formula cache hits:   "
             + cacheHits
             + " ("
             + toPercent(cacheHits, totalPathFormulaComputations)
             + ")");
+    out.println("Number of path formula cache misses: " + cacheMisses);
+    out.println("Number of path formula cache evictions: " + pathFormulaCacheEvictions.sum());
     out.println();
 
     out.println("Inside post operator:                  ");
@@ -28,12 +28,16 @@ public final class PathFormula implements Serializable {
   private final int length;
   private final PointerTargetSet pts;
 
+  // PathFormulas are used as keys of caches, so compute the hash code only once
+  private final int hashCode;
+
   public PathFormula(BooleanFormula pf, SSAMap ssa, PointerTargetSet pts,
       int pLength) {
     this.formula = checkNotNull(pf);
     this.ssa = checkNotNull(ssa);
     this.pts = checkNotNull(pts);
     this.length = pLength;
+    this.hashCode = computeHashCode();
   }
 
   public BooleanFormula getFormula() {
@@ -75,7 +79,9 @@ public final class PathFormula implements Serializable {
     }
 
     PathFormula other = (PathFormula)obj;
-    return (length == other.length)
+    // SSAMap and PointerTargetSet are hash-consed, so their comparison is usually cheap
+    return (hashCode == other.hashCode)
+        && (length == other.length)
         && formula.equals(other.formula)
         && ssa.equals(other.ssa)
         && pts.equals(other.pts)
@@ -84,6 +90,10 @@ public final class PathFormula implements Serializable {
 
   @Override
   public int hashCode() {
+    return hashCode;
+  }
+
+  private int computeHashCode() {
     final int prime = 31;
     int result = 1;
     result = prime * result + formula.hashCode();
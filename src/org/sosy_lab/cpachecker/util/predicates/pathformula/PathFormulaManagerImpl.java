@@ -111,6 +111,7 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
   private final CtoFormulaConverter converter;
+  private final SSAMapMerger merger;
   private final @Nullable CtoWpConverter wpConverter;
   private final PathFormulaBuilderFactory pfbFactory;
   private final LogManager logger;
@@ -212,6 +213,8 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
     }
 
     NONDET_FORMULA_TYPE = converter.getFormulaTypeFromCType(NONDET_TYPE);
+    merger =
+        new SSAMapMerger(useNondetFlags, fmgr, converter, shutdownNotifier, NONDET_FORMULA_TYPE);
   }
 
   @Override
@@ -328,13 +331,6 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
     final PointerTargetSet pts1 = pathFormula1.getPointerTargetSet();
     final PointerTargetSet pts2 = pathFormula2.getPointerTargetSet();
 
-    final SSAMapMerger merger =
-        new SSAMapMerger(
-            useNondetFlags,
-            fmgr,
-            converter,
-            shutdownNotifier,
-            NONDET_FORMULA_TYPE);
     final MergeResult<SSAMap> mergeSSAResult = merger.mergeSSAMaps(ssa1, pts1, ssa2, pts2);
     final SSAMapBuilder newSSA = mergeSSAResult.getResult().builder();
 
@@ -542,6 +538,7 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
 
   @Override
   public void clearCaches() {
+    merger.clearCaches();
   }
 
   @Override
@@ -552,13 +549,6 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
 
   @Override
   public BooleanFormula buildImplicationTestAsUnsat(PathFormula pF1, PathFormula pF2) throws InterruptedException {
-    final SSAMapMerger merger =
-        new SSAMapMerger(
-            useNondetFlags,
-            fmgr,
-            converter,
-            shutdownNotifier,
-            NONDET_FORMULA_TYPE);
     BooleanFormula bF = pF2.getFormula();
     return bfmgr.and(
         merger.addMergeAssumptions(
@@ -587,6 +577,7 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
 
   @Override
   public void printStatistics(PrintStream out) {
+    merger.printStatistics(out);
     converter.printStatistics(out);
   }
 
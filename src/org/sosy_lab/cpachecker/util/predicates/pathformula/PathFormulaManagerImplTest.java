@@ -13,10 +13,16 @@ import static com.google.common.truth.Truth.assertThat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.TreeMultimap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -25,6 +31,7 @@ import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.MutableCFA;
@@ -44,6 +51,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CAssumeEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.model.c.CStatementEdge;
@@ -418,6 +426,134 @@ public class PathFormulaManagerImplTest extends SolverViewBasedTest0 {
     assertThatFormula(resultA.getFormula()).isEquivalentTo(resultB.getFormula());
   }
 
+  private PathFormulaManager makeFormulaManager(boolean pUseEdgeFormulaTemplates)
+      throws InvalidConfigurationException {
+    Configuration templateConfig =
+        Configuration.builder()
+            .copyFrom(config)
+            .setOption(
+                "cpa.predicate.useEdgeFormulaTemplates", Boolean.toString(pUseEdgeFormulaTemplates))
+            .build();
+    return new PathFormulaManagerImpl(
+        mgrv,
+        templateConfig,
+        logger,
+        ShutdownNotifier.createDummy(),
+        MachineModel.LINUX32,
+        Optional.empty(),
+        AnalysisDirection.FORWARD);
+  }
+
+  /** Create the assume edge "[x < 10]" from the expression statement "x < 10" of createCFA(). */
+  private static CFAEdge makeAssumeEdge(CFAEdge pExpressionEdge) {
+    CStatementEdge edge = (CStatementEdge) pExpressionEdge;
+    return new CAssumeEdge(
+        edge.getRawStatement(),
+        FileLocation.DUMMY,
+        edge.getPredecessor(),
+        edge.getSuccessor(),
+        ((CExpressionStatement) edge.getStatement()).getExpression(),
+        true);
+  }
+
+  /**
+   * Encode the given edges one after another with the given manager that uses edge formula
+   * templates, and check that the formulas and SSAMaps are identical to the ones without templates.
+   */
+  private void assertSameEncodingAsWithoutTemplates(
+      PathFormulaManager pPfmgrWithTemplates, PathFormula pStart, List<CFAEdge> pEdges)
+      throws Exception {
+    PathFormulaManager pfmgrWithoutTemplates = makeFormulaManager(false);
+    PathFormula expected = pStart;
+    PathFormula actual = pStart;
+    for (CFAEdge edge : pEdges) {
+      expected = pfmgrWithoutTemplates.makeAnd(expected, edge);
+      actual = pPfmgrWithTemplates.makeAnd(actual, edge);
+      assertThat(actual.getFormula()).isEqualTo(expected.getFormula());
+      assertThat(actual.getSsa()).isEqualTo(expected.getSsa());
+    }
+  }
+
+  private static int getStatistic(PathFormulaManager pPfmgr, String pName) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pPfmgr.printStatistics(new PrintStream(out, true, StandardCharsets.UTF_8));
+    Matcher matcher =
+        Pattern.compile(Pattern.quote(pName) + ":\\s+(\\d+)")
+            .matcher(out.toString(StandardCharsets.UTF_8));
+    assertThat(matcher.find()).isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  @Test
+  public void testEdgeFormulaTemplatesInLoop() throws Exception {
+    Triple<CFAEdge, CFAEdge, MutableCFA> data = createCFA();
+    CFAEdge increment = data.getFirst(); // x is WRITTEN
+    CFAEdge guard = makeAssumeEdge(data.getSecond()); // x is READ
+    PathFormulaManager pfmgr = makeFormulaManager(true);
+
+    PathFormula start = makePathFormulaWithCustomIndex(pfmgr, "x", CNumericTypes.INT, 10);
+    assertSameEncodingAsWithoutTemplates(
+        pfmgr, start, ImmutableList.of(increment, guard, increment, guard, increment, guard));
+
+    // the first iteration creates the templates, the other two iterations instantiate them
+    assertThat(getStatistic(pfmgr, "Number of template instantiations")).isEqualTo(4);
+    assertThat(getStatistic(pfmgr, "thereof failed")).isEqualTo(0);
+  }
+
+  @Test
+  public void testEdgeFormulaTemplateWithUninstantiatedVariable() throws Exception {
+    createCFA();
+    CVariableDeclaration xDeclaration = (CVariableDeclaration) x_decl.getDeclaration();
+    CVariableDeclaration yDeclaration =
+        new CVariableDeclaration(
+            FileLocation.DUMMY, false, CStorageClass.AUTO, CNumericTypes.INT, "y", "y", "y", null);
+    // "y := x", y has no SSA index before the edge
+    CFAEdge assignment =
+        new CStatementEdge(
+            "y := x",
+            new CExpressionAssignmentStatement(
+                FileLocation.DUMMY,
+                new CIdExpression(FileLocation.DUMMY, CNumericTypes.INT, "y", yDeclaration),
+                new CIdExpression(FileLocation.DUMMY, CNumericTypes.INT, "x", xDeclaration)),
+            FileLocation.DUMMY,
+            x_decl.getPredecessor(),
+            x_decl.getSuccessor());
+    PathFormulaManager pfmgr = makeFormulaManager(true);
+
+    assertSameEncodingAsWithoutTemplates(
+        pfmgr,
+        makePathFormulaWithCustomIndex(pfmgr, "x", CNumericTypes.INT, 10),
+        ImmutableList.of(assignment));
+    assertSameEncodingAsWithoutTemplates(
+        pfmgr,
+        makePathFormulaWithCustomIndex(pfmgr, "x", CNumericTypes.INT, 20),
+        ImmutableList.of(assignment));
+
+    assertThat(getStatistic(pfmgr, "Number of template instantiations")).isEqualTo(1);
+    assertThat(getStatistic(pfmgr, "thereof failed")).isEqualTo(0);
+  }
+
+  @Test
+  public void testEdgeFormulaTemplateWithDifferentType() throws Exception {
+    Triple<CFAEdge, CFAEdge, MutableCFA> data = createCFA();
+    // x is only READ, an assignment to x with a different type in the SSAMap would be invalid
+    CFAEdge guard = makeAssumeEdge(data.getSecond());
+    PathFormulaManager pfmgr = makeFormulaManager(true);
+
+    assertSameEncodingAsWithoutTemplates(
+        pfmgr,
+        makePathFormulaWithCustomIndex(pfmgr, "x", CNumericTypes.INT, 10),
+        ImmutableList.of(guard));
+    // same size, but a different type than in the template, so the edge is encoded again
+    assertSameEncodingAsWithoutTemplates(
+        pfmgr,
+        makePathFormulaWithCustomIndex(pfmgr, "x", CNumericTypes.UNSIGNED_INT, 20),
+        ImmutableList.of(guard));
+
+    assertThat(getStatistic(pfmgr, "Number of template instantiations")).isEqualTo(0);
+    assertThat(getStatistic(pfmgr, "thereof failed")).isEqualTo(1);
+  }
+
   private void assertEquals(PathFormula expected, PathFormula result)
       throws SolverException, InterruptedException {
     assertThatFormula(result.getFormula()).isEquivalentTo(expected.getFormula());
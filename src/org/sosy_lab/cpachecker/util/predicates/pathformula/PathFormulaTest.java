@@ -17,6 +17,7 @@ import java.lang.reflect.Constructor;
 import org.junit.Before;
 import org.junit.Test;
 import org.sosy_lab.common.annotations.SuppressForbidden;
+import org.sosy_lab.common.collect.MapsDifference;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentLinkedList;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
@@ -154,4 +155,25 @@ public class PathFormulaTest {
 
     assertThrows(IllegalArgumentException.class, () -> builder.setIndex("a", CNumericTypes.INT, 1));
   }
+
+  @Test
+  public void testSSAHashConsing() {
+    SSAMap ssa1 =
+        builder.setIndex("a", CNumericTypes.INT, 1).setIndex("b", CNumericTypes.INT, 2).build();
+    SSAMap ssa2 =
+        SSAMap.emptySSAMap()
+            .builder()
+            .setIndex("b", CNumericTypes.INT, 2)
+            .setIndex("a", CNumericTypes.INT, 1)
+            .build();
+    assertThat(ssa2).isSameInstanceAs(ssa1);
+
+    SSAMap ssa3 = ssa1.builder().setIndex("b", CNumericTypes.INT, 3).build();
+    assertThat(ssa3).isNotEqualTo(ssa1);
+    assertThat(SSAMap.merge(ssa1, ssa3, MapsDifference.ignoreMapsDifference()))
+        .isSameInstanceAs(ssa3);
+
+    // SSAMaps with different default values must not be merged by hash-consing
+    assertThat(ssa1.withDefault(0)).isNotEqualTo(ssa1);
+  }
 }
@@ -13,6 +13,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Equivalence;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.io.Serializable;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map;
@@ -33,11 +35,18 @@ import org.sosy_lab.cpachecker.cfa.types.c.CTypes;
 /**
  * Maps a variable name to its latest "SSA index", that should be used when
  * referring to that variable.
+ *
+ * <p>All instances are hash-consed, i.e., there exists at most one instance for each content.
+ * Thus equal SSAMaps are usually identical and {@link #equals(Object)} returns after the identity
+ * check, and different SSAMaps are distinguished by their precomputed hash code in most cases.
+ * This makes SSAMaps (and {@link PathFormula}s) cheap to use as keys of caches.
  */
 public class SSAMap implements Serializable {
 
   private static final long serialVersionUID = 7618801653203679876L;
 
+  private static final Interner<SSAMap> INTERNER = Interners.newWeakInterner();
+
   // Default value for the default value
   private static final int DEFAULT_DEFAULT_IDX = -1;
 
@@ -167,7 +176,9 @@ public class SSAMap implements Serializable {
         return ssa;
       }
 
-      ssa = new SSAMap(vars, freshValueProvider, varsHashCode, varTypes, ssa.defaultValue);
+      ssa =
+          INTERNER.intern(
+              new SSAMap(vars, freshValueProvider, varsHashCode, varTypes, ssa.defaultValue));
       return ssa;
     }
 
@@ -180,11 +191,13 @@ public class SSAMap implements Serializable {
     }
   }
 
-  private static final SSAMap EMPTY_SSA_MAP = new SSAMap(
-      PathCopyingPersistentTreeMap.of(),
-      new FreshValueProvider(),
-      0,
-      PathCopyingPersistentTreeMap.of());
+  private static final SSAMap EMPTY_SSA_MAP =
+      INTERNER.intern(
+          new SSAMap(
+              PathCopyingPersistentTreeMap.of(),
+              new FreshValueProvider(),
+              0,
+              PathCopyingPersistentTreeMap.of()));
 
   /**
    * Returns an empty immutable SSAMap.
@@ -194,7 +207,9 @@ public class SSAMap implements Serializable {
   }
 
   public SSAMap withDefault(final int pDefaultValue) {
-    return new SSAMap(this.vars, this.freshValueProvider, this.varsHashCode, this.varTypes, pDefaultValue);
+    return INTERNER.intern(
+        new SSAMap(
+            this.vars, this.freshValueProvider, this.varsHashCode, this.varTypes, pDefaultValue));
   }
 
   /**
@@ -240,7 +255,7 @@ public class SSAMap implements Serializable {
             TYPE_CONFLICT_CHECKER,
             MapsDifference.ignoreMapsDifference());
 
-    return new SSAMap(vars, freshValueProvider, 0, varTypes, defaultIndex);
+    return INTERNER.intern(new SSAMap(vars, freshValueProvider, 0, varTypes, defaultIndex));
   }
 
   private final PersistentSortedMap<String, Integer> vars;
@@ -329,9 +344,16 @@ public class SSAMap implements Serializable {
     } else {
       SSAMap other = (SSAMap)obj;
       // Do a few cheap checks before the expensive ones.
+      // Because of hash-consing, the expensive checks are only reached when interning.
       return varsHashCode == other.varsHashCode
+          && defaultValue == other.defaultValue
           && vars.equals(other.vars)
-          && freshValueProvider.equals(other.freshValueProvider);
+          && freshValueProvider.equals(other.freshValueProvider)
+          && varTypes.equals(other.varTypes);
     }
   }
+
+  private Object readResolve() {
+    return INTERNER.intern(this);
+  }
 }
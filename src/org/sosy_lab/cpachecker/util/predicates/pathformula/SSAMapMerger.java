@@ -11,10 +11,19 @@ package org.sosy_lab.cpachecker.util.predicates.pathformula;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sosy_lab.common.collect.MapsDifference.collectMapsDifferenceTo;
 import static org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl.NONDET_FLAG_VARIABLE;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.MapsDifference;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaConverter;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
@@ -24,11 +33,27 @@ import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class SSAMapMerger {
 
+  /**
+   * Maximal number of remembered SSAMap merges. The same pairs of SSAMaps are merged repeatedly,
+   * e.g., by makeOr() and the coverage checks on the same abstract states.
+   */
+  private static final int MERGE_MEMO_SIZE = 10000;
+
+  /** The result of {@link SSAMap#merge} together with the variables with different indices. */
+  private static final class SSAMergeResult {
+
+    private final SSAMap result;
+    private final ImmutableList<MapsDifference.Entry<String, Integer>> symbolDifferences;
+
+    private SSAMergeResult(
+        SSAMap pResult, ImmutableList<MapsDifference.Entry<String, Integer>> pSymbolDifferences) {
+      result = pResult;
+      symbolDifferences = pSymbolDifferences;
+    }
+  }
+
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManager bfmgr;
   private final ShutdownNotifier shutdownNotifier;
@@ -36,6 +61,13 @@ public class SSAMapMerger {
   private final boolean useNondetFlags;
   private final FormulaType<?> nondetFormulaType;
 
+  // SSAMaps are hash-consed, so the lookup in the memo is cheap
+  private final Cache<Pair<SSAMap, SSAMap>, SSAMergeResult> mergeMemo =
+      CacheBuilder.newBuilder().maximumSize(MERGE_MEMO_SIZE).build();
+
+  private final LongAdder merges = new LongAdder();
+  private final LongAdder mergeMemoHits = new LongAdder();
+
   SSAMapMerger(
       boolean pUseNondetFlags,
       FormulaManagerView pFmgr,
@@ -50,6 +82,23 @@ public class SSAMapMerger {
     nondetFormulaType = pNondetFormulaType;
   }
 
+  /** Merge two SSAMaps, or return the memoized result of an earlier merge of the same maps. */
+  private SSAMergeResult mergeWithMemo(final SSAMap ssa1, final SSAMap ssa2) {
+    merges.increment();
+    final Pair<SSAMap, SSAMap> key = Pair.of(ssa1, ssa2);
+    SSAMergeResult result = mergeMemo.getIfPresent(key);
+    if (result == null) {
+      final List<MapsDifference.Entry<String, Integer>> symbolDifferences = new ArrayList<>();
+      final SSAMap resultSSA =
+          SSAMap.merge(ssa1, ssa2, collectMapsDifferenceTo(symbolDifferences));
+      result = new SSAMergeResult(resultSSA, ImmutableList.copyOf(symbolDifferences));
+      mergeMemo.put(key, result);
+    } else {
+      mergeMemoHits.increment();
+    }
+    return result;
+  }
+
   /**
    * builds a formula that represents the necessary variable assignments
    * to "merge" the two ssa maps. That is, for every variable X that has two
@@ -70,13 +119,14 @@ public class SSAMapMerger {
       final SSAMap ssa2,
       final PointerTargetSet pts2)
       throws InterruptedException {
-    final List<MapsDifference.Entry<String, Integer>> symbolDifferences = new ArrayList<>();
-    final SSAMap resultSSA = SSAMap.merge(ssa1, ssa2, collectMapsDifferenceTo(symbolDifferences));
+    final SSAMergeResult ssaMergeResult = mergeWithMemo(ssa1, ssa2);
+    final SSAMap resultSSA = ssaMergeResult.result;
 
     BooleanFormula mergeFormula1 = bfmgr.makeTrue();
     BooleanFormula mergeFormula2 = bfmgr.makeTrue();
 
-    for (final MapsDifference.Entry<String, Integer> symbolDifference : symbolDifferences) {
+    for (final MapsDifference.Entry<String, Integer> symbolDifference :
+        ssaMergeResult.symbolDifferences) {
       shutdownNotifier.shutdownIfNecessary();
       final String symbolName = symbolDifference.getKey();
       final CType symbolType = resultSSA.getType(symbolName);
@@ -151,13 +201,14 @@ public class SSAMapMerger {
       final PointerTargetSet pts1,
       final SSAMap ssa2)
       throws InterruptedException {
-    final List<MapsDifference.Entry<String, Integer>> symbolDifferences = new ArrayList<>();
-    final SSAMap resultSSA = SSAMap.merge(ssa1, ssa2, collectMapsDifferenceTo(symbolDifferences));
+    final SSAMergeResult ssaMergeResult = mergeWithMemo(ssa1, ssa2);
+    final SSAMap resultSSA = ssaMergeResult.result;
 
     List<BooleanFormula> mergeFormula = new ArrayList<>();
     mergeFormula.add(pFormula);
 
-    for (final MapsDifference.Entry<String, Integer> symbolDifference : symbolDifferences) {
+    for (final MapsDifference.Entry<String, Integer> symbolDifference :
+        ssaMergeResult.symbolDifferences) {
       shutdownNotifier.shutdownIfNecessary();
       final String symbolName = symbolDifference.getKey();
       final CType symbolType = resultSSA.getType(symbolName);
@@ -185,6 +236,22 @@ public class SSAMapMerger {
     return bfmgr.and(mergeFormula);
   }
 
+  void clearCaches() {
+    mergeMemo.invalidateAll();
+  }
+
+  void printStatistics(PrintStream out) {
+    long mergeCount = merges.sum();
+    long hits = mergeMemoHits.sum();
+    out.println("Number of SSAMap merges:               " + mergeCount);
+    out.println(
+        "  thereof memoized:                    "
+            + hits
+            + " ("
+            + toPercent(hits, mergeCount)
+            + ")");
+  }
+
   /**
    * Class representing the result of the operation of merging (disjuncting)
    * additional parts of {@link PathFormula}s beyond the actual formula.
@@ -12,8 +12,12 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaTypeUtils.areEqualWithMatchingPointerArray;
 import static org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaTypeUtils.getRealFieldOwner;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.base.Equivalence;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.FormatMethod;
@@ -31,6 +35,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAssignment;
 import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
@@ -88,6 +93,7 @@ import org.sosy_lab.cpachecker.exceptions.UnrecognizedCFAEdgeException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
 import org.sosy_lab.cpachecker.exceptions.UnsupportedCodeException;
 import org.sosy_lab.cpachecker.util.BuiltinOverflowFunctions;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.ErrorConditions;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
@@ -185,12 +191,26 @@ public class CtoFormulaConverter {
   private static final int VARIABLE_UNINITIALIZED = 1;
 
   // Index to be used for first assignment to a variable (must be higher than VARIABLE_UNINITIALIZED!)
-  private static final int VARIABLE_FIRST_ASSIGNMENT = 2;
+  static final int VARIABLE_FIRST_ASSIGNMENT = 2;
+
+  private static final int EDGE_FORMULA_TEMPLATE_CACHE_SIZE = 100000;
 
   private final FunctionDeclaration<?> stringUfDecl;
 
   protected final Set<CVariableDeclaration> globalDeclarations = new HashSet<>();
 
+  // Templates for the formulas of edges, keyed by edge and pointer-target set before the edge.
+  // An empty value means that the edge cannot be represented by a template.
+  // Null if templates are disabled.
+  private final @Nullable Cache<
+          Pair<Equivalence.Wrapper<CFAEdge>, PointerTargetSet>, Optional<EdgeFormulaTemplate>>
+      edgeFormulaTemplates;
+
+  private final Timer edgeEncodingTimer = new Timer();
+  private final Timer templateInstantiationTimer = new Timer();
+  private int createdTemplates = 0;
+  private int templateMismatches = 0;
+
   public CtoFormulaConverter(FormulaEncodingOptions pOptions, FormulaManagerView fmgr,
       MachineModel pMachineModel, Optional<VariableClassification> pVariableClassification,
       LogManager logger, ShutdownNotifier pShutdownNotifier,
@@ -212,6 +232,13 @@ public class CtoFormulaConverter {
 
     stringUfDecl = ffmgr.declareUF(
             "__string__", typeHandler.getPointerType(), FormulaType.IntegerType);
+
+    if (options.useEdgeFormulaTemplates()) {
+      edgeFormulaTemplates =
+          CacheBuilder.newBuilder().maximumSize(EDGE_FORMULA_TEMPLATE_CACHE_SIZE).build();
+    } else {
+      edgeFormulaTemplates = null;
+    }
   }
 
   @FormatMethod
@@ -957,13 +984,84 @@ public class CtoFormulaConverter {
   //  @Override
   public PathFormula makeAnd(PathFormula oldFormula, CFAEdge edge, ErrorConditions errorConditions)
       throws UnrecognizedCodeException, UnrecognizedCFAEdgeException, InterruptedException {
+    if (edgeFormulaTemplates == null
+        || errorConditions.isEnabled()
+        || !mayUseEdgeFormulaTemplate(edge)) {
+      SSAMapBuilder ssa = oldFormula.getSsa().builder();
+      PointerTargetSetBuilder pts = createPointerTargetSetBuilder(oldFormula.getPointerTargetSet());
+      BooleanFormula edgeFormula = makeEdgeFormula(edge, ssa, pts, errorConditions);
+      return makeNewPathFormula(oldFormula, edgeFormula, ssa.build(), pts.build());
+    }
+
+    final SSAMap oldSsa = oldFormula.getSsa();
+    final PointerTargetSet oldPts = oldFormula.getPointerTargetSet();
+    final Pair<Equivalence.Wrapper<CFAEdge>, PointerTargetSet> key =
+        Pair.of(Equivalence.identity().wrap(edge), oldPts);
+    final Optional<EdgeFormulaTemplate> template = edgeFormulaTemplates.getIfPresent(key);
+    if (template != null && template.isPresent()) {
+      templateInstantiationTimer.start();
+      try {
+        Pair<BooleanFormula, SSAMap> instance = template.orElseThrow().instantiate(fmgr, oldSsa);
+        if (instance != null) {
+          return makeNewPathFormula(oldFormula, instance.getFirst(), instance.getSecond(), oldPts);
+        }
+        templateMismatches++;
+      } finally {
+        templateInstantiationTimer.stop();
+      }
+    }
+
+    final SSAMapBuilder ssa = oldSsa.builder();
+    final PointerTargetSetBuilder pts = createPointerTargetSetBuilder(oldPts);
+    final BooleanFormula edgeFormula;
+    edgeEncodingTimer.start();
+    try {
+      edgeFormula = makeEdgeFormula(edge, ssa, pts, errorConditions);
+    } finally {
+      edgeEncodingTimer.stop();
+    }
+    final SSAMap newSsa = ssa.build();
+    final PointerTargetSet newPts = pts.build();
+
+    if (template == null || template.isPresent()) {
+      // there is no template yet or it did not fit, so create one from the current encoding
+      EdgeFormulaTemplate newTemplate = null;
+      if (newPts.equals(oldPts)) {
+        newTemplate = EdgeFormulaTemplate.create(fmgr, oldSsa, newSsa, edgeFormula);
+      }
+      if (newTemplate != null) {
+        createdTemplates++;
+      }
+      // remember also that the edge has no template, to avoid trying again
+      edgeFormulaTemplates.put(key, Optional.ofNullable(newTemplate));
+    }
+
+    return makeNewPathFormula(oldFormula, edgeFormula, newSsa, newPts);
+  }
+
+  /**
+   * Whether edge formula templates can be used for the given edge. Only edges are allowed whose
+   * encoding depends just on the SSA indices of the variables used on the edge, not on the
+   * presence of other variables in the SSAMap.
+   */
+  private static boolean mayUseEdgeFormulaTemplate(CFAEdge edge) {
+    return (edge instanceof CAssumeEdge || edge instanceof CStatementEdge)
+        && !(edge.getPredecessor() instanceof CFunctionEntryNode)
+        && !(edge.getSuccessor() instanceof FunctionExitNode);
+  }
+
+  /** Create the formula for an edge including all constraints, and update SSAMap and PTS. */
+  private BooleanFormula makeEdgeFormula(
+      CFAEdge edge,
+      SSAMapBuilder ssa,
+      PointerTargetSetBuilder pts,
+      ErrorConditions errorConditions)
+      throws UnrecognizedCodeException, UnrecognizedCFAEdgeException, InterruptedException {
 
     String function = (edge.getPredecessor() != null)
                           ? edge.getPredecessor().getFunctionName() : null;
 
-    SSAMapBuilder ssa = oldFormula.getSsa().builder();
     Constraints constraints = new Constraints(bfmgr);
-    PointerTargetSetBuilder pts = createPointerTargetSetBuilder(oldFormula.getPointerTargetSet());
 
     // param-constraints must be added _before_ handling the edge (some lines below),
     // because this edge could write a global value.
@@ -986,11 +1084,11 @@ public class CtoFormulaConverter {
       addGlobalAssignmentConstraints(edge, function, ssa, pts, constraints, errorConditions, RETURN_VARIABLE_NAME, true);
     }
 
-    edgeFormula = bfmgr.and(edgeFormula, constraints.get());
-
-    SSAMap newSsa = ssa.build();
-    PointerTargetSet newPts = pts.build();
+    return bfmgr.and(edgeFormula, constraints.get());
+  }
 
+  private PathFormula makeNewPathFormula(
+      PathFormula oldFormula, BooleanFormula edgeFormula, SSAMap newSsa, PointerTargetSet newPts) {
     if (bfmgr.isTrue(edgeFormula)
         && (newSsa == oldFormula.getSsa())
         && newPts.equals(oldFormula.getPointerTargetSet())) {
@@ -1831,9 +1929,24 @@ public class CtoFormulaConverter {
   }
 
   /**
-   * Prints some information about the RegionManager.
+   * Prints some information about the formula encoding.
    *
    * @param out - output stream
    */
-  public void printStatistics(PrintStream out) {}
+  public void printStatistics(PrintStream out) {
+    if (edgeFormulaTemplates != null) {
+      int instantiations = templateInstantiationTimer.getNumberOfIntervals() - templateMismatches;
+      int encodings = edgeEncodingTimer.getNumberOfIntervals();
+      out.println("Number of edge formula templates:      " + createdTemplates);
+      out.println(
+          "Number of template instantiations:     "
+              + instantiations
+              + " ("
+              + toPercent(instantiations, instantiations + encodings)
+              + " of eligible edges)");
+      out.println("  thereof failed:                      " + templateMismatches);
+      out.println("Time for encoding eligible edges:      " + edgeEncodingTimer);
+      out.println("Time for instantiating templates:      " + templateInstantiationTimer);
+    }
+  }
 }
@@ -0,0 +1,228 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula;
+
+import com.google.common.collect.ImmutableList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * The formula of a CFA edge, parameterized by the SSA indices of the variables that the edge
+ * reads and writes. A template is created from one encoding of the edge and can be instantiated
+ * for another SSAMap by renaming the variables in the formula, which is much cheaper than
+ * encoding the edge again.
+ *
+ * <p>A template can only be instantiated if the edge would be encoded in the same way for the new
+ * SSAMap, i.e., if every variable of the template has an index in the new SSAMap exactly if it had
+ * one before, with the same type, and if every written variable gets the next fresh index. In all
+ * other cases {@link #instantiate(FormulaManagerView, SSAMap)} returns null and the edge needs to
+ * be encoded normally.
+ */
+final class EdgeFormulaTemplate {
+
+  private enum Usage {
+    /** Variable has no index before the edge, its indices in the formula are fixed. */
+    UNINSTANTIATED,
+    /** Variable is only read with its current index. */
+    READ,
+    /** Variable is read with its current index and written with a fresh index. */
+    WRITTEN,
+  }
+
+  private static final class TemplateVariable {
+
+    private final String name;
+    private final Usage usage;
+    private final @Nullable CType oldType;
+    private final @Nullable CType newType;
+    private final int oldIndex;
+    private final int freshIndex;
+    private final int newIndex;
+
+    private TemplateVariable(
+        String pName,
+        Usage pUsage,
+        @Nullable CType pOldType,
+        @Nullable CType pNewType,
+        int pOldIndex,
+        int pFreshIndex,
+        int pNewIndex) {
+      name = pName;
+      usage = pUsage;
+      oldType = pOldType;
+      newType = pNewType;
+      oldIndex = pOldIndex;
+      freshIndex = pFreshIndex;
+      newIndex = pNewIndex;
+    }
+  }
+
+  private final BooleanFormula formula;
+  private final ImmutableList<TemplateVariable> variables;
+
+  private EdgeFormulaTemplate(BooleanFormula pFormula, ImmutableList<TemplateVariable> pVariables) {
+    formula = pFormula;
+    variables = pVariables;
+  }
+
+  /**
+   * Create a template from the formula of an edge that was encoded for the given SSAMap.
+   *
+   * @param pFmgr the formula manager that created the formula
+   * @param pOldSsa the SSAMap before the edge
+   * @param pNewSsa the SSAMap after the edge
+   * @param pFormula the formula of the edge (including all constraints)
+   * @return the template, or null if the formula cannot be parameterized by the SSA indices
+   */
+  static @Nullable EdgeFormulaTemplate create(
+      FormulaManagerView pFmgr, SSAMap pOldSsa, SSAMap pNewSsa, BooleanFormula pFormula) {
+    Map<String, Set<Integer>> indicesInFormula = new HashMap<>();
+    for (String instantiatedName : pFmgr.extractFunctionNames(pFormula)) {
+      Pair<String, OptionalInt> name;
+      try {
+        name = FormulaManagerView.parseName(instantiatedName);
+      } catch (IllegalArgumentException e) {
+        return null; // unexpected name, do not risk a wrong renaming
+      }
+      if (name.getSecond().isPresent()) {
+        indicesInFormula
+            .computeIfAbsent(name.getFirst(), k -> new HashSet<>())
+            .add(name.getSecond().getAsInt());
+      }
+    }
+
+    Set<String> names = new HashSet<>(indicesInFormula.keySet());
+    if (pNewSsa != pOldSsa) {
+      for (String name : pOldSsa.allVariables()) {
+        if (!pNewSsa.containsVariable(name)) {
+          return null; // edge deletes variables
+        }
+      }
+      for (String name : pNewSsa.allVariables()) {
+        if (!pOldSsa.containsVariable(name) || pOldSsa.getIndex(name) != pNewSsa.getIndex(name)) {
+          names.add(name);
+        }
+      }
+    }
+
+    SSAMapBuilder oldSsa = pOldSsa.builder();
+    ImmutableList.Builder<TemplateVariable> variables = ImmutableList.builder();
+    for (String name : names) {
+      Set<Integer> indices = indicesInFormula.getOrDefault(name, new HashSet<>());
+      int freshIndex = getFreshIndex(oldSsa, name);
+      int newIndex = pNewSsa.containsVariable(name) ? pNewSsa.getIndex(name) : -1;
+      int oldIndex = -1;
+      Usage usage;
+      if (!pOldSsa.containsVariable(name)) {
+        usage = Usage.UNINSTANTIATED;
+      } else {
+        oldIndex = pOldSsa.getIndex(name);
+        indices.remove(oldIndex);
+        if (newIndex == oldIndex) {
+          usage = Usage.READ;
+        } else if (newIndex == freshIndex) {
+          indices.remove(freshIndex);
+          usage = Usage.WRITTEN;
+        } else {
+          return null; // more than one fresh index
+        }
+        if (!indices.isEmpty()) {
+          return null; // formula contains indices that are not in the SSAMaps
+        }
+      }
+      variables.add(
+          new TemplateVariable(
+              name,
+              usage,
+              pOldSsa.getType(name),
+              pNewSsa.getType(name),
+              oldIndex,
+              freshIndex,
+              newIndex));
+    }
+    return new EdgeFormulaTemplate(pFormula, variables.build());
+  }
+
+  /**
+   * Instantiate the template for the given SSAMap before the edge.
+   *
+   * @return the formula of the edge and the SSAMap after the edge, or null if the template does
+   *     not fit to the given SSAMap
+   */
+  @Nullable Pair<BooleanFormula, SSAMap> instantiate(FormulaManagerView pFmgr, SSAMap pOldSsa) {
+    SSAMapBuilder ssa = pOldSsa.builder();
+    Map<String, String> renaming = new HashMap<>();
+    for (TemplateVariable variable : variables) {
+      String name = variable.name;
+      boolean hasIndex = pOldSsa.containsVariable(name);
+      if (hasIndex != (variable.usage != Usage.UNINSTANTIATED)
+          || !Objects.equals(pOldSsa.getType(name), variable.oldType)) {
+        return null;
+      }
+      int freshIndex = getFreshIndex(ssa, name);
+      switch (variable.usage) {
+        case UNINSTANTIATED:
+          if (freshIndex != variable.freshIndex) {
+            return null;
+          }
+          if (variable.newIndex > 0) {
+            ssa.setIndex(name, variable.newType, variable.newIndex);
+          }
+          break;
+        case READ:
+          addRenaming(renaming, name, variable.oldIndex, pOldSsa.getIndex(name));
+          break;
+        case WRITTEN:
+          addRenaming(renaming, name, variable.oldIndex, pOldSsa.getIndex(name));
+          addRenaming(renaming, name, variable.freshIndex, freshIndex);
+          ssa.setIndex(name, variable.newType, freshIndex);
+          break;
+        default:
+          throw new AssertionError("unhandled usage " + variable.usage);
+      }
+    }
+
+    BooleanFormula result = formula;
+    if (!renaming.isEmpty()) {
+      result =
+          pFmgr.renameFreeVariablesAndUFs(
+              formula, varName -> renaming.getOrDefault(varName, varName));
+    }
+    return Pair.of(result, ssa.build());
+  }
+
+  private static void addRenaming(
+      Map<String, String> pRenaming, String pName, int pTemplateIndex, int pIndex) {
+    if (pTemplateIndex != pIndex) {
+      pRenaming.put(
+          FormulaManagerView.instantiateVariableName(pName, pTemplateIndex),
+          FormulaManagerView.instantiateVariableName(pName, pIndex));
+    }
+  }
+
+  /** Same as {@link CtoFormulaConverter#getFreshIndex}, but without type checks. */
+  private static int getFreshIndex(SSAMapBuilder pSsa, String pName) {
+    int idx = pSsa.getFreshIndex(pName);
+    if (idx <= 0) {
+      idx = CtoFormulaConverter.VARIABLE_FIRST_ASSIGNMENT;
+    }
+    return idx;
+  }
+}
@@ -108,6 +108,14 @@ public class FormulaEncodingOptions {
       description = "For multithreaded programs this is an overapproximation of possible values of shared variables.")
   private boolean useHavocAbstraction = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Reuse the formulas of assume and statement edges as templates. When an edge is"
+              + " encoded again with the same pointer-target set, the SSA indices in the formula"
+              + " of its last encoding are replaced instead of translating the edge again.")
+  private boolean useEdgeFormulaTemplates = false;
+
   public FormulaEncodingOptions(Configuration config) throws InvalidConfigurationException {
     config.inject(this, FormulaEncodingOptions.class);
   }
@@ -176,4 +184,8 @@ public class FormulaEncodingOptions {
   public boolean useHavocAbstraction() {
     return useHavocAbstraction;
   }
+
+  public boolean useEdgeFormulaTemplates() {
+    return useEdgeFormulaTemplates;
+  }
 }
@@ -1348,6 +1348,7 @@ public class CToFormulaConverterWithPointerAliasing extends CtoFormulaConverter
 
   @Override
   public void printStatistics(PrintStream out) {
+    super.printStatistics(out);
     regionMgr.printStatistics(out);
   }
 }
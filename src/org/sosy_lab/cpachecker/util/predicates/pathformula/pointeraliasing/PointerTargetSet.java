@@ -9,6 +9,8 @@
 package org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.io.IOException;
@@ -29,9 +31,18 @@ import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.java_smt.api.Formula;
 
+/**
+ * Immutable set of the tracked memory objects and locations of a path formula.
+ *
+ * <p>All instances are hash-consed like {@link
+ * org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap}s, so equal sets are usually
+ * identical, and the hash code is computed only once.
+ */
 @javax.annotation.concurrent.Immutable // cannot prove deep immutability
 public final class PointerTargetSet implements Serializable {
 
+  private static final Interner<PointerTargetSet> INTERNER = Interners.newWeakInterner();
+
   static String getBaseName(final String name) {
     return BASE_PREFIX + name;
   }
@@ -68,6 +79,16 @@ public final class PointerTargetSet implements Serializable {
 
   @Override
   public int hashCode() {
+    // racy single-check idiom like in String, the fields are immutable
+    int result = hashCode;
+    if (result == 0) {
+      result = computeHashCode();
+      hashCode = result;
+    }
+    return result;
+  }
+
+  private int computeHashCode() {
     final int prime = 31;
     int result = 1;
     result = prime * result + bases.hashCode();
@@ -88,7 +109,9 @@ public final class PointerTargetSet implements Serializable {
       PointerTargetSet other = (PointerTargetSet) obj;
       // No need to check for equality of targets
       // because if bases and fields are equal, targets is equal, too.
-      return bases.equals(other.bases)
+      // Because of hash-consing, the expensive checks are only reached when interning.
+      return hashCode() == other.hashCode()
+          && bases.equals(other.bases)
           && fields.equals(other.fields)
           && deferredAllocations.equals(other.deferredAllocations)
           && highestAllocatedAddresses.equals(other.getHighestAllocatedAddresses())
@@ -96,7 +119,25 @@ public final class PointerTargetSet implements Serializable {
     }
   }
 
-  PointerTargetSet(
+  /** Create a PointerTargetSet with the given content, or return an existing equal instance. */
+  static PointerTargetSet create(
+      final PersistentSortedMap<String, CType> bases,
+      final PersistentSortedMap<CompositeField, Boolean> fields,
+      final PersistentList<Pair<String, DeferredAllocation>> deferredAllocations,
+      final PersistentSortedMap<String, PersistentList<PointerTarget>> targets,
+      final PersistentList<Formula> pHighestAllocatedAddresess,
+      final int pAllocationCount) {
+    return INTERNER.intern(
+        new PointerTargetSet(
+            bases,
+            fields,
+            deferredAllocations,
+            targets,
+            pHighestAllocatedAddresess,
+            pAllocationCount));
+  }
+
+  private PointerTargetSet(
       final PersistentSortedMap<String, CType> bases,
       final PersistentSortedMap<CompositeField, Boolean> fields,
       final PersistentList<Pair<String, DeferredAllocation>> deferredAllocations,
@@ -158,7 +199,7 @@ public final class PointerTargetSet implements Serializable {
   }
 
   private static final PointerTargetSet EMPTY_INSTANCE =
-      new PointerTargetSet(
+      create(
           PathCopyingPersistentTreeMap.of(),
           PathCopyingPersistentTreeMap.of(),
           PersistentLinkedList.of(),
@@ -194,6 +235,9 @@ public final class PointerTargetSet implements Serializable {
 
   private final int allocationCount;
 
+  // cached result of computeHashCode(), 0 if not yet computed
+  private transient int hashCode;
+
   private static final String BASE_PREFIX = "__ADDRESS_OF_";
 
   private static final long serialVersionUID = 2102505458322248624L;
@@ -241,7 +285,7 @@ public final class PointerTargetSet implements Serializable {
           PersistentLinkedList.copyOf(
               Lists.transform(highestAllocatedAddresses, mgr::parseArbitraryFormula));
 
-      return new PointerTargetSet(
+      return create(
           bases,
           fields,
           PersistentLinkedList.copyOf(deferredAllocations),
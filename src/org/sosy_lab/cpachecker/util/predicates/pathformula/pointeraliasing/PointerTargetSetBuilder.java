@@ -121,6 +121,9 @@ public interface PointerTargetSetBuilder {
     private final FormulaEncodingWithPointerAliasingOptions options;
     private final MemoryRegionManager regionMgr;
 
+    // The set this builder started with, returned by build() if nothing was changed.
+    private final PointerTargetSet original;
+
     // These fields all exist in PointerTargetSet and are documented there.
     private PersistentSortedMap<String, CType> bases;
     private PersistentSortedMap<CompositeField, Boolean> fields;
@@ -144,6 +147,7 @@ public interface PointerTargetSetBuilder {
         final PointerTargetSetManager pPtsMgr,
         final FormulaEncodingWithPointerAliasingOptions pOptions,
         final MemoryRegionManager pRegionMgr) {
+      original = pointerTargetSet;
       bases = pointerTargetSet.getBases();
       fields = pointerTargetSet.getFields();
       deferredAllocations = pointerTargetSet.getDeferredAllocations();
@@ -756,8 +760,17 @@ public interface PointerTargetSetBuilder {
      */
     @Override
     public PointerTargetSet build() {
+      if (bases == original.getBases()
+          && fields == original.getFields()
+          && deferredAllocations == original.getDeferredAllocations()
+          && targets == original.getTargets()
+          && highestAllocatedAddresses == original.getHighestAllocatedAddresses()
+          && allocationCount == original.getAllocationCount()) {
+        // Most edges do not change the set, so avoid hashing and interning an equal copy.
+        return original;
+      }
       PointerTargetSet result =
-          new PointerTargetSet(
+          PointerTargetSet.create(
               bases, fields, deferredAllocations, targets, highestAllocatedAddresses, allocationCount);
       if (result.isEmpty()) {
         return PointerTargetSet.emptyPointerTargetSet();
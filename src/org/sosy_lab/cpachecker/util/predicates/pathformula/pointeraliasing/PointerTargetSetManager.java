@@ -339,7 +339,7 @@ class PointerTargetSetManager {
     int allocationCount = Math.max(pts1.getAllocationCount(), pts2.getAllocationCount());
 
     PointerTargetSet resultPTS =
-        new PointerTargetSet(
+        PointerTargetSet.create(
             mergedBases,
             mergedFields,
             mergedDeferredAllocations,
@@ -1149,6 +1149,14 @@ public class FormulaManagerView {
     return makeName(pVar, pSsa.getIndex(pVar));
   }
 
+  /**
+   * Add the given SSA index to a single variable name, cf. {@link
+   * #instantiateVariableName(String, SSAMap)}.
+   */
+  public static String instantiateVariableName(String pVar, int pIndex) {
+    return makeName(pVar, pIndex);
+  }
+
   /**
    * Uninstantiate a given formula.
    * (remove the SSA indices from its free variables and UFs)
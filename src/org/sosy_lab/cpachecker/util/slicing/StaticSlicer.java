@@ -15,9 +15,13 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -26,9 +30,12 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DemandDrivenDependenceGraph;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.TraversalDirection;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraphBuilder;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
@@ -40,11 +47,31 @@ import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
  * <p>For a given slicing criterion CFA edge g and a dependence graph, the slice consists of all CFA
  * edges reachable in the dependence graph through backwards-traversal from g.
  *
+ * <p>In demand-driven mode, the slicer does not require the complete dependence graph of the
+ * program. Instead, dependences are only computed for the functions that are reached by the
+ * backwards-traversal from the slicing criteria.
+ *
  * @see SlicerFactory
  */
+@Options(prefix = "slicing")
 public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
 
-  private DependenceGraph depGraph;
+  @Option(
+      secure = true,
+      description =
+          "Compute the dependences required for slicing on demand by a backwards-traversal from"
+              + " the slicing criteria, instead of using the complete dependence graph of the"
+              + " program. Only functions reached by the traversal are analyzed, so the"
+              + " dependence graph does not need to be created with the CFA.")
+  private boolean demandDriven = false;
+
+  private final LogManager logger;
+
+  // complete dependence graph, optional in demand-driven mode
+  private final @Nullable DependenceGraph depGraph;
+
+  private final @Nullable DependenceGraphBuilder depGraphBuilder;
+  private @Nullable DemandDrivenDependenceGraph demandDrivenDepGraph = null;
 
   private StatInt candidateSliceCount =
       new StatInt(StatKind.SUM, "Number of proposed slicing " + "procedures");
@@ -55,6 +82,9 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
       new StatInt(StatKind.MAX, "Number of relevant slice edges");
   private final StatInt programEdgesNumber = new StatInt(StatKind.MAX, "Number of program edges");
 
+  private final StatTimer demandDrivenSetupTime =
+      new StatTimer("Time for program-wide dependence data");
+
   StaticSlicer(
       SlicingCriteriaExtractor pExtractor,
       LogManager pLogger,
@@ -63,12 +93,20 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
       CFA pCfa)
       throws InvalidConfigurationException {
     super(pExtractor, pLogger, pShutdownNotifier, pConfig);
-
-    depGraph =
-        pCfa.getDependenceGraph()
-            .orElseThrow(
-                () -> new InvalidConfigurationException("Dependence graph required, but missing"));
-
+    pConfig.inject(this);
+    logger = pLogger;
+
+    if (demandDriven) {
+      depGraph = pCfa.getDependenceGraph().orElse(null);
+      depGraphBuilder = DependenceGraph.builder(pCfa, pConfig, pLogger, pShutdownNotifier);
+    } else {
+      depGraph =
+          pCfa.getDependenceGraph()
+              .orElseThrow(
+                  () ->
+                      new InvalidConfigurationException("Dependence graph required, but missing"));
+      depGraphBuilder = null;
+    }
   }
 
   @Override
@@ -86,16 +124,24 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
               Comparator.comparingInt(edge -> edge.getPredecessor().getReversePostorderId()),
               pSlicingCriteria);
 
-      for (CFAEdge g : criteriaEdges) {
-        if (relevantEdges.contains(g)) {
-          // If the relevant edges contain g, then all dependences of g are also already included
-          // and we can skip it (this is only true as long as no function call/return edge is a
-          // criterion!)
-          continue;
-        } else {
-          realSlices++;
+      try {
+        for (CFAEdge g : criteriaEdges) {
+          if (relevantEdges.contains(g)) {
+            // If the relevant edges contain g, then all dependences of g are also already
+            // included and we can skip it (this is only true as long as no function call/return
+            // edge is a criterion!)
+            continue;
+          } else {
+            realSlices++;
+          }
+          relevantEdges.addAll(getBackwardReachable(g));
+        }
+      } catch (CPAException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not compute dependences, using the whole program as slice");
+        for (CFANode node : pCfa.getAllNodes()) {
+          CFAUtils.allLeavingEdges(node).copyInto(relevantEdges);
         }
-        relevantEdges.addAll(depGraph.getReachable(g, TraversalDirection.BACKWARD));
       }
 
       final Slice slice = new Slice(pCfa, relevantEdges, pSlicingCriteria);
@@ -113,6 +159,23 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
     }
   }
 
+  private Collection<CFAEdge> getBackwardReachable(CFAEdge pEdge)
+      throws InterruptedException, CPAException {
+    if (!demandDriven) {
+      return depGraph.getReachable(pEdge, TraversalDirection.BACKWARD);
+    }
+
+    if (demandDrivenDepGraph == null) {
+      demandDrivenSetupTime.start();
+      try {
+        demandDrivenDepGraph = depGraphBuilder.buildDemandDriven();
+      } finally {
+        demandDrivenSetupTime.stop();
+      }
+    }
+    return demandDrivenDepGraph.getBackwardReachable(pEdge);
+  }
+
   private int countProgramEdges(CFA pCfa) {
 
     int programEdgeCounter = 0;
@@ -144,6 +207,19 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
             writer.put(candidateSliceCount).put(sliceCount).put(slicingTime);
 
             writer.put(sliceEdgesNumber).put(programEdgesNumber);
+
+            if (demandDrivenDepGraph != null) {
+              writer.put(demandDrivenSetupTime);
+              writer.put(
+                  "Number of materialized DG nodes",
+                  demandDrivenDepGraph.getNumberOfMaterializedNodes());
+              if (depGraph != null) {
+                writer.put("Number of DG nodes in full graph", depGraph.getAllNodes().size());
+              }
+              writer.put(
+                  "Number of analyzed functions",
+                  demandDrivenDepGraph.getNumberOfAnalyzedFunctions());
+            }
             writer.put(
                 "Largest slice / program ratio",
                 String.format(Locale.US, "%.3f", getSliceProgramRatio()));
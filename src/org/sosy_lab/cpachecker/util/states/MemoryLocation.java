@@ -13,6 +13,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Ordering;
 import java.io.Serializable;
 import java.util.List;
@@ -24,15 +26,25 @@ import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
 
 /**
-* This class describes a location in the memory.
-*/
+ * This class describes a location in the memory.
+ *
+ * <p>Instances created by the static factory methods are interned, such that equal memory
+ * locations are usually identical and comparisons in maps mostly succeed by reference. The hash
+ * code is computed only once and is not serialized.
+ */
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
   private static final long serialVersionUID = -8910967707373729034L;
+
+  private static final Interner<MemoryLocation> INTERNER = Interners.newWeakInterner();
+
   private final String functionName;
   private final String identifier;
   private final @Nullable Long offset;
 
+  // computed lazily, 0 if not yet computed
+  private transient int hashCode;
+
   private MemoryLocation(String pFunctionName, String pIdentifier, @Nullable Long pOffset) {
     checkNotNull(pFunctionName);
     checkNotNull(pIdentifier);
@@ -56,6 +68,14 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     offset = pOffset;
   }
 
+  private static MemoryLocation intern(MemoryLocation pLocation) {
+    return INTERNER.intern(pLocation);
+  }
+
+  private Object readResolve() {
+    return getClass() == MemoryLocation.class ? intern(this) : this;
+  }
+
   @Override
   public boolean equals(Object other) {
 
@@ -69,30 +89,37 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
     MemoryLocation otherLocation = (MemoryLocation) other;
 
-    return Objects.equals(functionName, otherLocation.functionName)
+    return hashCode() == otherLocation.hashCode()
+        && Objects.equals(functionName, otherLocation.functionName)
         && Objects.equals(identifier, otherLocation.identifier)
         && Objects.equals(offset, otherLocation.offset);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(functionName, identifier, offset);
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(functionName, identifier, offset);
+      hashCode = result;
+    }
+    return result;
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier) {
-    return new MemoryLocation(pFunctionName, pIdentifier, null);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, null));
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier, long pOffset) {
-    return new MemoryLocation(pFunctionName, pIdentifier, pOffset);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, long pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset);
+    return intern(new MemoryLocation(pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, OptionalLong pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null);
+    return intern(
+        new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null));
   }
 
   public static MemoryLocation valueOf(String pVariableName) {
@@ -111,14 +138,14 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(functionName, varName, offset);
+      return intern(new MemoryLocation(functionName, varName, offset));
 
     } else {
       String varName = nameParts.get(0);
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(varName.replace("/" + offset, ""), offset);
+      return intern(new MemoryLocation(varName.replace("/" + offset, ""), offset));
     }
   }
 
@@ -168,9 +195,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
   public MemoryLocation getReferenceStart() {
     checkState(isReference(), "Memory location is no reference: %s", this);
     if (functionName != null) {
-      return new MemoryLocation(functionName, identifier, null);
+      return intern(new MemoryLocation(functionName, identifier, null));
     } else {
-      return new MemoryLocation(identifier, null);
+      return intern(new MemoryLocation(identifier, null));
     }
   }
 
@@ -193,6 +220,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
     return ComparisonChain.start()
         .compare(functionName, other.functionName, Ordering.natural().nullsFirst())
         .compare(identifier, other.identifier)
@@ -0,0 +1,34 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.SerializableTester;
+import org.junit.Test;
+
+public class MemoryLocationTest {
+
+  @Test
+  public void testFactoryMethodsIntern() {
+    assertThat(MemoryLocation.valueOf("main::x"))
+        .isSameInstanceAs(MemoryLocation.valueOf("main", "x"));
+    assertThat(MemoryLocation.valueOf("g", 4))
+        .isSameInstanceAs(MemoryLocation.valueOf("g/4"));
+  }
+
+  @Test
+  public void testSerializationInterns() {
+    MemoryLocation local = MemoryLocation.valueOf("main", "x", 8);
+    assertThat(SerializableTester.reserializeAndAssert(local)).isSameInstanceAs(local);
+
+    MemoryLocation global = MemoryLocation.valueOf("g", 4);
+    assertThat(SerializableTester.reserializeAndAssert(global)).isSameInstanceAs(global);
+  }
+}